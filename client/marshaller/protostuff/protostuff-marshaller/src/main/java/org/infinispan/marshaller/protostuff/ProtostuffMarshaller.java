@@ -49,4 +49,9 @@ public boolean isMarshallable(Object obj) throws Exception {
          return false;
       }
    }
+
+   @Override
+   public boolean readsSlices() {
+      return true;
+   }
 }
@@ -95,4 +95,9 @@ public BufferSizePredictor getBufferSizePredictor(Object o) {
       return marshaller.getBufferSizePredictor(o);
    }
 
+   @Override
+   public boolean readsSlices() {
+      return marshaller.readsSlices();
+   }
+
 }
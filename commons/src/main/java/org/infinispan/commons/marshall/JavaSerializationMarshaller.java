@@ -34,7 +34,7 @@ protected ByteBuffer objectToBuffer(Object o, int estimatedSize) throws IOExcept
 
    @Override
    public Object objectFromByteBuffer(byte[] buf, int offset, int length) throws IOException, ClassNotFoundException {
-      InputStream bais = new ByteArrayInputStream(buf);
+      InputStream bais = new ByteArrayInputStream(buf, offset, length);
       ObjectInput in = new ObjectInputStream(bais);
       Object o = in.readObject();
       in.close();
@@ -47,4 +47,9 @@ public boolean isMarshallable(Object o) throws Exception {
       return o instanceof Serializable;
    }
 
+   @Override
+   public boolean readsSlices() {
+      return true;
+   }
+
 }
@@ -58,7 +58,8 @@ public interface Marshaller {
    Object objectFromByteBuffer(byte[] buf) throws IOException, ClassNotFoundException;
 
    /**
-    * Unmarshalls an object from a specific portion of a byte array.
+    * Unmarshalls an object from a specific portion of a byte array. Implementations should read only the given
+    * portion, as the rest of the array may hold other data.
     *
     * @param buf    byte array containing the binary representation of an object.  Must not be null.
     * @param offset point in buffer to start reading
@@ -100,4 +101,16 @@ public interface Marshaller {
     */
    BufferSizePredictor getBufferSizePredictor(Object o);
 
+   /**
+    * Whether {@link #objectFromByteBuffer(byte[], int, int)} reads only the given portion of the array.  When it does,
+    * the caller may pass a slice of a larger buffer, otherwise it copies the bytes of the object to a new array first.
+    * Subclasses of a marshaller returning true must keep honouring them when overriding that method.
+    *
+    * @return true if the offset and length passed to {@link #objectFromByteBuffer(byte[], int, int)} are honoured
+    * @since 9.2
+    */
+   default boolean readsSlices() {
+      return false;
+   }
+
 }
@@ -22,7 +22,7 @@ protected ByteBuffer objectToBuffer(Object o, int estimatedSize) throws IOExcept
 
    @Override
    public Object objectFromByteBuffer(byte[] buf, int offset, int length) throws IOException, ClassNotFoundException {
-      return new String(buf, charset);
+      return new String(buf, offset, length, charset);
    }
 
    @Override
@@ -30,4 +30,9 @@ public boolean isMarshallable(Object o) throws Exception {
       return o instanceof String;
    }
 
+   @Override
+   public boolean readsSlices() {
+      return true;
+   }
+
 }
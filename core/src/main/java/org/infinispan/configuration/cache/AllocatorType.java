@@ -0,0 +1,17 @@
+package org.infinispan.configuration.cache;
+
+/**
+ * Enumeration defining how native memory is allocated when using {@link StorageType#OFF_HEAP}
+ * @since 9.2
+ */
+public enum AllocatorType {
+   /**
+    * Every entry is allocated and freed directly from native memory.
+    */
+   UNPOOLED,
+   /**
+    * Entries are carved out of larger native slabs using size classes and freed memory is kept in free lists to be
+    * reused by subsequent allocations. Large allocations are still served directly from native memory.
+    */
+   POOLED
+}
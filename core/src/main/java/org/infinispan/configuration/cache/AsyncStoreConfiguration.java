@@ -15,14 +15,19 @@ public class AsyncStoreConfiguration {
    public static final AttributeDefinition<Boolean> ENABLED = AttributeDefinition.builder("enabled", false).immutable().build();
    public static final AttributeDefinition<Integer> MODIFICATION_QUEUE_SIZE  = AttributeDefinition.builder("modificationQueueSize", 1024).immutable().build();
    public static final AttributeDefinition<Integer> THREAD_POOL_SIZE = AttributeDefinition.builder("threadPoolSize", 1).immutable().build();
+   public static final AttributeDefinition<Long> FLUSH_INTERVAL = AttributeDefinition.builder("flushInterval", 0L).immutable().build();
+   public static final AttributeDefinition<Integer> FLUSH_SIZE = AttributeDefinition.builder("flushSize", 0).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(AsyncStoreConfiguration.class, ENABLED, MODIFICATION_QUEUE_SIZE, THREAD_POOL_SIZE);
+      return new AttributeSet(AsyncStoreConfiguration.class, ENABLED, MODIFICATION_QUEUE_SIZE, THREAD_POOL_SIZE,
+            FLUSH_INTERVAL, FLUSH_SIZE);
    }
 
    private final Attribute<Boolean> enabled;
    private final Attribute<Integer> modificationQueueSize;
    private final Attribute<Integer> threadPoolSize;
+   private final Attribute<Long> flushInterval;
+   private final Attribute<Integer> flushSize;
 
    private final AttributeSet attributes;
 
@@ -31,6 +36,8 @@ static AttributeSet attributeDefinitionSet() {
       enabled = attributes.attribute(ENABLED);
       modificationQueueSize = attributes.attribute(MODIFICATION_QUEUE_SIZE);
       threadPoolSize = attributes.attribute(THREAD_POOL_SIZE);
+      flushInterval = attributes.attribute(FLUSH_INTERVAL);
+      flushSize = attributes.attribute(FLUSH_SIZE);
    }
 
    /**
@@ -89,6 +96,23 @@ public int threadPoolSize() {
       return threadPoolSize.get();
    }
 
+   /**
+    * Maximum time in milliseconds that modifications are buffered before being applied to the store. Updates of the
+    * same key within the interval are coalesced, so only the last one reaches the store. If 0, the modifications are
+    * applied as soon as possible.
+    */
+   public long flushInterval() {
+      return flushInterval.get();
+   }
+
+   /**
+    * Number of buffered keys which triggers applying the modifications before the {@link #flushInterval()} elapses.
+    * If 0, the modifications are applied early only when the modification queue is full.
+    */
+   public int flushSize() {
+      return flushSize.get();
+   }
+
    public AttributeSet attributes() {
       return attributes;
    }
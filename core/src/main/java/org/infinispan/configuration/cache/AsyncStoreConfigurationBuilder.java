@@ -1,6 +1,8 @@
 package org.infinispan.configuration.cache;
 
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.ENABLED;
+import static org.infinispan.configuration.cache.AsyncStoreConfiguration.FLUSH_INTERVAL;
+import static org.infinispan.configuration.cache.AsyncStoreConfiguration.FLUSH_SIZE;
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.MODIFICATION_QUEUE_SIZE;
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.THREAD_POOL_SIZE;
 
@@ -9,6 +11,8 @@
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
 
 /**
  * Configuration for the async cache store. If enabled, this provides you with asynchronous writes
@@ -18,6 +22,7 @@
  *
  */
 public class AsyncStoreConfigurationBuilder<S> extends AbstractStoreConfigurationChildBuilder<S> implements Builder<AsyncStoreConfiguration> {
+   private static final Log log = LogFactory.getLog(AsyncStoreConfigurationBuilder.class, Log.class);
    private final AttributeSet attributes;
 
    AsyncStoreConfigurationBuilder(AbstractStoreConfigurationBuilder<? extends AbstractStoreConfiguration, ?> builder) {
@@ -86,6 +91,32 @@ public AsyncStoreConfigurationBuilder<S> shutdownTimeout(long l, TimeUnit unit)
       return this;
    }
 
+   /**
+    * Maximum time in milliseconds that modifications are buffered before being applied to the store. Updates of the
+    * same key within the interval are coalesced, so only the last one reaches the store. Defaults to 0, meaning the
+    * modifications are applied as soon as possible.
+    */
+   public AsyncStoreConfigurationBuilder<S> flushInterval(long l) {
+      attributes.attribute(FLUSH_INTERVAL).set(l);
+      return this;
+   }
+
+   /**
+    * Same as {@link #flushInterval(long)}, but with a custom time unit.
+    */
+   public AsyncStoreConfigurationBuilder<S> flushInterval(long l, TimeUnit unit) {
+      return flushInterval(unit.toMillis(l));
+   }
+
+   /**
+    * Number of buffered keys which triggers applying the modifications before the flush interval elapses. Defaults
+    * to 0, meaning the modifications are applied early only when the modification queue is full.
+    */
+   public AsyncStoreConfigurationBuilder<S> flushSize(int i) {
+      attributes.attribute(FLUSH_SIZE).set(i);
+      return this;
+   }
+
    /**
     * Size of the thread pool whose threads are responsible for applying the modifications.
     */
@@ -97,6 +128,12 @@ public AsyncStoreConfigurationBuilder<S> threadPoolSize(int i) {
    @Override
    public
    void validate() {
+      long flushInterval = attributes.attribute(FLUSH_INTERVAL).get();
+      if (flushInterval < 0)
+         throw log.invalidAsyncStoreFlushSetting(FLUSH_INTERVAL.name(), flushInterval);
+      int flushSize = attributes.attribute(FLUSH_SIZE).get();
+      if (flushSize < 0)
+         throw log.invalidAsyncStoreFlushSetting(FLUSH_SIZE.name(), flushSize);
    }
 
    @Override
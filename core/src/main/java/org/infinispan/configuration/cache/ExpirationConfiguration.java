@@ -15,15 +15,20 @@ public class ExpirationConfiguration implements Matchable<ExpirationConfiguratio
    public static final AttributeDefinition<Long> MAX_IDLE = AttributeDefinition.builder("maxIdle", -1l).build();
    public static final AttributeDefinition<Boolean> REAPER_ENABLED = AttributeDefinition.builder("reaperEnabled", true).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Long> WAKEUP_INTERVAL = AttributeDefinition.builder("wakeUpInterval", TimeUnit.MINUTES.toMillis(1)).xmlName("interval").build();
+   public static final AttributeDefinition<Integer> REAPER_BATCH_SIZE = AttributeDefinition.builder("reaperBatchSize", 0).immutable().build();
+   public static final AttributeDefinition<Boolean> REAPER_INDEX = AttributeDefinition.builder("reaperIndex", false).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(ExpirationConfiguration.class, LIFESPAN, MAX_IDLE, REAPER_ENABLED, WAKEUP_INTERVAL);
+      return new AttributeSet(ExpirationConfiguration.class, LIFESPAN, MAX_IDLE, REAPER_ENABLED, WAKEUP_INTERVAL, REAPER_BATCH_SIZE,
+            REAPER_INDEX);
    }
 
    private final Attribute<Long> lifespan;
    private final Attribute<Long> maxIdle;
    private final Attribute<Boolean> reaperEnabled;
    private final Attribute<Long> wakeUpInterval;
+   private final Attribute<Integer> reaperBatchSize;
+   private final Attribute<Boolean> reaperIndex;
    private final AttributeSet attributes;
 
    ExpirationConfiguration(AttributeSet attributes) {
@@ -32,6 +37,8 @@ static AttributeSet attributeDefinitionSet() {
       maxIdle = attributes.attribute(MAX_IDLE);
       reaperEnabled = attributes.attribute(REAPER_ENABLED);
       wakeUpInterval = attributes.attribute(WAKEUP_INTERVAL);
+      reaperBatchSize = attributes.attribute(REAPER_BATCH_SIZE);
+      reaperIndex = attributes.attribute(REAPER_INDEX);
    }
 
    /**
@@ -72,6 +79,22 @@ public long wakeUpInterval() {
       return wakeUpInterval.get();
    }
 
+   /**
+    * Maximum number of expired entries that the reaper of a clustered cache removes with a single request to their
+    * primary owner. 0 means each expired entry is removed with its own request.
+    */
+   public int reaperBatchSize() {
+      return reaperBatchSize.get();
+   }
+
+   /**
+    * Whether the data container keeps an index of the entries that can expire, ordered by expiration time, so that the
+    * reaper only visits the entries that are due instead of iterating over the entire container.
+    */
+   public boolean reaperIndex() {
+      return reaperIndex.get();
+   }
+
    @Override
    public String toString() {
       return "ExpirationConfiguration [attributes=" + attributes + "]";
@@ -2,7 +2,9 @@
 
 import static org.infinispan.configuration.cache.ExpirationConfiguration.LIFESPAN;
 import static org.infinispan.configuration.cache.ExpirationConfiguration.MAX_IDLE;
+import static org.infinispan.configuration.cache.ExpirationConfiguration.REAPER_BATCH_SIZE;
 import static org.infinispan.configuration.cache.ExpirationConfiguration.REAPER_ENABLED;
+import static org.infinispan.configuration.cache.ExpirationConfiguration.REAPER_INDEX;
 import static org.infinispan.configuration.cache.ExpirationConfiguration.WAKEUP_INTERVAL;
 
 import java.util.concurrent.TimeUnit;
@@ -10,12 +12,14 @@
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
 
 /**
  * Controls the default expiration settings for entries in the cache.
  */
 public class ExpirationConfigurationBuilder extends AbstractConfigurationChildBuilder implements Builder<ExpirationConfiguration> {
-
+   private static final Log log = LogFactory.getLog(ExpirationConfigurationBuilder.class, Log.class);
 
    private final AttributeSet attributes;
 
@@ -123,8 +127,29 @@ public ExpirationConfigurationBuilder wakeUpInterval(long l, TimeUnit unit) {
       return wakeUpInterval(unit.toMillis(l));
    }
 
+   /**
+    * Maximum number of expired entries that the reaper of a clustered cache removes with a single request to their
+    * primary owner. 0, the default, means each expired entry is removed with its own request.
+    */
+   public ExpirationConfigurationBuilder reaperBatchSize(int reaperBatchSize) {
+      attributes.attribute(REAPER_BATCH_SIZE).set(reaperBatchSize);
+      return this;
+   }
+
+   /**
+    * Enables an index of the entries that can expire, ordered by expiration time, so that the reaper only visits the
+    * entries that are due instead of iterating over the entire data container. The index uses some additional memory
+    * for every mortal or transient entry, so it mostly helps caches where few of the entries can expire.
+    */
+   public ExpirationConfigurationBuilder reaperIndex(boolean reaperIndex) {
+      attributes.attribute(REAPER_INDEX).set(reaperIndex);
+      return this;
+   }
+
    @Override
    public void validate() {
+      if (attributes.attribute(REAPER_BATCH_SIZE).get() < 0)
+         throw log.invalidReaperBatchSize(attributes.attribute(REAPER_BATCH_SIZE).get());
    }
 
    @Override
@@ -21,10 +21,14 @@ public class MemoryConfiguration implements Matchable<MemoryConfiguration> {
    public static final AttributeDefinition<Long> SIZE  = AttributeDefinition.builder("size", -1L).build();
    public static final AttributeDefinition<EvictionType> EVICTION_TYPE  = AttributeDefinition.builder("type", EvictionType.COUNT).build();
    public static final AttributeDefinition<EvictionStrategy> EVICTION_STRATEGY = AttributeDefinition.builder("strategy", EvictionStrategy.NONE).build();
+   public static final AttributeDefinition<Boolean> RESIZABLE_ADDRESS_COUNT = AttributeDefinition.builder("resizable-address-count", false).immutable().build();
+   public static final AttributeDefinition<AllocatorType> ALLOCATOR = AttributeDefinition.builder("allocator", AllocatorType.UNPOOLED).immutable().build();
+   public static final AttributeDefinition<Boolean> SEGMENTED_EVICTION = AttributeDefinition.builder("segmented-eviction", false).immutable().build();
 
    static public AttributeSet attributeDefinitionSet() {
       return new AttributeSet(MemoryConfiguration.class, AbstractTypedPropertiesConfiguration.attributeSet(),
-            STORAGE_TYPE, SIZE, EVICTION_TYPE, EVICTION_STRATEGY, ADDRESS_COUNT);
+            STORAGE_TYPE, SIZE, EVICTION_TYPE, EVICTION_STRATEGY, ADDRESS_COUNT, SEGMENTED_EVICTION, ALLOCATOR,
+            RESIZABLE_ADDRESS_COUNT);
    }
 
    private final Attribute<Long> size;
@@ -32,6 +36,9 @@ static public AttributeSet attributeDefinitionSet() {
    private final Attribute<EvictionStrategy> evictionStrategy;
    private final Attribute<StorageType> storageType;
    private final Attribute<Integer> addressCount;
+   private final Attribute<Boolean> resizableAddressCount;
+   private final Attribute<Boolean> segmentedEviction;
+   private final Attribute<AllocatorType> allocator;
    private final AttributeSet attributes;
 
    MemoryConfiguration(AttributeSet attributes) {
@@ -41,6 +48,9 @@ static public AttributeSet attributeDefinitionSet() {
       evictionType = attributes.attribute(EVICTION_TYPE);
       evictionStrategy = attributes.attribute(EVICTION_STRATEGY);
       addressCount = attributes.attribute(ADDRESS_COUNT);
+      resizableAddressCount = attributes.attribute(RESIZABLE_ADDRESS_COUNT);
+      segmentedEviction = attributes.attribute(SEGMENTED_EVICTION);
+      allocator = attributes.attribute(ALLOCATOR);
    }
 
    /**
@@ -95,6 +105,30 @@ public int addressCount() {
       return addressCount.get();
    }
 
+   /**
+    * Whether the address pointers are increased when the number of entries outgrows them
+    * @return
+    */
+   public boolean resizableAddressCount() {
+      return resizableAddressCount.get();
+   }
+
+   /**
+    * Whether off-heap eviction keeps a separate LRU list per lock stripe instead of a single global one
+    * @return
+    */
+   public boolean segmentedEviction() {
+      return segmentedEviction.get();
+   }
+
+   /**
+    * The allocator used for native memory when storing off-heap
+    * @return
+    */
+   public AllocatorType allocator() {
+      return allocator.get();
+   }
+
    public AttributeSet attributes() {
       return attributes;
    }
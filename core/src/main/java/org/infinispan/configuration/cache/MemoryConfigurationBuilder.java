@@ -1,8 +1,11 @@
 package org.infinispan.configuration.cache;
 
 import static org.infinispan.configuration.cache.MemoryConfiguration.ADDRESS_COUNT;
+import static org.infinispan.configuration.cache.MemoryConfiguration.ALLOCATOR;
 import static org.infinispan.configuration.cache.MemoryConfiguration.EVICTION_STRATEGY;
 import static org.infinispan.configuration.cache.MemoryConfiguration.EVICTION_TYPE;
+import static org.infinispan.configuration.cache.MemoryConfiguration.RESIZABLE_ADDRESS_COUNT;
+import static org.infinispan.configuration.cache.MemoryConfiguration.SEGMENTED_EVICTION;
 import static org.infinispan.configuration.cache.MemoryConfiguration.SIZE;
 import static org.infinispan.configuration.cache.MemoryConfiguration.STORAGE_TYPE;
 
@@ -147,6 +150,73 @@ public int addressCount() {
       return attributes.attribute(ADDRESS_COUNT).get();
    }
 
+   /**
+    * Configuration setting when using off-heap that defines whether the address pointers are increased when the
+    * number of entries grows beyond them. In that case the configured {@link #addressCount(int)} is only the initial
+    * count. Address pointers are split in stripes, each one guarded by its own lock, and only the stripe that holds
+    * too many entries is rehashed, so writes and reads to the other stripes are not blocked while it is resized.
+    * When using MEMORY based eviction the additional address pointers count towards the configured size.
+    * @param resizableAddressCount whether the address pointers can be increased
+    * @return this
+    */
+   public MemoryConfigurationBuilder resizableAddressCount(boolean resizableAddressCount) {
+      attributes.attribute(RESIZABLE_ADDRESS_COUNT).set(resizableAddressCount);
+      return this;
+   }
+
+   /**
+    * Whether the address pointers can be increased. See
+    * {@link MemoryConfigurationBuilder#resizableAddressCount(boolean)} for more information.
+    * @return whether the address pointers can be increased
+    */
+   public boolean resizableAddressCount() {
+      return attributes.attribute(RESIZABLE_ADDRESS_COUNT).get();
+   }
+
+   /**
+    * Configuration setting when using bounded off-heap storage that splits the LRU ordering into one list per
+    * lock stripe rather than a single list guarded by a global lock. Reads only touch the list of their own stripe
+    * and never block on it, which removes the global lock from the read path at the cost of eviction only
+    * approximating a global LRU order. The configured {@link #size(long)} is still strictly honored.
+    * This is only used when OFF_HEAP storage type is configured with eviction.
+    * @param segmentedEviction whether the LRU ordering should be segmented
+    * @return this
+    */
+   public MemoryConfigurationBuilder segmentedEviction(boolean segmentedEviction) {
+      attributes.attribute(SEGMENTED_EVICTION).set(segmentedEviction);
+      return this;
+   }
+
+   /**
+    * Whether segmented eviction is enabled. See {@link MemoryConfigurationBuilder#segmentedEviction(boolean)} for
+    * more information.
+    * @return whether the LRU ordering is segmented
+    */
+   public boolean segmentedEviction() {
+      return attributes.attribute(SEGMENTED_EVICTION).get();
+   }
+
+   /**
+    * Configuration setting when using off-heap that defines how native memory is allocated for entries. See
+    * {@link AllocatorType} for the available allocators. This is only used when OFF_HEAP storage type is configured
+    * {@link MemoryConfigurationBuilder#storageType(StorageType)}.
+    * @param allocator the allocator to use
+    * @return this
+    */
+   public MemoryConfigurationBuilder allocator(AllocatorType allocator) {
+      attributes.attribute(ALLOCATOR).set(allocator);
+      return this;
+   }
+
+   /**
+    * The allocator configured for the off heap storage. See
+    * {@link MemoryConfigurationBuilder#allocator(AllocatorType)} for more information.
+    * @return the configured allocator
+    */
+   public AllocatorType allocator() {
+      return attributes.attribute(ALLOCATOR).get();
+   }
+
    @Override
    public void validate() {
       StorageType type = attributes.attribute(STORAGE_TYPE).get();
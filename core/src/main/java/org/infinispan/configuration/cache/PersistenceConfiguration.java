@@ -13,17 +13,20 @@
  */
 public class PersistenceConfiguration implements Matchable<PersistenceConfiguration> {
    public static final AttributeDefinition<Boolean> PASSIVATION = AttributeDefinition.builder("passivation", false).immutable().build();
+   public static final AttributeDefinition<Boolean> NON_BLOCKING = AttributeDefinition.builder("nonBlocking", false).immutable().build();
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(PersistenceConfiguration.class, PASSIVATION);
+      return new AttributeSet(PersistenceConfiguration.class, PASSIVATION, NON_BLOCKING);
    }
 
    private final Attribute<Boolean> passivation;
+   private final Attribute<Boolean> nonBlocking;
    private final AttributeSet attributes;
    private final List<StoreConfiguration> stores;
 
    PersistenceConfiguration(AttributeSet attributes, List<StoreConfiguration> stores) {
       this.attributes = attributes.checkProtection();
       passivation = attributes.attribute(PASSIVATION);
+      nonBlocking = attributes.attribute(NON_BLOCKING);
       this.stores = stores;
    }
 
@@ -40,6 +43,16 @@ public boolean passivation() {
       return passivation.get();
    }
 
+   /**
+    * If true, the cache loader and cache writer interceptors don't block the invoking thread while loading or storing
+    * single entries: stores implementing {@link org.infinispan.persistence.spi.NonBlockingCacheLoader} or
+    * {@link org.infinispan.persistence.spi.NonBlockingCacheWriter} are invoked directly, and the other stores are
+    * invoked on a thread pool of the cache, with as many threads as the persistence executor.
+    */
+   public boolean nonBlocking() {
+      return nonBlocking.get();
+   }
+
    public List<StoreConfiguration> stores() {
       return stores;
    }
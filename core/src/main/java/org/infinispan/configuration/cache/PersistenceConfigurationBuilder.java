@@ -1,5 +1,6 @@
 package org.infinispan.configuration.cache;
 
+import static org.infinispan.configuration.cache.PersistenceConfiguration.NON_BLOCKING;
 import static org.infinispan.configuration.cache.PersistenceConfiguration.PASSIVATION;
 
 import java.lang.reflect.Constructor;
@@ -48,6 +49,17 @@ boolean passivation() {
       return attributes.attribute(PASSIVATION).get();
    }
 
+   /**
+    * If true, the cache loader and cache writer interceptors don't block the invoking thread while loading or storing
+    * single entries. Stores implementing {@link org.infinispan.persistence.spi.NonBlockingCacheLoader} or
+    * {@link org.infinispan.persistence.spi.NonBlockingCacheWriter} are invoked directly, and the other stores are
+    * invoked on a thread pool of the cache, with as many threads as the persistence executor. Defaults to false.
+    */
+   public PersistenceConfigurationBuilder nonBlocking(boolean b) {
+      attributes.attribute(NON_BLOCKING).set(b);
+      return this;
+   }
+
    /**
     * Adds a cache loader which uses the specified builder class to build its configuration
     */
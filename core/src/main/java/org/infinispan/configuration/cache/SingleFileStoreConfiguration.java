@@ -1,5 +1,7 @@
 package org.infinispan.configuration.cache;
 
+import java.util.concurrent.TimeUnit;
+
 import org.infinispan.commons.configuration.BuiltBy;
 import org.infinispan.commons.configuration.ConfigurationFor;
 import org.infinispan.commons.configuration.attributes.Attribute;
@@ -20,13 +22,22 @@ public class SingleFileStoreConfiguration extends AbstractStoreConfiguration imp
    public static final AttributeDefinition<String> LOCATION = AttributeDefinition.builder("location", "Infinispan-SingleFileStore").immutable().xmlName("path").global(false).build();
    public static final AttributeDefinition<Integer> MAX_ENTRIES = AttributeDefinition.builder("maxEntries", -1).immutable().build();
    public static final AttributeDefinition<Float> FRAGMENTATION_FACTOR = AttributeDefinition.builder("fragmentationFactor", 0.75f).immutable().build();
+   public static final AttributeDefinition<Boolean> PERSISTENT_INDEX = AttributeDefinition.builder("persistentIndex", false).immutable().build();
+   public static final AttributeDefinition<Long> INDEX_CHECKPOINT_INTERVAL = AttributeDefinition.builder("indexCheckpointInterval", TimeUnit.MINUTES.toMillis(1)).immutable().build();
+   public static final AttributeDefinition<Double> COMPACTION_THRESHOLD = AttributeDefinition.builder("compactionThreshold", 0d).immutable().build();
+   public static final AttributeDefinition<Long> COMPACTION_RATE = AttributeDefinition.builder("compactionRate", 16L * 1024 * 1024).immutable().build();
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(SingleFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), LOCATION, MAX_ENTRIES, FRAGMENTATION_FACTOR);
+      return new AttributeSet(SingleFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), LOCATION, MAX_ENTRIES, FRAGMENTATION_FACTOR,
+            PERSISTENT_INDEX, INDEX_CHECKPOINT_INTERVAL, COMPACTION_THRESHOLD, COMPACTION_RATE);
    }
 
    private final Attribute<String> location;
    private final Attribute<Integer> maxEntries;
    private final Attribute<Float> fragmentationFactor;
+   private final Attribute<Boolean> persistentIndex;
+   private final Attribute<Long> indexCheckpointInterval;
+   private final Attribute<Double> compactionThreshold;
+   private final Attribute<Long> compactionRate;
 
    public SingleFileStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async,
                                        SingletonStoreConfiguration singletonStore) {
@@ -34,6 +45,10 @@ public SingleFileStoreConfiguration(AttributeSet attributes, AsyncStoreConfigura
       location = attributes.attribute(LOCATION);
       maxEntries = attributes.attribute(MAX_ENTRIES);
       fragmentationFactor = attributes.attribute(FRAGMENTATION_FACTOR);
+      persistentIndex = attributes.attribute(PERSISTENT_INDEX);
+      indexCheckpointInterval = attributes.attribute(INDEX_CHECKPOINT_INTERVAL);
+      compactionThreshold = attributes.attribute(COMPACTION_THRESHOLD);
+      compactionRate = attributes.attribute(COMPACTION_RATE);
    }
 
    public String location() {
@@ -48,6 +63,35 @@ public float fragmentationFactor () {
       return fragmentationFactor.get();
    }
 
+   /**
+    * Whether the in-memory index is saved to a file so that the store can start without scanning the whole data file
+    */
+   public boolean persistentIndex() {
+      return persistentIndex.get();
+   }
+
+   /**
+    * The minimum interval in milliseconds between two checkpoints of the index while the store is running
+    */
+   public long indexCheckpointInterval() {
+      return indexCheckpointInterval.get();
+   }
+
+   /**
+    * The fraction of the data file taken by free space above which the store is compacted in the background, 0 when
+    * background compaction is disabled
+    */
+   public double compactionThreshold() {
+      return compactionThreshold.get();
+   }
+
+   /**
+    * The maximum number of bytes per second the background compaction reads and writes, 0 if unlimited
+    */
+   public long compactionRate() {
+      return compactionRate.get();
+   }
+
    @Override
    public AttributeSet attributes() {
       return attributes;
@@ -1,11 +1,19 @@
 package org.infinispan.configuration.cache;
 
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.COMPACTION_RATE;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.COMPACTION_THRESHOLD;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.FRAGMENTATION_FACTOR;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.INDEX_CHECKPOINT_INTERVAL;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.LOCATION;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.MAX_ENTRIES;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.PERSISTENT_INDEX;
+
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
 
 /**
  * Single file cache store configuration builder.
@@ -15,6 +23,7 @@
  */
 public class SingleFileStoreConfigurationBuilder
       extends AbstractStoreConfigurationBuilder<SingleFileStoreConfiguration, SingleFileStoreConfigurationBuilder> {
+   private static final Log log = LogFactory.getLog(SingleFileStoreConfigurationBuilder.class, Log.class);
 
    public SingleFileStoreConfigurationBuilder(PersistenceConfigurationBuilder builder) {
       this(builder, SingleFileStoreConfiguration.attributeDefinitionSet());
@@ -72,6 +81,65 @@ public SingleFileStoreConfigurationBuilder fragmentationFactor(float fragmentati
       return this;
    }
 
+   /**
+    * When enabled the in-memory index of keys and their position in the file is written to a separate index file on
+    * shutdown and periodically while running. On startup the index file is loaded, validating its checksum, and only
+    * the part of the data file written after the checkpoint is scanned. If the index file is missing or invalid the
+    * whole data file is scanned as usual.
+    */
+   public SingleFileStoreConfigurationBuilder persistentIndex(boolean persistentIndex) {
+      attributes.attribute(PERSISTENT_INDEX).set(persistentIndex);
+      return this;
+   }
+
+   /**
+    * The minimum interval between two checkpoints of the index file while the store is running. Checkpoints are taken
+    * when expired entries are purged from the store. A value of 0 or less only writes the index on shutdown.
+    */
+   public SingleFileStoreConfigurationBuilder indexCheckpointInterval(long interval, TimeUnit unit) {
+      return indexCheckpointInterval(unit.toMillis(interval));
+   }
+
+   /**
+    * Same as {@link #indexCheckpointInterval(long, TimeUnit)} with the interval in milliseconds
+    */
+   public SingleFileStoreConfigurationBuilder indexCheckpointInterval(long interval) {
+      attributes.attribute(INDEX_CHECKPOINT_INTERVAL).set(interval);
+      return this;
+   }
+
+   /**
+    * Freed space in the file is only reused when a new entry fits in it, so with values of varying sizes the file may
+    * grow well beyond the size of the live data. When the fraction of the file taken by free space goes above this
+    * threshold, live entries at the end of the file are moved into free space closer to its start in the background
+    * and the file is truncated. The fragmentation is checked whenever an entry is removed, replaced or expired. It
+    * must be between 0 and 1, a value of 0 disables background compaction.
+    */
+   public SingleFileStoreConfigurationBuilder compactionThreshold(double compactionThreshold) {
+      attributes.attribute(COMPACTION_THRESHOLD).set(compactionThreshold);
+      return this;
+   }
+
+   /**
+    * The maximum number of bytes per second that background compaction reads and writes, so that it doesn't compete
+    * with regular operations for disk bandwidth. A value of 0 means unlimited.
+    */
+   public SingleFileStoreConfigurationBuilder compactionRate(long bytesPerSecond) {
+      attributes.attribute(COMPACTION_RATE).set(bytesPerSecond);
+      return this;
+   }
+
+   @Override
+   protected void validate(boolean skipClassChecks) {
+      super.validate(skipClassChecks);
+      double compactionThreshold = attributes.attribute(COMPACTION_THRESHOLD).get();
+      if (compactionThreshold < 0 || compactionThreshold > 1)
+         throw log.invalidCompactionThreshold(compactionThreshold);
+      long compactionRate = attributes.attribute(COMPACTION_RATE).get();
+      if (compactionRate < 0)
+         throw log.invalidCompactionRate(compactionRate);
+   }
+
    @Override
    public SingleFileStoreConfiguration create() {
       return new SingleFileStoreConfiguration(attributes.protect(), async.create(), singletonStore.create());
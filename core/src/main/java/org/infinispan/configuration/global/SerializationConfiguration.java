@@ -14,15 +14,17 @@ public class SerializationConfiguration {
          .immutable().build();
    public static final AttributeDefinition<Short> VERSION = AttributeDefinition.builder("version", Version.getMarshallVersion()).immutable().build();
    public static final AttributeDefinition<ClassResolver> CLASS_RESOLVER = AttributeDefinition.builder("classResolver", null, ClassResolver.class).immutable().build();
+   public static final AttributeDefinition<Boolean> POOLED_BUFFERS = AttributeDefinition.builder("pooledBuffers", false).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(SerializationConfiguration.class, MARSHALLER, VERSION, CLASS_RESOLVER);
+      return new AttributeSet(SerializationConfiguration.class, MARSHALLER, VERSION, CLASS_RESOLVER, POOLED_BUFFERS);
    }
 
    private final Map<Integer, AdvancedExternalizer<?>> advancedExternalizers;
    private final ClassResolver classResolver;
    private final Marshaller marshaller;
    private final short version;
+   private final boolean pooledBuffers;
    private final AttributeSet attributes;
 
    SerializationConfiguration(AttributeSet attributes, Map<Integer, AdvancedExternalizer<?>> advancedExternalizers) {
@@ -30,6 +32,7 @@ static AttributeSet attributeDefinitionSet() {
       this.marshaller = attributes.attribute(MARSHALLER).get();
       this.version = attributes.attribute(VERSION).get();
       this.classResolver = attributes.attribute(CLASS_RESOLVER).get();
+      this.pooledBuffers = attributes.attribute(POOLED_BUFFERS).get();
       this.advancedExternalizers = advancedExternalizers;
    }
 
@@ -49,6 +52,10 @@ public ClassResolver classResolver() {
       return classResolver;
    }
 
+   public boolean pooledBuffers() {
+      return pooledBuffers;
+   }
+
    public AttributeSet attributes() {
       return attributes;
    }
@@ -2,6 +2,7 @@
 
 import static org.infinispan.configuration.global.SerializationConfiguration.CLASS_RESOLVER;
 import static org.infinispan.configuration.global.SerializationConfiguration.MARSHALLER;
+import static org.infinispan.configuration.global.SerializationConfiguration.POOLED_BUFFERS;
 import static org.infinispan.configuration.global.SerializationConfiguration.VERSION;
 
 import java.util.HashMap;
@@ -126,6 +127,18 @@ public SerializationConfigurationBuilder classResolver(ClassResolver classResolv
       return this;
    }
 
+   /**
+    * Whether the global marshaller should write into a buffer taken from a small shared pool instead of allocating a new
+    * buffer, sized by the type's {@link org.infinispan.commons.marshall.BufferSizePredictor}, for every marshalled
+    * object. The marshalled bytes are then copied once into an array of the exact size. Defaults to {@code false}.
+    *
+    * @param pooledBuffers
+    */
+   public SerializationConfigurationBuilder pooledBuffers(boolean pooledBuffers) {
+      attributes.attribute(POOLED_BUFFERS).set(pooledBuffers);
+      return this;
+   }
+
    @Override
    public void validate() {
       // No-op, no validation required
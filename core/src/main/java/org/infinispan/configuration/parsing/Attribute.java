@@ -18,6 +18,7 @@ public enum Attribute {
     ADDRESS_COUNT("address-count"),
     AFTER("after"),
     ALIASES("aliases"),
+    ALLOCATOR("allocator"),
     ALLOW_DUPLICATE_DOMAINS("duplicate-domains"),
     ASYNC_EXECUTOR("async-executor"),
     @Deprecated
@@ -32,6 +33,8 @@ public enum Attribute {
     CHUNK_SIZE("chunk-size"),
     CLASS("class"),
     CLUSTER("cluster"),
+    COMPACTION_RATE("compaction-rate"),
+    COMPACTION_THRESHOLD("compaction-threshold"),
     COMPLETED_TX_TIMEOUT("complete-timeout"),
     CONCURRENCY_LEVEL("concurrency-level"),
     CONFIGURATION("configuration"),
@@ -48,11 +51,14 @@ public enum Attribute {
     EXPIRATION_EXECUTOR("expiration-executor"),
     FAILURE_POLICY_CLASS("failure-policy-class"),
     FETCH_STATE("fetch-state"),
+    FLUSH_INTERVAL("flush-interval"),
     @Deprecated
     FLUSH_LOCK_TIMEOUT("flush-lock-timeout"),
+    FLUSH_SIZE("flush-size"),
     GROUP_NAME("group-name"),
     ID("id"),
     INDEX("index"),
+    INDEX_CHECKPOINT_INTERVAL("index-checkpoint-interval"),
     INITIAL_CLUSTER_SIZE("initial-cluster-size"),
     INITIAL_CLUSTER_TIMEOUT("initial-cluster-timeout"),
     INTERVAL("interval"),
@@ -87,6 +93,7 @@ public enum Attribute {
     MODULE("module"),
     NAME("name"),
     NAMES("names"),
+    NON_BLOCKING("non-blocking"),
     NOTIFICATIONS("notifications"),
     ON_REHASH("onRehash"),
     OWNERS("owners"),
@@ -94,6 +101,8 @@ public enum Attribute {
     PASSIVATION("passivation"),
     PERMISSIONS("permissions"),
     PERSISTENCE_EXECUTOR("persistence-executor"),
+    PERSISTENT_INDEX("persistent-index"),
+    POOLED_BUFFERS("pooled-buffers"),
     POSITION("position"),
     PRELOAD("preload"),
     PRIORITY("priority"),
@@ -105,6 +114,8 @@ public enum Attribute {
     QUEUE_SIZE("queue-size"),
     RACK_ID("rack"),
     READ_ONLY("read-only"),
+    REAPER_BATCH_SIZE("reaper-batch-size"),
+    REAPER_INDEX("reaper-index"),
     REAPER_WAKE_UP_INTERVAL("reaper-interval"),
     RECOVERY_INFO_CACHE_NAME("recovery-cache"),
     RELATIVE_TO("relative-to"),
@@ -114,8 +125,10 @@ public enum Attribute {
     REMOTE_TIMEOUT("remote-timeout"),
     @Deprecated
     REPLICATION_QUEUE_EXECUTOR("replication-queue-executor"),
+    RESIZABLE_ADDRESS_COUNT("resizable-address-count"),
     ROLES("roles"),
     SEGMENTS("segments"),
+    SEGMENTED_EVICTION("segmented-eviction"),
     SHARED("shared"),
     SHUTDOWN_HOOK("shutdown-hook"),
     @Deprecated
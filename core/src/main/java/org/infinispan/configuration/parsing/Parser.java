@@ -33,6 +33,7 @@
 import org.infinispan.commons.util.GlobUtils;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.AbstractStoreConfigurationBuilder;
+import org.infinispan.configuration.cache.AllocatorType;
 import org.infinispan.configuration.cache.AsyncStoreConfigurationBuilder;
 import org.infinispan.configuration.cache.AuthorizationConfigurationBuilder;
 import org.infinispan.configuration.cache.BackupConfiguration;
@@ -159,6 +160,10 @@ private void parseSerialization(final XMLExtendedStreamReader reader, final Conf
                builder.serialization().version(value);
                break;
             }
+            case POOLED_BUFFERS: {
+               builder.serialization().pooledBuffers(Boolean.valueOf(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -1688,6 +1693,15 @@ private void parseOffHeapMemoryAttributes(final XMLExtendedStreamReader reader,
             case ADDRESS_COUNT:
                memoryBuilder.addressCount(Integer.parseInt(value));
                break;
+            case RESIZABLE_ADDRESS_COUNT:
+               memoryBuilder.resizableAddressCount(Boolean.parseBoolean(value));
+               break;
+            case SEGMENTED_EVICTION:
+               memoryBuilder.segmentedEviction(Boolean.parseBoolean(value));
+               break;
+            case ALLOCATOR:
+               memoryBuilder.allocator(AllocatorType.valueOf(value));
+               break;
             case STRATEGY:
                memoryBuilder.evictionStrategy(EvictionStrategy.valueOf(value));
                break;
@@ -2019,6 +2033,14 @@ private void parseExpiration(XMLExtendedStreamReader reader, ConfigurationBuilde
                builder.expiration().wakeUpInterval(Long.parseLong(value));
                break;
             }
+            case REAPER_BATCH_SIZE: {
+               builder.expiration().reaperBatchSize(Integer.parseInt(value));
+               break;
+            }
+            case REAPER_INDEX: {
+               builder.expiration().reaperIndex(Boolean.valueOf(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -2327,6 +2349,9 @@ private void parsePersistence(final XMLExtendedStreamReader reader, final Config
             case PASSIVATION:
                builder.persistence().passivation(Boolean.parseBoolean(value));
                break;
+            case NON_BLOCKING:
+               builder.persistence().nonBlocking(Boolean.parseBoolean(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -2396,6 +2421,22 @@ protected void parseFileStore(XMLExtendedStreamReader reader, ConfigurationBuild
                storeBuilder.fragmentationFactor(Float.parseFloat(value));
                break;
             }
+            case PERSISTENT_INDEX: {
+               storeBuilder.persistentIndex(Boolean.parseBoolean(value));
+               break;
+            }
+            case INDEX_CHECKPOINT_INTERVAL: {
+               storeBuilder.indexCheckpointInterval(Long.parseLong(value));
+               break;
+            }
+            case COMPACTION_THRESHOLD: {
+               storeBuilder.compactionThreshold(Double.parseDouble(value));
+               break;
+            }
+            case COMPACTION_RATE: {
+               storeBuilder.compactionRate(Long.parseLong(value));
+               break;
+            }
             default: {
                parseStoreAttribute(reader, i, storeBuilder);
             }
@@ -2501,6 +2542,14 @@ public static void parseStoreWriteBehind(XMLExtendedStreamReader reader, AsyncSt
                storeBuilder.threadPoolSize(Integer.parseInt(value));
                break;
             }
+            case FLUSH_INTERVAL: {
+               storeBuilder.flushInterval(Long.parseLong(value));
+               break;
+            }
+            case FLUSH_SIZE: {
+               storeBuilder.flushSize(Integer.parseInt(value));
+               break;
+            }
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -36,6 +36,8 @@ private void writeStoreWriteBehind(XMLExtendedStreamWriter writer, StoreConfigur
          writer.writeStartElement(Element.WRITE_BEHIND);
          writeBehind.write(writer, AsyncStoreConfiguration.MODIFICATION_QUEUE_SIZE, Attribute.MODIFICATION_QUEUE_SIZE);
          writeBehind.write(writer, AsyncStoreConfiguration.THREAD_POOL_SIZE, Attribute.THREAD_POOL_SIZE);
+         writeBehind.write(writer, AsyncStoreConfiguration.FLUSH_INTERVAL, Attribute.FLUSH_INTERVAL);
+         writeBehind.write(writer, AsyncStoreConfiguration.FLUSH_SIZE, Attribute.FLUSH_SIZE);
          writer.writeEndElement();
       }
    }
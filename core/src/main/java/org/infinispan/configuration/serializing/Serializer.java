@@ -404,6 +404,7 @@ private void writeSerialization(XMLExtendedStreamWriter writer, GlobalConfigurat
          if (attributes.attribute(SerializationConfiguration.VERSION).isModified()) {
             writer.writeAttribute(Attribute.VERSION, Version.decodeVersion(serialization.version()));
          }
+         attributes.write(writer, SerializationConfiguration.POOLED_BUFFERS, Attribute.POOLED_BUFFERS);
          writeAdvancedSerializers(writer, globalConfiguration);
          writer.writeEndElement();
       }
@@ -547,7 +548,10 @@ private void writeMemory(XMLExtendedStreamWriter writer, Configuration configura
          switch (memory.storageType()) {
             case OFF_HEAP:
                attributes.write(writer, MemoryConfiguration.ADDRESS_COUNT, Attribute.ADDRESS_COUNT);
+               attributes.write(writer, MemoryConfiguration.RESIZABLE_ADDRESS_COUNT, Attribute.RESIZABLE_ADDRESS_COUNT);
                attributes.write(writer, MemoryConfiguration.EVICTION_STRATEGY, Attribute.STRATEGY);
+               attributes.write(writer, MemoryConfiguration.SEGMENTED_EVICTION, Attribute.SEGMENTED_EVICTION);
+               attributes.write(writer, MemoryConfiguration.ALLOCATOR, Attribute.ALLOCATOR);
             case BINARY:
                attributes.write(writer, MemoryConfiguration.EVICTION_TYPE, Attribute.EVICTION);
             case OBJECT:
@@ -576,6 +580,7 @@ private void writePersistence(XMLExtendedStreamWriter writer, Configuration conf
       if (attributes.isModified() || persistence.stores().size() > 0) {
          writer.writeStartElement(Element.PERSISTENCE);
          attributes.write(writer, PersistenceConfiguration.PASSIVATION, Attribute.PASSIVATION);
+         attributes.write(writer, PersistenceConfiguration.NON_BLOCKING, Attribute.NON_BLOCKING);
          for (StoreConfiguration store : persistence.stores()) {
             writeStore(writer, store);
          }
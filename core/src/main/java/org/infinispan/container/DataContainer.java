@@ -225,6 +225,18 @@ default Spliterator<InternalCacheEntry<K, V>> spliteratorIncludingExpired() {
             Spliterator.CONCURRENT | Spliterator.NONNULL | Spliterator.DISTINCT);
    }
 
+   /**
+    * Returns the entries that the reaper has to check for expiration at the given time. It contains all the entries
+    * expired at {@code currentTimeMillis}, but it may also contain entries that are not expired.
+    * <p>By default this is the same as {@link DataContainer#iteratorIncludingExpired()}, containers that keep an
+    * {@link ExpirationIndex} only return the entries that are due.</p>
+    * @param currentTimeMillis the current time as defined by {@link org.infinispan.util.TimeService#wallClockTime()}
+    * @return iterator that returns at least all the expired entries
+    */
+   default Iterator<InternalCacheEntry<K, V>> expirationCandidates(long currentTimeMillis) {
+      return iteratorIncludingExpired();
+   }
+
    interface ComputeAction<K, V> {
 
       /**
@@ -25,6 +25,7 @@
 import org.infinispan.commons.util.EntrySizeCalculator;
 import org.infinispan.commons.util.EvictionListener;
 import org.infinispan.commons.util.PeekableMap;
+import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.entries.CacheEntrySizeCalculator;
 import org.infinispan.container.entries.ImmortalCacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
@@ -35,6 +36,7 @@
 import org.infinispan.eviction.PassivationManager;
 import org.infinispan.expiration.ExpirationManager;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.filter.KeyValueFilter;
 import org.infinispan.marshall.core.WrappedByteArraySizeCalculator;
@@ -82,6 +84,9 @@
    @Inject private TimeService timeService;
    @Inject private CacheNotifier cacheNotifier;
    @Inject private ExpirationManager<K, V> expirationManager;
+   @Inject private Configuration configuration;
+
+   private ExpirationIndex<K> expirationIndex;
 
    public DefaultDataContainer(int concurrencyLevel) {
       // If no comparing implementations passed, could fallback on JDK CHM
@@ -89,6 +94,13 @@ public DefaultDataContainer(int concurrencyLevel) {
       evictionCache = null;
    }
 
+   @Start
+   public void start() {
+      if (configuration.expiration().reaperIndex()) {
+         expirationIndex = new ExpirationIndex<>();
+      }
+   }
+
    private static <K, V> Caffeine<K, V> caffeineBuilder() {
       return (Caffeine<K, V>) Caffeine.newBuilder();
    }
@@ -235,6 +247,9 @@ public void put(K k, V v, Metadata metadata) {
          activator.onUpdate(key, entry == null);
          return copy;
       });
+      if (expirationIndex != null) {
+         expirationIndex.add(copy.getKey(), copy.getExpiryTime());
+      }
    }
 
    @Override
@@ -307,6 +322,9 @@ public int sizeIncludingExpired() {
    public void clear() {
       log.tracef("Clearing data container");
       entries.clear();
+      if (expirationIndex != null) {
+         expirationIndex.clear();
+      }
    }
 
    @Override
@@ -345,6 +363,9 @@ public InternalCacheEntry<K, V> compute(K key, ComputeAction<K, V> action) {
          activator.onUpdate(k, oldEntry == null);
          if (trace)
             log.tracef("Store %s in container", newEntry);
+         if (expirationIndex != null) {
+            expirationIndex.add(k, newEntry.getExpiryTime());
+         }
          return newEntry;
       });
    }
@@ -364,6 +385,14 @@ public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired() {
       return entries.values().iterator();
    }
 
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> expirationCandidates(long currentTimeMillis) {
+      if (expirationIndex == null) {
+         return iteratorIncludingExpired();
+      }
+      return expirationIndex.expired(currentTimeMillis, this::peek);
+   }
+
    @Override
    public Spliterator<InternalCacheEntry<K, V>> spliteratorIncludingExpired() {
       // Technically this spliterator is distinct, but it won't be set - we assume that is okay for now
@@ -0,0 +1,128 @@
+package org.infinispan.container;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+import org.infinispan.commons.util.AbstractIterator;
+import org.infinispan.container.entries.InternalCacheEntry;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Index of the keys of the entries that can expire, ordered by expiration time, which allows the reaper to only visit
+ * the entries that are due instead of iterating over the entire data container.
+ * <p>
+ * The keys are grouped in buckets of {@link #BUCKET_MILLIS} milliseconds. The index is only updated when an entry is
+ * written: the keys of removed entries are not removed from their bucket and the keys of transient entries are not
+ * moved when the entries are accessed. Instead each key of a due bucket is looked up in the data container when the
+ * bucket is polled, and it is moved to the bucket of its current expiration time if its entry has not expired yet.
+ *
+ * @since 9.2
+ */
+@ThreadSafe
+public class ExpirationIndex<K> {
+   static final long BUCKET_MILLIS = 1000;
+
+   private final ConcurrentSkipListMap<Long, Set<K>> buckets = new ConcurrentSkipListMap<>();
+
+   /**
+    * Adds the key of an entry that expires at {@code expiryTime}. Does nothing if the entry never expires.
+    */
+   public void add(K key, long expiryTime) {
+      if (expiryTime < 0)
+         return;
+
+      // The set is the same instance if the bucket already exists, so the function can safely be applied again
+      buckets.compute(expiryTime / BUCKET_MILLIS, (bucket, keys) -> {
+         if (keys == null) {
+            keys = ConcurrentHashMap.newKeySet();
+         }
+         keys.add(key);
+         return keys;
+      });
+   }
+
+   /**
+    * Removes all the keys from the index.
+    */
+   public void clear() {
+      buckets.clear();
+   }
+
+   /**
+    * Polls the keys that may have expired at {@code currentTimeMillis} and returns their expired entries. Each key is
+    * moved as it is visited: the keys of the entries that have not expired are moved to the bucket of their current
+    * expiration time, while the keys of the expired entries are moved to the next bucket, in case their removal fails.
+    * A key is only removed from its bucket after it is added to the new one, so if the iteration is not completed the
+    * keys that were not visited yet are polled again by the next run.
+    *
+    * @param lookup returns the entry of a key, including an expired entry, or {@code null} if the key is not present
+    */
+   public <V> Iterator<InternalCacheEntry<K, V>> expired(long currentTimeMillis,
+                                                         Function<? super K, InternalCacheEntry<K, V>> lookup) {
+      long currentBucket = currentTimeMillis / BUCKET_MILLIS;
+      // Only the buckets due now are visited, the keys moved to the next bucket are not checked twice
+      List<Long> due = new ArrayList<>(buckets.headMap(currentBucket, true).keySet());
+      if (due.isEmpty())
+         return Collections.emptyIterator();
+
+      return new AbstractIterator<InternalCacheEntry<K, V>>() {
+         private final Iterator<Long> dueIterator = due.iterator();
+         private long bucket;
+         private Set<K> keys;
+         private Iterator<K> keyIterator = Collections.emptyIterator();
+
+         @Override
+         protected InternalCacheEntry<K, V> getNext() {
+            for (;;) {
+               while (!keyIterator.hasNext()) {
+                  if (keys != null) {
+                     removeIfEmpty(bucket, keys);
+                     keys = null;
+                  }
+                  if (!dueIterator.hasNext())
+                     return null;
+                  bucket = dueIterator.next();
+                  keys = buckets.get(bucket);
+                  keyIterator = keys != null ? keys.iterator() : Collections.emptyIterator();
+               }
+               K key = keyIterator.next();
+               InternalCacheEntry<K, V> entry = lookup.apply(key);
+               if (entry == null || !entry.canExpire()) {
+                  keys.remove(key);
+                  continue;
+               }
+
+               if (entry.isExpired(currentTimeMillis)) {
+                  move(key, keys, bucket, currentBucket + 1);
+                  return entry;
+               }
+               move(key, keys, bucket, entry.getExpiryTime() / BUCKET_MILLIS);
+            }
+         }
+      };
+   }
+
+   private void move(K key, Set<K> keys, long bucket, long newBucket) {
+      // A key that stays in the bucket being iterated must not be added back, the iterator could see it again
+      if (newBucket != bucket) {
+         add(key, newBucket * BUCKET_MILLIS);
+         keys.remove(key);
+      }
+   }
+
+   private void removeIfEmpty(long bucket, Set<K> keys) {
+      if (keys.isEmpty() && buckets.remove(bucket, keys)) {
+         // A key could have been added concurrently, after the check
+         for (K key : keys) {
+            add(key, bucket * BUCKET_MILLIS);
+         }
+      }
+   }
+}
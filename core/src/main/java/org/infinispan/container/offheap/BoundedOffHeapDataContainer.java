@@ -33,14 +33,21 @@ public class BoundedOffHeapDataContainer extends OffHeapDataContainer {
    protected final Lock lruLock;
    protected final LongUnaryOperator sizeCalculator;
    protected final long initialSize;
+   protected final boolean countAddressHash;
 
    protected long currentSize;
    protected long firstAddress;
    protected long lastAddress;
 
    public BoundedOffHeapDataContainer(int desiredSize, long maxSize, EvictionType type) {
-      super(desiredSize);
+      this(desiredSize, maxSize, type, false);
+   }
+
+   public BoundedOffHeapDataContainer(int desiredSize, long maxSize, EvictionType type,
+         boolean resizableAddressCount) {
+      super(desiredSize, resizableAddressCount);
       this.maxSize = maxSize;
+      this.countAddressHash = type == EvictionType.MEMORY;
       if (type == EvictionType.COUNT) {
          sizeCalculator = i -> 1;
          initialSize = 0;
@@ -179,6 +186,18 @@ protected void entryRetrieved(long entryAddress) {
       }
    }
 
+   @Override
+   protected void addressHashResized(long sizeChange) {
+      if (countAddressHash) {
+         lruLock.lock();
+         try {
+            currentSize += sizeChange;
+         } finally {
+            lruLock.unlock();
+         }
+      }
+   }
+
    @Override
    protected void performClear() {
       if (trace) {
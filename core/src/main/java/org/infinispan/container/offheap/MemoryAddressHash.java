@@ -1,53 +1,221 @@
 package org.infinispan.container.offheap;
 
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 
 import sun.misc.Unsafe;
 
 /**
+ * Table of memory addresses pointing to the head of each bucket of entries.
+ * <p>
+ * The table is split into stripes, where the stripe of an object is found using the lowest bits of its hash, the same
+ * way {@link StripedLock} picks the lock of an object. This way all the buckets of a stripe are guarded by the same
+ * lock. Initially all stripes are allocated as one contiguous block of memory.
+ * <p>
+ * When resizing is enabled, every stripe keeps track of how many entries it holds and when it outgrows its table,
+ * only that stripe is rehashed into a table twice as large, which can be done while holding just the write lock of
+ * that stripe. All methods taking a stripe or an object require the lock of the corresponding stripe to be held.
  * @author wburns
  * @since 9.0
  */
 public class MemoryAddressHash {
    private static final Unsafe UNSAFE = UnsafeHolder.UNSAFE;
-   private static final OffHeapMemory MEMORY = OffHeapMemory.INSTANCE;
    private static final int MAXIMUM_CAPACITY = 1 << 30;
    private static final int HASH_BITS = 0x7fffffff; // usable bits of normal node hash
 
    private final long memory;
    private final int pointerCount;
+   private final int stripeCount;
+   private final int stripeShift;
+   private final int initialStripeSize;
+   private final int maximumStripeSize;
+   private final boolean resizable;
    private final OffHeapMemoryAllocator allocator;
 
+   // The following are only updated while holding the write lock of the given stripe
+   private final long[] stripeTables;
+   private final int[] stripeSizes;
+   private final int[] stripeEntries;
+
    public MemoryAddressHash(int pointers, OffHeapMemoryAllocator allocator) {
-      this.pointerCount = nextPowerOfTwo(pointers);
-      long bytes = ((long) pointerCount) << 3;
+      this(pointers, 1, false, allocator);
+   }
+
+   /**
+    * @param pointers how many pointers to allocate initially, rounded up to a power of two
+    * @param stripes how many stripes to split the pointers into, rounded up to a power of two
+    * @param resizable whether the stripes are rehashed into larger tables when they hold too many entries
+    * @param allocator the allocator to use for the tables
+    */
+   public MemoryAddressHash(int pointers, int stripes, boolean resizable, OffHeapMemoryAllocator allocator) {
+      this.stripeCount = nextPowerOfTwo(stripes);
+      this.pointerCount = Math.max(nextPowerOfTwo(pointers), stripeCount);
+      this.stripeShift = Integer.numberOfTrailingZeros(stripeCount);
+      this.initialStripeSize = pointerCount >>> stripeShift;
+      this.maximumStripeSize = MAXIMUM_CAPACITY >>> stripeShift;
+      this.resizable = resizable;
       this.allocator = allocator;
-      memory = allocator.allocate(bytes);
-      // Have to clear out bytes to make sure no bad stuff was read in
-      UNSAFE.setMemory(memory, bytes, (byte) 0);
+      memory = allocator.allocate(((long) pointerCount) << 3);
+      stripeTables = new long[stripeCount];
+      stripeSizes = new int[stripeCount];
+      stripeEntries = new int[stripeCount];
+      resetStripes();
    }
 
-   private long findOffset(Object instance) {
+   private void resetStripes() {
+      // Have to clear out bytes to make sure no bad stuff was read in, this includes the stale addresses left in the
+      // initial tables of the stripes that were resized
+      UNSAFE.setMemory(memory, ((long) pointerCount) << 3, (byte) 0);
+      for (int i = 0; i < stripeCount; ++i) {
+         stripeTables[i] = initialStripeTable(i);
+         stripeSizes[i] = initialStripeSize;
+         stripeEntries[i] = 0;
+      }
+   }
+
+   private long initialStripeTable(int stripe) {
+      return memory + (((long) stripe * initialStripeSize) << 3);
+   }
+
+   private long findAddress(Object instance) {
       int h = spread(instance.hashCode());
-      int pointerMask = pointerCount - 1;
-      return h & pointerMask;
+      int stripe = h & (stripeCount - 1);
+      int bucket = (h >>> stripeShift) & (stripeSizes[stripe] - 1);
+      return stripeTables[stripe] + (((long) bucket) << 3);
+   }
+
+   private int findStripe(Object instance) {
+      return spread(instance.hashCode()) & (stripeCount - 1);
    }
 
    public void putMemoryAddress(Object instance, long address) {
-      long offset = findOffset(instance);
-      MEMORY.putLong(memory, offset << 3, address);
+      UNSAFE.putLong(findAddress(instance), address);
    }
 
    public long getMemoryAddress(Object instance) {
-      return MEMORY.getLong(memory, findOffset(instance) << 3);
+      return UNSAFE.getLong(findAddress(instance));
+   }
+
+   /**
+    * Returns the head address of the bucket in the given stripe
+    * @param stripe the stripe of the bucket
+    * @param bucket the bucket offset in the stripe, must be lower than {@link #getStripeSize(int)}
+    * @return the address of the first entry in the bucket or 0
+    */
+   public long getMemoryAddress(int stripe, int bucket) {
+      return UNSAFE.getLong(stripeTables[stripe] + (((long) bucket) << 3));
+   }
+
+   public int getStripeCount() {
+      return stripeCount;
+   }
+
+   /**
+    * Returns how many buckets the given stripe currently has
+    */
+   public int getStripeSize(int stripe) {
+      return stripeSizes[stripe];
+   }
+
+   /**
+    * Returns the bucket to visit after the given one when iterating over a stripe, or 0 when the iteration of the
+    * stripe is complete. Iteration must start from bucket 0.
+    * <p>
+    * Buckets are visited in reverse binary order, so if the stripe is resized between two invocations, the buckets
+    * that were already visited map exactly to the buckets of the larger table that won't be visited anymore. Thus
+    * the lock only needs to be held for each bucket, without any entry being missed or returned twice.
+    * @param stripe the stripe being iterated on
+    * @param bucket the bucket that was just visited
+    * @return the next bucket to visit or 0
+    */
+   public int nextBucket(int stripe, int bucket) {
+      int v = bucket | ~(stripeSizes[stripe] - 1);
+      v = Integer.reverse(v);
+      v++;
+      return Integer.reverse(v);
+   }
+
+   /**
+    * Records that a new entry was added to the stripe of the given object.
+    * @param instance the key of the new entry
+    * @return whether the stripe has too many entries for its table and should be resized
+    */
+   public boolean entryAdded(Object instance) {
+      int stripe = findStripe(instance);
+      int entries = ++stripeEntries[stripe];
+      int size = stripeSizes[stripe];
+      // Resize when the load factor goes above 0.75
+      return resizable && size < maximumStripeSize && entries > size - (size >>> 2);
+   }
+
+   /**
+    * Records that an entry was removed from the stripe of the given object.
+    * @param instance the key of the removed entry
+    */
+   public void entryRemoved(Object instance) {
+      stripeEntries[findStripe(instance)]--;
+   }
+
+   /**
+    * Rehashes the stripe of the given object into a table twice as large. The write lock of the stripe must be held.
+    * @param instance the object whose stripe should be resized
+    * @param entryFactory factory used to read and update the entries linked in the buckets
+    * @return the change in allocated bytes, as estimated by
+    *       {@link UnpooledOffHeapMemoryAllocator#estimateSizeOverhead(long)}
+    */
+   public long resize(Object instance, OffHeapEntryFactory entryFactory) {
+      int stripe = findStripe(instance);
+      int oldSize = stripeSizes[stripe];
+      if (oldSize >= maximumStripeSize) {
+         return 0;
+      }
+      int newSize = oldSize << 1;
+      long oldTable = stripeTables[stripe];
+      long newBytes = ((long) newSize) << 3;
+      long newTable = allocator.allocate(newBytes);
+      UNSAFE.setMemory(newTable, newBytes, (byte) 0);
+      int newMask = newSize - 1;
+      for (int i = 0; i < oldSize; ++i) {
+         long address = UNSAFE.getLong(oldTable + (((long) i) << 3));
+         while (address != 0) {
+            long nextAddress = entryFactory.getNext(address);
+            int bucket = (spread(entryFactory.getHashCode(address)) >>> stripeShift) & newMask;
+            long bucketAddress = newTable + (((long) bucket) << 3);
+            entryFactory.setNext(address, UNSAFE.getLong(bucketAddress));
+            UNSAFE.putLong(bucketAddress, address);
+            address = nextAddress;
+         }
+      }
+      stripeTables[stripe] = newTable;
+      stripeSizes[stripe] = newSize;
+      long sizeChange = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(newBytes);
+      // The initial table is part of the contiguous block, which is only freed on deallocation
+      if (oldTable != initialStripeTable(stripe)) {
+         long oldBytes = ((long) oldSize) << 3;
+         allocator.deallocate(oldTable, oldBytes);
+         sizeChange -= UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(oldBytes);
+      }
+      return sizeChange;
    }
 
-   public long getMemoryAddressOffset(int offset) {
-      return MEMORY.getLong(memory,((long) offset) << 3);
+   /**
+    * Frees the tables of the stripes that were resized, returning all stripes to their initial size. The write lock
+    * of all stripes must be held and all buckets must be empty.
+    */
+   private void shrink() {
+      for (int i = 0; i < stripeCount; ++i) {
+         long table = stripeTables[i];
+         if (table != initialStripeTable(i)) {
+            allocator.deallocate(table, ((long) stripeSizes[i]) << 3);
+         }
+      }
+      resetStripes();
    }
 
    public void deallocate() {
-      allocator.deallocate(memory, pointerCount << 3);
+      shrink();
+      allocator.deallocate(memory, ((long) pointerCount) << 3);
    }
 
    /**
@@ -55,21 +223,29 @@ public void deallocate() {
     * @return stream of the various memory locations
     */
    public LongStream toStream() {
-      return LongStream.iterate(memory, l -> l + 8)
-            .limit(pointerCount)
+      return IntStream.range(0, stripeCount)
+            .mapToObj(s -> LongStream.iterate(stripeTables[s], l -> l + 8).limit(stripeSizes[s]))
+            .flatMapToLong(l -> l)
             .map(UNSAFE::getLong)
             .filter(l -> l != 0);
    }
 
    /**
-    * Same as {@link MemoryAddressHash#toStream()} except that the memory addresses are also cleared out (set to 0)
-    * @return stream with the valid memory pointers to stored values
+    * Clears out all the memory addresses (set to 0) and passes the valid ones to the given consumer. Any resized
+    * stripe is returned to its initial size. The write lock of all stripes must be held.
+    * @param consumer consumer of the valid memory pointers to stored values
     */
-   public LongStream toStreamRemoved() {
-      return LongStream.iterate(memory, l -> l + 8)
-            .limit(pointerCount)
-            .map(l -> UNSAFE.getAndSetLong(null, l, 0))
-            .filter(l -> l != 0);
+   public void removeAll(LongConsumer consumer) {
+      for (int s = 0; s < stripeCount; ++s) {
+         long table = stripeTables[s];
+         for (int i = 0; i < stripeSizes[s]; ++i) {
+            long address = UNSAFE.getAndSetLong(null, table + (((long) i) << 3), 0);
+            if (address != 0) {
+               consumer.accept(address);
+            }
+         }
+      }
+      shrink();
    }
 
    private static final int nextPowerOfTwo(int c) {
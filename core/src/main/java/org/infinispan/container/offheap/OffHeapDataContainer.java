@@ -6,19 +6,23 @@
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.ExpirationIndex;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.eviction.ActivationManager;
@@ -46,6 +50,7 @@ public class OffHeapDataContainer implements DataContainer<WrappedBytes, Wrapped
    protected final AtomicLong size = new AtomicLong();
    protected final int lockCount;
    protected final int memoryAddressCount;
+   protected final boolean resizableAddressCount;
    protected final StripedLock locks;
 
    @Inject protected OffHeapMemoryAllocator allocator;
@@ -55,8 +60,10 @@ public class OffHeapDataContainer implements DataContainer<WrappedBytes, Wrapped
    @Inject protected EvictionManager evictionManager;
    @Inject protected ActivationManager activator;
    @Inject protected PassivationManager passivator;
+   @Inject protected Configuration configuration;
 
    protected MemoryAddressHash memoryLookup;
+   private ExpirationIndex<WrappedBytes> expirationIndex;
    // Variable to make sure memory locations aren't read after being deallocated
    // This variable should always be read first after acquiring either the read or write lock
    private boolean dellocated = false;
@@ -75,6 +82,15 @@ static int nextPowerOfTwo(int target) {
    }
 
    public OffHeapDataContainer(int desiredSize) {
+      this(desiredSize, false);
+   }
+
+   /**
+    * @param desiredSize how many address pointers to allocate initially
+    * @param resizableAddressCount whether the address pointers are increased when there are more entries than them
+    */
+   public OffHeapDataContainer(int desiredSize, boolean resizableAddressCount) {
+      this.resizableAddressCount = resizableAddressCount;
       lockCount = nextPowerOfTwo(Runtime.getRuntime().availableProcessors()) << 1;
       memoryAddressCount = getActualAddressCount(desiredSize, lockCount);
       // Unfortunately desired size directly correlates to lock size
@@ -95,7 +111,10 @@ private static int getActualAddressCount(int desiredSize, int lockCount) {
 
    @Start
    public void start() {
-      memoryLookup = new MemoryAddressHash(memoryAddressCount, allocator);
+      memoryLookup = new MemoryAddressHash(memoryAddressCount, lockCount, resizableAddressCount, allocator);
+      if (configuration.expiration().reaperIndex()) {
+         expirationIndex = new ExpirationIndex<>();
+      }
    }
 
    /**
@@ -152,7 +171,9 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> peekOrGet(Object k, boole
 
          long actualAddress = performGet(bucketAddress, k, peek);
          if (actualAddress != 0) {
-            InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(actualAddress);
+            // The key was already found to be equal so there is no need to copy it from off heap
+            InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(actualAddress,
+                  toWrapper(k));
             if (!peek) {
                entryRetrieved(actualAddress);
             }
@@ -164,6 +185,38 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> peekOrGet(Object k, boole
       return null;
    }
 
+   /**
+    * Applies the given function to the value mapped to the key while the stripe read lock is held, without copying
+    * the value on heap. This is the same as a {@link #get(Object)} except that the value is only visible to the
+    * function: the {@link WrappedBytes} it receives has no backing array, reads directly from off heap memory and must
+    * not be used after the function returns. Use {@link #get(Object)} when the value has to outlive the call.
+    * @param k the key to read the value of
+    * @param function the function to apply to the value
+    * @param <R> the type of the result
+    * @return the value returned by the function or {@code null} if the key is not present or expired
+    */
+   public <R> R readValue(Object k, Function<? super WrappedBytes, ? extends R> function) {
+      Lock lock = locks.getLock(k).readLock();
+      lock.lock();
+      try {
+         checkDeallocation();
+         long bucketAddress = memoryLookup.getMemoryAddress(k);
+         if (bucketAddress == 0) {
+            return null;
+         }
+
+         long actualAddress = performGet(bucketAddress, k, false);
+         if (actualAddress != 0) {
+            R result = offHeapEntryFactory.readValue(actualAddress, function);
+            entryRetrieved(actualAddress);
+            return result;
+         }
+      } finally {
+         lock.unlock();
+      }
+      return null;
+   }
+
    /**
     * Gets the actual address for the given key in the given bucket or 0 if it isn't present or expired
     * @param bucketHeadAddress the starting address of the address hash
@@ -197,11 +250,27 @@ public void put(WrappedBytes key, WrappedBytes value, Metadata metadata) {
          long address = memoryLookup.getMemoryAddress(key);
          boolean newEntry = performPut(address, 0, newAddress, key);
          activator.onUpdate(key, newEntry);
+         if (expirationIndex != null) {
+            indexExpiration(key, metadata);
+         }
       } finally {
          lock.unlock();
       }
    }
 
+   /**
+    * Adds the key to the expiration index with the earliest time the new entry can expire, which avoids reading the
+    * entry back from native memory. A transient entry is added back to the index when it is found to be not expired.
+    */
+   private void indexExpiration(WrappedBytes key, Metadata metadata) {
+      long lifespan = metadata.lifespan();
+      long maxIdle = metadata.maxIdle();
+      long expiration = lifespan < 0 ? maxIdle : maxIdle < 0 ? lifespan : Math.min(lifespan, maxIdle);
+      if (expiration >= 0) {
+         expirationIndex.add(key, timeService.wallClockTime() + expiration);
+      }
+   }
+
    /**
     * Performs the actual put operation putting the new address into the memory lookups.  The write lock for the given
     * key <b>must</b> be held before calling this method.
@@ -218,6 +287,7 @@ protected boolean performPut(long bucketHeadAddress, long actualAddress, long ne
          memoryLookup.putMemoryAddress(key, newAddress);
          entryCreated(newAddress);
          size.incrementAndGet();
+         addressAdded(key);
          return true;
       } else {
          boolean replaceHead = false;
@@ -268,10 +338,36 @@ protected boolean performPut(long bucketHeadAddress, long actualAddress, long ne
             // Now prevAddress should be the last link so we fix our link
             offHeapEntryFactory.setNext(prevAddress, newAddress);
          }
+         if (!foundKey) {
+            addressAdded(key);
+         }
          return !foundKey;
       }
    }
 
+   /**
+    * Records a new entry in the memory lookups, resizing the stripe of the key if it holds too many entries. The write
+    * lock for the given key <b>must</b> be held and the entry must already be linked in its bucket.
+    * @param key the key of the new entry
+    */
+   private void addressAdded(WrappedBytes key) {
+      if (memoryLookup.entryAdded(key)) {
+         long sizeChange = memoryLookup.resize(key, offHeapEntryFactory);
+         if (trace) {
+            getLog().tracef("Resized address stripe of key %s, allocated memory changed by %d bytes", key, sizeChange);
+         }
+         addressHashResized(sizeChange);
+      }
+   }
+
+   /**
+    * Invoked after the memory lookups were resized. The write lock will already be acquired for the resized stripe.
+    * @param sizeChange the change in allocated memory of the lookups
+    */
+   protected void addressHashResized(long sizeChange) {
+
+   }
+
    /**
     * Invoked when an entry is about to be created.  The new address is fully addressable,
     * The write lock will already be acquired for the given segment the key mapped to.
@@ -389,6 +485,7 @@ protected InternalCacheEntry<WrappedBytes, WrappedBytes> performRemove(long buck
                memoryLookup.putMemoryAddress(key, nextAddress);
             }
             size.decrementAndGet();
+            memoryLookup.entryRemoved(key);
             break;
          }
          prevAddress = address;
@@ -415,6 +512,9 @@ public void clear() {
       try {
          checkDeallocation();
          performClear();
+         if (expirationIndex != null) {
+            expirationIndex.clear();
+         }
       } finally {
          locks.unlockAll();
       }
@@ -424,7 +524,7 @@ protected void performClear() {
       if (trace) {
          getLog().trace("Clearing off heap data");
       }
-      memoryLookup.toStreamRemoved().forEach(address -> {
+      memoryLookup.removeAll(address -> {
          while (address != 0) {
             long nextAddress = offHeapEntryFactory.getNext(address);
             allocator.deallocate(address);
@@ -540,7 +640,7 @@ public void evict(WrappedBytes key) {
          if (bucketAddress != 0) {
             long actualAddress = performGet(bucketAddress, key, false);
             if (actualAddress != 0) {
-               InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(actualAddress);
+               InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(actualAddress, key);
                passivator.passivate(ice);
                performRemove(bucketAddress, actualAddress, key, false);
             }
@@ -561,7 +661,7 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> compute(WrappedBytes key,
          long actualAddress = bucketAddress == 0 ? 0 : performGet(bucketAddress, key, true);
          InternalCacheEntry<WrappedBytes, WrappedBytes> prev;
          if (actualAddress != 0) {
-            prev = offHeapEntryFactory.fromMemory(actualAddress);
+            prev = offHeapEntryFactory.fromMemory(actualAddress, key);
          } else {
             prev = null;
          }
@@ -574,6 +674,9 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> compute(WrappedBytes key,
             // entire bucket for no reason as it will never match (doing key equality checks)
             performPut(bucketAddress, actualAddress, newAddress, key);
             activator.onUpdate(key, prev == null);
+            if (expirationIndex != null) {
+               expirationIndex.add(key, result.getExpiryTime());
+            }
          } else {
             performRemove(bucketAddress, actualAddress, key, false);
             activator.onRemove(key, false);
@@ -591,8 +694,9 @@ private void executeTask(Consumer<InternalCacheEntry<WrappedBytes, WrappedBytes>
          try {
             checkDeallocation();
             long now = timeService.wallClockTime();
-            for (int j = i; j < memoryAddressCount; j += lockCount) {
-               long address = memoryLookup.getMemoryAddressOffset(j);
+            int stripeSize = memoryLookup.getStripeSize(i);
+            for (int j = 0; j < stripeSize; ++j) {
+               long address = memoryLookup.getMemoryAddress(i, j);
                while (address != 0) {
                   long nextAddress = offHeapEntryFactory.getNext(address);
                   InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(address);
@@ -629,27 +733,53 @@ public void executeTask(KeyValueFilter<? super WrappedBytes, ? super WrappedByte
    }
 
    private Stream<InternalCacheEntry<WrappedBytes, WrappedBytes>> entryStreamIncludingExpired() {
-      return IntStream.range(0, memoryAddressCount)
-            .mapToObj(a -> {
-               Lock lock = locks.getLockWithOffset(a % lockCount).readLock();
-               lock.lock();
-               try {
-                  checkDeallocation();
-                  long address = memoryLookup.getMemoryAddressOffset(a);
-                  if (address == 0) {
-                     return null;
-                  }
-                  Stream.Builder<InternalCacheEntry<WrappedBytes, WrappedBytes>> builder = Stream.builder();
-                  long nextAddress;
-                  do {
-                     nextAddress = offHeapEntryFactory.getNext(address);
-                     builder.accept(offHeapEntryFactory.fromMemory(address));
-                  } while ((address = nextAddress) != 0);
-                  return builder.build();
-               } finally {
-                  lock.unlock();
-               }
-            }).flatMap(Function.identity());
+      Iterator<Stream<InternalCacheEntry<WrappedBytes, WrappedBytes>>> bucketIterator = new BucketIterator();
+      return StreamSupport.stream(Spliterators.spliteratorUnknownSize(bucketIterator, Spliterator.ORDERED), false)
+            .flatMap(Function.identity());
+   }
+
+   /**
+    * Iterator returning the entries of one bucket at a time, only holding the read lock of the bucket stripe while
+    * reading the bucket. Buckets are visited using {@link MemoryAddressHash#nextBucket(int, int)} so a stripe may be
+    * resized between two buckets without missing or repeating entries.
+    */
+   private class BucketIterator implements Iterator<Stream<InternalCacheEntry<WrappedBytes, WrappedBytes>>> {
+      private int stripe;
+      private int bucket;
+
+      @Override
+      public boolean hasNext() {
+         return stripe < lockCount;
+      }
+
+      @Override
+      public Stream<InternalCacheEntry<WrappedBytes, WrappedBytes>> next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         Lock lock = locks.getLockWithOffset(stripe).readLock();
+         lock.lock();
+         try {
+            checkDeallocation();
+            long address = memoryLookup.getMemoryAddress(stripe, bucket);
+            bucket = memoryLookup.nextBucket(stripe, bucket);
+            if (bucket == 0) {
+               stripe++;
+            }
+            if (address == 0) {
+               return null;
+            }
+            Stream.Builder<InternalCacheEntry<WrappedBytes, WrappedBytes>> builder = Stream.builder();
+            long nextAddress;
+            do {
+               nextAddress = offHeapEntryFactory.getNext(address);
+               builder.accept(offHeapEntryFactory.fromMemory(address));
+            } while ((address = nextAddress) != 0);
+            return builder.build();
+         } finally {
+            lock.unlock();
+         }
+      }
    }
 
    private Stream<InternalCacheEntry<WrappedBytes, WrappedBytes>> entryStream() {
@@ -667,6 +797,14 @@ public Iterator<InternalCacheEntry<WrappedBytes, WrappedBytes>> iteratorIncludin
       return entryStreamIncludingExpired().iterator();
    }
 
+   @Override
+   public Iterator<InternalCacheEntry<WrappedBytes, WrappedBytes>> expirationCandidates(long currentTimeMillis) {
+      if (expirationIndex == null) {
+         return iteratorIncludingExpired();
+      }
+      return expirationIndex.expired(currentTimeMillis, this::peek);
+   }
+
    @Override
    public long evictionSize() {
       return size.get();
@@ -1,5 +1,7 @@
 package org.infinispan.container.offheap;
 
+import java.util.function.Function;
+
 import org.infinispan.commons.marshall.WrappedBytes;
 import org.infinispan.container.KeyValueMetadataSizeCalculator;
 import org.infinispan.container.entries.InternalCacheEntry;
@@ -58,6 +60,28 @@ public interface OffHeapEntryFactory extends KeyValueMetadataSizeCalculator<Wrap
     */
    InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address);
 
+   /**
+    * Create an entry from the off heap pointer, reusing the given key instead of copying it from off heap. This is
+    * useful when the caller already found the entry by its key, such as on a get.
+    * @param address the address of the entry to read
+    * @param key the key of the entry, which must be equal to the key stored at the address, or {@code null} to read
+    *            the key from off heap as well
+    * @return the entry created on heap from off heap
+    */
+   InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address, WrappedBytes key);
+
+   /**
+    * Applies the given function to the value of the entry at the given address without copying the value on heap.
+    * The {@link WrappedBytes} passed to the function has no backing array and reads each byte from off heap, so it
+    * is only valid for the duration of the call. The caller must hold the lock protecting the address while invoking
+    * this method, since the entry may be freed as soon as the lock is released.
+    * @param address the address of the entry to read
+    * @param function the function to apply to the value, which must not keep a reference to its argument
+    * @param <R> the type of the result
+    * @return the value returned by the function
+    */
+   <R> R readValue(long address, Function<? super WrappedBytes, ? extends R> function);
+
    /**
     * Returns whether the given key as bytes is the same key as the key stored in the entry for the given address.
     * @param address the address of the entry's key to check
@@ -1,6 +1,8 @@
 package org.infinispan.container.offheap;
 
 import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.function.Function;
 
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.marshall.Marshaller;
@@ -26,6 +28,7 @@
 public class OffHeapEntryFactoryImpl implements OffHeapEntryFactory {
    private static final OffHeapMemory MEMORY = OffHeapMemory.INSTANCE;
    private static final byte[] EMPTY_BYTES = new byte[0];
+   private static final boolean NATIVE_BIG_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
 
    @Inject private Marshaller marshaller;
    @Inject private OffHeapMemoryAllocator allocator;
@@ -105,8 +108,9 @@ public long create(WrappedBytes key, WrappedBytes value, Metadata metadata) {
          } else {
             type |= TRANSIENT_MORTAL;
             metadataBytes = new byte[32 + versionBytes.length];
-            Bits.putLong(metadataBytes, 0, maxIdle);
-            Bits.putLong(metadataBytes, 8, lifespan);
+            // Same order as read by fromMemory and isExpired
+            Bits.putLong(metadataBytes, 0, lifespan);
+            Bits.putLong(metadataBytes, 8, maxIdle);
             long time = timeService.wallClockTime();
             Bits.putLong(metadataBytes, 16, time);
             Bits.putLong(metadataBytes, 24, time);
@@ -215,6 +219,18 @@ public int getHashCode(long entryAddress) {
     */
    @Override
    public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
+      return fromMemory(address, null);
+   }
+
+   /**
+    * Same as {@link #fromMemory(long)} except that the key is not copied from native memory if it is provided. Only
+    * the value is copied into a new byte[], while the expiration metadata is read in place.
+    * @param address the address to read the entry from
+    * @param key the key stored at the address or {@code null} if it is not known
+    * @return the entry at the memory location
+    */
+   @Override
+   public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address, WrappedBytes key) {
       // 16 bytes for eviction if needed (optional)
       // 8 bytes for linked pointer
       int offset = evictionEnabled ? 24 : 8;
@@ -223,56 +239,58 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
       offset += 1;
       int hashCode = MEMORY.getInt(address, offset);
       offset += 4;
-      byte[] keyBytes = new byte[MEMORY.getInt(address, offset)];
+      int keyLength = MEMORY.getInt(address, offset);
       offset += 4;
 
-      byte[] metadataBytes;
+      int metadataLength;
       switch (metadataType) {
          case IMMORTAL:
-            metadataBytes = EMPTY_BYTES;
+            metadataLength = 0;
             break;
          case MORTAL:
-            metadataBytes = new byte[16];
-            break;
          case TRANSIENT:
-            metadataBytes = new byte[16];
+            metadataLength = 16;
             break;
          case TRANSIENT_MORTAL:
-            metadataBytes = new byte[32];
+            metadataLength = 32;
             break;
          default:
             // This means we had CUSTOM or HAS_VERSION so we have to read it all
-            metadataBytes = new byte[MEMORY.getInt(address, offset)];
+            metadataLength = MEMORY.getInt(address, offset);
             offset += 4;
       }
 
       byte[] valueBytes = new byte[MEMORY.getInt(address, offset)];
       offset += 4;
 
-      MEMORY.getBytes(address, offset, keyBytes, 0, keyBytes.length);
-      offset += keyBytes.length;
-      MEMORY.getBytes(address, offset, metadataBytes, 0, metadataBytes.length);
-      offset += metadataBytes.length;
+      if (key == null) {
+         byte[] keyBytes = new byte[keyLength];
+         MEMORY.getBytes(address, offset, keyBytes, 0, keyLength);
+         key = new WrappedByteArray(keyBytes, hashCode);
+      }
+      offset += keyLength;
+      int metadataOffset = offset;
+      offset += metadataLength;
       MEMORY.getBytes(address, offset, valueBytes, 0, valueBytes.length);
-      offset += valueBytes.length;
+      WrappedBytes value = new WrappedByteArray(valueBytes);
 
-      Metadata metadata;
       // This is a custom metadata
       if ((metadataType & CUSTOM) == CUSTOM) {
+         byte[] metadataBytes = new byte[metadataLength];
+         MEMORY.getBytes(address, metadataOffset, metadataBytes, 0, metadataLength);
+         Metadata metadata;
          try {
             metadata = (Metadata) marshaller.objectFromByteBuffer(metadataBytes);
          } catch (IOException | ClassNotFoundException e) {
             throw new CacheException(e);
          }
-         return internalEntryFactory.create(new WrappedByteArray(keyBytes, hashCode),
-               new WrappedByteArray(valueBytes), metadata);
+         return internalEntryFactory.create(key, value, metadata);
       } else {
          long lifespan;
          long maxIdle;
          long created;
          long lastUsed;
-         offset = 0;
-         boolean hasVersion = (metadataType & HAS_VERSION) == HAS_VERSION;
+         int expirationLength;
          // Ignore CUSTOM and VERSION to find type
          switch (metadataType & 0xFC) {
             case IMMORTAL:
@@ -280,44 +298,56 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
                maxIdle = -1;
                created = -1;
                lastUsed = -1;
+               expirationLength = 0;
                break;
             case MORTAL:
                maxIdle = -1;
-               lifespan = Bits.getLong(metadataBytes, offset);
-               created = Bits.getLong(metadataBytes, offset += 8);
+               lifespan = getMetadataLong(address, metadataOffset);
+               created = getMetadataLong(address, metadataOffset + 8);
                lastUsed = -1;
+               expirationLength = 16;
                break;
             case TRANSIENT:
                lifespan = -1;
-               maxIdle = Bits.getLong(metadataBytes, offset);
+               maxIdle = getMetadataLong(address, metadataOffset);
                created = -1;
-               lastUsed = Bits.getLong(metadataBytes, offset += 8);
+               lastUsed = getMetadataLong(address, metadataOffset + 8);
+               expirationLength = 16;
                break;
             case TRANSIENT_MORTAL:
-               lifespan = Bits.getLong(metadataBytes, offset);
-               maxIdle = Bits.getLong(metadataBytes, offset += 8);
-               created = Bits.getLong(metadataBytes, offset += 8);
-               lastUsed = Bits.getLong(metadataBytes, offset += 8);
+               lifespan = getMetadataLong(address, metadataOffset);
+               maxIdle = getMetadataLong(address, metadataOffset + 8);
+               created = getMetadataLong(address, metadataOffset + 16);
+               lastUsed = getMetadataLong(address, metadataOffset + 24);
+               expirationLength = 32;
                break;
             default:
                throw new IllegalArgumentException("Unsupported type: " + metadataType);
          }
-         if (hasVersion) {
+         if ((metadataType & HAS_VERSION) == HAS_VERSION) {
+            byte[] versionBytes = new byte[metadataLength - expirationLength];
+            MEMORY.getBytes(address, metadataOffset + expirationLength, versionBytes, 0, versionBytes.length);
             try {
-               EntryVersion version = (EntryVersion) marshaller.objectFromByteBuffer(metadataBytes, offset,
-                     metadataBytes.length - offset);
-               return internalEntryFactory.create(new WrappedByteArray(keyBytes, hashCode),
-                     new WrappedByteArray(valueBytes), version, created, lifespan, lastUsed, maxIdle);
+               EntryVersion version = (EntryVersion) marshaller.objectFromByteBuffer(versionBytes);
+               return internalEntryFactory.create(key, value, version, created, lifespan, lastUsed, maxIdle);
             } catch (IOException | ClassNotFoundException e) {
                throw new CacheException(e);
             }
          } else {
-            return internalEntryFactory.create(new WrappedByteArray(keyBytes, hashCode),
-                  new WrappedByteArray(valueBytes), (Metadata) null, created, lifespan, lastUsed, maxIdle);
+            return internalEntryFactory.create(key, value, (Metadata) null, created, lifespan, lastUsed, maxIdle);
          }
       }
    }
 
+   /**
+    * Reads a long written with {@link Bits#putLong(byte[], int, long)} directly from native memory, so the metadata
+    * doesn't have to be copied into a byte[] first
+    */
+   private static long getMetadataLong(long address, long offset) {
+      long value = MEMORY.getLong(address, offset);
+      return NATIVE_BIG_ENDIAN ? value : Long.reverseBytes(value);
+   }
+
    /**
     * Assumes the address points to the entry excluding the pointer reference at the beginning
     * @param address the address of an entry to read
@@ -358,6 +388,92 @@ public boolean equalsKey(long address, WrappedBytes wrappedBytes) {
       return true;
    }
 
+   @Override
+   public <R> R readValue(long address, Function<? super WrappedBytes, ? extends R> function) {
+      // 16 bytes for eviction if needed (optional)
+      // 8 bytes for linked pointer
+      int offset = evictionEnabled ? 24 : 8;
+
+      byte metadataType = MEMORY.getByte(address, offset);
+      offset += 1;
+      // hashCode
+      offset += 4;
+      int keyLength = MEMORY.getInt(address, offset);
+      offset += 4;
+
+      int metadataLength;
+      switch (metadataType) {
+         case IMMORTAL:
+            metadataLength = 0;
+            break;
+         case MORTAL:
+         case TRANSIENT:
+            metadataLength = 16;
+            break;
+         case TRANSIENT_MORTAL:
+            metadataLength = 32;
+            break;
+         default:
+            metadataLength = MEMORY.getInt(address, offset);
+            offset += 4;
+      }
+
+      int valueLength = MEMORY.getInt(address, offset);
+      offset += 4;
+      offset += keyLength + metadataLength;
+      return function.apply(new OffHeapValue(address, offset, valueLength));
+   }
+
+   /**
+    * View of a value still stored off heap. It is only valid while the lock protecting the entry is held.
+    */
+   private static class OffHeapValue implements WrappedBytes {
+      private final long address;
+      private final int offset;
+      private final int length;
+
+      OffHeapValue(long address, int offset, int length) {
+         this.address = address;
+         this.offset = offset;
+         this.length = length;
+      }
+
+      @Override
+      public byte[] getBytes() {
+         return null;
+      }
+
+      @Override
+      public int backArrayOffset() {
+         return -1;
+      }
+
+      @Override
+      public int getLength() {
+         return length;
+      }
+
+      @Override
+      public byte getByte(int offset) {
+         return MEMORY.getByte(address, this.offset + offset);
+      }
+
+      @Override
+      public int hashCode() {
+         // Same as Arrays.hashCode so it can be compared with a WrappedByteArray
+         int result = 1;
+         for (int i = 0; i < length; i++) {
+            result = 31 * result + getByte(i);
+         }
+         return result;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         return o instanceof WrappedBytes && equalsWrappedBytes((WrappedBytes) o);
+      }
+   }
+
    /**
     * Returns whether entry is expired.
     * @param address the address of the entry to check
@@ -383,7 +499,6 @@ public boolean isExpired(long address) {
 
       long now = timeService.wallClockTime();
 
-      byte[] metadataBytes;
       if ((metadataType & CUSTOM) == CUSTOM) {
          // TODO: this needs to be fixed in ISPN-8539
          return false;
@@ -414,20 +529,16 @@ public boolean isExpired(long address) {
 
          switch (metadataType & 0xFC) {
             case MORTAL:
-               metadataBytes = new byte[16];
-               MEMORY.getBytes(address, offset, metadataBytes, 0, metadataBytes.length);
-               return ExpiryHelper.isExpiredMortal(Bits.getLong(metadataBytes, 0), Bits.getLong(metadataBytes, 8), now);
+               return ExpiryHelper.isExpiredMortal(getMetadataLong(address, offset),
+                     getMetadataLong(address, offset + 8), now);
             case TRANSIENT:
-               metadataBytes = new byte[16];
-               MEMORY.getBytes(address, offset, metadataBytes, 0, metadataBytes.length);
-               return ExpiryHelper.isExpiredTransient(Bits.getLong(metadataBytes, 0), Bits.getLong(metadataBytes, 8), now);
+               return ExpiryHelper.isExpiredTransient(getMetadataLong(address, offset),
+                     getMetadataLong(address, offset + 8), now);
             case TRANSIENT_MORTAL:
-               metadataBytes = new byte[32];
-               MEMORY.getBytes(address, offset, metadataBytes, 0, metadataBytes.length);
-               long lifespan = Bits.getLong(metadataBytes, 0);
-               long maxIdle = Bits.getLong(metadataBytes, 8);
-               long created = Bits.getLong(metadataBytes, 16);
-               long lastUsed = Bits.getLong(metadataBytes, 24);
+               long lifespan = getMetadataLong(address, offset);
+               long maxIdle = getMetadataLong(address, offset + 8);
+               long created = getMetadataLong(address, offset + 16);
+               long lastUsed = getMetadataLong(address, offset + 24);
                return ExpiryHelper.isExpiredTransientMortal(maxIdle, lastUsed, lifespan, created, now);
             default:
                return false;
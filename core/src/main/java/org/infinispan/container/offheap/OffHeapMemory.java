@@ -124,6 +124,25 @@ long allocate(long size) {
       return address;
    }
 
+   /**
+    * Registers a block that was carved out of a larger allocation, so that accesses to it can be verified when
+    * tracing. This is a no-op otherwise.
+    */
+   void markBlock(long address, long size) {
+      if (trace) {
+         allocatedBlocks.put(address, size);
+      }
+   }
+
+   /**
+    * Unregisters a block previously registered with {@link #markBlock(long, long)}.
+    */
+   void unmarkBlock(long address) {
+      if (trace) {
+         allocatedBlocks.remove(address);
+      }
+   }
+
    void free(long address) {
       Long prev = allocatedBlocks.remove(address);
       if (trace) {
@@ -0,0 +1,335 @@
+package org.infinispan.container.offheap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongUnaryOperator;
+
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import sun.misc.Unsafe;
+
+/**
+ * Memory allocator that carves allocations out of larger native slabs instead of allocating every entry directly.
+ * <p>
+ * Allocations are rounded up using {@link UnpooledOffHeapMemoryAllocator#estimateSizeOverhead(long)} and then mapped
+ * to a size class: multiples of 16 bytes up to {@link #SMALL_LIMIT} and powers of two up to {@link #POOLED_LIMIT}.
+ * Anything larger is allocated directly from native memory. Freed blocks are pushed onto a free list of their size
+ * class, the free list pointer being stored in the first 8 bytes of the freed block itself.
+ * <p>
+ * To avoid all threads contending on the same free lists there is an arena per stripe, with each thread always using
+ * the same arena, so free lists effectively behave as thread local ones. A block freed by a different thread than the
+ * one that allocated it just goes to the arena of the freeing thread.
+ * <p>
+ * Slabs are only returned to the operating system once the allocator is stopped and every block has been freed.
+ * {@link #getAllocatedAmount()} reports the same estimate as {@link UnpooledOffHeapMemoryAllocator} so that memory
+ * based eviction behaves the same, whereas {@link #getReservedAmount()} reports how much native memory is really held.
+ *
+ * @since 9.2
+ */
+@MBean(objectName = "OffHeapMemoryAllocator", description = "Pooled allocator of off-heap memory")
+public class PooledOffHeapMemoryAllocator implements OffHeapMemoryAllocator {
+   private static final Log log = LogFactory.getLog(PooledOffHeapMemoryAllocator.class, Log.class);
+   private static final boolean trace = log.isTraceEnabled();
+   private static final OffHeapMemory MEMORY = OffHeapMemory.INSTANCE;
+   private static final Unsafe UNSAFE = UnsafeHolder.UNSAFE;
+
+   /**
+    * Allocations up to this size use size classes that are 16 bytes apart
+    */
+   static final int SMALL_LIMIT = 1024;
+   /**
+    * Allocations up to this size use power of two size classes, larger ones are not pooled
+    */
+   static final int POOLED_LIMIT = 32 * 1024;
+   static final int SMALL_CLASSES = SMALL_LIMIT >>> 4;
+   static final int SIZE_CLASSES = SMALL_CLASSES +
+         Integer.numberOfTrailingZeros(POOLED_LIMIT) - Integer.numberOfTrailingZeros(SMALL_LIMIT);
+   static final int MIN_SLAB_SIZE = 64 * 1024;
+   static final int MIN_BLOCKS_PER_SLAB = 16;
+
+   private final LongAdder amountAllocated = new LongAdder();
+   private final LongAdder amountReserved = new LongAdder();
+   private final LongAdder outstandingBlocks = new LongAdder();
+   private final LongAdder allocations = new LongAdder();
+   private final Arena[] arenas;
+   private final int arenaMask;
+
+   private LongUnaryOperator sizeCalculator;
+   private TimeService timeService;
+   private volatile long statsStartTime;
+   private volatile boolean stopped;
+
+   public PooledOffHeapMemoryAllocator() {
+      this(OffHeapDataContainer.nextPowerOfTwo(Runtime.getRuntime().availableProcessors()));
+   }
+
+   PooledOffHeapMemoryAllocator(int arenaCount) {
+      arenas = new Arena[OffHeapDataContainer.nextPowerOfTwo(arenaCount)];
+      arenaMask = arenas.length - 1;
+      for (int i = 0; i < arenas.length; ++i) {
+         arenas[i] = new Arena();
+      }
+   }
+
+   @Inject
+   public void inject(OffHeapEntryFactory offHeapEntryFactory, TimeService timeService) {
+      this.sizeCalculator = offHeapEntryFactory::getSize;
+      this.timeService = timeService;
+   }
+
+   @Start
+   public void start() {
+      stopped = false;
+      statsStartTime = timeService.time();
+   }
+
+   /**
+    * Marks the allocator as stopped, the slabs are released as soon as the last outstanding block is freed which may
+    * be right away or when the data container deallocates its memory.
+    */
+   @Stop
+   public void stop() {
+      stopped = true;
+      releaseSlabsIfUnused();
+   }
+
+   @Override
+   public long allocate(long memoryLength) {
+      long estimatedMemoryLength = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(memoryLength);
+      int sizeClass = sizeClass(estimatedMemoryLength);
+      long memoryLocation;
+      if (sizeClass < 0) {
+         memoryLocation = MEMORY.allocate(memoryLength);
+         amountReserved.add(estimatedMemoryLength);
+      } else {
+         memoryLocation = currentArena().pools[sizeClass].allocate(this);
+         MEMORY.markBlock(memoryLocation, blockSize(sizeClass));
+         outstandingBlocks.increment();
+      }
+      amountAllocated.add(estimatedMemoryLength);
+      allocations.increment();
+      if (trace) {
+         log.tracef("Allocated off heap memory at 0x%016x with %d bytes from size class %d. Total size: %d",
+               memoryLocation, estimatedMemoryLength, sizeClass, amountAllocated.sum());
+      }
+      return memoryLocation;
+   }
+
+   @Override
+   public void deallocate(long memoryAddress) {
+      // Size calculator already takes care of size estimate
+      innerDeallocate(memoryAddress, sizeCalculator.applyAsLong(memoryAddress));
+   }
+
+   @Override
+   public void deallocate(long memoryAddress, long size) {
+      innerDeallocate(memoryAddress, UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(size));
+   }
+
+   private void innerDeallocate(long memoryAddress, long estimatedSize) {
+      amountAllocated.add(-estimatedSize);
+      int sizeClass = sizeClass(estimatedSize);
+      if (trace) {
+         log.tracef("Deallocating off heap memory at 0x%016x with %d bytes from size class %d. Total size: %d",
+               memoryAddress, estimatedSize, sizeClass, amountAllocated.sum());
+      }
+      if (sizeClass < 0) {
+         amountReserved.add(-estimatedSize);
+         MEMORY.free(memoryAddress);
+      } else {
+         MEMORY.unmarkBlock(memoryAddress);
+         currentArena().pools[sizeClass].free(memoryAddress);
+         outstandingBlocks.decrement();
+         if (stopped) {
+            releaseSlabsIfUnused();
+         }
+      }
+   }
+
+   private Arena currentArena() {
+      return arenas[(int) Thread.currentThread().getId() & arenaMask];
+   }
+
+   private void releaseSlabsIfUnused() {
+      if (outstandingBlocks.sum() == 0) {
+         for (Arena arena : arenas) {
+            for (Pool pool : arena.pools) {
+               amountReserved.add(-pool.release());
+            }
+         }
+      }
+   }
+
+   @Override
+   public long getAllocatedAmount() {
+      return amountAllocated.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Amount of native memory in bytes held by the allocator, including pooled memory not in use",
+         displayName = "Off-Heap Memory Reserved",
+         displayType = DisplayType.SUMMARY
+   )
+   public long getReservedAmount() {
+      return amountReserved.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Amount of native memory in bytes held by the allocator that is not used by any entry",
+         displayName = "Off-Heap Memory Wasted",
+         displayType = DisplayType.SUMMARY
+   )
+   public long getWastedAmount() {
+      return Math.max(0, amountReserved.sum() - amountAllocated.sum());
+   }
+
+   @ManagedAttribute(
+         description = "Number of allocations performed since the allocator was started or statistics reset",
+         displayName = "Number of allocations",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getAllocations() {
+      return allocations.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Average number of allocations per second since the allocator was started or statistics reset",
+         displayName = "Allocation rate",
+         displayType = DisplayType.SUMMARY
+   )
+   public double getAllocationRate() {
+      long elapsed = timeService.timeDuration(statsStartTime, TimeUnit.MILLISECONDS);
+      return elapsed <= 0 ? 0 : allocations.sum() * 1000d / elapsed;
+   }
+
+   @ManagedAttribute(
+         description = "Number of seconds since the allocation statistics were reset",
+         displayName = "Seconds since allocation statistics reset",
+         units = Units.SECONDS,
+         dataType = DataType.TRAIT
+   )
+   public long getTimeSinceReset() {
+      return timeService.timeDuration(statsStartTime, TimeUnit.SECONDS);
+   }
+
+   @ManagedOperation(
+         description = "Resets the allocation count and rate",
+         displayName = "Reset statistics"
+   )
+   public void resetStatistics() {
+      allocations.reset();
+      statsStartTime = timeService.time();
+   }
+
+   /**
+    * Returns the size class for an estimated allocation size or -1 if the allocation is too large to be pooled.
+    * @param estimatedSize size returned by {@link UnpooledOffHeapMemoryAllocator#estimateSizeOverhead(long)}
+    * @return the size class
+    */
+   static int sizeClass(long estimatedSize) {
+      if (estimatedSize <= SMALL_LIMIT) {
+         return (int) ((estimatedSize + 15) >>> 4) - 1;
+      }
+      if (estimatedSize <= POOLED_LIMIT) {
+         int bits = 64 - Long.numberOfLeadingZeros(estimatedSize - 1);
+         return SMALL_CLASSES + bits - Integer.numberOfTrailingZeros(SMALL_LIMIT) - 1;
+      }
+      return -1;
+   }
+
+   /**
+    * Returns how many bytes each block of the given size class has
+    * @param sizeClass the size class
+    * @return the size of the blocks
+    */
+   static long blockSize(int sizeClass) {
+      if (sizeClass < SMALL_CLASSES) {
+         return (sizeClass + 1) << 4;
+      }
+      return ((long) SMALL_LIMIT) << (sizeClass - SMALL_CLASSES + 1);
+   }
+
+   private static class Arena {
+      private final Pool[] pools = new Pool[SIZE_CLASSES];
+
+      Arena() {
+         for (int i = 0; i < pools.length; ++i) {
+            pools[i] = new Pool(blockSize(i));
+         }
+      }
+   }
+
+   /**
+    * Blocks of a single size class for an arena. Blocks are first taken from the free list and when that is empty
+    * they are carved out of the current slab, allocating a new one when required.
+    */
+   private static class Pool {
+      private final long blockSize;
+      private final long slabSize;
+      private final List<Long> slabs = new ArrayList<>();
+      private long freeListHead;
+      private long slabPosition;
+      private long slabLimit;
+
+      Pool(long blockSize) {
+         this.blockSize = blockSize;
+         this.slabSize = Math.max(MIN_SLAB_SIZE, blockSize * MIN_BLOCKS_PER_SLAB);
+      }
+
+      synchronized long allocate(PooledOffHeapMemoryAllocator allocator) {
+         long address = freeListHead;
+         if (address != 0) {
+            freeListHead = UNSAFE.getLong(address);
+            return address;
+         }
+         if (slabPosition + blockSize > slabLimit) {
+            long slab = MEMORY.allocate(slabSize);
+            slabs.add(slab);
+            allocator.amountReserved.add(slabSize);
+            slabPosition = slab;
+            slabLimit = slab + slabSize;
+         }
+         address = slabPosition;
+         slabPosition += blockSize;
+         return address;
+      }
+
+      synchronized void free(long address) {
+         UNSAFE.putLong(address, freeListHead);
+         freeListHead = address;
+      }
+
+      /**
+       * Frees all the slabs of this pool, no block may be in use
+       * @return how many bytes were released
+       */
+      synchronized long release() {
+         long released = slabs.size() * slabSize;
+         for (long slab : slabs) {
+            // The first block of the slab shares its address, so make sure the slab itself is registered again
+            MEMORY.markBlock(slab, slabSize);
+            MEMORY.free(slab);
+         }
+         slabs.clear();
+         freeListHead = 0;
+         slabPosition = 0;
+         slabLimit = 0;
+         return released;
+      }
+   }
+}
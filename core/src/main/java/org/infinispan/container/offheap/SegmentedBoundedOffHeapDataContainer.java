@@ -0,0 +1,296 @@
+package org.infinispan.container.offheap;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongUnaryOperator;
+
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Data Container implementation that stores entries in native memory (off-heap) that is also bounded.  Unlike
+ * {@link BoundedOffHeapDataContainer} this implementation does not keep a single LRU list guarded by a global lock,
+ * but instead keeps one LRU list per lock stripe, each guarded by its own lock.
+ * <p>
+ * Since all entries in a LRU segment map to the same lock stripe, writers (which already hold the stripe write lock)
+ * never contend on the LRU segment lock. Readers only hold the stripe read lock and therefore may race each other to
+ * update the LRU segment; when the segment lock is busy the read is simply not recorded, so a read never blocks on
+ * the LRU ordering.
+ * <p>
+ * The current size is tracked globally, so the configured maximum size is honored exactly. When the container is
+ * over its maximum size the least recently used entry of the LRU segments is evicted, picking the segments in a round
+ * robin fashion. Since keys are spread uniformly across the lock stripes this approximates a global LRU order.
+ *
+ * @since 9.2
+ */
+public class SegmentedBoundedOffHeapDataContainer extends OffHeapDataContainer {
+   private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
+   protected final long maxSize;
+   protected final LongUnaryOperator sizeCalculator;
+   protected final long initialSize;
+   protected final boolean countAddressHash;
+   protected final AtomicLong currentSize;
+
+   private final LruSegment[] lruSegments;
+   private final AtomicInteger evictionCursor = new AtomicInteger();
+
+   public SegmentedBoundedOffHeapDataContainer(int desiredSize, long maxSize, EvictionType type) {
+      this(desiredSize, maxSize, type, false);
+   }
+
+   public SegmentedBoundedOffHeapDataContainer(int desiredSize, long maxSize, EvictionType type,
+         boolean resizableAddressCount) {
+      super(desiredSize, resizableAddressCount);
+      this.maxSize = maxSize;
+      this.countAddressHash = type == EvictionType.MEMORY;
+      if (type == EvictionType.COUNT) {
+         sizeCalculator = i -> 1;
+         initialSize = 0;
+      } else {
+         // Use size of entry plus 16 for our LRU pointers
+         sizeCalculator = i -> offHeapEntryFactory.getSize(i);
+         // We have to make sure to count the address hash as part of our size
+         initialSize = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(memoryAddressCount << 3);
+      }
+      currentSize = new AtomicLong(initialSize);
+      lruSegments = new LruSegment[lockCount];
+      for (int i = 0; i < lruSegments.length; ++i) {
+         lruSegments[i] = new LruSegment();
+      }
+   }
+
+   /**
+    * A single LRU doubly linked list off-heap. All addresses in it map to the same lock stripe.
+    */
+   private static class LruSegment {
+      private final Lock lock = new ReentrantLock();
+      private long firstAddress;
+      private long lastAddress;
+   }
+
+   private LruSegment segmentForAddress(long address) {
+      return lruSegments[StripedLock.spread(offHeapEntryFactory.getHashCode(address)) & (lockCount - 1)];
+   }
+
+   @Override
+   public void put(WrappedBytes key, WrappedBytes value, Metadata metadata) {
+      super.put(key, value, metadata);
+      // The following is called outside of the write lock specifically - since we may not have to evict and even
+      // if we did it would quite possibly need a different lock
+      ensureSize();
+   }
+
+   @Override
+   public InternalCacheEntry<WrappedBytes, WrappedBytes> compute(WrappedBytes key,
+                                                                 ComputeAction<WrappedBytes, WrappedBytes> action) {
+      InternalCacheEntry<WrappedBytes, WrappedBytes> result = super.compute(key, action);
+      if (result != null) {
+         // Means we had a put or replace called so we have to confirm sizes
+         ensureSize();
+      }
+      return result;
+   }
+
+   @Override
+   protected void entryReplaced(long newAddress, long oldAddress) {
+      long oldSize = sizeCalculator.applyAsLong(oldAddress);
+      long newSize = sizeCalculator.applyAsLong(newAddress);
+      // Both addresses belong to the same key, thus the same segment
+      LruSegment segment = segmentForAddress(newAddress);
+      segment.lock.lock();
+      try {
+         removeNode(segment, oldAddress);
+         addEntryAddressToEnd(segment, newAddress);
+      } finally {
+         segment.lock.unlock();
+      }
+      currentSize.addAndGet(newSize - oldSize);
+      super.entryReplaced(newAddress, oldAddress);
+   }
+
+   @Override
+   protected void entryCreated(long newAddress) {
+      long newSize = sizeCalculator.applyAsLong(newAddress);
+      LruSegment segment = segmentForAddress(newAddress);
+      segment.lock.lock();
+      try {
+         addEntryAddressToEnd(segment, newAddress);
+      } finally {
+         segment.lock.unlock();
+      }
+      currentSize.addAndGet(newSize);
+      super.entryCreated(newAddress);
+   }
+
+   @Override
+   protected void entryRemoved(long removedAddress) {
+      long removedSize = sizeCalculator.applyAsLong(removedAddress);
+      LruSegment segment = segmentForAddress(removedAddress);
+      segment.lock.lock();
+      try {
+         removeNode(segment, removedAddress);
+      } finally {
+         segment.lock.unlock();
+      }
+      currentSize.addAndGet(-removedSize);
+      super.entryRemoved(removedAddress);
+   }
+
+   @Override
+   protected void entryRetrieved(long entryAddress) {
+      LruSegment segment = segmentForAddress(entryAddress);
+      // Another reader of the same stripe is updating the segment, just skip recording this read
+      if (segment.lock.tryLock()) {
+         try {
+            if (trace) {
+               getLog().tracef("Moving entry 0x%016x to the end of the LRU segment list", entryAddress);
+            }
+            moveToEnd(segment, entryAddress);
+         } finally {
+            segment.lock.unlock();
+         }
+      } else if (trace) {
+         getLog().tracef("Skipped moving entry 0x%016x to the end of the LRU segment list", entryAddress);
+      }
+      super.entryRetrieved(entryAddress);
+   }
+
+   @Override
+   protected void addressHashResized(long sizeChange) {
+      if (countAddressHash) {
+         currentSize.addAndGet(sizeChange);
+      }
+   }
+
+   @Override
+   protected void performClear() {
+      if (trace) {
+         getLog().trace("Clearing bounded LRU segment entries");
+      }
+      // All write locks are held, so nobody else can touch the segments
+      for (LruSegment segment : lruSegments) {
+         segment.firstAddress = 0;
+         segment.lastAddress = 0;
+      }
+      currentSize.set(initialSize);
+      super.performClear();
+   }
+
+   @Override
+   public long capacity() {
+      return maxSize;
+   }
+
+   @Override
+   public long evictionSize() {
+      return currentSize.get();
+   }
+
+   /**
+    * This method evicts the head of the LRU segments, going through the segments in a round robin fashion, until the
+    * current size is less than or equal to `maxSize`.
+    * <p>
+    * Since a LRU segment only contains entries of a single lock stripe we can acquire the stripe write lock before
+    * the segment lock, so unlike {@link BoundedOffHeapDataContainer} no lock ordering tricks are required.
+    */
+   private void ensureSize() {
+      while (currentSize.get() > maxSize) {
+         if (!evictFromNextSegment()) {
+            break;
+         }
+      }
+   }
+
+   /**
+    * Evicts the head of the next non empty LRU segment.
+    * @return {@code false} if all segments were empty and nothing could be evicted
+    */
+   private boolean evictFromNextSegment() {
+      for (int i = 0; i < lockCount; ++i) {
+         int offset = evictionCursor.getAndIncrement() & (lockCount - 1);
+         Lock entryWriteLock = locks.getLockWithOffset(offset).writeLock();
+         entryWriteLock.lock();
+         try {
+            if (currentSize.get() <= maxSize) {
+               return true;
+            }
+            long addressToRemove = lruSegments[offset].firstAddress;
+            if (addressToRemove == 0) {
+               continue;
+            }
+            if (trace) {
+               getLog().tracef("Removing entry: 0x%016x due to eviction due to size %d being larger than maximum of %d",
+                     addressToRemove, currentSize.get(), maxSize);
+            }
+            InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(addressToRemove);
+            passivator.passivate(ice);
+            performRemove(memoryLookup.getMemoryAddress(ice.getKey()), addressToRemove, ice.getKey(), false);
+            evictionManager.onEntryEviction(Collections.singletonMap(ice.getKey(), ice));
+            return true;
+         } finally {
+            entryWriteLock.unlock();
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Removes the address node and updates previous and next lru node pointers properly
+    * The segment lock <b>must</b> be held when invoking this
+    */
+   private void removeNode(LruSegment segment, long address) {
+      long previousLRUNode = OffHeapLruNode.getPrevious(address);
+      long nextLRUNode = OffHeapLruNode.getNext(address);
+      if (previousLRUNode != 0) {
+         OffHeapLruNode.setNext(previousLRUNode, nextLRUNode);
+      } else {
+         assert address == segment.firstAddress;
+         segment.firstAddress = nextLRUNode;
+      }
+      if (nextLRUNode != 0) {
+         OffHeapLruNode.setPrevious(nextLRUNode, previousLRUNode);
+      } else {
+         assert address == segment.lastAddress;
+         segment.lastAddress = previousLRUNode;
+      }
+   }
+
+   /**
+    * Adds a newly created entry address to the end of the segment.
+    * The segment lock <b>must</b> be held when invoking this
+    */
+   private void addEntryAddressToEnd(LruSegment segment, long entryAddress) {
+      if (segment.lastAddress == 0) {
+         segment.firstAddress = entryAddress;
+      } else {
+         OffHeapLruNode.setNext(segment.lastAddress, entryAddress);
+      }
+      OffHeapLruNode.setPrevious(entryAddress, segment.lastAddress);
+      OffHeapLruNode.setNext(entryAddress, 0);
+      segment.lastAddress = entryAddress;
+   }
+
+   /**
+    * Moves an existing entry address to the end of the segment.
+    * The segment lock <b>must</b> be held when invoking this
+    */
+   private void moveToEnd(LruSegment segment, long entryAddress) {
+      if (entryAddress != segment.lastAddress) {
+         removeNode(segment, entryAddress);
+         addEntryAddressToEnd(segment, entryAddress);
+      }
+   }
+
+   @Override
+   public Log getLog() {
+      return log;
+   }
+}
@@ -2,9 +2,20 @@
 
 import static org.infinispan.commons.util.Util.toStr;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import javax.transaction.HeuristicMixedException;
 import javax.transaction.HeuristicRollbackException;
@@ -18,14 +29,20 @@
 import org.infinispan.AdvancedCache;
 import org.infinispan.cache.impl.AbstractDelegatingCache;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.SerializeWith;
 import org.infinispan.commons.util.Util;
 import org.infinispan.container.entries.ExpiryHelper;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.DistributionInfo;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.expiration.ExpirationManager;
 import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.metadata.InternalMetadata;
+import org.infinispan.remoting.transport.Address;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -42,6 +59,10 @@
  * Cache stores however do not supply the value or metadata information which means if an entry is purged from the cache
  * store that it will forcibly remove the value even if a concurrent write updated it just before.  This will be
  * addressed by future SPI changes to the cache store.
+ * <p>
+ * When {@link org.infinispan.configuration.cache.ExpirationConfiguration#reaperBatchSize()} is greater than 0, the
+ * reaper groups the expired entries by primary owner and sends each primary owner a single request per batch, which
+ * then removes the entries locally, instead of sending a request for every expired entry.
  * @param <K>
  * @param <V>
  */
@@ -53,7 +74,9 @@
    @Inject @ComponentName(KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR)
    private ExecutorService asyncExecutor;
    @Inject private AdvancedCache<K, V> cache;
+   @Inject private DistributionManager distributionManager;
    private boolean needTransaction;
+   private int reaperBatchSize;
 
    public ExecutorService getAsyncExecutor() {
       return asyncExecutor;
@@ -65,40 +88,29 @@ public void start() {
       // Data container entries are retrieved directly, so we don't need to worry about an encodings
       this.cache = AbstractDelegatingCache.unwrapCache(cache).getAdvancedCache();
       needTransaction = configuration.transaction().transactionMode().isTransactional();
+      reaperBatchSize = configuration.expiration().reaperBatchSize();
    }
 
    @Override
    public void processExpiration() {
-      long start = 0;
       if (!Thread.currentThread().isInterrupted()) {
          try {
             if (trace) {
                log.trace("Purging data container of expired entries");
-               start = timeService.time();
             }
+            long start = timeService.time();
+            long reaped;
+            ExpiredBatches batches = reaperBatchSize > 0 ? new ExpiredBatches() : null;
             long currentTimeMillis = timeService.wallClockTime();
-            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.iteratorIncludingExpired();
-                 purgeCandidates.hasNext();) {
-               InternalCacheEntry<K, V> e = purgeCandidates.next();
-               if (e.canExpire()) {
-                  // Have to synchronize on the entry to make sure we see the value and metadata at the same time
-                  boolean expiredMortal;
-                  boolean expiredTransient;
-                  V value;
-                  long lifespan;
-                  synchronized (e) {
-                     value = e.getValue();
-                     lifespan = e.getLifespan();
-                     expiredMortal = ExpiryHelper.isExpiredMortal(lifespan, e.getCreated(), currentTimeMillis);
-                     expiredTransient = ExpiryHelper.isExpiredTransient(e.getMaxIdle(), e.getLastUsed(), currentTimeMillis);
-                  }
-                  if (expiredMortal) {
-                     handleLifespanExpireEntry(e.getKey(), value, lifespan, true);
-                  } else if (expiredTransient) {
-                     super.handleInMemoryExpiration(e, currentTimeMillis);
-                  }
+            try {
+               reaped = reapDataContainer(batches, currentTimeMillis);
+            } finally {
+               // Always release the keys of the batches already sent
+               if (batches != null) {
+                  batches.flush();
                }
             }
+            reaperRunCompleted(reaped, start);
             if (trace) {
                log.tracef("Purging data container completed in %s",
                        Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
@@ -113,6 +125,39 @@ public void processExpiration() {
       }
    }
 
+   private long reapDataContainer(ExpiredBatches batches, long currentTimeMillis) {
+      long reaped = 0;
+      for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.expirationCandidates(currentTimeMillis);
+           purgeCandidates.hasNext();) {
+         InternalCacheEntry<K, V> e = purgeCandidates.next();
+         if (e.canExpire()) {
+            // Have to synchronize on the entry to make sure we see the value and metadata at the same time
+            boolean expiredMortal;
+            boolean expiredTransient;
+            V value;
+            long lifespan;
+            synchronized (e) {
+               value = e.getValue();
+               lifespan = e.getLifespan();
+               expiredMortal = ExpiryHelper.isExpiredMortal(lifespan, e.getCreated(), currentTimeMillis);
+               expiredTransient = ExpiryHelper.isExpiredTransient(e.getMaxIdle(), e.getLastUsed(), currentTimeMillis);
+            }
+            if (expiredMortal) {
+               if (batches != null) {
+                  batches.add(e.getKey(), value, lifespan);
+               } else {
+                  handleLifespanExpireEntry(e.getKey(), value, lifespan, true);
+               }
+               reaped++;
+            } else if (expiredTransient) {
+               super.handleInMemoryExpiration(e, currentTimeMillis);
+               reaped++;
+            }
+         }
+      }
+      return reaped;
+   }
+
    void handleLifespanExpireEntry(K key, V value, long lifespan, boolean sync) {
       // The most used case will be a miss so no extra read before
       if (expiring.putIfAbsent(key, key) == null) {
@@ -134,6 +179,16 @@ void handleLifespanExpireEntry(K key, V value, long lifespan, boolean sync) {
       }
    }
 
+   /**
+    * Removes the expired entries of a batch received from another node. This node was their primary owner when the
+    * batch was sent, otherwise the removal is forwarded to the current primary owner.
+    */
+   void removeExpiredBatch(List<K> keys, List<V> values, long[] lifespans) {
+      for (int i = 0; i < keys.size(); i++) {
+         handleLifespanExpireEntry(keys.get(i), values.get(i), lifespans[i], true);
+      }
+   }
+
    private void removeExpired(K key, V value, Long lifespan) {
       if (needTransaction) {
          TransactionManager tm = cache.getTransactionManager();
@@ -204,4 +259,160 @@ public void handleInStoreExpiration(MarshalledEntry<K, V> marshalledEntry) {
          }
       }
    }
+
+   /**
+    * The expired entries found by a reaper run, grouped by primary owner. The entries owned by this node are removed
+    * immediately, the others are sent to their primary owner in batches of {@link #reaperBatchSize} entries.
+    */
+   private class ExpiredBatches {
+      private final Map<Address, RemoveExpiredBatch<K, V>> batches = new HashMap<>();
+      private final List<RemoveExpiredBatch<K, V>> sent = new ArrayList<>();
+      private final List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+      void add(K key, V value, long lifespan) {
+         if (expiring.putIfAbsent(key, key) != null)
+            return;
+
+         DistributionInfo info = distributionManager.getCacheTopology().getDistribution(key);
+         Address primary = info.primary();
+         if (info.isPrimary() || primary == null) {
+            removeLocally(key, value, lifespan);
+            return;
+         }
+         RemoveExpiredBatch<K, V> batch = batches.computeIfAbsent(primary,
+               a -> new RemoveExpiredBatch<>(cache.getName()));
+         batch.add(key, value, lifespan);
+         if (batch.keys.size() >= reaperBatchSize) {
+            batches.remove(primary);
+            send(primary, batch);
+         }
+      }
+
+      void flush() {
+         batches.forEach(this::send);
+         batches.clear();
+         CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+         for (RemoveExpiredBatch<K, V> batch : sent) {
+            if (batch.failure != null) {
+               log.failedToRemoveExpiredBatch(batch.keys.size(), batch.target, batch.failure);
+               // The primary owner may have left, removeExpired sends each entry to the current primary owner
+               for (int i = 0; i < batch.keys.size(); i++) {
+                  try {
+                     removeLocally(batch.keys.get(i), batch.values.get(i), batch.lifespans[i]);
+                  } catch (Exception e) {
+                     log.exceptionPurgingDataContainer(e);
+                  }
+               }
+            } else {
+               for (K key : batch.keys) {
+                  expiring.remove(key);
+               }
+            }
+         }
+      }
+
+      private void send(Address primary, RemoveExpiredBatch<K, V> batch) {
+         if (trace) {
+            log.tracef("Sending a batch of %d expired entries to %s", batch.keys.size(), primary);
+         }
+         batch.target = primary;
+         sent.add(batch);
+         try {
+            futures.add(cache.getCacheManager().executor().filterTargets(Collections.singleton(primary))
+                  .submitConsumer(batch, (address, ignored, t) -> {
+                     if (t != null) {
+                        batch.failure = t;
+                     }
+                  }).exceptionally(t -> {
+                     batch.failure = t;
+                     return null;
+                  }));
+         } catch (Exception e) {
+            batch.failure = e;
+         }
+      }
+
+      private void removeLocally(K key, V value, long lifespan) {
+         try {
+            removeExpired(key, value, lifespan);
+         } finally {
+            expiring.remove(key);
+         }
+      }
+   }
+
+   /**
+    * Removes a batch of expired entries on their primary owner.
+    */
+   @SerializeWith(RemoveExpiredBatch.Externalizer.class)
+   static class RemoveExpiredBatch<K, V> implements Function<EmbeddedCacheManager, Void> {
+      private final String cacheName;
+      private final List<K> keys;
+      private final List<V> values;
+      private long[] lifespans;
+      // Only used by the originator
+      private transient Address target;
+      private transient volatile Throwable failure;
+
+      RemoveExpiredBatch(String cacheName) {
+         this(cacheName, new ArrayList<>(), new ArrayList<>(), new long[8]);
+      }
+
+      private RemoveExpiredBatch(String cacheName, List<K> keys, List<V> values, long[] lifespans) {
+         this.cacheName = cacheName;
+         this.keys = keys;
+         this.values = values;
+         this.lifespans = lifespans;
+      }
+
+      void add(K key, V value, long lifespan) {
+         int size = keys.size();
+         if (size == lifespans.length) {
+            lifespans = Arrays.copyOf(lifespans, size * 2);
+         }
+         keys.add(key);
+         values.add(value);
+         lifespans[size] = lifespan;
+      }
+
+      @Override
+      public Void apply(EmbeddedCacheManager cacheManager) {
+         if (!cacheManager.isRunning(cacheName))
+            return null;
+
+         ExpirationManager<K, V> expirationManager = cacheManager.<K, V>getCache(cacheName).getAdvancedCache()
+               .getComponentRegistry().getComponent(ExpirationManager.class);
+         ((ClusterExpirationManager<K, V>) expirationManager).removeExpiredBatch(keys, values, lifespans);
+         return null;
+      }
+
+      public static final class Externalizer implements org.infinispan.commons.marshall.Externalizer<RemoveExpiredBatch> {
+         @Override
+         public void writeObject(ObjectOutput output, RemoveExpiredBatch object) throws IOException {
+            output.writeUTF(object.cacheName);
+            int size = object.keys.size();
+            output.writeInt(size);
+            for (int i = 0; i < size; i++) {
+               output.writeObject(object.keys.get(i));
+               output.writeObject(object.values.get(i));
+               output.writeLong(object.lifespans[i]);
+            }
+         }
+
+         @Override
+         public RemoveExpiredBatch readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+            String cacheName = input.readUTF();
+            int size = input.readInt();
+            List<Object> keys = new ArrayList<>(size);
+            List<Object> values = new ArrayList<>(size);
+            long[] lifespans = new long[size];
+            for (int i = 0; i < size; i++) {
+               keys.add(input.readObject());
+               values.add(input.readObject());
+               lifespans[i] = input.readLong();
+            }
+            return new RemoveExpiredBatch<>(cacheName, keys, values, lifespans);
+         }
+      }
+   }
 }
@@ -6,6 +6,7 @@
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.Configuration;
@@ -17,6 +18,10 @@
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
@@ -28,6 +33,7 @@
 import net.jcip.annotations.ThreadSafe;
 
 @ThreadSafe
+@MBean(objectName = "ExpirationManager", description = "Component that removes expired entries from memory and from the cache stores.")
 public class ExpirationManagerImpl<K, V> implements ExpirationManager<K, V> {
    private static final Log log = LogFactory.getLog(ExpirationManagerImpl.class);
    private static final boolean trace = log.isTraceEnabled();
@@ -52,6 +58,9 @@
    protected ConcurrentMap<K, Object> expiring = new ConcurrentHashMap<>();
    protected ScheduledFuture<?> expirationTask;
 
+   private final LongAdder reapedEntries = new LongAdder();
+   private volatile double reapedEntriesPerSecond;
+
    // used only for testing
    void initialize(ScheduledExecutorService executor, String cacheName, Configuration cfg) {
       this.executor = executor;
@@ -79,21 +88,23 @@ public void start() {
 
    @Override
    public void processExpiration() {
-      long start = 0;
       if (!Thread.currentThread().isInterrupted()) {
          try {
             if (trace) {
                log.trace("Purging data container of expired entries");
-               start = timeService.time();
             }
+            long start = timeService.time();
+            long reaped = 0;
             long currentTimeMillis = timeService.wallClockTime();
-            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.iteratorIncludingExpired();
-                 purgeCandidates.hasNext();) {
+            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates =
+                       dataContainer.expirationCandidates(currentTimeMillis); purgeCandidates.hasNext();) {
                InternalCacheEntry<K, V> e = purgeCandidates.next();
                if (e.isExpired(currentTimeMillis)) {
                   handleInMemoryExpiration(e, currentTimeMillis);
+                  reaped++;
                }
             }
+            reaperRunCompleted(reaped, start);
             if (trace) {
                log.tracef("Purging data container completed in %s",
                           Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
@@ -108,6 +119,43 @@ public void processExpiration() {
       }
    }
 
+   /**
+    * Updates the reaper statistics after a run that found {@code reaped} expired entries.
+    *
+    * @param start the start of the run, as returned by {@link TimeService#time()}
+    */
+   protected void reaperRunCompleted(long reaped, long start) {
+      reapedEntries.add(reaped);
+      long elapsed = timeService.timeDuration(start, TimeUnit.MICROSECONDS);
+      reapedEntriesPerSecond = elapsed > 0 ? reaped * 1_000_000d / elapsed : 0;
+   }
+
+   @ManagedAttribute(
+         description = "Number of expired entries removed from memory by the expiration reaper",
+         displayName = "Number of reaped entries",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getReapedEntries() {
+      return reapedEntries.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of expired entries removed per second by the last run of the expiration reaper",
+         displayName = "Reaped entries per second"
+   )
+   public double getReapedEntriesPerSecond() {
+      return reapedEntriesPerSecond;
+   }
+
+   @ManagedOperation(
+         description = "Resets statistics gathered by this component",
+         displayName = "Reset statistics"
+   )
+   public void resetStatistics() {
+      reapedEntries.reset();
+      reapedEntriesPerSecond = 0;
+   }
+
    @Override
    public boolean isEnabled() {
       return enabled;
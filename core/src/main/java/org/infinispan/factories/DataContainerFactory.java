@@ -7,6 +7,7 @@
 import org.infinispan.container.DefaultDataContainer;
 import org.infinispan.container.offheap.BoundedOffHeapDataContainer;
 import org.infinispan.container.offheap.OffHeapDataContainer;
+import org.infinispan.container.offheap.SegmentedBoundedOffHeapDataContainer;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.factories.annotations.DefaultFactoryFor;
 
@@ -35,7 +36,8 @@ public <T> T construct(Class<T> componentType) {
          //handle case when < 0 value signifies unbounded container or when we are not removal based
          if (strategy.isExceptionBased() || !strategy.isEnabled()) {
             if (configuration.memory().storageType() == StorageType.OFF_HEAP) {
-               return (T) new OffHeapDataContainer(configuration.memory().addressCount());
+               return (T) new OffHeapDataContainer(configuration.memory().addressCount(),
+                     configuration.memory().resizableAddressCount());
             } else {
                return (T) DefaultDataContainer.unBoundedDataContainer(level);
             }
@@ -43,8 +45,14 @@ public <T> T construct(Class<T> componentType) {
 
          DataContainer dataContainer;
          if (configuration.memory().storageType() == StorageType.OFF_HEAP) {
-            dataContainer = new BoundedOffHeapDataContainer(configuration.memory().addressCount(), thresholdSize,
-                  configuration.memory().evictionType());
+            if (configuration.memory().segmentedEviction()) {
+               dataContainer = new SegmentedBoundedOffHeapDataContainer(configuration.memory().addressCount(),
+                     thresholdSize, configuration.memory().evictionType(),
+                     configuration.memory().resizableAddressCount());
+            } else {
+               dataContainer = new BoundedOffHeapDataContainer(configuration.memory().addressCount(), thresholdSize,
+                     configuration.memory().evictionType(), configuration.memory().resizableAddressCount());
+            }
          } else {
             dataContainer = DefaultDataContainer.boundedDataContainer(level, thresholdSize,
                   configuration.memory().evictionType());
@@ -10,8 +10,12 @@
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.io.ByteBufferFactoryImpl;
+import org.infinispan.configuration.cache.AllocatorType;
 import org.infinispan.configuration.cache.BiasAcquisition;
 import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.container.offheap.OffHeapMemoryAllocator;
+import org.infinispan.container.offheap.PooledOffHeapMemoryAllocator;
+import org.infinispan.container.offheap.UnpooledOffHeapMemoryAllocator;
 import org.infinispan.context.InvocationContextFactory;
 import org.infinispan.context.NonTransactionalInvocationContextFactory;
 import org.infinispan.context.TransactionalInvocationContextFactory;
@@ -79,7 +83,7 @@
                               XSiteStateTransferManager.class, XSiteStateConsumer.class, XSiteStateProvider.class,
                               FunctionalNotifier.class, CommandAckCollector.class, TriangleOrderManager.class,
                               OrderedUpdatesManager.class, ScatteredVersionManager.class, TransactionOriginatorChecker.class,
-                              BiasManager.class})
+                              BiasManager.class, OffHeapMemoryAllocator.class})
 public class EmptyConstructorNamedCacheFactory extends AbstractNamedCacheComponentFactory implements AutoInstantiableFactory {
 
    @Override
@@ -185,6 +189,12 @@ public <T> T construct(Class<T> componentType) {
             return configuration.clustering().cacheMode() == CacheMode.LOCAL ?
                   componentType.cast(TransactionOriginatorChecker.LOCAL) :
                   componentType.cast(new ClusteredTransactionOriginatorChecker());
+         } else if (componentType.equals(OffHeapMemoryAllocator.class)) {
+            if (configuration.memory().allocator() == AllocatorType.POOLED) {
+               return componentType.cast(new PooledOffHeapMemoryAllocator());
+            } else {
+               return componentType.cast(new UnpooledOffHeapMemoryAllocator());
+            }
          } else if (componentType.equals(BiasManager.class)) {
             if (configuration.clustering().cacheMode().isScattered() &&
                   configuration.clustering().biasAcquisition() != BiasAcquisition.NEVER) {
@@ -1,13 +1,18 @@
 package org.infinispan.interceptors.impl;
 
+import static org.infinispan.factories.KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR;
 import static org.infinispan.factories.KnownComponentNames.PERSISTENCE_EXECUTOR;
+import static org.infinispan.factories.KnownComponentNames.REMOTE_COMMAND_EXECUTOR;
 import static org.infinispan.persistence.PersistenceUtil.convert;
 
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -100,13 +105,19 @@
    @Inject private GroupManager groupManager;
    @Inject @ComponentName(PERSISTENCE_EXECUTOR)
    private ExecutorService executorService;
+   @Inject @ComponentName(ASYNC_OPERATIONS_EXECUTOR)
+   private Executor asyncOperationsExecutor;
+   @Inject @ComponentName(REMOTE_COMMAND_EXECUTOR)
+   private Executor remoteCommandsExecutor;
    @Inject private Cache<K, V> cache;
 
    private boolean activation;
+   private boolean nonBlocking;
 
    @Start
    public void start() {
       this.activation = cache.getCacheConfiguration().persistence().passivation();
+      this.nonBlocking = cache.getCacheConfiguration().persistence().nonBlocking();
    }
 
    @Override
@@ -131,8 +142,16 @@ public Object visitGetCacheEntryCommand(InvocationContext ctx,
    @Override
    public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command)
          throws Throwable {
+      Set<Object> keysToLoad = new HashSet<>();
       for (Object key : command.getKeys()) {
-         loadIfNeeded(ctx, key, command);
+         if (!skipLoad(command, key, ctx)) {
+            keysToLoad.add(key);
+         }
+      }
+      if (keysToLoad.size() == 1) {
+         loadInContext(ctx, keysToLoad.iterator().next(), command);
+      } else if (!keysToLoad.isEmpty()) {
+         loadAllInContext(ctx, keysToLoad, command);
       }
       return invokeNext(ctx, command);
    }
@@ -183,6 +202,9 @@ private Object visitDataCommand(InvocationContext ctx, AbstractDataCommand comma
          throws Throwable {
       Object key;
       if ((key = command.getKey()) != null) {
+         if (nonBlocking) {
+            return loadAsyncIfNeededAndInvokeNext(ctx, key, command);
+         }
          loadIfNeeded(ctx, key, command);
       }
       return invokeNext(ctx, command);
@@ -321,10 +343,63 @@ protected final Boolean loadIfNeeded(final InvocationContext ctx, Object key, fi
       return loadInContext(ctx, key, cmd);
    }
 
+   /**
+    * Loads the entries for multiple keys with a single request to the persistence manager, so that stores supporting
+    * bulk reads don't need a round trip per key. Keys already present in the data container are not requested.
+    */
+   private void loadAllInContext(InvocationContext ctx, Set<Object> keys, FlagAffectedCommand cmd) {
+      Set<Object> missingKeys = new HashSet<>(keys.size());
+      for (Object key : keys) {
+         if (dataContainer.peek((K) key) == null) {
+            missingKeys.add(key);
+         }
+      }
+      Map<Object, MarshalledEntry> loaded = missingKeys.isEmpty() ? Collections.emptyMap() :
+            PersistenceUtil.loadAllAndCheckExpiration(persistenceManager, missingKeys, ctx, timeService);
+      // A key present in the data container may have been evicted or passivated since, load it on its own
+      Function<Object, MarshalledEntry> loader = k -> missingKeys.contains(k) ? loaded.get(k) :
+            PersistenceUtil.loadAndCheckExpiration(persistenceManager, k, ctx, timeService);
+      for (Object key : keys) {
+         loadInContext(ctx, key, cmd, loader);
+      }
+   }
+
+   /**
+    * Same as {@link #loadIfNeeded(InvocationContext, Object, FlagAffectedCommand)}, but the invocation is suspended
+    * while the entry is loaded from the stores, instead of blocking the invoking thread.
+    */
+   private Object loadAsyncIfNeededAndInvokeNext(InvocationContext ctx, Object key, FlagAffectedCommand cmd) {
+      if (skipLoad(cmd, key, ctx)) {
+         return invokeNext(ctx, cmd);
+      }
+
+      long modificationCount = persistenceManager.getModificationCount(key);
+      CompletionStage<MarshalledEntry> loadStage =
+            PersistenceUtil.loadAndCheckExpirationAsync(persistenceManager, key, ctx, timeService);
+      // The rest of the chain runs in the threads used for the caller's commands
+      Executor executor = ctx.isOriginLocal() ? asyncOperationsExecutor : remoteCommandsExecutor;
+      return asyncValue(PersistenceUtil.completeOn(loadStage, executor)).thenApply(ctx, cmd, (rCtx, rCommand, rv) -> {
+         MarshalledEntry loaded = (MarshalledEntry) rv;
+         loadInContext(rCtx, key, (FlagAffectedCommand) rCommand, k -> {
+            // Invoked only if the key is still missing from the data container. If the stores were modified in the
+            // meantime, a newer entry may have been written and evicted or passivated, so the loaded entry is stale
+            if (persistenceManager.getModificationCount(k) != modificationCount)
+               return PersistenceUtil.loadAndCheckExpiration(persistenceManager, k, rCtx, timeService);
+            return loaded;
+         });
+         return invokeNext(rCtx, rCommand);
+      });
+   }
+
    private Boolean loadInContext(InvocationContext ctx, Object key, FlagAffectedCommand cmd) {
+      return loadInContext(ctx, key, cmd, k -> PersistenceUtil.loadAndCheckExpiration(persistenceManager, k, ctx, timeService));
+   }
+
+   private Boolean loadInContext(InvocationContext ctx, Object key, FlagAffectedCommand cmd,
+                                 Function<Object, MarshalledEntry> loader) {
       final AtomicReference<Boolean> isLoaded = new AtomicReference<>();
-      InternalCacheEntry<K, V> entry = PersistenceUtil.loadAndStoreInDataContainer(dataContainer, persistenceManager, (K) key,
-                                                                             ctx, timeService, isLoaded);
+      InternalCacheEntry<K, V> entry = PersistenceUtil.loadAndStoreInDataContainer(dataContainer, loader, (K) key,
+                                                                                   timeService, isLoaded);
       Boolean isLoadedValue = isLoaded.get();
       if (trace) {
          log.tracef("Entry was loaded? %s", isLoadedValue);
@@ -441,6 +516,32 @@ public long getCacheLoaderMisses() {
       return cacheMisses.get();
    }
 
+   @ManagedAttribute(
+         description = "Whether the entries are being preloaded from the cache store",
+         displayName = "Preloading"
+   )
+   public boolean isPreloading() {
+      return persistenceManager.isPreloading();
+   }
+
+   @ManagedAttribute(
+         description = "Number of entries preloaded from the cache store",
+         displayName = "Number of preloaded entries",
+         measurementType = MeasurementType.DYNAMIC
+   )
+   public long getPreloadedEntries() {
+      return persistenceManager.getPreloadedEntries();
+   }
+
+   @ManagedAttribute(
+         description = "Time spent preloading the entries from the cache store, in milliseconds",
+         displayName = "Preload time",
+         measurementType = MeasurementType.DYNAMIC
+   )
+   public long getPreloadTime() {
+      return persistenceManager.getPreloadTime();
+   }
+
    @Override
    @ManagedOperation(
          description = "Resets statistics gathered by this component",
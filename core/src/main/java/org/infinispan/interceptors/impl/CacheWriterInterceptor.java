@@ -1,10 +1,14 @@
 package org.infinispan.interceptors.impl;
 
+import static org.infinispan.factories.KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR;
+import static org.infinispan.factories.KnownComponentNames.REMOTE_COMMAND_EXECUTOR;
 import static org.infinispan.persistence.PersistenceUtil.internalMetadata;
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.BOTH;
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.PRIVATE;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 
@@ -45,6 +49,7 @@
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.FlagBitSets;
 import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.interceptors.InvocationSuccessAction;
@@ -54,6 +59,8 @@
 import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.persistence.PersistenceUtil;
+import org.infinispan.persistence.async.AsyncCacheWriter;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.support.BatchModification;
 import org.infinispan.transaction.xa.GlobalTransaction;
@@ -80,8 +87,13 @@ public class CacheWriterInterceptor extends JmxStatsCommandInterceptor {
    @Inject private InternalEntryFactory entryFactory;
    @Inject private TransactionManager transactionManager;
    @Inject private StreamingMarshaller marshaller;
+   @Inject @ComponentName(ASYNC_OPERATIONS_EXECUTOR)
+   private Executor asyncOperationsExecutor;
+   @Inject @ComponentName(REMOTE_COMMAND_EXECUTOR)
+   private Executor remoteCommandsExecutor;
 
    PersistenceConfiguration loaderConfig = null;
+   boolean nonBlocking;
    final AtomicLong cacheStores = new AtomicLong(0);
 
    protected InvocationSuccessAction handlePutMapCommandReturn = this::handlePutMapCommandReturn;
@@ -95,6 +107,7 @@ protected Log getLog() {
    protected void start() {
       this.setStatisticsEnabled(cacheConfiguration.jmxStatistics().enabled());
       loaderConfig = cacheConfiguration.persistence();
+      nonBlocking = loaderConfig.nonBlocking();
    }
 
    @Override
@@ -147,15 +160,19 @@ private Transaction suspendRunningTx(TxInvocationContext ctx) throws SystemExcep
 
    @Override
    public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
-      return invokeNextThenAccept(ctx, command, (rCtx, rCommand, rv) -> {
+      return invokeNextThenApply(ctx, command, (rCtx, rCommand, rv) -> {
          RemoveCommand removeCommand = (RemoveCommand) rCommand;
-         if (!isStoreEnabled(removeCommand) || rCtx.isInTxScope() || !removeCommand.isSuccessful()) return;
-         if (!isProperWriter(rCtx, removeCommand, removeCommand.getKey())) return;
+         if (!isStoreEnabled(removeCommand) || rCtx.isInTxScope() || !removeCommand.isSuccessful()) return rv;
+         if (!isProperWriter(rCtx, removeCommand, removeCommand.getKey())) return rv;
 
          Object key = removeCommand.getKey();
+         if (nonBlocking) {
+            return asyncValue(completeOnCallerExecutor(rCtx, deleteEntryAsync(key, BOTH)).thenApply(ignore -> rv));
+         }
          boolean resp = persistenceManager.deleteFromAllStores(key, BOTH);
          if (trace)
             getLog().tracef("Removed entry under key %s and got response %s from CacheStore", key, resp);
+         return rv;
       });
    }
 
@@ -169,33 +186,29 @@ public Object visitClearCommand(InvocationContext ctx, ClearCommand command) thr
 
    @Override
    public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
-      return invokeNextThenAccept(ctx, command, (rCtx, rCommand, rv) -> {
+      return invokeNextThenApply(ctx, command, (rCtx, rCommand, rv) -> {
          PutKeyValueCommand putKeyValueCommand = (PutKeyValueCommand) rCommand;
          if (!isStoreEnabled(putKeyValueCommand) || rCtx.isInTxScope() || !putKeyValueCommand.isSuccessful())
-            return;
+            return rv;
          if (!isProperWriter(rCtx, putKeyValueCommand, putKeyValueCommand.getKey()))
-            return;
+            return rv;
 
          Object key = putKeyValueCommand.getKey();
-         storeEntry(rCtx, key, putKeyValueCommand);
-         if (getStatisticsEnabled())
-            cacheStores.incrementAndGet();
+         return storeEntryAndReturn(rCtx, key, putKeyValueCommand, rv);
       });
    }
 
    @Override
    public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command) throws Throwable {
-      return invokeNextThenAccept(ctx, command, (rCtx, rCommand, rv) -> {
+      return invokeNextThenApply(ctx, command, (rCtx, rCommand, rv) -> {
          ReplaceCommand replaceCommand = (ReplaceCommand) rCommand;
          if (!isStoreEnabled(replaceCommand) || rCtx.isInTxScope() || !replaceCommand.isSuccessful())
-            return;
+            return rv;
          if (!isProperWriter(rCtx, replaceCommand, replaceCommand.getKey()))
-            return;
+            return rv;
 
          Object key = replaceCommand.getKey();
-         storeEntry(rCtx, key, replaceCommand);
-         if (getStatisticsEnabled())
-            cacheStores.incrementAndGet();
+         return storeEntryAndReturn(rCtx, key, replaceCommand, rv);
       });
    }
 
@@ -444,12 +457,111 @@ public long getWritesToTheStores() {
       return cacheStores.get();
    }
 
+   @ManagedAttribute(
+         description = "Number of modifications waiting to be written to the write-behind stores",
+         displayName = "Write-behind queue depth",
+         measurementType = MeasurementType.DYNAMIC
+   )
+   public int getWriteBehindQueueDepth() {
+      int depth = 0;
+      for (AsyncCacheWriter writer : persistenceManager.getAsyncWriters())
+         depth += writer.getQueueDepth();
+      return depth;
+   }
+
+   @ManagedAttribute(
+         description = "Number of writes coalesced with a modification already queued for the same key in the write-behind stores",
+         displayName = "Number of coalesced write-behind writes",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getWriteBehindCoalescedWrites() {
+      long count = 0;
+      for (AsyncCacheWriter writer : persistenceManager.getAsyncWriters())
+         count += writer.getCoalescedWrites();
+      return count;
+   }
+
+   @ManagedAttribute(
+         description = "Number of writes that waited because the write-behind modification queue was full",
+         displayName = "Number of blocked write-behind writes",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getWriteBehindBlockedWrites() {
+      long count = 0;
+      for (AsyncCacheWriter writer : persistenceManager.getAsyncWriters())
+         count += writer.getBlockedWrites();
+      return count;
+   }
+
+   @ManagedAttribute(
+         description = "Number of batches of modifications flushed by the write-behind stores",
+         displayName = "Number of write-behind flushes",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getWriteBehindFlushes() {
+      long count = 0;
+      for (AsyncCacheWriter writer : persistenceManager.getAsyncWriters())
+         count += writer.getFlushCount();
+      return count;
+   }
+
+   @ManagedAttribute(
+         description = "Average time (in nanoseconds) to flush a batch of modifications to a write-behind store",
+         displayName = "Average write-behind flush time (ns)",
+         measurementType = MeasurementType.DYNAMIC
+   )
+   public long getWriteBehindAverageFlushTimeNanos() {
+      long count = 0;
+      long time = 0;
+      for (AsyncCacheWriter writer : persistenceManager.getAsyncWriters()) {
+         count += writer.getFlushCount();
+         time += writer.getFlushTime();
+      }
+      return count > 0 ? time / count : 0;
+   }
+
    void storeEntry(InvocationContext ctx, Object key, FlagAffectedCommand command) {
       MarshalledEntry entry = createMarshalledEntry(ctx, key);
       persistenceManager.writeToAllNonTxStores(entry, skipSharedStores(ctx, key, command) ? PRIVATE : BOTH, command.getFlagsBitSet());
       if (trace) getLog().tracef("Stored entry %s under key %s", entry.getValue(), key);
    }
 
+   /**
+    * Stores the entry and returns {@code rv}. If the persistence is non-blocking, the invocation completes only after
+    * the stores have been updated, but without blocking the invoking thread.
+    */
+   Object storeEntryAndReturn(InvocationContext ctx, Object key, FlagAffectedCommand command, Object rv) {
+      if (getStatisticsEnabled())
+         cacheStores.incrementAndGet();
+      if (nonBlocking) {
+         MarshalledEntry entry = createMarshalledEntry(ctx, key);
+         CompletionStage<Void> stage = persistenceManager.writeToAllNonTxStoresAsync(entry,
+               skipSharedStores(ctx, key, command) ? PRIVATE : BOTH, command.getFlagsBitSet());
+         return asyncValue(completeOnCallerExecutor(ctx, stage).thenApply(ignore -> {
+            if (trace) getLog().tracef("Stored entry %s under key %s", entry.getValue(), key);
+            return rv;
+         }));
+      }
+      storeEntry(ctx, key, command);
+      return rv;
+   }
+
+   /**
+    * Hands the completion of a store operation to the threads used for the caller's commands, so that the rest of the
+    * interceptor chain doesn't run in the persistence threads.
+    */
+   <T> CompletionStage<T> completeOnCallerExecutor(InvocationContext ctx, CompletionStage<T> stage) {
+      return PersistenceUtil.completeOn(stage, ctx.isOriginLocal() ? asyncOperationsExecutor : remoteCommandsExecutor);
+   }
+
+   CompletionStage<Boolean> deleteEntryAsync(Object key, PersistenceManager.AccessMode mode) {
+      return persistenceManager.deleteFromAllStoresAsync(key, mode).thenApply(resp -> {
+         if (trace)
+            getLog().tracef("Removed entry under key %s and got response %s from CacheStore", key, resp);
+         return resp;
+      });
+   }
+
    MarshalledEntry createMarshalledEntry(InvocationContext ctx, Object key) {
       InternalCacheValue sv = entryFactory.getValueFromCtxOrCreateNew(key, ctx);
       return new MarshalledEntryImpl(key, sv.getValue(), internalMetadata(sv), marshaller);
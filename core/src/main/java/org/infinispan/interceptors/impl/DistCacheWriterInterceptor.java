@@ -16,6 +16,7 @@
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
+import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -67,10 +68,7 @@ public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand
          if (!isProperWriter(rCtx, putKeyValueCommand, putKeyValueCommand.getKey()))
             return rv;
 
-         storeEntry(rCtx, key, putKeyValueCommand);
-         if (getStatisticsEnabled())
-            cacheStores.incrementAndGet();
-         return rv;
+         return storeEntryAndReturn(rCtx, key, putKeyValueCommand, rv);
       });
    }
 
@@ -112,8 +110,11 @@ public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) t
          if (!isProperWriter(rCtx, removeCommand, key))
             return rv;
 
-         boolean resp = persistenceManager
-               .deleteFromAllStores(key, skipSharedStores(rCtx, key, removeCommand) ? PRIVATE : BOTH);
+         PersistenceManager.AccessMode mode = skipSharedStores(rCtx, key, removeCommand) ? PRIVATE : BOTH;
+         if (nonBlocking) {
+            return asyncValue(completeOnCallerExecutor(rCtx, deleteEntryAsync(key, mode)).thenApply(ignore -> rv));
+         }
+         boolean resp = persistenceManager.deleteFromAllStores(key, mode);
          if (trace)
             log.tracef("Removed entry under key %s and got response %s from CacheStore", key, resp);
 
@@ -132,11 +133,7 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
          if (!isProperWriter(rCtx, replaceCommand, replaceCommand.getKey()))
             return rv;
 
-         storeEntry(rCtx, key, replaceCommand);
-         if (getStatisticsEnabled())
-            cacheStores.incrementAndGet();
-
-         return rv;
+         return storeEntryAndReturn(rCtx, key, replaceCommand, rv);
       });
    }
 
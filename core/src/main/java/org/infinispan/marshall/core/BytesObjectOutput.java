@@ -12,13 +12,20 @@
 final class BytesObjectOutput implements ObjectOutput {
 
    final GlobalMarshaller marshaller;
+   // Pooled outputs are reused, so their buffer must never escape
+   final boolean pooled;
 
    byte bytes[];
    int pos;
 
    BytesObjectOutput(int size, GlobalMarshaller marshaller) {
+      this(size, marshaller, false);
+   }
+
+   BytesObjectOutput(int size, GlobalMarshaller marshaller, boolean pooled) {
       this.bytes = new byte[size];
       this.marshaller = marshaller;
+      this.pooled = pooled;
    }
 
    @Override
@@ -265,6 +272,10 @@ private int getNewBufferSize(int curSize, int minNewSize) {
    }
 
    byte[] toBytes() {
+      // The size was predicted correctly, no need to trim
+      if (!pooled && pos == bytes.length)
+         return bytes;
+
       // Trim out unused bytes
       byte[] b = new byte[pos];
       System.arraycopy(bytes, 0, b, 0, pos);
@@ -273,8 +284,23 @@ byte[] toBytes() {
    }
 
    ByteBuffer toByteBuffer() {
+      if (pooled) {
+         byte[] b = toBytes();
+         return new ByteBufferImpl(b, 0, b.length);
+      }
+
       // No triming, just take position as length
       return new ByteBufferImpl(bytes, 0, pos);
    }
 
+   /**
+    * Resets a pooled output before it is returned to the pool. A buffer that grew beyond {@code maxSize} is replaced,
+    * so that a single large object does not stay referenced by the pool.
+    */
+   void release(int maxSize) {
+      pos = 0;
+      if (bytes.length > maxSize)
+         bytes = new byte[maxSize];
+   }
+
 }
@@ -7,6 +7,8 @@
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.lang.reflect.Array;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.function.BiConsumer;
 
 import org.infinispan.commands.RemoteCommandsFactory;
@@ -92,6 +94,11 @@ public class GlobalMarshaller implements StreamingMarshaller {
    static final int FLAG_ARRAY_MEDIUM              = 0x80;
    static final int FLAG_ARRAY_LARGE               = 0xC0;
 
+   // Pooled buffers larger than this are not kept after marshalling
+   static final int POOLED_BUFFER_MAX_SIZE         = 64 * 1024;
+   static final int POOLED_BUFFER_INITIAL_SIZE     = 4 * 1024;
+   // Outputs released while the pool is full are dropped
+   static final int POOLED_BUFFER_COUNT            = 2 * Runtime.getRuntime().availableProcessors();
 
    private final MarshallableTypeHints marshallableTypeHints = new MarshallableTypeHints();
 
@@ -105,6 +112,9 @@ public class GlobalMarshaller implements StreamingMarshaller {
    private ClassIdentifiers classIdentifiers;
 
    private Marshaller external;
+   private boolean externalReadsSlices;
+   // A shared pool instead of thread locals, so that threads outliving the marshaller don't keep it reachable
+   private volatile BlockingQueue<BytesObjectOutput> pooledOutputs;
 
    public GlobalMarshaller() {
    }
@@ -133,8 +143,13 @@ public void start() {
       if (external == null) {
          this.external = startDefaultExternalMarshaller(gcr.getGlobalConfiguration());
       }
+      externalReadsSlices = external.readsSlices();
 
       classIdentifiers = ClassIdentifiers.load(gcr.getGlobalConfiguration());
+
+      if (gcr.getGlobalConfiguration().serialization().pooledBuffers()) {
+         pooledOutputs = new ArrayBlockingQueue<>(POOLED_BUFFER_COUNT);
+      }
    }
 
    public Marshaller startDefaultExternalMarshaller(GlobalConfiguration globalCfg) {
@@ -151,6 +166,7 @@ public void stop() {
       externalExts.clear();
       reverseExternalExts.clear();
       classIdentifiers = null;
+      pooledOutputs = null;
       stopDefaultExternalMarshaller();
    }
 
@@ -163,7 +179,11 @@ public void stopDefaultExternalMarshaller() {
    public byte[] objectToByteBuffer(Object obj) throws IOException, InterruptedException {
       try {
          BytesObjectOutput out = writeObjectOutput(obj);
-         return out.toBytes(); // trim out unused bytes
+         try {
+            return out.toBytes(); // trim out unused bytes
+         } finally {
+            releaseOutput(out);
+         }
       } catch (java.io.NotSerializableException nse) {
          if (log.isDebugEnabled()) log.debug("Object is not serializable", nse);
          throw new NotSerializableException(nse.getMessage(), nse.getCause());
@@ -171,16 +191,52 @@ public byte[] objectToByteBuffer(Object obj) throws IOException, InterruptedExce
    }
 
    private BytesObjectOutput writeObjectOutput(Object obj) throws IOException {
+      BytesObjectOutput out = acquirePooledOutput();
+      if (out != null) {
+         // The pooled buffer grows as needed, no need to predict the size
+         return writeObjectOutput(obj, out);
+      }
       BufferSizePredictor sizePredictor = marshallableTypeHints.getBufferSizePredictor(obj);
-      BytesObjectOutput out = writeObjectOutput(obj, sizePredictor.nextSize(obj));
+      out = writeObjectOutput(obj, new BytesObjectOutput(sizePredictor.nextSize(obj), this));
       sizePredictor.recordSize(out.pos);
       return out;
    }
 
    private BytesObjectOutput writeObjectOutput(Object obj, int estimatedSize) throws IOException {
-      BytesObjectOutput out = new BytesObjectOutput(estimatedSize, this);
-      writeNullableObject(obj, out);
-      return out;
+      BytesObjectOutput out = acquirePooledOutput();
+      return writeObjectOutput(obj, out != null ? out : new BytesObjectOutput(estimatedSize, this));
+   }
+
+   private BytesObjectOutput writeObjectOutput(Object obj, BytesObjectOutput out) throws IOException {
+      try {
+         writeNullableObject(obj, out);
+         return out;
+      } catch (Throwable t) {
+         releaseOutput(out);
+         throw t;
+      }
+   }
+
+   /**
+    * @return an output taken from the pool, or a new pooled output if the pool is empty, e.g. when an externalizer
+    * marshalls a value to a byte array while the outer object is written; {@code null} if buffers are not pooled.
+    */
+   private BytesObjectOutput acquirePooledOutput() {
+      BlockingQueue<BytesObjectOutput> outputs = pooledOutputs;
+      if (outputs == null)
+         return null;
+
+      BytesObjectOutput out = outputs.poll();
+      return out != null ? out : new BytesObjectOutput(POOLED_BUFFER_INITIAL_SIZE, this, true);
+   }
+
+   private void releaseOutput(BytesObjectOutput out) {
+      if (out.pooled) {
+         out.release(POOLED_BUFFER_MAX_SIZE);
+         BlockingQueue<BytesObjectOutput> outputs = pooledOutputs;
+         if (outputs != null)
+            outputs.offer(out);
+      }
    }
 
    @Override
@@ -297,7 +353,11 @@ public BufferSizePredictor getBufferSizePredictor(Object o) {
    public ByteBuffer objectToBuffer(Object o) throws IOException, InterruptedException {
       try {
          BytesObjectOutput out = writeObjectOutput(o);
-         return out.toByteBuffer();
+         try {
+            return out.toByteBuffer();
+         } finally {
+            releaseOutput(out);
+         }
       } catch (java.io.NotSerializableException nse) {
          if (log.isDebugEnabled()) log.debug("Object is not serializable", nse);
          throw new NotSerializableException(nse.getMessage(), nse.getCause());
@@ -308,7 +368,11 @@ public ByteBuffer objectToBuffer(Object o) throws IOException, InterruptedExcept
    public byte[] objectToByteBuffer(Object obj, int estimatedSize) throws IOException, InterruptedException {
       try {
          BytesObjectOutput out = writeObjectOutput(obj, estimatedSize);
-         return out.toBytes();
+         try {
+            return out.toBytes();
+         } finally {
+            releaseOutput(out);
+         }
       } catch (java.io.NotSerializableException nse) {
          if (log.isDebugEnabled()) log.debug("Object is not serializable", nse);
          throw new NotSerializableException(nse.getMessage(), nse.getCause());
@@ -597,9 +661,10 @@ private void writeRawUnknown(Object obj, BytesObjectOutput out) throws IOExcepti
          ((StreamingMarshaller) external).objectToObjectStream(obj, out);
       else {
          try {
-            byte[] bytes = external.objectToByteBuffer(obj);
-            out.writeInt(bytes.length);
-            out.write(bytes);
+            // Write the external marshaller's buffer as is, without trimming it first
+            ByteBuffer bytes = external.objectToBuffer(obj);
+            out.writeInt(bytes.getLength());
+            out.write(bytes.getBuf(), bytes.getOffset(), bytes.getLength());
          } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
          }
@@ -857,9 +922,15 @@ private Object readUnknown(BytesObjectInput in) throws IOException, ClassNotFoun
          }
       } else {
          int length = in.readInt();
-         byte[] bytes = new byte[length];
-         in.readFully(bytes);
-         return external.objectFromByteBuffer(bytes);
+         if (!externalReadsSlices) {
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return external.objectFromByteBuffer(bytes);
+         }
+         // Unmarshall from the input buffer, e.g. the received message, without copying the object's bytes
+         Object obj = external.objectFromByteBuffer(in.bytes, in.pos, length);
+         in.pos += length;
+         return obj;
       }
    }
 }
@@ -249,6 +249,68 @@
     */
    Observation observation() default Observation.BOTH;
 
+   /**
+    * Maximum number of events delivered with a single invocation of a listener method.  When greater than 0, the events
+    * are added to a bounded buffer of {@link #bufferSize()} events and delivered asynchronously in batches, regardless
+    * of {@link #sync()}, and the annotated methods must accept a {@link java.util.List} of events instead of a single
+    * event.  The events of a batch are in the order in which they were fired, a listener method receiving several
+    * types of events may receive them in the same batch.
+    * <p>
+    * Batching decouples a slow listener from the threads writing to the cache, while reducing the number of invocations
+    * when the listener falls behind.
+    * @return the maximum number of events in a batch, or 0 to deliver each event with its own invocation
+    * @since 9.2
+    */
+   int batchSize() default 0;
+
+   /**
+    * The number of events that a batching listener can buffer before the {@link #overflowPolicy()} applies.  Only used
+    * when {@link #batchSize()} is greater than 0.
+    * @return the capacity of the event buffer of the listener
+    * @since 9.2
+    */
+   int bufferSize() default 1024;
+
+   /**
+    * Defines what happens when an event is fired and the buffer of a batching listener is full.  Only used when
+    * {@link #batchSize()} is greater than 0.
+    * @return the overflow policy of the event buffer of the listener
+    * @see OverflowPolicy
+    * @since 9.2
+    */
+   OverflowPolicy overflowPolicy() default OverflowPolicy.BLOCK;
+
+   /**
+    * How long the thread firing an event waits for room in the full buffer of a batching listener, with the
+    * {@link OverflowPolicy#BLOCK} overflow policy.  Only used when {@link #batchSize()} is greater than 0.
+    * @return the timeout in milliseconds, after which the event is discarded and a warning is logged
+    * @since 9.2
+    */
+   long blockTimeout() default 10000;
+
+   /**
+    * Enumeration that defines what happens when the event buffer of a batching listener is full.
+    * @since 9.2
+    */
+   enum OverflowPolicy {
+      /**
+       * The thread firing the event waits until the listener consumes some of the buffered events, for at most
+       * {@link #blockTimeout()} milliseconds.  The event is discarded if there is still no room after the timeout, or
+       * if the thread is interrupted, the cache operation firing it does not fail.  Events fired by the listener
+       * itself, e.g. when it writes to the cache, are discarded without waiting, as the listener cannot consume any
+       * events until it returns.
+       */
+      BLOCK,
+      /**
+       * The oldest buffered event is discarded to make room for the new event
+       */
+      DISCARD_OLDEST,
+      /**
+       * The new event is discarded
+       */
+      DISCARD_NEWEST
+   }
+
 
    /**
     * Enumeration that defines when a listener event can be observed. A listener can receive an event before and/or
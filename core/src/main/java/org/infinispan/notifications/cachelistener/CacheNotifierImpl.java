@@ -68,6 +68,7 @@
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.interceptors.AsyncInterceptorChain;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
+import org.infinispan.jmx.annotations.MBean;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.notifications.Listener;
@@ -140,6 +141,7 @@
  * @author anistor@redhat.com
  * @since 4.0
  */
+@MBean(objectName = "CacheNotifier", description = "Component that notifies the listeners of the cache")
 public final class CacheNotifierImpl<K, V> extends AbstractListenerImpl<Event<K, V>, CacheEntryListenerInvocation<K, V>>
       implements ClusterCacheNotifier<K, V> {
 
@@ -340,6 +342,12 @@ protected final void resumeIfNeeded(Transaction transaction) {
       }
    }
 
+   @Override
+   protected Event<K, V> immutableEvent(Event<K, V> event) {
+      // The same event instance is configured again for each listener
+      return event instanceof EventImpl ? ((EventImpl<K, V>) event).clone() : event;
+   }
+
    @Override
    public void notifyCacheEntryCreated(K key, V value, Metadata metadata, boolean pre,
                                        InvocationContext ctx, FlagAffectedCommand command) {
@@ -1316,7 +1324,7 @@ public CacheInvocationBuilder setFilterAnnotations(Set<Class<? extends Annotatio
       @Override
       public CacheEntryListenerInvocation<K, V> build() {
          ListenerInvocation<Event<K, V>> invocation = new ListenerInvocationImpl(target, method, sync, classLoader,
-               subject);
+               subject, eventBuffer);
 
          wireDependencies(filter, converter);
 
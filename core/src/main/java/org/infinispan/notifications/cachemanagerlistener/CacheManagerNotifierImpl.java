@@ -9,6 +9,7 @@
 import javax.transaction.Transaction;
 
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.jmx.annotations.MBean;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachemanagerlistener.annotation.CacheStarted;
@@ -33,6 +34,7 @@
  * @author Manik Surtani
  * @since 4.0
  */
+@MBean(objectName = "CacheManagerNotifier", description = "Component that notifies the listeners of the cache manager")
 public class CacheManagerNotifierImpl extends AbstractListenerImpl<Event, ListenerInvocation<Event>>
       implements CacheManagerNotifier {
 
@@ -65,7 +67,7 @@ protected class DefaultBuilder extends AbstractInvocationBuilder {
 
       @Override
       public ListenerInvocation<Event> build() {
-         return new ListenerInvocationImpl(target, method, sync, classLoader, subject);
+         return new ListenerInvocationImpl(target, method, sync, classLoader, subject, eventBuffer);
       }
    }
 
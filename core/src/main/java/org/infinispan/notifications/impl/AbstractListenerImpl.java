@@ -4,6 +4,10 @@
 import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
@@ -14,7 +18,10 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.security.auth.Subject;
 import javax.transaction.Transaction;
@@ -26,6 +33,9 @@
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.notifications.IncorrectListenerException;
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
@@ -33,6 +43,7 @@
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
 import org.infinispan.security.Security;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
 
@@ -47,6 +58,7 @@
 public abstract class AbstractListenerImpl<T, L extends ListenerInvocation<T>> {
 
    protected final Map<Class<? extends Annotation>, List<L>> listenersMap = new HashMap<>(16, 0.99f);
+   protected final ConcurrentMap<Object, ListenerEventBuffer> eventBuffers = new ConcurrentHashMap<>();
 
    protected abstract class AbstractInvocationBuilder {
       protected Object target;
@@ -55,6 +67,7 @@ protected abstract class AbstractInvocationBuilder {
       protected boolean sync;
       protected ClassLoader classLoader;
       protected Subject subject;
+      protected ListenerEventBuffer eventBuffer;
 
       public Object getTarget() {
          return target;
@@ -106,6 +119,15 @@ public AbstractInvocationBuilder setSubject(Subject subject) {
          return this;
       }
 
+      public ListenerEventBuffer getEventBuffer() {
+         return eventBuffer;
+      }
+
+      public AbstractInvocationBuilder setEventBuffer(ListenerEventBuffer eventBuffer) {
+         this.eventBuffer = eventBuffer;
+         return this;
+      }
+
       public abstract L build();
 
    }
@@ -114,6 +136,7 @@ public AbstractInvocationBuilder setSubject(Subject subject) {
    protected ExecutorService syncProcessor;
    @Inject @ComponentName(KnownComponentNames.ASYNC_NOTIFICATION_EXECUTOR)
    protected ExecutorService asyncProcessor;
+   @Inject protected TimeService timeService;
 
    @Start(priority = 9)
    public void start() {
@@ -128,6 +151,10 @@ public void stop() {
       for (List<L> list : listenersMap.values()) {
          if (list != null) list.clear();
       }
+      for (ListenerEventBuffer buffer : eventBuffers.values()) {
+         buffer.clear();
+      }
+      eventBuffers.clear();
 
       if (syncProcessor != null) syncProcessor.shutdownNow();
    }
@@ -146,6 +173,96 @@ public void removeListener(Object listener) {
       for (Class<? extends Annotation> annotation :
             getAllowedMethodAnnotations(testListenerClassValidity(listener.getClass())).keySet())
          removeListenerInvocation(annotation, listener);
+      ListenerEventBuffer buffer = eventBuffers.remove(listener);
+      if (buffer != null) buffer.clear();
+   }
+
+   /**
+    * Returns the buffer holding the events not delivered yet to a listener with a {@link Listener#batchSize()} greater
+    * than 0.
+    *
+    * @param listener the registered listener
+    * @return the event buffer of the listener, or {@code null} if the listener doesn't batch its events
+    */
+   public ListenerEventBuffer getEventBuffer(Object listener) {
+      return eventBuffers.get(listener);
+   }
+
+   @ManagedAttribute(
+         description = "Number of events buffered for the listeners with a batch size and not delivered yet",
+         displayName = "Pending listener events"
+   )
+   public long getPendingListenerEvents() {
+      long pending = 0;
+      for (ListenerEventBuffer buffer : eventBuffers.values()) {
+         pending += buffer.getPendingEvents();
+      }
+      return pending;
+   }
+
+   @ManagedAttribute(
+         description = "Number of events delivered to the registered listeners with a batch size",
+         displayName = "Delivered listener events",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getDeliveredListenerEvents() {
+      long delivered = 0;
+      for (ListenerEventBuffer buffer : eventBuffers.values()) {
+         delivered += buffer.getDeliveredEvents();
+      }
+      return delivered;
+   }
+
+   @ManagedAttribute(
+         description = "Number of events discarded because the buffer of a listener with a batch size was full",
+         displayName = "Discarded listener events",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getDiscardedListenerEvents() {
+      long discarded = 0;
+      for (ListenerEventBuffer buffer : eventBuffers.values()) {
+         discarded += buffer.getDiscardedEvents();
+      }
+      return discarded;
+   }
+
+   @ManagedAttribute(
+         description = "How long ago the oldest event not delivered yet to a listener with a batch size was fired",
+         displayName = "Listener event lag",
+         units = Units.MILLISECONDS
+   )
+   public long getListenerEventLag() {
+      long lag = 0;
+      for (ListenerEventBuffer buffer : eventBuffers.values()) {
+         lag = Math.max(lag, buffer.getLag(TimeUnit.MILLISECONDS));
+      }
+      return lag;
+   }
+
+   /**
+    * Returns an event that can still be used after the notification completes, so that it can be buffered for a
+    * batching listener. Subclasses must copy the events that are modified after being passed to a listener.
+    */
+   protected T immutableEvent(T event) {
+      return event;
+   }
+
+   private ListenerEventBuffer createEventBuffer(Object listener, Listener l) {
+      if (l.batchSize() <= 0)
+         return null;
+      if (l.bufferSize() <= 0)
+         throw new IncorrectListenerException(String.format("Listener class %s must have a positive buffer size",
+               listener.getClass().getName()));
+      if (l.blockTimeout() < 0)
+         throw new IncorrectListenerException(String.format("Listener class %s must not have a negative block timeout",
+               listener.getClass().getName()));
+      return new ListenerEventBuffer(listener, l, asyncProcessor, timeService);
+   }
+
+   private void registerEventBuffer(Object listener, ListenerEventBuffer buffer, boolean foundMethods) {
+      if (buffer != null && foundMethods) {
+         eventBuffers.put(listener, buffer);
+      }
    }
 
    protected Set<L> removeListenerInvocation(Class<? extends Annotation> annotation, Object listener) {
@@ -179,9 +296,12 @@ public Set<Object> getListeners() {
    protected boolean validateAndAddListenerInvocations(Object listener, AbstractInvocationBuilder builder) {
       Listener l = testListenerClassValidity(listener.getClass());
       boolean foundMethods = false;
+      ListenerEventBuffer eventBuffer = createEventBuffer(listener, l);
       builder.setTarget(listener);
       builder.setSubject(Security.getSubject());
-      builder.setSync(l.sync());
+      // Batching listeners are always invoked asynchronously
+      builder.setSync(l.sync() && eventBuffer == null);
+      builder.setEventBuffer(eventBuffer);
       Map<Class<? extends Annotation>, Class<?>> allowedListeners = getAllowedMethodAnnotations(l);
       // now try all methods on the listener for anything that we like.  Note that only PUBLIC methods are scanned.
       for (Method m : listener.getClass().getMethods()) {
@@ -192,7 +312,7 @@ protected boolean validateAndAddListenerInvocations(Object listener, AbstractInv
                final Class<? extends Annotation> annotationClass = annotationEntry.getKey();
                if (m.isAnnotationPresent(annotationClass)) {
                   final Class<?> eventClass = annotationEntry.getValue();
-                  testListenerMethodValidity(m, eventClass, annotationClass.getName());
+                  testListenerMethodValidity(m, eventClass, annotationClass.getName(), l.batchSize() > 0);
 
                   if (System.getSecurityManager() == null) {
                      m.setAccessible(true);
@@ -218,6 +338,7 @@ protected boolean validateAndAddListenerInvocations(Object listener, AbstractInv
 
       if (!foundMethods)
          getLog().noAnnotateMethodsFoundInListener(listener.getClass());
+      registerEventBuffer(listener, eventBuffer, foundMethods);
       return foundMethods;
    }
 
@@ -225,9 +346,12 @@ protected boolean validateAndAddFilterListenerInvocations(Object listener,
          AbstractInvocationBuilder builder, Set<Class<? extends Annotation>> filterAnnotations) {
       Listener l = testListenerClassValidity(listener.getClass());
       boolean foundMethods = false;
+      ListenerEventBuffer eventBuffer = createEventBuffer(listener, l);
       builder.setTarget(listener);
       builder.setSubject(Security.getSubject());
-      builder.setSync(l.sync());
+      // Batching listeners are always invoked asynchronously
+      builder.setSync(l.sync() && eventBuffer == null);
+      builder.setEventBuffer(eventBuffer);
       Map<Class<? extends Annotation>, Class<?>> allowedListeners = getAllowedMethodAnnotations(l);
       // now try all methods on the listener for anything that we like.  Note that only PUBLIC methods are scanned.
       for (Method m : listener.getClass().getMethods()) {
@@ -238,7 +362,7 @@ protected boolean validateAndAddFilterListenerInvocations(Object listener,
                final Class<? extends Annotation> annotationClass = annotationEntry.getKey();
                if (m.isAnnotationPresent(annotationClass) && canApply(filterAnnotations, annotationClass)) {
                   final Class<?> eventClass = annotationEntry.getValue();
-                  testListenerMethodValidity(m, eventClass, annotationClass.getName());
+                  testListenerMethodValidity(m, eventClass, annotationClass.getName(), l.batchSize() > 0);
 
                   if (System.getSecurityManager() == null) {
                      m.setAccessible(true);
@@ -263,6 +387,7 @@ protected boolean validateAndAddFilterListenerInvocations(Object listener,
 
       if (!foundMethods)
          getLog().noAnnotateMethodsFoundInListener(listener.getClass());
+      registerEventBuffer(listener, eventBuffer, foundMethods);
       return foundMethods;
    }
 
@@ -288,7 +413,7 @@ protected Set<Class<? extends Annotation>> findListenerCallbacks(Object listener
                final Class<? extends Annotation> annotationClass = annotationEntry.getKey();
                if (m.isAnnotationPresent(annotationClass)) {
                   final Class<?> eventClass = annotationEntry.getValue();
-                  testListenerMethodValidity(m, eventClass, annotationClass.getName());
+                  testListenerMethodValidity(m, eventClass, annotationClass.getName(), l.batchSize() > 0);
 
                   if (System.getSecurityManager() == null) {
                      m.setAccessible(true);
@@ -327,6 +452,34 @@ protected static void testListenerMethodValidity(Method m, Class<?> allowedParam
          throw new IncorrectListenerException("Methods annotated with " + annotationName + " should have a return type of void.");
    }
 
+   protected static void testListenerMethodValidity(Method m, Class<?> allowedParameter, String annotationName,
+                                                    boolean batched) {
+      if (!batched) {
+         testListenerMethodValidity(m, allowedParameter, annotationName);
+         return;
+      }
+      if (m.getParameterTypes().length != 1 || !m.getParameterTypes()[0].isAssignableFrom(List.class)
+            || !acceptsEvents(m.getGenericParameterTypes()[0], allowedParameter))
+         throw new IncorrectListenerException("Methods annotated with " + annotationName + " in a listener with a batch size must accept exactly one parameter, of assignable from type List<" + allowedParameter.getName() + ">");
+      if (!m.getReturnType().equals(void.class))
+         throw new IncorrectListenerException("Methods annotated with " + annotationName + " should have a return type of void.");
+   }
+
+   private static boolean acceptsEvents(Type listType, Class<?> eventClass) {
+      if (!(listType instanceof ParameterizedType))
+         return true;
+      Type elementType = ((ParameterizedType) listType).getActualTypeArguments()[0];
+      if (elementType instanceof WildcardType) {
+         elementType = ((WildcardType) elementType).getUpperBounds()[0];
+      } else if (elementType instanceof TypeVariable) {
+         elementType = ((TypeVariable<?>) elementType).getBounds()[0];
+      }
+      if (elementType instanceof ParameterizedType) {
+         elementType = ((ParameterizedType) elementType).getRawType();
+      }
+      return !(elementType instanceof Class) || ((Class<?>) elementType).isAssignableFrom(eventClass);
+   }
+
    protected abstract Transaction suspendIfNeeded();
 
    protected abstract void resumeIfNeeded(Transaction transaction);
@@ -335,75 +488,94 @@ protected static void testListenerMethodValidity(Method m, Class<?> allowedParam
     * Class that encapsulates a valid invocation for a given registered listener - containing a reference to the method
     * to be invoked as well as the target object.
     */
-   protected class ListenerInvocationImpl<A> implements ListenerInvocation<A> {
+   protected class ListenerInvocationImpl<A> implements ListenerInvocation<A>, ListenerEventBuffer.BatchInvocation {
       public final Object target;
       public final Method method;
       public final boolean sync;
       public final WeakReference<ClassLoader> classLoader;
       public final Subject subject;
+      public final ListenerEventBuffer eventBuffer;
 
       public ListenerInvocationImpl(Object target, Method method, boolean sync, ClassLoader classLoader, Subject subject) {
+         this(target, method, sync, classLoader, subject, null);
+      }
+
+      public ListenerInvocationImpl(Object target, Method method, boolean sync, ClassLoader classLoader, Subject subject,
+                                    ListenerEventBuffer eventBuffer) {
          this.target = target;
          this.method = method;
          this.sync = sync;
          this.classLoader = new WeakReference<>(classLoader);
          this.subject = subject;
+         this.eventBuffer = eventBuffer;
       }
 
       @Override
       public void invoke(final A event) {
-         Runnable r = () -> {
-            ClassLoader contextClassLoader = null;
-            Transaction transaction = suspendIfNeeded();
-            if (classLoader.get() != null) {
-               contextClassLoader = SecurityActions.setContextClassLoader(classLoader.get());
-            }
-            try {
-               if (subject != null) {
-                  try {
-                     Security.doAs(subject, (PrivilegedExceptionAction<Void>) () -> {
-                        // Don't want to print out Subject as it could have sensitive information
-                        getLog().tracef("Invoking listener: %s passing event %s using subject", target, event);
-                        method.invoke(target, event);
-                        return null;
-                     });
-                  } catch (PrivilegedActionException e) {
-                     Throwable cause = e.getCause();
-                     if (cause instanceof InvocationTargetException) {
-                        throw (InvocationTargetException)cause;
-                     } else if (cause instanceof IllegalAccessException) {
-                        throw (IllegalAccessException)cause;
-                     } else {
-                        throw new InvocationTargetException(cause);
-                     }
+         if (eventBuffer != null) {
+            eventBuffer.add(this, immutableEvent((T) event));
+            return;
+         }
+         if (sync)
+            syncProcessor.execute(() -> invokeMethod(event));
+         else
+            asyncProcessor.execute(() -> invokeMethod(event));
+      }
+
+      /**
+       * Invokes the listener method with a batch of events, in the thread delivering the events of the buffer.
+       */
+      @Override
+      public void invokeBatch(List<Object> events) {
+         invokeMethod(events);
+      }
+
+      private void invokeMethod(Object event) {
+         ClassLoader contextClassLoader = null;
+         Transaction transaction = suspendIfNeeded();
+         if (classLoader.get() != null) {
+            contextClassLoader = SecurityActions.setContextClassLoader(classLoader.get());
+         }
+         try {
+            if (subject != null) {
+               try {
+                  Security.doAs(subject, (PrivilegedExceptionAction<Void>) () -> {
+                     // Don't want to print out Subject as it could have sensitive information
+                     getLog().tracef("Invoking listener: %s passing event %s using subject", target, event);
+                     method.invoke(target, event);
+                     return null;
+                  });
+               } catch (PrivilegedActionException e) {
+                  Throwable cause = e.getCause();
+                  if (cause instanceof InvocationTargetException) {
+                     throw (InvocationTargetException)cause;
+                  } else if (cause instanceof IllegalAccessException) {
+                     throw (IllegalAccessException)cause;
+                  } else {
+                     throw new InvocationTargetException(cause);
                   }
-               } else {
-                  getLog().tracef("Invoking listener: %s passing event %s", target, event);
-                  method.invoke(target, event);
-               }
-            } catch (InvocationTargetException exception) {
-               Throwable cause = getRealException(exception);
-               if (sync) {
-                  throw getLog().exceptionInvokingListener(
-                        cause.getClass().getName(), method, target, cause);
-               } else {
-                  getLog().unableToInvokeListenerMethod(method, target, cause);
                }
-            } catch (IllegalAccessException exception) {
-               getLog().unableToInvokeListenerMethodAndRemoveListener(method, target, exception);
-               removeListener(target);
-            } finally {
-               if (classLoader.get() != null) {
-                  SecurityActions.setContextClassLoader(contextClassLoader);
-               }
-               resumeIfNeeded(transaction);
+            } else {
+               getLog().tracef("Invoking listener: %s passing event %s", target, event);
+               method.invoke(target, event);
             }
-         };
-
-         if (sync)
-            syncProcessor.execute(r);
-         else
-            asyncProcessor.execute(r);
+         } catch (InvocationTargetException exception) {
+            Throwable cause = getRealException(exception);
+            if (sync) {
+               throw getLog().exceptionInvokingListener(
+                     cause.getClass().getName(), method, target, cause);
+            } else {
+               getLog().unableToInvokeListenerMethod(method, target, cause);
+            }
+         } catch (IllegalAccessException exception) {
+            getLog().unableToInvokeListenerMethodAndRemoveListener(method, target, exception);
+            removeListener(target);
+         } finally {
+            if (classLoader.get() != null) {
+               SecurityActions.setContextClassLoader(contextClassLoader);
+            }
+            resumeIfNeeded(transaction);
+         }
       }
 
       @Override
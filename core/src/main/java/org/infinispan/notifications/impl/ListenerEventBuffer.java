@@ -0,0 +1,213 @@
+package org.infinispan.notifications.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.notifications.Listener;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Bounded buffer holding the events of a listener with a {@link Listener#batchSize()} greater than 0 until they are
+ * delivered.
+ * <p>
+ * The events are delivered by a task submitted to the asynchronous notification executor when the buffer becomes
+ * non-empty, which drains the buffer in batches of at most {@link Listener#batchSize()} events.  Consecutive events
+ * for the same listener method are passed to it with a single invocation.  When the buffer is full, the
+ * {@link Listener#overflowPolicy()} of the listener applies.  Events fired from the listener method itself are never
+ * waited for, as they could only be added once the listener method returns.  Neither a full buffer nor a failing
+ * listener method is reported to the thread firing the event: the events are discarded or dropped and logged.
+ *
+ * @since 9.2
+ */
+@ThreadSafe
+public class ListenerEventBuffer {
+   private static final Log log = LogFactory.getLog(ListenerEventBuffer.class);
+
+   private final Object listener;
+   private final int batchSize;
+   private final Listener.OverflowPolicy overflowPolicy;
+   private final long blockTimeout;
+   private final BlockingQueue<PendingEvent> queue;
+   private final Executor executor;
+   private final TimeService timeService;
+   private final AtomicBoolean delivering = new AtomicBoolean();
+   private volatile Thread deliveryThread;
+   private final LongAdder deliveredEvents = new LongAdder();
+   private final LongAdder discardedEvents = new LongAdder();
+
+   ListenerEventBuffer(Object listener, Listener l, Executor executor, TimeService timeService) {
+      this.listener = listener;
+      this.batchSize = l.batchSize();
+      this.overflowPolicy = l.overflowPolicy();
+      this.blockTimeout = l.blockTimeout();
+      this.queue = new ArrayBlockingQueue<>(l.bufferSize());
+      this.executor = executor;
+      this.timeService = timeService;
+   }
+
+   /**
+    * Invokes a listener method with a batch of events.
+    */
+   interface BatchInvocation {
+      void invokeBatch(List<Object> events);
+   }
+
+   void add(BatchInvocation invocation, Object event) {
+      PendingEvent pending = new PendingEvent(invocation, event, timeService.time());
+      switch (overflowPolicy) {
+         case BLOCK:
+            if (Thread.currentThread() == deliveryThread) {
+               // Fired by the listener while handling a batch, room can only be made after it returns
+               if (!queue.offer(pending)) {
+                  discardedEvents.increment();
+               }
+               break;
+            }
+            try {
+               if (!queue.offer(pending, blockTimeout, TimeUnit.MILLISECONDS)) {
+                  // The cache operation may already be applied, failing it would not undo it
+                  log.listenerEventBufferTimeout(blockTimeout, listener);
+                  discardedEvents.increment();
+               }
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               discardedEvents.increment();
+            }
+            break;
+         case DISCARD_NEWEST:
+            if (!queue.offer(pending)) {
+               discardedEvents.increment();
+            }
+            break;
+         case DISCARD_OLDEST:
+            while (!queue.offer(pending)) {
+               if (queue.poll() != null) {
+                  discardedEvents.increment();
+               }
+            }
+            break;
+      }
+      scheduleDelivery();
+   }
+
+   /**
+    * Discards the buffered events.
+    */
+   void clear() {
+      queue.clear();
+   }
+
+   private void scheduleDelivery() {
+      if (delivering.compareAndSet(false, true)) {
+         try {
+            executor.execute(this::deliver);
+         } catch (RuntimeException e) {
+            delivering.set(false);
+            throw e;
+         }
+      }
+   }
+
+   private void deliver() {
+      deliveryThread = Thread.currentThread();
+      try {
+         List<PendingEvent> batch = new ArrayList<>(batchSize);
+         while (queue.drainTo(batch, batchSize) > 0) {
+            int start = 0;
+            for (int i = 1; i <= batch.size(); i++) {
+               BatchInvocation invocation = batch.get(start).invocation;
+               if (i == batch.size() || batch.get(i).invocation != invocation) {
+                  List<Object> events = new ArrayList<>(i - start);
+                  for (int j = start; j < i; j++) {
+                     events.add(batch.get(j).event);
+                  }
+                  try {
+                     invocation.invokeBatch(events);
+                  } catch (RuntimeException e) {
+                     // Keep delivering the rest of the batch and the events buffered meanwhile
+                     log.failedToDeliverListenerEvents(events.size(), listener, e);
+                  }
+                  deliveredEvents.add(events.size());
+                  start = i;
+               }
+            }
+            batch.clear();
+         }
+      } finally {
+         deliveryThread = null;
+         delivering.set(false);
+      }
+      // An event may have been added after the buffer was drained, but before the delivering flag was cleared
+      if (!queue.isEmpty()) {
+         scheduleDelivery();
+      }
+   }
+
+   /**
+    * @return the listener whose events are buffered
+    */
+   public Object getListener() {
+      return listener;
+   }
+
+   /**
+    * @return the number of events buffered and not delivered yet
+    */
+   public int getPendingEvents() {
+      return queue.size();
+   }
+
+   /**
+    * @return how long ago the oldest event not delivered yet was fired, or 0 if there are no buffered events
+    */
+   public long getLag(TimeUnit unit) {
+      PendingEvent oldest = queue.peek();
+      return oldest == null ? 0 : timeService.timeDuration(oldest.time, unit);
+   }
+
+   /**
+    * @return the number of events delivered to the listener
+    */
+   public long getDeliveredEvents() {
+      return deliveredEvents.sum();
+   }
+
+   /**
+    * @return the number of events discarded because the buffer was full
+    */
+   public long getDiscardedEvents() {
+      return discardedEvents.sum();
+   }
+
+   @Override
+   public String toString() {
+      return "ListenerEventBuffer{" +
+            "listener=" + listener +
+            ", pendingEvents=" + queue.size() +
+            ", deliveredEvents=" + deliveredEvents +
+            ", discardedEvents=" + discardedEvents +
+            '}';
+   }
+
+   private static class PendingEvent {
+      final BatchInvocation invocation;
+      final Object event;
+      final long time;
+
+      PendingEvent(BatchInvocation invocation, Object event, long time) {
+         this.invocation = invocation;
+         this.event = event;
+         this.time = time;
+      }
+   }
+}
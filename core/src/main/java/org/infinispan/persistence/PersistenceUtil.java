@@ -2,9 +2,16 @@
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import org.infinispan.commons.util.ByRef;
 import org.infinispan.container.DataContainer;
@@ -19,6 +26,7 @@
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
@@ -74,6 +82,19 @@ public static InternalMetadata internalMetadata(InternalCacheValue icv) {
    public static <K, V> InternalCacheEntry<K,V> loadAndStoreInDataContainer(DataContainer<K, V> dataContainer, final PersistenceManager persistenceManager,
                                                          K key, final InvocationContext ctx, final TimeService timeService,
                                                          final AtomicReference<Boolean> isLoaded) {
+      return loadAndStoreInDataContainer(dataContainer, k -> loadAndCheckExpiration(persistenceManager, k, ctx, timeService),
+                                         key, timeService, isLoaded);
+   }
+
+   /**
+    * Same as {@link #loadAndStoreInDataContainer(DataContainer, PersistenceManager, Object, InvocationContext, TimeService, AtomicReference)},
+    * but the entry missing in the data container is obtained from the {@code loader} function, e.g. from entries
+    * previously loaded by {@link #loadAllAndCheckExpiration(PersistenceManager, Set, InvocationContext, TimeService)}.
+    */
+   public static <K, V> InternalCacheEntry<K,V> loadAndStoreInDataContainer(DataContainer<K, V> dataContainer,
+                                                                            Function<? super K, MarshalledEntry> loader,
+                                                                            K key, final TimeService timeService,
+                                                                            final AtomicReference<Boolean> isLoaded) {
       final ByRef<Boolean> expired = new ByRef<>(null);
       InternalCacheEntry<K,V> entry = dataContainer.compute(key, (k, oldEntry, factory) -> {
          //under the lock, check if the entry exists in the DataContainer
@@ -88,7 +109,7 @@ public static <K, V> InternalCacheEntry<K,V> loadAndStoreInDataContainer(DataCon
             return oldEntry; //no changes in container
          }
 
-         MarshalledEntry loaded = loadAndCheckExpiration(persistenceManager, k, ctx, timeService);
+         MarshalledEntry loaded = loader.apply(k);
          if (loaded == null) {
             if (isLoaded != null) {
                isLoaded.set(Boolean.FALSE); //not loaded
@@ -155,6 +176,75 @@ public static MarshalledEntry loadAndCheckExpiration(PersistenceManager persiste
       return loaded;
    }
 
+   /**
+    * Same as {@link #loadAndCheckExpiration(PersistenceManager, Object, InvocationContext, TimeService)}, but doesn't
+    * block the invoking thread.
+    */
+   public static CompletionStage<MarshalledEntry> loadAndCheckExpirationAsync(PersistenceManager persistenceManager, Object key,
+                                                                             InvocationContext context, TimeService timeService) {
+      return persistenceManager.loadFromAllStoresAsync(key, context).thenApply(loaded -> {
+         if (trace) {
+            log.tracef("Loaded %s for key %s from persistence.", loaded, key);
+         }
+         if (loaded == null) {
+            return null;
+         }
+         InternalMetadata metadata = loaded.getMetadata();
+         if (metadata != null && metadata.isExpired(timeService.wallClockTime())) {
+            return null;
+         }
+         return loaded;
+      });
+   }
+
+   /**
+    * Returns a stage with the same result as {@code stage}, but completed by a thread of {@code executor} if
+    * {@code stage} is not complete yet, so that the dependent actions don't run in the threads of the persistence
+    * executor or of a non-blocking store.
+    */
+   public static <T> CompletionStage<T> completeOn(CompletionStage<T> stage, Executor executor) {
+      CompletableFuture<T> future = stage.toCompletableFuture();
+      if (future.isDone())
+         return future;
+      return future.whenCompleteAsync((value, throwable) -> {}, executor);
+   }
+
+   /**
+    * Loads the entries for multiple keys from the stores.
+    *
+    * @return map from the keys to the entries found, without the expired ones
+    */
+   public static Map<Object, MarshalledEntry> loadAllAndCheckExpiration(PersistenceManager persistenceManager, Set<?> keys,
+                                                                       InvocationContext context, TimeService timeService) {
+      Map<Object, MarshalledEntry> loaded = persistenceManager.loadAllFromAllStores(keys, context);
+      if (trace) {
+         log.tracef("Loaded %s for keys %s from persistence.", loaded, keys);
+      }
+      long now = timeService.wallClockTime();
+      for (Iterator<MarshalledEntry> it = loaded.values().iterator(); it.hasNext(); ) {
+         InternalMetadata metadata = it.next().getMetadata();
+         if (metadata != null && metadata.isExpired(now)) {
+            it.remove();
+         }
+      }
+      return loaded;
+   }
+
+   /**
+    * Waits for the stage to complete, rethrowing its failure as a {@link PersistenceException}.
+    */
+   public static <T> T join(CompletionStage<T> stage) {
+      try {
+         return stage.toCompletableFuture().join();
+      } catch (CompletionException e) {
+         Throwable cause = e.getCause();
+         if (cause instanceof PersistenceException) {
+            throw (PersistenceException) cause;
+         }
+         throw new PersistenceException(cause);
+      }
+   }
+
    public static <K, V> InternalCacheEntry<K, V> convert(MarshalledEntry<K, V> loaded, InternalEntryFactory factory) {
       InternalMetadata metadata = loaded.getMetadata();
       if (metadata != null) {
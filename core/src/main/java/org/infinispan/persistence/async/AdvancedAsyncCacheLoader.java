@@ -26,11 +26,11 @@
  * @author Mircea Markus
  * @since 6.0
  */
-public class AdvancedAsyncCacheLoader extends AsyncCacheLoader implements AdvancedCacheLoader {
+public class AdvancedAsyncCacheLoader<K, V> extends AsyncCacheLoader<K, V> implements AdvancedCacheLoader<K, V> {
 
    private static final Log log = LogFactory.getLog(AdvancedAsyncCacheLoader.class);
 
-   public AdvancedAsyncCacheLoader(CacheLoader actual, AtomicReference<State> state) {
+   public AdvancedAsyncCacheLoader(CacheLoader<K, V> actual, AtomicReference<State> state) {
       super(actual, state);
    }
 
@@ -69,7 +69,7 @@ public void processEntry(MarshalledEntry marshalledEntry, TaskContext taskContex
 
    @SuppressWarnings("unchecked")
    @Override
-   public void process(KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask, Executor executor, boolean loadValues, boolean loadMetadata) {
+   public void process(KeyFilter<? super K> keyFilter, CacheLoaderTask<K, V> cacheLoaderTask, Executor executor, boolean loadValues, boolean loadMetadata) {
 
       int batchSize = 100;
       ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
@@ -22,13 +22,13 @@ public void purge(Executor threadPool, PurgeListener task) {
 
    @Override
    public void clear() {
-      stateLock.writeLock(0);
+      stateLock.writeLockAll(null);
       try {
          assertNotStopped();
          state.set(newState(true, state.get().next));
       } finally {
          stateLock.reset(1);
-         stateLock.writeUnlock();
+         stateLock.writeUnlockAll();
       }
    }
 
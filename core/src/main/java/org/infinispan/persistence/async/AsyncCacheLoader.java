@@ -1,5 +1,9 @@
 package org.infinispan.persistence.async;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.infinispan.marshall.core.MarshalledEntry;
@@ -14,12 +18,12 @@
  * @author Mircea Markus
  * @since 6.0
  */
-public class AsyncCacheLoader extends DelegatingCacheLoader {
+public class AsyncCacheLoader<K, V> extends DelegatingCacheLoader<K, V> {
 
    @GuardedBy("stateLock")
    protected final AtomicReference<State> state;
 
-   public AsyncCacheLoader(CacheLoader actual, AtomicReference<State> state) {
+   public AsyncCacheLoader(CacheLoader<K, V> actual, AtomicReference<State> state) {
       super(actual);
       this.state = state;
    }
@@ -31,7 +35,7 @@ public void start() {}
    public void stop() {}
 
    @Override
-   public MarshalledEntry load(Object key) {
+   public MarshalledEntry<K, V> load(Object key) {
       Modification mod = state.get().get(key);
       if (mod != null) {
          switch (mod.getType()) {
@@ -45,6 +49,31 @@ public MarshalledEntry load(Object key) {
       return super.load(key);
    }
 
+   @Override
+   public Map<Object, MarshalledEntry<K, V>> loadAll(Set<?> keys) {
+      Map<Object, MarshalledEntry<K, V>> entries = new HashMap<>();
+      Set<Object> notModified = new HashSet<>();
+      State state = this.state.get();
+      for (Object key : keys) {
+         Modification mod = state.get(key);
+         if (mod != null) {
+            switch (mod.getType()) {
+               case REMOVE:
+               case CLEAR:
+                  continue;
+               case STORE:
+                  entries.put(key, ((Store) mod).getStoredValue());
+                  continue;
+            }
+         }
+         notModified.add(key);
+      }
+      if (!notModified.isEmpty()) {
+         entries.putAll(super.loadAll(notModified));
+      }
+      return entries;
+   }
+
 
    @Override
    public boolean contains(Object key) {
@@ -12,6 +12,7 @@
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -51,7 +52,12 @@
  * to define whether cache loader operations are to be asynchronous. If not specified, a cache loader operation is
  * assumed synchronous and this decorator is not applied.
  * <p/>
- * Write operations affecting same key are now coalesced so that only the final state is actually stored.
+ * Write operations affecting same key are now coalesced so that only the final state is actually stored. A write to a
+ * key that is already queued replaces the queued modification without consuming space in the modification queue.
+ * <p/>
+ * Writers are spread across the stripes of the {@link BufferLock}. If a flush interval is configured, the queued
+ * modifications are handed to the underlying store at most once per interval, unless the queue reaches the flush size
+ * or becomes full, so that hot keys are written only once per interval.
  * <p/>
  *
  * @author Manik Surtani
@@ -79,6 +85,15 @@ public class AsyncCacheWriter extends DelegatingCacheWriter {
 
    protected AsyncStoreConfiguration asyncConfiguration;
 
+   private final Object flushMonitor = new Object();
+   private volatile boolean flushRequested;
+   private int flushSize;
+
+   private final LongAdder coalescedWrites = new LongAdder();
+   private final LongAdder blockedWrites = new LongAdder();
+   private final LongAdder flushes = new LongAdder();
+   private final LongAdder flushTime = new LongAdder();
+
    public AsyncCacheWriter(CacheWriter delegate) {
       super(delegate);
    }
@@ -101,6 +116,8 @@ public void start() {
       state.set(newState(false, null));
       stopped = false;
       stateLock = new BufferLock(asyncConfiguration.modificationQueueSize());
+      flushSize = asyncConfiguration.flushSize();
+      flushRequested = false;
 
       // Create a thread pool with unbounded work queue, so that all work is accepted and eventually
       // executed. A bounded queue could throw RejectedExecutionException and thus lose data.
@@ -122,9 +139,10 @@ public void start() {
    @Override
    public void stop() {
       if (trace) log.tracef("Stop async store %s", this);
-      stateLock.writeLock(0);
+      stateLock.writeLockAll(null);
       stopped = true;
-      stateLock.writeUnlock();
+      stateLock.writeUnlockAll();
+      requestFlush();
       try {
          // It is safe to wait without timeout because the thread pool uses an unbounded work queue (i.e.
          // all work handed to the pool will be accepted and eventually executed) and AsyncStoreProcessors
@@ -146,7 +164,7 @@ public void stop() {
 
    @Override
    public void write(MarshalledEntry entry) {
-      put(new Store(entry.getKey(), entry), 1);
+      put(entry.getKey(), new Store(entry.getKey(), entry));
    }
 
    @Override
@@ -169,7 +187,7 @@ public void deleteBatch(Iterable keys) {
 
    @Override
    public boolean delete(Object key) {
-      put(new Remove(key), 1);
+      put(key, new Remove(key));
       return true;
    }
 
@@ -201,25 +219,74 @@ void assertNotStopped() throws CacheException {
          throw new CacheException("AsyncCacheWriter stopped; no longer accepting more entries.");
    }
 
-   private void put(Modification mod, int count) {
-      stateLock.writeLock(count);
+   private void put(Object key, Modification mod) {
+      int stripe = stateLock.stripe(key);
+      stateLock.writeLock(stripe, 0);
       try {
          if (trace)
             log.tracef("Queue modification: %s", mod);
 
          assertNotStopped();
-         state.get().put(mod);
+         ConcurrentMap<Object, Modification> modifications = state.get().modifications;
+         // Coalesce with the modification already queued for the key, the queue size doesn't change
+         if (modifications.replace(key, mod) != null) {
+            coalescedWrites.increment();
+            return;
+         }
+         if (stateLock.tryConsume(stripe)) {
+            modifications.put(key, mod);
+            mod = null;
+         }
       } finally {
-         stateLock.writeUnlock();
+         stateLock.writeUnlock(stripe);
+      }
+
+      if (mod != null) {
+         // The stripe is full, wait until the coordinator hands the queued modifications to the store
+         blockedWrites.increment();
+         requestFlush();
+         stateLock.writeLock(stripe, 1);
+         try {
+            assertNotStopped();
+            state.get().put(mod);
+         } finally {
+            stateLock.writeUnlock(stripe);
+         }
       }
+      requestFlushIfNeeded();
    }
 
    private void putAll(List<Modification> mods) {
-      stateLock.writeLock(mods.size());
+      // Each modification consumes space in the stripe of its key, like a single write
+      int[] counts = new int[stateLock.stripes()];
+      boolean full = false;
+      for (Modification mod : mods) {
+         int stripe = stateLock.stripe(key(mod));
+         counts[stripe]++;
+         full |= stateLock.isFull(stripe);
+      }
+      if (full) {
+         blockedWrites.increment();
+         requestFlush();
+      }
+      stateLock.writeLockAll(counts);
       try {
+         assertNotStopped();
          state.get().put(new ModificationsList(mods));
       } finally {
-         stateLock.writeUnlock();
+         stateLock.writeUnlockAll();
+      }
+      requestFlushIfNeeded();
+   }
+
+   private static Object key(Modification mod) {
+      return mod.getType() == Modification.Type.STORE ? ((Store) mod).getKey() : ((Remove) mod).getKey();
+   }
+
+   private void requestFlushIfNeeded() {
+      // The flush size is compared with the size of the whole buffer, not with the share of a single stripe
+      if (flushSize > 0 && stateLock.size() >= flushSize) {
+         requestFlush();
       }
    }
 
@@ -227,6 +294,68 @@ public AtomicReference<State> getState() {
       return state;
    }
 
+   /**
+    * @return the number of modifications waiting to be handed to the underlying store
+    */
+   public int getQueueDepth() {
+      BufferLock lock = stateLock;
+      return lock != null ? lock.size() : 0;
+   }
+
+   /**
+    * @return the number of writes that replaced a modification already queued for the same key
+    */
+   public long getCoalescedWrites() {
+      return coalescedWrites.sum();
+   }
+
+   /**
+    * @return the number of writes that had to wait because the modification queue was full
+    */
+   public long getBlockedWrites() {
+      return blockedWrites.sum();
+   }
+
+   /**
+    * @return the number of batches of modifications written to the underlying store
+    */
+   public long getFlushCount() {
+      return flushes.sum();
+   }
+
+   /**
+    * @return the total time spent writing batches of modifications to the underlying store, in nanoseconds
+    */
+   public long getFlushTime() {
+      return flushTime.sum();
+   }
+
+   private void requestFlush() {
+      if (!flushRequested && asyncConfiguration.flushInterval() > 0) {
+         synchronized (flushMonitor) {
+            flushRequested = true;
+            flushMonitor.notifyAll();
+         }
+      }
+   }
+
+   /**
+    * Waits until the flush interval elapsed since the last flush, or until a flush is requested because the queue is
+    * full or the writer is stopping.
+    */
+   private void awaitFlush(long lastFlush) throws InterruptedException {
+      long interval = TimeUnit.MILLISECONDS.toNanos(asyncConfiguration.flushInterval());
+      if (interval <= 0)
+         return;
+      synchronized (flushMonitor) {
+         long remaining;
+         while (!flushRequested && (remaining = lastFlush + interval - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.timedWait(flushMonitor, remaining);
+         }
+         flushRequested = false;
+      }
+   }
+
    protected void clearStore() {
       // No-op, not supported for async
    }
@@ -237,10 +366,18 @@ private class AsyncStoreCoordinator implements Runnable {
       public void run() {
          LogFactory.pushNDC(cacheName, trace);
          try {
+            long lastFlush = System.nanoTime();
             for (;;) {
                final State s, head, tail;
                final boolean shouldStop;
+               try {
+                  awaitFlush(lastFlush);
+               } catch (InterruptedException e) {
+                  // Flush right away, like when the writer is stopped
+                  if (trace) log.tracef("Interrupted while waiting for the flush interval");
+               }
                stateLock.readLock();
+               lastFlush = System.nanoTime();
                try {
                   s = state.get();
                   shouldStop = stopped;
@@ -360,7 +497,10 @@ private void retryWork(int maxRetries) {
                log.debugf("Retrying due to previous failure. %s attempts left.", maxRetries - attempt);
 
             try {
+               long start = System.nanoTime();
                AsyncCacheWriter.this.applyModificationsSync(modifications);
+               flushTime.add(System.nanoTime() - start);
+               flushes.increment();
                return;
             } catch (Exception e) {
                if (log.isDebugEnabled())
@@ -12,6 +12,10 @@
  * Additionally, {@link #writeLock(int)} blocks if the buffer is full, and {@link #readLock()}
  * blocks if no data is available.
  * <p/>
+ * Writers are spread across a number of stripes, each with its own lock and its own share of the
+ * buffer, so that concurrent writers don't contend on a single lock state. The reader locks all the
+ * stripes.
+ * <p/>
  * This lock implementation is <em>not</em> reentrant!
  *
  *  @author Karsten Blees
@@ -29,6 +33,14 @@ private static class Counter extends AbstractQueuedSynchronizer {
          this.size = size;
       }
 
+      int count() {
+         return getState();
+      }
+
+      boolean isFull() {
+         return getState() >= size;
+      }
+
       int add(int count) {
          for (;;) {
             int state = getState();
@@ -72,6 +84,10 @@ protected boolean tryReleaseShared(int state) {
          setState(state > 0 ? 1 : 0);
          return state > 0;
       }
+
+      boolean isAvailable() {
+         return getState() > 0;
+      }
    }
 
    /**
@@ -117,41 +133,137 @@ protected boolean tryReleaseShared(int unused) {
       }
    }
 
-   private final Sync sync;
-   private final Counter counter;
+   private static final int MAX_STRIPES = 16;
+
+   private final Sync[] syncs;
+   private final Counter[] counters;
    private final Available available;
+   private final int mask;
 
    /**
-    * Create a new BufferLock with the specified buffer size.
+    * Create a new BufferLock with the specified buffer size, and a number of stripes based on the
+    * number of available processors.
     *
     * @param size
-    *           the buffer size
+    *           the buffer size, or 0 for an unbounded buffer
     */
    BufferLock(int size) {
-      sync = new Sync();
-      counter = size > 0 ? new Counter(size) : null;
+      this(size, defaultStripes(size));
+   }
+
+   /**
+    * Create a new BufferLock with the specified buffer size and number of stripes.
+    *
+    * @param size
+    *           the buffer size, or 0 for an unbounded buffer
+    * @param stripes
+    *           the number of stripes, must be a power of 2. The buffer size is split evenly between
+    *           the stripes.
+    */
+   BufferLock(int size, int stripes) {
+      if (Integer.bitCount(stripes) != 1)
+         throw new IllegalArgumentException("The number of stripes must be a power of 2: " + stripes);
+      int stripeSize = size > 0 ? (size + stripes - 1) / stripes : Integer.MAX_VALUE;
+      syncs = new Sync[stripes];
+      counters = new Counter[stripes];
+      for (int i = 0; i < stripes; i++) {
+         syncs[i] = new Sync();
+         counters[i] = new Counter(stripeSize);
+      }
       available = new Available();
+      mask = stripes - 1;
+   }
+
+   private static int defaultStripes(int size) {
+      int stripes = Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES);
+      if (size > 0)
+         stripes = Math.min(stripes, size);
+      return Integer.highestOneBit(Math.max(stripes, 1));
+   }
+
+   /**
+    * @return the stripe that writers of the specified key should use
+    */
+   int stripe(Object key) {
+      int h = key.hashCode();
+      return (h ^ (h >>> 16)) & mask;
    }
 
    /**
-    * Acquires the write lock and consumes the specified amount of buffer space. Blocks if the
-    * object is currently locked for reading, or if the buffer is full and count is greater than 0.
+    * @return the number of stripes
+    */
+   int stripes() {
+      return syncs.length;
+   }
+
+   /**
+    * Acquires the write lock of a stripe and consumes the specified amount of the stripe's buffer
+    * space. Blocks if the object is currently locked for reading, or if the stripe's buffer is full
+    * and count is greater than 0.
     *
+    * @param stripe
+    *           the stripe to lock
     * @param count
     *           number of items the caller intends to write
     */
-   void writeLock(int count) {
-      if (count > 0 && counter != null)
-         counter.acquireShared(count);
-      sync.acquireShared(1);
+   void writeLock(int stripe, int count) {
+      if (count > 0)
+         counters[stripe].acquireShared(count);
+      syncs[stripe].acquireShared(1);
+   }
+
+   /**
+    * Consumes one item of the stripe's buffer space, without blocking. Must be called while
+    * holding the stripe's write lock.
+    *
+    * @return <code>true</code> if there was space in the stripe's buffer, <code>false</code> if the
+    *         buffer is full
+    */
+   boolean tryConsume(int stripe) {
+      return counters[stripe].tryAcquireShared(1) >= 0;
+   }
+
+   /**
+    * Releases the write lock of a stripe.
+    *
+    * @param stripe
+    *           the stripe to unlock
+    */
+   void writeUnlock(int stripe) {
+      syncs[stripe].releaseShared(1);
+      // Avoid the write to the shared state if the reader was already signalled
+      if (!available.isAvailable())
+         available.releaseShared(1);
    }
 
    /**
-    * Releases the write lock.
+    * Acquires the write locks of all the stripes, in ascending order, after consuming the specified amount of each
+    * stripe's buffer space. Blocks if the object is currently locked for reading, or if the buffer of a stripe is full
+    * and the count of the stripe is greater than 0.
+    *
+    * @param counts
+    *           number of items the caller intends to write to each stripe, indexed by stripe, or
+    *           <code>null</code> to only acquire the locks
     */
-   void writeUnlock() {
-      sync.releaseShared(1);
-      available.releaseShared(1);
+   void writeLockAll(int[] counts) {
+      if (counts != null) {
+         for (int i = 0; i < counters.length; i++) {
+            if (counts[i] > 0)
+               counters[i].acquireShared(counts[i]);
+         }
+      }
+      for (Sync sync : syncs)
+         sync.acquireShared(1);
+   }
+
+   /**
+    * Releases the write locks of all the stripes.
+    */
+   void writeUnlockAll() {
+      for (Sync sync : syncs)
+         sync.releaseShared(1);
+      if (!available.isAvailable())
+         available.releaseShared(1);
    }
 
    /**
@@ -160,14 +272,16 @@ void writeUnlock() {
     */
    void readLock() {
       available.acquireShared(1);
-      sync.acquire(1);
+      for (Sync sync : syncs)
+         sync.acquire(1);
    }
 
    /**
     * Releases the read lock.
     */
    void readUnlock() {
-      sync.release(1);
+      for (Sync sync : syncs)
+         sync.release(1);
    }
 
    /**
@@ -177,8 +291,9 @@ void readUnlock() {
     *           number of available items in the buffer
     */
    void reset(int count) {
-      if (counter != null)
-         counter.releaseShared(count);
+      counters[0].releaseShared(count);
+      for (int i = 1; i < counters.length; i++)
+         counters[i].releaseShared(0);
       available.releaseShared(count);
    }
 
@@ -189,8 +304,31 @@ void reset(int count) {
     *           number of items to add to the buffer counter
     */
    void add(int count) {
-      if (counter != null)
-         count = counter.add(count);
+      count = counters[0].add(count);
       available.releaseShared(count);
    }
+
+   /**
+    * @return the number of items in the buffer of a stripe
+    */
+   int size(int stripe) {
+      return counters[stripe].count();
+   }
+
+   /**
+    * @return the number of items in the buffer, across all stripes
+    */
+   int size() {
+      int size = 0;
+      for (Counter counter : counters)
+         size += counter.count();
+      return size;
+   }
+
+   /**
+    * @return <code>true</code> if the buffer of the specified stripe is full
+    */
+   boolean isFull(int stripe) {
+      return counters[stripe].isFull();
+   }
 }
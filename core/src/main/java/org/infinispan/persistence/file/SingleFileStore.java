@@ -1,12 +1,21 @@
 package org.infinispan.persistence.file;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -14,17 +23,38 @@
 import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.infinispan.commons.configuration.ConfiguredBy;
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.persistence.Store;
 import org.infinispan.configuration.cache.SingleFileStoreConfiguration;
+import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.executors.ExecutorAllCompletionService;
+import org.infinispan.factories.GlobalComponentRegistry;
+import org.infinispan.factories.components.ManageableComponentMetadata;
 import org.infinispan.filter.KeyFilter;
+import org.infinispan.jmx.JmxUtil;
+import org.infinispan.jmx.ResourceDMBean;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.TaskContextImpl;
@@ -58,7 +88,24 @@
  * source.
  * <p/>
  * This class is fully thread safe, yet allows for concurrent load / store
- * of individual cache entries.
+ * of individual cache entries. When the store is unbounded the index is a concurrent map, the free list is a
+ * concurrent sorted set and new entries are appended by atomically bumping the file position, so writers only
+ * contend when they update the same key.
+ * <p/>
+ * When {@link SingleFileStoreConfiguration#persistentIndex()} is enabled the index is also saved to
+ * <tt>&lt;location&gt;/&lt;cache name&gt;.idx</tt> on shutdown and periodically when purging. The index file is valid
+ * for the data file up to the position the file had when the checkpoint was taken: entries appended after it, including
+ * new values of the keys in the index, are found again by scanning only the tail of the data file on startup, whereas
+ * any other change before it deletes the index file, as it can't be replayed. The free space before the position is
+ * not saved, it is whatever the entries in the index file don't cover.
+ * <p/>
+ * When {@link SingleFileStoreConfiguration#compactionThreshold()} is set, a background thread moves the live entries
+ * at the end of the file into free space closer to its start and then truncates the file, whenever the fraction of
+ * the file taken by free space goes above the threshold after an entry is freed. Entries are moved one at a time using
+ * the same locking as regular writes, and the moved bytes are throttled by
+ * {@link SingleFileStoreConfiguration#compactionRate()}. Moving an entry doesn't count as an access to it for the
+ * eviction order of a bounded store. When JMX statistics are enabled for the cache, the compaction statistics are
+ * exposed by the store's MBean.
  *
  * @author Karsten Blees
  * @author Mircea Markus
@@ -66,6 +113,7 @@
  */
 @Store
 @ConfiguredBy(SingleFileStoreConfiguration.class)
+@MBean(objectName = "SingleFileStore", description = "Single file cache store")
 public class SingleFileStore<K, V> implements AdvancedLoadWriteStore<K, V> {
    private static final Log log = LogFactory.getLog(SingleFileStore.class);
    private static final boolean trace = log.isTraceEnabled();
@@ -75,6 +123,9 @@
    private static final int KEYLEN_POS = 4;
    private static final int KEY_POS = 4 + 4 + 4 + 4 + 8;
    private static final int SMALLEST_ENTRY_SIZE = 128;
+   private static final byte[] INDEX_MAGIC = new byte[]{'F', 'C', 'I', '2'};
+   // Minimum delay between the end of a background compaction and the start of the next one
+   private static final long COMPACTION_INTERVAL_MILLIS = 1000;
 
    private SingleFileStoreConfiguration configuration;
 
@@ -82,13 +133,29 @@
 
    private FileChannel channel;
    private Map<K, FileEntry> entries;
-   private SortedSet<FileEntry> freeList;
-   private long filePos = MAGIC.length;
+   // The map wrapped by entries when the store is bounded, null otherwise
+   private LruMap<K, FileEntry> lruEntries;
+   private FreeList freeList;
+   private final AtomicLong filePos = new AtomicLong(MAGIC.length);
    private File file;
+   private File indexFile;
+   // Position in the data file up to which the index file is valid or -1 if there is no valid index file
+   private final AtomicLong checkpointPosition = new AtomicLong(-1);
+   // Makes replacing the index file atomic with invalidating the checkpoint
+   private final Object indexFileLock = new Object();
+   private volatile long lastCheckpoint;
    private float fragmentationFactor = .75f;
-   // Prevent clear() from truncating the file after a write() allocated the entry but before it wrote the data
+   // Prevent clear() from truncating the file after a write() allocated the entry but before it wrote the data, the
+   // write lock is also required to truncate the file or merge free entries
    private ReadWriteLock resizeLock = new ReentrantReadWriteLock();
    private TimeService timeService;
+   private Compactor compactor;
+   private final LongAdder compactions = new LongAdder();
+   private final LongAdder relocatedEntries = new LongAdder();
+   private final LongAdder reclaimedBytes = new LongAdder();
+   // set while the statistics are registered in JMX
+   private MBeanServer mBeanServer;
+   private ObjectName mBeanName;
 
    @Override
    public void init(InitializationContext ctx) {
@@ -106,6 +173,7 @@ public void start() {
             location = "Infinispan-SingleFileStore";
 
          file = new File(location, ctx.getCache().getName() + ".dat");
+         indexFile = new File(location, ctx.getCache().getName() + ".idx");
          if (!file.exists()) {
             File dir = file.getParentFile();
             if (!dir.mkdirs() && !dir.exists()) {
@@ -114,16 +182,26 @@ public void start() {
          }
          channel = new RandomAccessFile(file, "rw").getChannel();
 
-         // initialize data structures. Only use LinkedHashMap (LRU) for entries when cache store is bounded
-         Map<K, FileEntry> entryMap = configuration.maxEntries() > 0 ?
-               new LinkedHashMap<>(16, 0.75f, true) :
-               new HashMap<>();
-         entries = Collections.synchronizedMap(entryMap);
-         freeList = Collections.synchronizedSortedSet(new TreeSet<FileEntry>());
+         // initialize data structures. Only use LinkedHashMap (LRU) for entries when cache store is bounded, which
+         // requires synchronizing all the accesses
+         if (configuration.maxEntries() > 0) {
+            lruEntries = new LruMap<>();
+            entries = Collections.synchronizedMap(lruEntries);
+         } else {
+            lruEntries = null;
+            entries = new ConcurrentHashMap<>();
+         }
+         freeList = new FreeList();
 
          // check file format and read persistent state if enabled for the cache
          byte[] header = new byte[MAGIC.length];
          if (channel.read(ByteBuffer.wrap(header), 0) == MAGIC.length && Arrays.equals(MAGIC, header)) {
+            if (configuration.persistentIndex()) {
+               loadIndex();
+            } else {
+               // Never leave behind an index file that would be stale if the persistent index is enabled again
+               deleteIndexFile();
+            }
             rebuildIndex();
             processFreeEntries();
          }
@@ -132,6 +210,15 @@ public void start() {
 
          // Initialize the fragmentation factor
          fragmentationFactor = configuration.fragmentationFactor();
+         lastCheckpoint = timeService.wallClockTime();
+
+         if (configuration.compactionThreshold() > 0) {
+            compactor = new Compactor();
+            compactor.start();
+         }
+
+         if (ctx.getCache().getCacheConfiguration().jmxStatistics().enabled())
+            registerMBean();
       } catch (Exception e) {
          throw new PersistenceException(e);
       }
@@ -143,30 +230,220 @@ public void stop() {
          if (channel != null) {
             log.tracef("Stopping store %s, size = %d, file size = %d", ctx.getCache().getName(), entries.size(), channel.size());
 
+            unregisterMBean();
+
+            if (compactor != null) {
+               compactor.terminate();
+               compactor = null;
+            }
+
+            if (configuration.persistentIndex())
+               checkpoint();
+
             // reset state
             channel.close();
             channel = null;
             entries = null;
             freeList = null;
-            filePos = MAGIC.length;
+            filePos.set(MAGIC.length);
+            checkpointPosition.set(-1);
          }
       } catch (Exception e) {
          throw new PersistenceException(e);
       }
    }
 
+   /**
+    * Loads the in-memory index from the index file if it exists and is valid, in which case {@link #rebuildIndex()}
+    * only has to scan the data file from the checkpoint position.
+    */
+   private void loadIndex() throws Exception {
+      if (!indexFile.exists())
+         return;
+
+      long startTime = 0;
+      if (trace) startTime = timeService.wallClockTime();
+
+      Map<K, FileEntry> indexEntries = new HashMap<>();
+      List<FileEntry> indexFreeEntries;
+      long position;
+      try (CheckedInputStream checkedIn = new CheckedInputStream(new BufferedInputStream(new FileInputStream(indexFile)), new CRC32());
+           DataInputStream in = new DataInputStream(checkedIn)) {
+         byte[] magic = new byte[INDEX_MAGIC.length];
+         in.readFully(magic);
+         if (!Arrays.equals(INDEX_MAGIC, magic))
+            throw new IOException("Unknown index file format");
+         position = in.readLong();
+         if (position < MAGIC.length || position > channel.size())
+            throw new IOException("Index checkpoint position " + position + " is beyond the end of the data file");
+         int count = in.readInt();
+         for (int i = 0; i < count; ++i) {
+            FileEntry fe = new FileEntry(in.readLong(), in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readLong());
+            byte[] keyBytes = new byte[in.readInt()];
+            in.readFully(keyBytes);
+            // Marshaller should allow for provided type return for safety
+            K key = (K) ctx.getMarshaller().objectFromByteBuffer(keyBytes);
+            indexEntries.put(key, fe);
+         }
+         // The checksum doesn't include itself
+         long checksum = checkedIn.getChecksum().getValue();
+         if (in.readLong() != checksum)
+            throw new IOException("Checksum mismatch");
+         indexFreeEntries = findFreeEntries(indexEntries.values(), position);
+      } catch (IOException | ClassNotFoundException e) {
+         log.invalidSingleFileStoreIndex(indexFile.getPath(), e);
+         deleteIndexFile();
+         return;
+      }
+
+      entries.putAll(indexEntries);
+      freeList.addAll(indexFreeEntries);
+      filePos.set(position);
+      checkpointPosition.set(position);
+      if (trace) log.tracef("Loaded %d entries and %d free entries from index file %s up to position %d in %d (ms)",
+            indexEntries.size(), indexFreeEntries.size(), indexFile, position, timeService.wallClockTime() - startTime);
+   }
+
+   /**
+    * Returns the space before {@code position} not covered by any of the entries, as free entries.
+    *
+    * @throws IOException if the entries overlap or are not before the position
+    */
+   private List<FileEntry> findFreeEntries(Collection<FileEntry> usedEntries, long position) throws IOException {
+      List<FileEntry> sorted = new ArrayList<>(usedEntries);
+      sorted.sort((o1, o2) -> Long.compare(o1.offset, o2.offset));
+      List<FileEntry> free = new ArrayList<>();
+      long offset = MAGIC.length;
+      for (FileEntry fe : sorted) {
+         if (fe.offset < offset || fe.keyLen <= 0 || fe.size < fe.actualSize() || fe.offset + fe.size > position)
+            throw new IOException("Index entry " + fe + " is not a valid entry before position " + position);
+         if (fe.offset > offset)
+            free.add(new FileEntry(offset, (int) (fe.offset - offset)));
+         offset = fe.offset + fe.size;
+      }
+      if (offset < position)
+         free.add(new FileEntry(offset, (int) (position - offset)));
+      return free;
+   }
+
+   /**
+    * Writes the in-memory index to the index file. The {@code resizeLock} is only held in exclusive mode to read the
+    * checkpoint position, the entries are copied and written without blocking other operations.
+    * <p>
+    * Entries added or moved before the position after that point invalidate the checkpoint, so the copy only has to be
+    * consistent for the entries before the position that don't change. The entries after the position and the entries
+    * they replace are found again by {@link #rebuildIndex()}.
+    */
+   private synchronized void checkpoint() {
+      long position;
+      resizeLock.writeLock().lock();
+      try {
+         position = filePos.get();
+         checkpointPosition.set(position);
+      } finally {
+         resizeLock.writeLock().unlock();
+      }
+
+      List<KeyValuePair<K, FileEntry>> indexEntries = new ArrayList<>(entries.size());
+      entries.forEach((k, fe) -> {
+         if (fe.offset < position)
+            indexEntries.add(new KeyValuePair<>(k, fe));
+      });
+
+      File tmpFile = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp");
+      try {
+         try (FileOutputStream fileOut = new FileOutputStream(tmpFile);
+              CheckedOutputStream checkedOut = new CheckedOutputStream(new BufferedOutputStream(fileOut), new CRC32());
+              DataOutputStream out = new DataOutputStream(checkedOut)) {
+            out.write(INDEX_MAGIC);
+            out.writeLong(position);
+            out.writeInt(indexEntries.size());
+            for (KeyValuePair<K, FileEntry> entry : indexEntries) {
+               writeIndexEntry(out, entry.getValue());
+               byte[] keyBytes = ctx.getMarshaller().objectToByteBuffer(entry.getKey());
+               out.writeInt(keyBytes.length);
+               out.write(keyBytes);
+            }
+            out.writeLong(checkedOut.getChecksum().getValue());
+            out.flush();
+            fileOut.getFD().sync();
+         }
+         synchronized (indexFileLock) {
+            // The checkpoint may have been invalidated while it was written
+            if (checkpointPosition.get() != position) {
+               tmpFile.delete();
+               return;
+            }
+            Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                  StandardCopyOption.ATOMIC_MOVE);
+         }
+         lastCheckpoint = timeService.wallClockTime();
+         if (trace) log.tracef("Wrote index file %s with %d entries up to position %d", indexFile,
+               indexEntries.size(), position);
+      } catch (IOException | InterruptedException e) {
+         invalidateIndex();
+         tmpFile.delete();
+         throw new PersistenceException("Cannot write index file " + indexFile, e);
+      }
+   }
+
+   private void writeIndexEntry(DataOutputStream out, FileEntry fe) throws IOException {
+      out.writeLong(fe.offset);
+      out.writeInt(fe.size);
+      out.writeInt(fe.keyLen);
+      out.writeInt(fe.dataLen);
+      out.writeInt(fe.metadataLen);
+      out.writeLong(fe.expiryTime);
+   }
+
+   /**
+    * Must be invoked before modifying the data file at the given offset, any change before the checkpoint position
+    * can't be recovered by scanning the tail of the data file so the index file is deleted.
+    */
+   private void invalidateIndex(long offset) {
+      long position = checkpointPosition.get();
+      if (position >= 0 && offset < position) {
+         if (trace) log.tracef("Change at offset %d invalidates index checkpoint at position %d", offset, position);
+         invalidateIndex();
+      }
+   }
+
+   private void invalidateIndex() {
+      synchronized (indexFileLock) {
+         if (checkpointPosition.getAndSet(-1) >= 0) {
+            deleteIndexFile();
+         }
+      }
+   }
+
+   /**
+    * Whether an entry replacing one with the same key before the checkpoint position is found when scanning the tail
+    * of the data file, and so replaces it again on startup.
+    */
+   private boolean replacesCheckpointed(FileEntry replaced) {
+      return replaced != null && (replaced.replacesCheckpointed || replaced.offset < checkpointPosition.get());
+   }
+
+   private void deleteIndexFile() {
+      if (indexFile.exists() && !indexFile.delete())
+         throw new PersistenceException("Cannot delete index file " + indexFile);
+   }
+
    /**
     * Rebuilds the in-memory index from file.
     */
    private void rebuildIndex() throws Exception {
       ByteBuffer buf = ByteBuffer.allocate(KEY_POS);
+      long offset = filePos.get();
       for (; ; ) {
          // read FileEntry fields from file (size, keyLen etc.)
          buf.clear().limit(KEY_POS);
-         channel.read(buf, filePos);
+         channel.read(buf, offset);
          // return if end of file is reached
-         if (buf.remaining() > 0)
+         if (buf.remaining() > 0) {
+            filePos.set(offset);
             return;
+         }
          buf.flip();
 
          // initialize FileEntry from buffer
@@ -175,15 +452,15 @@ private void rebuildIndex() throws Exception {
          int dataLen = buf.getInt();
          int metadataLen = buf.getInt();
          long expiryTime = buf.getLong();
-         FileEntry fe = new FileEntry(filePos, entrySize, keyLen, dataLen, metadataLen, expiryTime);
+         FileEntry fe = new FileEntry(offset, entrySize, keyLen, dataLen, metadataLen, expiryTime);
 
          // sanity check
          if (fe.size < KEY_POS + fe.keyLen + fe.dataLen + fe.metadataLen) {
-            throw log.errorReadingFileStore(file.getPath(), filePos);
+            throw log.errorReadingFileStore(file.getPath(), offset);
          }
 
          // update file pointer
-         filePos += fe.size;
+         offset += fe.size;
 
          // check if the entry is used or free
          if (fe.keyLen > 0) {
@@ -197,7 +474,12 @@ private void rebuildIndex() throws Exception {
             // deserialize key and add to entries map
             // Marshaller should allow for provided type return for safety
             K key = (K) ctx.getMarshaller().objectFromByteBuffer(buf.array(), 0, fe.keyLen);
-            entries.put(key, fe);
+            FileEntry replaced = entries.put(key, fe);
+            if (replaced != null) {
+               // The key was updated after the index checkpoint, or the old entry wasn't freed before a crash
+               fe.replacesCheckpointed = replacesCheckpointed(replaced);
+               freeList.add(replaced);
+            }
          } else {
             // add to free list
             freeList.add(fe);
@@ -217,42 +499,60 @@ public boolean contains(Object key) {
 
    /**
     * Allocates the requested space in the file.
+    * <p/>
+    * Note: Caller must hold the {@code resizeLock} in shared mode.
     *
     * @param len requested space
     * @return allocated file position and length as FileEntry object
     */
    private FileEntry allocate(int len) {
-      synchronized (freeList) {
-         // lookup a free entry of sufficient size
-         SortedSet<FileEntry> candidates = freeList.tailSet(new FileEntry(0, len));
-         for (Iterator<FileEntry> it = candidates.iterator(); it.hasNext(); ) {
-            FileEntry free = it.next();
-            // ignore entries that are still in use by concurrent readers
-            if (free.isLocked())
-               continue;
+      FileEntry fe = allocateFreeEntry(len, Long.MAX_VALUE);
+      if (fe != null)
+         return fe;
 
-            // There's no race condition risk between locking the entry on
-            // loading and checking whether it's locked (or store allocation),
-            // because for the entry to be lockable, it needs to be in the
-            // entries collection, in which case it's not in the free list.
-            // The only way an entry can be found in the free list is if it's
-            // been removed, and to remove it, lock on "entries" needs to be
-            // acquired, which is also a pre-requisite for loading data.
+      // no appropriate free section available, append at end of file
+      fe = new FileEntry(filePos.getAndAdd(len), len);
+      if (trace) log.tracef("New entry allocated at %d:%d, %d free entries, file size is %d", fe.offset, fe.size, freeList.size(), filePos.get());
+      return fe;
+   }
 
-            // found one, remove from freeList
-            it.remove();
-            return allocateExistingEntry(free, len);
-         }
+   /**
+    * Allocates the requested space from the free list.
+    * <p/>
+    * Note: Caller must hold the {@code resizeLock} in shared mode.
+    *
+    * @param len requested space
+    * @param maxOffset only free entries starting before this offset are considered
+    * @return allocated file position and length as FileEntry object, or {@code null} if no free entry fits
+    */
+   private FileEntry allocateFreeEntry(int len, long maxOffset) {
+      // lookup a free entry of sufficient size
+      for (FileEntry free : freeList.tailSet(new FileEntry(0, len))) {
+         if (free.offset >= maxOffset)
+            continue;
 
-         // no appropriate free section available, append at end of file
-         FileEntry fe = new FileEntry(filePos, len);
-         filePos += len;
-         if (trace) log.tracef("New entry allocated at %d:%d, %d free entries, file size is %d", fe.offset, fe.size, freeList.size(), filePos);
-         return fe;
+         // ignore entries that are still in use by concurrent readers or that a concurrent writer claimed first
+         if (!free.claim())
+            continue;
+
+         // There's no race condition risk between locking the entry on
+         // loading and checking whether it's locked (or store allocation),
+         // because for the entry to be lockable, it needs to be in the
+         // entries collection, in which case it's not in the free list.
+         // The only way an entry can be found in the free list is if it's
+         // been removed, and loading locks the entry atomically with
+         // looking it up in the entries collection.
+
+         // The claim has to be checked on the instance itself: freeList.remove() compares entries by offset and
+         // size, so it could otherwise remove a newer free entry for the same space that is still being read.
+         freeList.remove(free);
+         return allocateExistingEntry(free, len);
       }
+      return null;
    }
 
    private FileEntry allocateExistingEntry(FileEntry free, int len) {
+      invalidateIndex(free.offset);
       int remainder = free.size - len;
       // If the entry is quite bigger than configured threshold, then split it
       if ((remainder >= SMALLEST_ENTRY_SIZE) && (len <= (free.size * fragmentationFactor))) {
@@ -278,6 +578,7 @@ private FileEntry allocateExistingEntry(FileEntry free, int len) {
     * Writes a new free entry to the file and also adds it to the free list
     */
    private void addNewFreeEntry(FileEntry fe) throws IOException {
+      invalidateIndex(fe.offset);
       ByteBuffer buf = ByteBuffer.allocate(KEY_POS);
       buf.putInt(fe.size);
       buf.putInt(0);
@@ -295,7 +596,28 @@ private void addNewFreeEntry(FileEntry fe) throws IOException {
     * Note: Caller must hold the {@code resizeLock} in shared mode.
     */
    private void free(FileEntry fe) throws IOException {
+      free(fe, null);
+   }
+
+   /**
+    * Frees the space of the specified file entry, which was replaced by another entry for the same key.
+    * <p/>
+    * Note: Caller must hold the {@code resizeLock} in shared mode.
+    *
+    * @param replacement the entry that now holds the key, or {@code null} if the key was removed
+    */
+   private void free(FileEntry fe, FileEntry replacement) throws IOException {
       if (fe != null) {
+         // Scanning the tail of the data file finds the replacement and frees the entry again, a replacement before
+         // the checkpoint position already invalidated it when it was allocated. But if the key is removed, the index
+         // file would still point to this entry or to the one it replaced.
+         if (replacement == null) {
+            if (fe.replacesCheckpointed) {
+               invalidateIndex();
+            } else {
+               invalidateIndex(fe.offset);
+            }
+         }
          // Invalidate entry on disk (by setting keyLen field to 0)
          // No need to wait for readers to unlock here, the FileEntry instance is not modified,
          // and allocate() won't return an entry as long as it has a reader.
@@ -304,6 +626,10 @@ private void free(FileEntry fe) throws IOException {
             throw new IllegalStateException(String.format("Trying to free an entry that was not allocated: %s", fe));
          }
          if (trace) log.tracef("Deleted entry at %d:%d, there are now %d free entries", fe.offset, fe.size, freeList.size());
+
+         Compactor compactor = this.compactor;
+         if (compactor != null && getFragmentationRatio() > configuration.compactionThreshold())
+            compactor.schedule();
       }
    }
 
@@ -320,6 +646,7 @@ public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
          int len = KEY_POS + key.getLength() + data.getLength() + metadataLength;
          FileEntry newEntry;
          FileEntry oldEntry = null;
+         FileEntry replacement = null;
          resizeLock.readLock().lock();
          try {
             newEntry = allocate(len);
@@ -341,15 +668,24 @@ public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
             if (trace) log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
 
             // add the new entry to in-memory index
-            oldEntry = entries.put(marshalledEntry.getKey(), newEntry);
+            FileEntry entry = newEntry;
+            FileEntry[] replaced = new FileEntry[1];
+            entries.compute(marshalledEntry.getKey(), (k, e) -> {
+               entry.replacesCheckpointed = replacesCheckpointed(e);
+               replaced[0] = e;
+               return entry;
+            });
+            oldEntry = replaced[0];
 
             // if we added an entry, check if we need to evict something
             if (oldEntry == null)
                oldEntry = evict();
+            else
+               replacement = newEntry;
          } finally {
             // in case we replaced or evicted an entry, add to freeList
             try {
-               free(oldEntry);
+               free(oldEntry, replacement);
             } finally {
                resizeLock.readLock().unlock();
             }
@@ -382,25 +718,21 @@ private FileEntry evict() {
    public void clear() {
       resizeLock.writeLock().lock();
       try {
-         synchronized (entries) {
-            synchronized (freeList) {
-               // wait until all readers are done reading file entries
-               for (FileEntry fe : entries.values())
-                  fe.waitUnlocked();
-               for (FileEntry fe : freeList)
-                  fe.waitUnlocked();
-
-               // clear in-memory state
-               entries.clear();
-               freeList.clear();
-
-               // reset file
-               if (trace) log.tracef("Truncating file, current size is %d", filePos);
-               channel.truncate(0);
-               channel.write(ByteBuffer.wrap(MAGIC), 0);
-               filePos = MAGIC.length;
-            }
-         }
+         // wait until all readers are done reading file entries
+         entries.values().forEach(FileEntry::waitUnlocked);
+         for (FileEntry fe : freeList)
+            fe.waitUnlocked();
+
+         // clear in-memory state
+         entries.clear();
+         freeList.clear();
+         invalidateIndex();
+
+         // reset file
+         if (trace) log.tracef("Truncating file, current size is %d", filePos.get());
+         channel.truncate(0);
+         channel.write(ByteBuffer.wrap(MAGIC), 0);
+         filePos.set(MAGIC.length);
       } catch (Exception e) {
          throw new PersistenceException(e);
       } finally {
@@ -429,22 +761,18 @@ public MarshalledEntry<K, V> load(Object key) {
 
    private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadMetadata) {
       final FileEntry fe;
+      long now = timeService.wallClockTime();
       resizeLock.readLock().lock();
       try {
-         synchronized (entries) {
-            // lookup FileEntry of the key
-            fe = entries.get(key);
-            if (fe == null)
-               return null;
-
-            // Entries are removed due to expiration from {@link SingleFileStore#purge}
-            if (fe.isExpired(timeService.wallClockTime())) {
-               return null;
-            } else {
-               // lock entry for reading before releasing entries monitor
-               fe.lock();
-            }
-         }
+         // lookup FileEntry of the key and lock it for reading atomically, so it can't be freed in between
+         // Entries are removed due to expiration from {@link SingleFileStore#purge}
+         fe = entries.computeIfPresent((K) key, (k, e) -> {
+            if (!e.isExpired(now))
+               e.lock();
+            return e;
+         });
+         if (fe == null || fe.isExpired(now))
+            return null;
       } finally {
          resizeLock.readLock().unlock();
       }
@@ -491,12 +819,11 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
    public void process(KeyFilter<? super K> filter, final CacheLoaderTask<K, V> task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
       filter = PersistenceUtil.notNull(filter);
       ArrayList<KeyValuePair<K, FileEntry>> keysToLoad = new ArrayList<>(entries.size());
-      synchronized (entries) {
-         for (Map.Entry<K, FileEntry> e : entries.entrySet()) {
-            if (filter.accept(e.getKey()))
-               keysToLoad.add(new KeyValuePair<>(e.getKey(), e.getValue()));
-         }
-      }
+      KeyFilter<? super K> keyFilter = filter;
+      entries.forEach((k, fe) -> {
+         if (keyFilter.accept(k))
+            keysToLoad.add(new KeyValuePair<>(k, fe));
+      });
 
       keysToLoad.sort((o1, o2) -> {
          long offset1 = o1.getValue().offset;
@@ -563,9 +890,9 @@ private void truncateFile(List<FileEntry> entries) {
          // Till we have free entries at the end of the file,
          // we can remove them and contract the file to release disk
          // space.
-         if (!fe.isLocked() && ((fe.offset + fe.size) == filePos)) {
+         if (!fe.isLocked() && ((fe.offset + fe.size) == filePos.get())) {
             truncateOffset = fe.offset;
-            filePos = fe.offset;
+            filePos.set(fe.offset);
             freeList.remove(fe);
             it.remove();
             reclaimedSpace += fe.size;
@@ -576,6 +903,7 @@ private void truncateFile(List<FileEntry> entries) {
       }
 
       if (truncateOffset > 0) {
+         invalidateIndex(truncateOffset);
          try {
             channel.truncate(truncateOffset);
          } catch (IOException e) {
@@ -640,25 +968,18 @@ private void mergeAndLogEntry(FileEntry entry, int mergeCounter) {
    @Override
    public void purge(Executor threadPool, final PurgeListener task) {
       long now = timeService.wallClockTime();
-      List<KeyValuePair<Object, FileEntry>> entriesToPurge = new ArrayList<>();
-      synchronized (entries) {
-         for (Iterator<Map.Entry<K, FileEntry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
-            Map.Entry<K, FileEntry> next = it.next();
-            FileEntry fe = next.getValue();
-            if (fe.isExpired(now)) {
-               it.remove();
-               entriesToPurge.add(new KeyValuePair<>(next.getKey(), fe));
-            }
-         }
-      }
+      List<KeyValuePair<K, FileEntry>> entriesToPurge = new ArrayList<>();
+      entries.forEach((k, fe) -> {
+         if (fe.isExpired(now))
+            entriesToPurge.add(new KeyValuePair<>(k, fe));
+      });
 
       resizeLock.readLock().lock();
       try {
-         for (Iterator<KeyValuePair<Object, FileEntry>> it = entriesToPurge.iterator(); it.hasNext(); ) {
-            KeyValuePair<Object, FileEntry> next = it.next();
+         for (KeyValuePair<K, FileEntry> next : entriesToPurge) {
             FileEntry fe = next.getValue();
-            if (fe.isExpired(now)) {
-               it.remove();
+            // Only remove the entry if it wasn't replaced concurrently
+            if (entries.remove(next.getKey(), fe)) {
                try {
                   free(fe);
                } catch (Exception e) {
@@ -667,16 +988,255 @@ public void purge(Executor threadPool, final PurgeListener task) {
                if (task != null) task.entryPurged(next.getKey());
             }
          }
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+
+      // Disk space optimizations, which require no concurrent allocations
+      resizeLock.writeLock().lock();
+      try {
+         processFreeEntries();
+      } finally {
+         resizeLock.writeLock().unlock();
+      }
+
+      long checkpointInterval = configuration.indexCheckpointInterval();
+      if (configuration.persistentIndex() && checkpointInterval > 0 && now - lastCheckpoint >= checkpointInterval)
+         checkpoint();
+   }
+
+   /**
+    * Moves the live entries at the end of the file into free space before them, starting from the last entry, and
+    * truncates the file. It stops at the first entry that doesn't fit in any free entry before it, since the file
+    * can't be truncated beyond that entry anyway.
+    *
+    * @param stopped checked before moving each entry, compaction is interrupted when it returns {@code true}
+    */
+   void compact(BooleanSupplier stopped) throws IOException, InterruptedException {
+      long startTime = timeService.time();
+      long startSize = filePos.get();
 
-         // Disk space optimizations
-         synchronized (freeList) {
-           processFreeEntries();
+      // Merge adjacent free entries first, so that larger entries can be moved
+      resizeLock.writeLock().lock();
+      try {
+         processFreeEntries();
+      } finally {
+         resizeLock.writeLock().unlock();
+      }
+
+      List<KeyValuePair<K, FileEntry>> candidates = new ArrayList<>();
+      entries.forEach((k, fe) -> candidates.add(new KeyValuePair<>(k, fe)));
+      candidates.sort((o1, o2) -> Long.compare(o2.getValue().offset, o1.getValue().offset));
+
+      long rate = configuration.compactionRate();
+      long movedBytes = 0;
+      int movedEntries = 0;
+      for (KeyValuePair<K, FileEntry> candidate : candidates) {
+         if (stopped.getAsBoolean())
+            break;
+         int moved = relocate(candidate.getKey(), candidate.getValue());
+         if (moved < 0)
+            break;
+         if (moved > 0) {
+            movedEntries++;
+            // Each moved byte is both read and written
+            movedBytes += 2 * moved;
+            if (rate == 0)
+               continue;
+            long throttleMillis = TimeUnit.SECONDS.toMillis(movedBytes) / rate - timeService.timeDuration(startTime, TimeUnit.MILLISECONDS);
+            // Sleep in small steps, so that stopping the store doesn't have to wait for the whole delay
+            while (throttleMillis > 0 && !stopped.getAsBoolean()) {
+               Thread.sleep(Math.min(throttleMillis, 100));
+               throttleMillis -= 100;
+            }
+         }
+      }
+
+      // Truncate the free space left at the end of the file
+      resizeLock.writeLock().lock();
+      try {
+         processFreeEntries();
+      } finally {
+         resizeLock.writeLock().unlock();
+      }
+
+      compactions.increment();
+      relocatedEntries.add(movedEntries);
+      long reclaimed = Math.max(0, startSize - filePos.get());
+      reclaimedBytes.add(reclaimed);
+      if (trace) log.tracef("Compacted store %s, moved %d entries and reclaimed %d bytes in %d (ms)", file, movedEntries,
+            reclaimed, timeService.timeDuration(startTime, TimeUnit.MILLISECONDS));
+   }
+
+   /**
+    * Moves an entry to a free entry before it in the file, unless the key was modified concurrently.
+    *
+    * @return the number of bytes moved, 0 if the entry was not moved because it was modified or expired, or -1 if
+    *       there is no free entry before it that is large enough
+    */
+   private int relocate(K key, FileEntry fe) throws IOException {
+      FileEntry moved;
+      resizeLock.readLock().lock();
+      try {
+         // Lock the entry for reading, so its space can't be reused while it is copied
+         long now = timeService.wallClockTime();
+         FileEntry current = computeIfPresentQuietly(key, (k, e) -> {
+            if (e == fe && !e.isExpired(now))
+               e.lock();
+            return e;
+         });
+         if (current != fe || fe.isExpired(now))
+            return 0;
+
+         ByteBuffer buf;
+         try {
+            int len = fe.actualSize();
+            FileEntry free = allocateFreeEntry(len, fe.offset);
+            if (free == null)
+               return -1;
+
+            buf = ByteBuffer.allocate(len);
+            channel.read(buf, fe.offset);
+            // The free entry may be larger than the moved entry
+            buf.putInt(0, free.size);
+            buf.flip();
+            moved = new FileEntry(free, fe.keyLen, fe.dataLen, fe.metadataLen, fe.expiryTime);
+            moved.replacesCheckpointed = replacesCheckpointed(fe);
+            channel.write(buf, moved.offset);
+         } finally {
+            fe.unlock();
+         }
+
+         // Free the space that was not needed, either the old one or the new one if the key was updated meanwhile
+         if (replaceQuietly(key, fe, moved)) {
+            free(fe, moved);
+            if (trace) log.tracef("Moved entry %s from %d:%d to %d:%d", key, fe.offset, fe.size, moved.offset, moved.size);
+            return buf.limit();
+         } else {
+            free(moved);
+            return 0;
          }
       } finally {
          resizeLock.readLock().unlock();
       }
    }
 
+   /**
+    * Same as {@code entries.computeIfPresent()}, but the entry doesn't become the most recently used one in a bounded
+    * store.
+    */
+   private FileEntry computeIfPresentQuietly(K key, BiFunction<? super K, ? super FileEntry, ? extends FileEntry> function) {
+      if (lruEntries == null)
+         return entries.computeIfPresent(key, function);
+      synchronized (entries) {
+         return lruEntries.computeIfPresentQuietly(key, function);
+      }
+   }
+
+   /**
+    * Same as {@code entries.replace()}, but the entry doesn't become the most recently used one in a bounded store.
+    */
+   private boolean replaceQuietly(K key, FileEntry oldEntry, FileEntry newEntry) {
+      if (lruEntries == null)
+         return entries.replace(key, oldEntry, newEntry);
+      synchronized (entries) {
+         return lruEntries.replaceQuietly(key, oldEntry, newEntry);
+      }
+   }
+
+   /**
+    * Registers the statistics of the store under the cache's name and the data file, so that several stores of the
+    * same cache have their own MBeans.
+    */
+   private void registerMBean() {
+      GlobalComponentRegistry gcr = ctx.getCache().getAdvancedCache().getComponentRegistry().getGlobalComponentRegistry();
+      GlobalConfiguration globalCfg = gcr.getGlobalConfiguration();
+      String groupName = "type=Store,manager=" + ObjectName.quote(globalCfg.globalJmxStatistics().cacheManagerName())
+            + ",cache=" + ObjectName.quote(ctx.getCache().getName())
+            + ",location=" + ObjectName.quote(file.getAbsolutePath());
+      ObjectName objectName = null;
+      try {
+         MBeanServer server = JmxUtil.lookupMBeanServer(globalCfg);
+         String jmxDomain = JmxUtil.buildJmxDomain(globalCfg, server, groupName);
+         ManageableComponentMetadata metadata = gcr.getComponentMetadataRepo()
+               .findComponentMetadata(SingleFileStore.class).toManageableComponentMetadata();
+         objectName = new ObjectName(jmxDomain + ":" + groupName + ",component=" + metadata.getJmxObjectName());
+         JmxUtil.registerMBean(new ResourceDMBean(this, metadata), objectName, server);
+         mBeanServer = server;
+         mBeanName = objectName;
+      } catch (Exception e) {
+         log.unableToRegisterStoreMBean(objectName != null ? objectName.toString() : groupName, e);
+      }
+   }
+
+   private void unregisterMBean() {
+      if (mBeanName != null) {
+         try {
+            JmxUtil.unregisterMBean(mBeanName, mBeanServer);
+         } catch (Exception e) {
+            log.problemsUnregisteringMBeans(e);
+         }
+         mBeanName = null;
+         mBeanServer = null;
+      }
+   }
+
+   /**
+    * The fraction of the data file taken by free entries.
+    */
+   @ManagedAttribute(
+         description = "Fraction of the data file taken by free space",
+         displayName = "Fragmentation ratio",
+         measurementType = MeasurementType.DYNAMIC,
+         displayType = DisplayType.SUMMARY
+   )
+   public double getFragmentationRatio() {
+      FreeList freeList = this.freeList;
+      long size = filePos.get() - MAGIC.length;
+      if (freeList == null || size <= 0)
+         return 0;
+      return (double) freeList.freeBytes() / size;
+   }
+
+   /**
+    * The number of times the store was compacted in the background since it was created.
+    */
+   @ManagedAttribute(
+         description = "Number of background compactions of the data file",
+         displayName = "Number of compactions",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getCompactions() {
+      return compactions.sum();
+   }
+
+   /**
+    * The number of entries moved by background compaction since the store was created.
+    */
+   @ManagedAttribute(
+         description = "Number of entries moved by background compaction",
+         displayName = "Number of relocated entries",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getRelocatedEntries() {
+      return relocatedEntries.sum();
+   }
+
+   /**
+    * The number of bytes the data file was shrunk by background compaction since the store was created.
+    */
+   @ManagedAttribute(
+         description = "Number of bytes the data file was shrunk by background compaction",
+         displayName = "Reclaimed bytes",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getReclaimedBytes() {
+      return reclaimedBytes.sum();
+   }
+
    @Override
    public int size() {
       return entries.size();
@@ -691,13 +1251,175 @@ SortedSet<FileEntry> getFreeList() {
    }
 
    long getFileSize() {
-      return filePos;
+      return filePos.get();
    }
 
    public SingleFileStoreConfiguration getConfiguration() {
       return configuration;
    }
 
+   /**
+    * Background thread compacting the store when scheduled, at most one compaction runs at a time.
+    */
+   private class Compactor extends Thread {
+      private volatile boolean scheduled;
+      private volatile boolean terminated;
+
+      Compactor() {
+         super("SingleFileStore-Compactor-" + ctx.getCache().getName());
+         setDaemon(true);
+      }
+
+      /**
+       * Cheap when the compaction is already scheduled, as it is called whenever an entry is freed.
+       */
+      void schedule() {
+         if (!scheduled) {
+            synchronized (this) {
+               scheduled = true;
+               notifyAll();
+            }
+         }
+      }
+
+      /**
+       * Stops the thread, waiting for the entry being moved to be completed. The thread is never interrupted, as that
+       * would close the file channel if it is reading or writing.
+       */
+      void terminate() throws InterruptedException {
+         synchronized (this) {
+            terminated = true;
+            notifyAll();
+         }
+         join();
+      }
+
+      @Override
+      public void run() {
+         // Entries may not be movable, so a compaction doesn't always bring the fragmentation below the threshold
+         // and the next entry freed schedules another one. The interval prevents compacting in a loop.
+         long nextCompaction = System.nanoTime();
+         while (!terminated) {
+            try {
+               synchronized (this) {
+                  while (!terminated) {
+                     long remaining = nextCompaction - System.nanoTime();
+                     if (!scheduled) {
+                        wait();
+                     } else if (remaining > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                     } else {
+                        break;
+                     }
+                  }
+                  scheduled = false;
+               }
+               if (!terminated && getFragmentationRatio() > configuration.compactionThreshold()) {
+                  compact(() -> terminated);
+                  nextCompaction = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(COMPACTION_INTERVAL_MILLIS);
+               }
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               return;
+            } catch (Throwable t) {
+               log.errorCompactingFileStore(file.getPath(), t);
+            }
+         }
+      }
+   }
+
+   /**
+    * Keeps the keys of a bounded store in least recently used order, like an access ordered {@link LinkedHashMap},
+    * except for the {@code ...Quietly} methods used to relocate entries. Not thread safe, it is only accessed through
+    * a synchronized map.
+    */
+   private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+      @Override
+      public V get(Object key) {
+         V value = super.get(key);
+         if (value != null)
+            touch(key, value);
+         return value;
+      }
+
+      @Override
+      public V put(K key, V value) {
+         V previous = super.remove(key);
+         super.put(key, value);
+         return previous;
+      }
+
+      @Override
+      public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+         V value = super.compute(key, remappingFunction);
+         if (value != null)
+            touch(key, value);
+         return value;
+      }
+
+      @Override
+      public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+         V value = super.computeIfPresent(key, remappingFunction);
+         if (value != null)
+            touch(key, value);
+         return value;
+      }
+
+      V computeIfPresentQuietly(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+         return super.computeIfPresent(key, remappingFunction);
+      }
+
+      boolean replaceQuietly(K key, V oldValue, V newValue) {
+         return super.replace(key, oldValue, newValue);
+      }
+
+      /**
+       * Moves the key to the end of the insertion order, which is the most recently used end.
+       */
+      @SuppressWarnings("unchecked")
+      private void touch(Object key, V value) {
+         super.remove(key);
+         super.put((K) key, value);
+      }
+   }
+
+   /**
+    * Free list keeping track of the total size of its entries, so that the fragmentation ratio, checked whenever an
+    * entry is freed, doesn't have to walk it.
+    */
+   private static final class FreeList extends ConcurrentSkipListSet<FileEntry> {
+      private final LongAdder freeBytes = new LongAdder();
+
+      @Override
+      public boolean add(FileEntry fe) {
+         if (super.add(fe)) {
+            freeBytes.add(fe.size);
+            return true;
+         }
+         return false;
+      }
+
+      @Override
+      public boolean remove(Object o) {
+         // The removed entry has the same size, as the entries are compared by size and offset
+         if (super.remove(o)) {
+            freeBytes.add(-((FileEntry) o).size);
+            return true;
+         }
+         return false;
+      }
+
+      @Override
+      public void clear() {
+         super.clear();
+         freeBytes.reset();
+      }
+
+      long freeBytes() {
+         return freeBytes.sum();
+      }
+   }
+
    /**
     * Helper class to represent an entry in the cache file.
     * <p/>
@@ -749,6 +1471,17 @@ private static class FileEntry implements Comparable<FileEntry> {
        */
       transient int readers = 0;
 
+      /**
+       * Whether this free entry was claimed by a writer for reuse.
+       */
+      private transient boolean claimed;
+
+      /**
+       * Whether this entry replaced an entry for the same key before the index checkpoint position, directly or through
+       * other replaced entries, so removing it must invalidate the index file.
+       */
+      transient boolean replacesCheckpointed;
+
       FileEntry(long offset, int size) {
          this(offset, size, 0, 0, 0, -1);
       }
@@ -770,6 +1503,18 @@ synchronized boolean isLocked() {
          return readers > 0;
       }
 
+      /**
+       * Claims a free entry for reuse, atomically with checking that no reader is using it.
+       *
+       * @return {@code false} if the entry is still being read or another writer claimed it first
+       */
+      synchronized boolean claim() {
+         if (claimed || readers > 0)
+            return false;
+         claimed = true;
+         return true;
+      }
+
       synchronized void lock() {
          readers++;
       }
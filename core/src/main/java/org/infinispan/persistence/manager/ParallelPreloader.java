@@ -0,0 +1,188 @@
+package org.infinispan.persistence.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.PersistenceException;
+
+/**
+ * Preloads the entries of a store using several worker threads.
+ * <p>
+ * The store is iterated with the persistence executor, so a store that iterates in parallel reads its entries with
+ * several threads, which hand batches of entries to the workers. The entries are partitioned by segment, so all the
+ * entries of a segment are inserted by the same worker. The worker queues are bounded, so a slow insertion slows down
+ * the iteration instead of buffering the store in memory.
+ *
+ * @since 9.2
+ */
+class ParallelPreloader {
+   private static final int BATCH_SIZE = 128;
+   private static final int QUEUE_CAPACITY = 4;
+
+   private final KeyPartitioner keyPartitioner;
+   private final Executor executor;
+   private final ThreadFactory threadFactory;
+   private final int workerCount;
+   private final Consumer<MarshalledEntry<Object, Object>> inserter;
+   private final AtomicLong insertedEntries;
+   private final AtomicReference<Throwable> failure = new AtomicReference<>();
+   private final List<MarshalledEntry<Object, Object>> stop = new ArrayList<>(0);
+
+   /**
+    * @param executor        the executor used by the store to iterate over its entries
+    * @param inserter        inserts an entry in the cache, invoked concurrently by the workers
+    * @param insertedEntries incremented after each entry is inserted
+    */
+   ParallelPreloader(KeyPartitioner keyPartitioner, Executor executor, ThreadFactory threadFactory, int workerCount,
+                     Consumer<MarshalledEntry<Object, Object>> inserter, AtomicLong insertedEntries) {
+      this.keyPartitioner = keyPartitioner;
+      this.executor = executor;
+      this.threadFactory = threadFactory;
+      this.workerCount = workerCount;
+      this.inserter = inserter;
+      this.insertedEntries = insertedEntries;
+   }
+
+   /**
+    * Inserts at most {@code maxEntries} entries from the loader.
+    *
+    * @return {@code true} if all the entries were inserted, {@code false} if the loader had more than {@code
+    * maxEntries} entries
+    */
+   boolean preload(AdvancedCacheLoader<Object, Object> loader, long maxEntries) {
+      Worker[] workers = new Worker[workerCount];
+      for (int i = 0; i < workerCount; i++) {
+         workers[i] = new Worker();
+         workers[i].thread.start();
+      }
+
+      AtomicLong readEntries = new AtomicLong();
+      AtomicBoolean complete = new AtomicBoolean(true);
+      try {
+         loader.process(null, (me, taskContext) -> {
+            if (readEntries.getAndIncrement() >= maxEntries) {
+               taskContext.stop();
+               complete.set(false);
+               return;
+            }
+            if (failure.get() != null) {
+               taskContext.stop();
+               return;
+            }
+            workers[keyPartitioner.getSegment(me.getKey()) % workerCount].add(me);
+         }, executor, true, true);
+         for (Worker worker : workers) {
+            worker.flush();
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new PersistenceException("Interrupted while preloading", e);
+      } finally {
+         stopWorkers(workers);
+      }
+
+      Throwable t = failure.get();
+      if (t instanceof PersistenceException)
+         throw (PersistenceException) t;
+      if (t != null)
+         throw new PersistenceException("Unable to preload!", t);
+      return complete.get();
+   }
+
+   private void stopWorkers(Worker[] workers) {
+      boolean interrupted = false;
+      for (Worker worker : workers) {
+         try {
+            worker.handOff(stop);
+         } catch (InterruptedException e) {
+            interrupted = true;
+            worker.thread.interrupt();
+         } catch (PersistenceException e) {
+            // The worker already stopped
+         }
+      }
+      for (Worker worker : workers) {
+         try {
+            worker.thread.join();
+         } catch (InterruptedException e) {
+            interrupted = true;
+         }
+      }
+      if (interrupted) {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private class Worker implements Runnable {
+      private final BlockingQueue<List<MarshalledEntry<Object, Object>>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+      private final Thread thread = threadFactory.newThread(this);
+      private List<MarshalledEntry<Object, Object>> pending = new ArrayList<>(BATCH_SIZE);
+
+      synchronized void add(MarshalledEntry<Object, Object> entry) throws InterruptedException {
+         pending.add(entry);
+         if (pending.size() >= BATCH_SIZE) {
+            handOff(pending);
+            pending = new ArrayList<>(BATCH_SIZE);
+         }
+      }
+
+      synchronized void flush() throws InterruptedException {
+         if (!pending.isEmpty()) {
+            handOff(pending);
+            pending = new ArrayList<>(BATCH_SIZE);
+         }
+      }
+
+      void handOff(List<MarshalledEntry<Object, Object>> batch) throws InterruptedException {
+         while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+            if (!thread.isAlive())
+               throw new PersistenceException("Preload worker " + thread.getName() + " stopped", failure.get());
+         }
+      }
+
+      @Override
+      public void run() {
+         try {
+            for (;;) {
+               List<MarshalledEntry<Object, Object>> batch = queue.take();
+               if (batch == stop)
+                  return;
+               // After a failure keep draining the queue, so that the reader never blocks
+               if (failure.get() != null)
+                  continue;
+               for (MarshalledEntry<Object, Object> entry : batch) {
+                  inserter.accept(entry);
+                  insertedEntries.incrementAndGet();
+               }
+            }
+         } catch (InterruptedException e) {
+            failure.compareAndSet(null, e);
+         } catch (Throwable t) {
+            failure.compareAndSet(null, t);
+            drain();
+         }
+      }
+
+      private void drain() {
+         try {
+            while (queue.take() != stop) {
+               // discard
+            }
+         } catch (InterruptedException e) {
+            // stopping anyway
+         }
+      }
+   }
+}
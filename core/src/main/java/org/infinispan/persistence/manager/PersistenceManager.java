@@ -1,7 +1,10 @@
 package org.infinispan.persistence.manager;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 
 import javax.transaction.Transaction;
@@ -11,6 +14,7 @@
 import org.infinispan.context.InvocationContext;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.async.AsyncCacheWriter;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.support.BatchModification;
@@ -36,6 +40,21 @@ public interface PersistenceManager extends Lifecycle {
     */
    void preload();
 
+   /**
+    * @return {@code true} while the entries are being preloaded from the store
+    */
+   boolean isPreloading();
+
+   /**
+    * @return the number of entries preloaded from the store so far
+    */
+   long getPreloadedEntries();
+
+   /**
+    * @return the time spent preloading the entries, in milliseconds, or -1 if the entries were not preloaded
+    */
+   long getPreloadTime();
+
    /**
     * Marks the given storage as disabled.
     */
@@ -43,6 +62,12 @@ public interface PersistenceManager extends Lifecycle {
 
    <T> Set<T> getStores(Class<T> storeClass);
 
+   /**
+    * @return the write-behind wrappers of the stores configured with an enabled
+    * {@link org.infinispan.configuration.cache.AsyncStoreConfiguration}
+    */
+   List<AsyncCacheWriter> getAsyncWriters();
+
    Collection<String> getStoresAsString();
 
    /**
@@ -57,6 +82,13 @@ public interface PersistenceManager extends Lifecycle {
 
    boolean deleteFromAllStores(Object key, AccessMode mode);
 
+   /**
+    * Same as {@link #deleteFromAllStores(Object, AccessMode)}, but doesn't block the invoking thread. Writers
+    * implementing {@link org.infinispan.persistence.spi.NonBlockingCacheWriter} are invoked directly, the others are
+    * invoked on the persistence executor.
+    */
+   CompletionStage<Boolean> deleteFromAllStoresAsync(Object key, AccessMode mode);
+
    void processOnAllStores(KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata);
 
    void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata);
@@ -67,6 +99,28 @@ public interface PersistenceManager extends Lifecycle {
 
    MarshalledEntry loadFromAllStores(Object key, InvocationContext context);
 
+   /**
+    * Loads the entries for multiple keys, using {@link org.infinispan.persistence.spi.CacheLoader#loadAll(Set)} on
+    * each loader for the keys that were not found in the previous loaders.
+    *
+    * @return map from the requested keys to the entries found
+    */
+   Map<Object, MarshalledEntry> loadAllFromAllStores(Set<?> keys, InvocationContext context);
+
+   /**
+    * Same as {@link #loadFromAllStores(Object, InvocationContext)}, but doesn't block the invoking thread. Loaders
+    * implementing {@link org.infinispan.persistence.spi.NonBlockingCacheLoader} are invoked directly, the others are
+    * invoked on the persistence executor.
+    */
+   CompletionStage<MarshalledEntry> loadFromAllStoresAsync(Object key, InvocationContext context);
+
+   /**
+    * Returns a number that changes every time the entry of the key is written to or removed from the stores, and
+    * possibly when other keys are modified. An entry loaded asynchronously must be discarded if the stores were
+    * modified while it was being loaded, because a newer entry may have been written and evicted in the meantime.
+    */
+   long getModificationCount(Object key);
+
    /**
     * Returns the store one configured with fetch persistent state, or null if none exist.
     */
@@ -139,6 +193,13 @@ protected boolean canPerform(StoreConfiguration configuration) {
     */
    void writeToAllNonTxStores(MarshalledEntry marshalledEntry, AccessMode modes, long flags);
 
+   /**
+    * Same as {@link #writeToAllNonTxStores(MarshalledEntry, AccessMode, long)}, but doesn't block the invoking thread.
+    * Writers implementing {@link org.infinispan.persistence.spi.NonBlockingCacheWriter} are invoked directly, the
+    * others are invoked on the persistence executor.
+    */
+   CompletionStage<Void> writeToAllNonTxStoresAsync(MarshalledEntry marshalledEntry, AccessMode modes, long flags);
+
    /**
     * Perform the prepare phase of 2PC on all Tx stores.
     *
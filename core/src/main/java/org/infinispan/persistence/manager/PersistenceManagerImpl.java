@@ -21,35 +21,47 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.executors.BlockingThreadPoolExecutorFactory;
+import org.infinispan.commons.executors.ThreadPoolExecutorFactory;
 import org.infinispan.commons.api.Lifecycle;
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.marshall.StreamingMarshaller;
-import org.infinispan.commons.util.ByRef;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.container.DataContainer;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.eviction.EvictionType;
 import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
+import org.infinispan.factories.threads.DefaultThreadFactory;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.interceptors.AsyncInterceptor;
 import org.infinispan.interceptors.AsyncInterceptorChain;
@@ -58,8 +70,10 @@
 import org.infinispan.interceptors.impl.TransactionalStoreInterceptor;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryFactory;
+import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.InternalMetadataImpl;
+import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.persistence.InitializationContextImpl;
 import org.infinispan.persistence.async.AdvancedAsyncCacheLoader;
 import org.infinispan.persistence.async.AdvancedAsyncCacheWriter;
@@ -74,6 +88,8 @@
 import org.infinispan.persistence.spi.CacheWriter;
 import org.infinispan.persistence.spi.FlagAffectedStore;
 import org.infinispan.persistence.spi.LocalOnlyCacheLoader;
+import org.infinispan.persistence.spi.NonBlockingCacheLoader;
+import org.infinispan.persistence.spi.NonBlockingCacheWriter;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.spi.TransactionalCacheWriter;
 import org.infinispan.persistence.support.AdvancedSingletonCacheWriter;
@@ -82,7 +98,7 @@
 import org.infinispan.persistence.support.DelegatingCacheWriter;
 import org.infinispan.persistence.support.SingletonCacheWriter;
 import org.infinispan.util.TimeService;
-import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -102,6 +118,14 @@ public class PersistenceManagerImpl implements PersistenceManager {
    @Inject private MarshalledEntryFactory marshalledEntryFactory;
    @Inject private CacheStoreFactoryRegistry cacheStoreFactoryRegistry;
    @Inject private ExpirationManager expirationManager;
+   @Inject private DataContainer<Object, Object> dataContainer;
+   @Inject private CacheNotifier cacheNotifier;
+   @Inject private KeyPartitioner keyPartitioner;
+
+   private static final int MODIFICATION_COUNT_STRIPES = 256;
+   // Blocking store operations waiting for a thread before the invoking thread runs them itself
+   private static final int BLOCKING_QUEUE_SIZE = 1024;
+   private static final long BLOCKING_KEEP_ALIVE = 60000;
 
    private final List<CacheLoader> loaders = new ArrayList<>();
    private final List<CacheWriter> nonTxWriters = new ArrayList<>();
@@ -116,6 +140,15 @@ public class PersistenceManagerImpl implements PersistenceManager {
    volatile boolean enabled;
    private volatile boolean clearOnStop;
    private boolean preloaded;
+   private volatile boolean preloading;
+   private final AtomicLong preloadedEntries = new AtomicLong();
+   private volatile long preloadStart;
+   private volatile long preloadEnd;
+   private boolean nonBlocking;
+   // Runs the blocking stores' operations when nonBlocking is enabled
+   private ThreadPoolExecutor blockingExecutor;
+   // Modification counters of the stores, indexed by the hash of the keys, only updated when nonBlocking is enabled
+   private final AtomicLongArray modificationCounts = new AtomicLongArray(MODIFICATION_COUNT_STRIPES);
 
    @Override
    @Start(priority = 10)
@@ -125,6 +158,10 @@ public void start() {
       enabled = configuration.persistence().usingStores();
       if (!enabled)
          return;
+      nonBlocking = configuration.persistence().nonBlocking();
+      if (nonBlocking) {
+         blockingExecutor = createBlockingExecutor();
+      }
       try {
          createLoadersAndWriters();
          Transaction xaTx = null;
@@ -175,9 +212,35 @@ public void start() {
       }
    }
 
+   /**
+    * Creates the executor running the operations of the stores that don't implement the non-blocking SPI.  The shared
+    * persistence executor runs a task on the submitting thread when all its threads are busy, which would block the
+    * caller of the non-blocking operation.  This executor has as many threads as the persistence thread pool and queues
+    * up to {@link #BLOCKING_QUEUE_SIZE} tasks, the submitting thread only runs a task itself once the queue is full.
+    */
+   private ThreadPoolExecutor createBlockingExecutor() {
+      GlobalConfiguration globalConfiguration = cache.getCacheManager().getCacheManagerConfiguration();
+      ThreadPoolExecutorFactory<?> factory = globalConfiguration.persistenceThreadPool().threadPoolFactory();
+      int threads = factory instanceof BlockingThreadPoolExecutorFactory ?
+            ((BlockingThreadPoolExecutorFactory) factory).maxThreads() :
+            KnownComponentNames.getDefaultThreads(PERSISTENCE_EXECUTOR);
+      DefaultThreadFactory threadFactory = new DefaultThreadFactory(null, Thread.NORM_PRIORITY,
+            DefaultThreadFactory.DEFAULT_PATTERN, globalConfiguration.transport().nodeName(),
+            "PersistenceBlocking-" + cache.getName());
+      // Tasks submitted after the shutdown still run, so that their stages complete
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, BLOCKING_KEEP_ALIVE, MILLISECONDS,
+            new LinkedBlockingQueue<>(BLOCKING_QUEUE_SIZE), threadFactory, (r, e) -> r.run());
+      executor.allowCoreThreadTimeOut(true);
+      return executor;
+   }
+
    @Override
    @Stop
    public void stop() {
+      if (blockingExecutor != null) {
+         // The queued tasks still run, as with the shared persistence executor
+         blockingExecutor.shutdown();
+      }
       // If needed, clear the persistent store before stopping
       if (clearOnStop)
          clearAllStores(AccessMode.BOTH);
@@ -245,25 +308,74 @@ public void preload() {
          return;
 
       long start = timeService.time();
+      preloadedEntries.set(0);
+      preloadStart = start;
+      preloading = true;
+      try {
+         final long maxEntries = getMaxEntries();
+         final AdvancedCache<Object, Object> flaggedCache = getCacheForStateInsertion();
+         final boolean inDataContainer = canPreloadInDataContainer();
+         final Metadata defaultMetadata = new EmbeddedMetadata.Builder()
+               .lifespan(configuration.expiration().lifespan()).maxIdle(configuration.expiration().maxIdle()).build();
+         String nodeName = cache.getCacheManager().getCacheManagerConfiguration().transport().nodeName();
+         DefaultThreadFactory threadFactory = new DefaultThreadFactory(null, Thread.NORM_PRIORITY,
+               DefaultThreadFactory.DEFAULT_PATTERN, nodeName, "PreloadWorker");
+         ParallelPreloader preloader = new ParallelPreloader(keyPartitioner, persistenceExecutor, threadFactory,
+               Runtime.getRuntime().availableProcessors(), me -> {
+            Metadata metadata = me.getMetadata() != null ? ((InternalMetadataImpl) me.getMetadata()).actual() :
+                  null; //the downcast will go away with ISPN-3460
+            if (inDataContainer) {
+               dataContainer.put(me.getKey(), me.getValue(), applyDefaultMetadata(metadata, defaultMetadata));
+            } else {
+               preloadKey(flaggedCache, me.getKey(), me.getValue(), metadata);
+            }
+         }, preloadedEntries);
+         this.preloaded = preloader.preload(preloadCl, maxEntries);
+      } finally {
+         preloadEnd = timeService.time();
+         preloading = false;
+      }
 
+      log.debugf("Preloaded %d keys in %s", preloadedEntries.get(), Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
+   }
 
-      final long maxEntries = getMaxEntries();
-      final AtomicInteger loadedEntries = new AtomicInteger(0);
-      final AdvancedCache<Object, Object> flaggedCache = getCacheForStateInsertion();
-      ByRef.Boolean preloaded = new ByRef.Boolean(true);
-      preloadCl.process(null, (me, taskContext) -> {
-         if (loadedEntries.getAndIncrement() >= maxEntries) {
-            taskContext.stop();
-            preloaded.set(false);
-            return;
-         }
-         Metadata metadata = me.getMetadata() != null ? ((InternalMetadataImpl) me.getMetadata()).actual() :
-               null; //the downcast will go away with ISPN-3460
-         preloadKey(flaggedCache, me.getKey(), me.getValue(), metadata);
-      }, new WithinThreadExecutor(), true, true);
-      this.preloaded = preloaded.get();
+   @Override
+   public boolean isPreloading() {
+      return preloading;
+   }
 
-      log.debugf("Preloaded %d keys in %s", loadedEntries.get(), Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
+   @Override
+   public long getPreloadedEntries() {
+      return preloadedEntries.get();
+   }
+
+   @Override
+   public long getPreloadTime() {
+      long start = preloadStart;
+      if (start == 0)
+         return -1;
+      return preloading ? timeService.timeDuration(start, MILLISECONDS) :
+            timeService.timeDuration(start, preloadEnd, MILLISECONDS);
+   }
+
+   /**
+    * Preloaded entries can be inserted directly in the data container, bypassing the interceptor stack, unless the
+    * put would do more than storing the entry: update a transaction, assign a version, update the index or notify a
+    * listener.
+    */
+   private boolean canPreloadInDataContainer() {
+      return !configuration.transaction().transactionMode().isTransactional() &&
+            !configuration.clustering().cacheMode().isScattered() &&
+            !configuration.indexing().index().isEnabled() &&
+            cacheNotifier.getListeners().isEmpty();
+   }
+
+   private static Metadata applyDefaultMetadata(Metadata metadata, Metadata defaultMetadata) {
+      if (metadata == null) {
+         return defaultMetadata;
+      }
+      Metadata.Builder builder = metadata.builder();
+      return builder != null ? builder.merge(defaultMetadata).build() : metadata;
    }
 
    @Override
@@ -328,6 +440,21 @@ public <T> Set<T> getStores(Class<T> storeClass) {
       }
    }
 
+   @Override
+   public List<AsyncCacheWriter> getAsyncWriters() {
+      storesMutex.readLock().lock();
+      try {
+         List<AsyncCacheWriter> result = new ArrayList<>();
+         for (CacheWriter writer : nonTxWriters) {
+            if (writer instanceof AsyncCacheWriter)
+               result.add((AsyncCacheWriter) writer);
+         }
+         return result;
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
    @Override
    public Collection<String> getStoresAsString() {
       storesMutex.readLock().lock();
@@ -420,6 +547,7 @@ public void clearAllStores(AccessMode mode) {
          txWriters.forEach(clearWriter);
       } finally {
          storesMutex.readLock().unlock();
+         modifiedAll();
       }
    }
 
@@ -436,9 +564,47 @@ public boolean deleteFromAllStores(Object key, AccessMode mode) {
          return removed;
       } finally {
          storesMutex.readLock().unlock();
+         modified(key);
       }
    }
 
+   @Override
+   public CompletionStage<Boolean> deleteFromAllStoresAsync(Object key, AccessMode mode) {
+      List<CompletionStage<Boolean>> stages = new ArrayList<>();
+      List<CacheWriter> blockingWriters = new ArrayList<>();
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : nonTxWriters) {
+            if (mode.canPerform(configMap.get(w))) {
+               if (w instanceof NonBlockingCacheWriter) {
+                  stages.add(((NonBlockingCacheWriter) w).deleteAsync(key));
+               } else {
+                  blockingWriters.add(w);
+               }
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+      if (!blockingWriters.isEmpty()) {
+         stages.add(supplyBlocking(() -> {
+            boolean removed = false;
+            for (CacheWriter w : blockingWriters) {
+               // The store may have been removed while the task was waiting for a thread
+               if (nonTxWriters.contains(w)) {
+                  removed |= w.delete(key);
+               }
+            }
+            return removed;
+         }));
+      }
+      CompletionStage<Boolean> result = CompletableFuture.completedFuture(Boolean.FALSE);
+      for (CompletionStage<Boolean> stage : stages) {
+         result = result.thenCombine(stage, (r1, r2) -> r1 | r2);
+      }
+      return result.whenComplete((removed, t) -> modified(key));
+   }
+
    @Override
    public void processOnAllStores(KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task,
                                   boolean fetchValue, boolean fetchMetadata) {
@@ -488,6 +654,100 @@ public MarshalledEntry loadFromAllStores(Object key, InvocationContext context)
       }
    }
 
+   @Override
+   public Map<Object, MarshalledEntry> loadAllFromAllStores(Set<?> keys, InvocationContext context) {
+      storesMutex.readLock().lock();
+      try {
+         Map<Object, MarshalledEntry> entries = new HashMap<>();
+         Set<Object> remaining = new HashSet<>(keys);
+         for (CacheLoader l : loaders) {
+            if (!context.isOriginLocal() && isLocalOnlyLoader(l))
+               continue;
+
+            Map<Object, MarshalledEntry> loaded = l.loadAll(remaining);
+            if (!loaded.isEmpty()) {
+               entries.putAll(loaded);
+               remaining.removeAll(loaded.keySet());
+               if (remaining.isEmpty())
+                  break;
+            }
+         }
+         return entries;
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
+   @Override
+   public CompletionStage<MarshalledEntry> loadFromAllStoresAsync(Object key, InvocationContext context) {
+      List<CacheLoader> applicableLoaders = new ArrayList<>();
+      storesMutex.readLock().lock();
+      try {
+         for (CacheLoader l : loaders) {
+            if (context.isOriginLocal() || !isLocalOnlyLoader(l)) {
+               applicableLoaders.add(l);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+      return loadAsync(applicableLoaders, 0, key);
+   }
+
+   /**
+    * Loads the key from the loaders starting at {@code index}, until one of them finds it. Consecutive blocking
+    * loaders are invoked in a single persistence executor task.
+    */
+   private CompletionStage<MarshalledEntry> loadAsync(List<CacheLoader> loaders, int index, Object key) {
+      if (index == loaders.size())
+         return CompletableFutures.completedNull();
+
+      CompletionStage<MarshalledEntry> stage;
+      int next;
+      CacheLoader loader = loaders.get(index);
+      if (loader instanceof NonBlockingCacheLoader) {
+         stage = ((NonBlockingCacheLoader) loader).loadAsync(key);
+         next = index + 1;
+      } else {
+         next = index + 1;
+         while (next < loaders.size() && !(loaders.get(next) instanceof NonBlockingCacheLoader)) {
+            next++;
+         }
+         List<CacheLoader> blockingLoaders = loaders.subList(index, next);
+         stage = supplyBlocking(() -> {
+            for (CacheLoader l : blockingLoaders) {
+               // The store may have been removed while the task was waiting for a thread
+               if (this.loaders.contains(l)) {
+                  MarshalledEntry load = l.load(key);
+                  if (load != null)
+                     return load;
+               }
+            }
+            return null;
+         });
+      }
+      if (next == loaders.size())
+         return stage;
+
+      int nextIndex = next;
+      return stage.thenCompose(load -> load != null ? CompletableFuture.completedFuture(load) : loadAsync(loaders, nextIndex, key));
+   }
+
+   /**
+    * Runs a blocking store operation on the blocking executor, holding the stores read lock so that the stores
+    * can't be stopped in the meantime.
+    */
+   private <T> CompletionStage<T> supplyBlocking(Supplier<T> operation) {
+      return CompletableFuture.supplyAsync(() -> {
+         storesMutex.readLock().lock();
+         try {
+            return operation.get();
+         } finally {
+            storesMutex.readLock().unlock();
+         }
+      }, blockingExecutor);
+   }
+
    private boolean isLocalOnlyLoader(CacheLoader loader) {
       if (loader instanceof LocalOnlyCacheLoader) return true;
       if (loader instanceof DelegatingCacheLoader) {
@@ -513,6 +773,51 @@ public void writeToAllNonTxStores(MarshalledEntry marshalledEntry, AccessMode ac
                .forEach(writer -> writer.write(marshalledEntry));
       } finally {
          storesMutex.readLock().unlock();
+         modified(marshalledEntry.getKey());
+      }
+   }
+
+   @Override
+   public CompletionStage<Void> writeToAllNonTxStoresAsync(MarshalledEntry marshalledEntry, AccessMode accessMode, long flags) {
+      List<CompletableFuture<?>> stages = new ArrayList<>();
+      List<CacheWriter> blockingWriters = new ArrayList<>();
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter writer : nonTxWriters) {
+            if (writer instanceof FlagAffectedStore && !((FlagAffectedStore) writer).shouldWrite(flags))
+               continue;
+            if (!accessMode.canPerform(configMap.get(writer)))
+               continue;
+
+            if (writer instanceof NonBlockingCacheWriter) {
+               stages.add(((NonBlockingCacheWriter) writer).writeAsync(marshalledEntry).toCompletableFuture());
+            } else {
+               blockingWriters.add(writer);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+      if (!blockingWriters.isEmpty()) {
+         stages.add(supplyBlocking(() -> {
+            for (CacheWriter writer : blockingWriters) {
+               // The store may have been removed while the task was waiting for a thread
+               if (nonTxWriters.contains(writer)) {
+                  writer.write(marshalledEntry);
+               }
+            }
+            return null;
+         }).toCompletableFuture());
+      }
+      switch (stages.size()) {
+         case 0:
+            return CompletableFutures.completedNull();
+         case 1:
+            return stages.get(0).whenComplete((ignore, t) -> modified(marshalledEntry.getKey()))
+                  .thenApply(ignore -> null);
+         default:
+            return CompletableFuture.allOf(stages.toArray(new CompletableFuture[stages.size()]))
+                  .whenComplete((ignore, t) -> modified(marshalledEntry.getKey()));
       }
    }
 
@@ -526,6 +831,7 @@ public void writeBatchToAllNonTxStores(Iterable<MarshalledEntry> entries, Access
                .forEach(writer -> writer.writeBatch(entries));
       } finally {
          storesMutex.readLock().unlock();
+         entries.forEach(entry -> modified(entry.getKey()));
       }
    }
 
@@ -538,6 +844,7 @@ public void deleteBatchFromAllNonTxStores(Iterable<Object> keys, AccessMode acce
                .forEach(writer -> writer.deleteBatch(keys));
       } finally {
          storesMutex.readLock().unlock();
+         keys.forEach(this::modified);
       }
    }
 
@@ -559,7 +866,36 @@ public void prepareAllTxStores(Transaction transaction, BatchModification batchM
 
    @Override
    public void commitAllTxStores(Transaction transaction, AccessMode accessMode) {
-      performOnAllTxStores(accessMode, writer -> writer.commit(transaction));
+      try {
+         performOnAllTxStores(accessMode, writer -> writer.commit(transaction));
+      } finally {
+         modifiedAll();
+      }
+   }
+
+   @Override
+   public long getModificationCount(Object key) {
+      return modificationCounts.get(modificationCountIndex(key));
+   }
+
+   private void modified(Object key) {
+      if (!nonBlocking)
+         return;
+      // Incremented after the write, so that a load that starts later finds the written value
+      modificationCounts.incrementAndGet(modificationCountIndex(key));
+   }
+
+   private void modifiedAll() {
+      if (!nonBlocking)
+         return;
+      for (int i = 0; i < MODIFICATION_COUNT_STRIPES; i++) {
+         modificationCounts.incrementAndGet(i);
+      }
+   }
+
+   private static int modificationCountIndex(Object key) {
+      int h = key.hashCode();
+      return (h ^ (h >>> 16)) & (MODIFICATION_COUNT_STRIPES - 1);
    }
 
    @Override
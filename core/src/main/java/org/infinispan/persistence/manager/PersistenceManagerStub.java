@@ -2,7 +2,11 @@
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 
 import javax.transaction.Transaction;
@@ -11,9 +15,11 @@
 import org.infinispan.factories.annotations.SurvivesRestarts;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.async.AsyncCacheWriter;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.support.BatchModification;
+import org.infinispan.util.concurrent.CompletableFutures;
 
 /**
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
@@ -42,6 +48,21 @@ public boolean isPreloaded() {
    public void preload() {
    }
 
+   @Override
+   public boolean isPreloading() {
+      return false;
+   }
+
+   @Override
+   public long getPreloadedEntries() {
+      return 0;
+   }
+
+   @Override
+   public long getPreloadTime() {
+      return -1;
+   }
+
    @Override
    public void disableStore(String storeType) {
    }
@@ -51,6 +72,11 @@ public <T> Set<T> getStores(Class<T> storeClass) {
       return Collections.EMPTY_SET;
    }
 
+   @Override
+   public List<AsyncCacheWriter> getAsyncWriters() {
+      return Collections.emptyList();
+   }
+
    @Override
    public Collection<String> getStoresAsString() {
       return Collections.EMPTY_SET;
@@ -69,6 +95,11 @@ public boolean deleteFromAllStores(Object key, AccessMode mode) {
       return false;
    }
 
+   @Override
+   public CompletionStage<Boolean> deleteFromAllStoresAsync(Object key, AccessMode mode) {
+      return CompletableFuture.completedFuture(Boolean.FALSE);
+   }
+
    @Override
    public void processOnAllStores(KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata) {
    }
@@ -90,6 +121,21 @@ public MarshalledEntry loadFromAllStores(Object key, InvocationContext context)
       return null;
    }
 
+   @Override
+   public Map<Object, MarshalledEntry> loadAllFromAllStores(Set<?> keys, InvocationContext context) {
+      return Collections.emptyMap();
+   }
+
+   @Override
+   public CompletionStage<MarshalledEntry> loadFromAllStoresAsync(Object key, InvocationContext context) {
+      return CompletableFutures.completedNull();
+   }
+
+   @Override
+   public long getModificationCount(Object key) {
+      return 0;
+   }
+
    @Override
    public void writeToAllNonTxStores(MarshalledEntry marshalledEntry, AccessMode modes) {
    }
@@ -98,6 +144,11 @@ public void writeToAllNonTxStores(MarshalledEntry marshalledEntry, AccessMode mo
    public void writeToAllNonTxStores(MarshalledEntry marshalledEntry, AccessMode modes, long flags) {
    }
 
+   @Override
+   public CompletionStage<Void> writeToAllNonTxStoresAsync(MarshalledEntry marshalledEntry, AccessMode modes, long flags) {
+      return CompletableFutures.completedNull();
+   }
+
    @Override
    public AdvancedCacheLoader getStateTransferProvider() {
       return null;
@@ -1,5 +1,9 @@
 package org.infinispan.persistence.spi;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
 import org.infinispan.commons.api.Lifecycle;
 import org.infinispan.marshall.core.MarshalledEntry;
 
@@ -33,6 +37,26 @@
     */
    MarshalledEntry<K, V> load(Object key);
 
+   /**
+    * Fetches the entries for multiple keys from the storage. The default implementation calls {@link #load(Object)}
+    * for each key; stores that can look up multiple keys with a single request should override it.
+    *
+    * @param keys the keys to load
+    * @return map from the requested keys to the entries found; keys without an entry are not present in the map
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    * @since 9.2
+    */
+   default Map<Object, MarshalledEntry<K, V>> loadAll(Set<?> keys) {
+      Map<Object, MarshalledEntry<K, V>> entries = new HashMap<>();
+      for (Object key : keys) {
+         MarshalledEntry<K, V> entry = load(key);
+         if (entry != null) {
+            entries.put(key, entry);
+         }
+      }
+      return entries;
+   }
+
    /**
     * Returns true if the storage contains an entry associated with the given key.
     *
@@ -0,0 +1,35 @@
+package org.infinispan.persistence.spi;
+
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.PersistenceUtil;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * A {@link CacheLoader} that can fetch entries without blocking the invoking thread. When
+ * {@link org.infinispan.configuration.cache.PersistenceConfiguration#nonBlocking()} is enabled, the cache loader
+ * interceptor invokes {@link #loadAsync(Object)} directly and resumes the invocation when the returned stage completes.
+ * Loaders not implementing this interface are invoked on a thread pool of the cache, with as many threads as the
+ * persistence executor, instead.
+ *
+ * @since 9.2
+ */
+@ThreadSafe
+public interface NonBlockingCacheLoader<K, V> extends CacheLoader<K, V> {
+
+   /**
+    * Fetches an entry from the storage without blocking. The returned stage completes with {@code null} if the entry
+    * does not exist, and completes exceptionally with a {@link PersistenceException} in case of an error.
+    */
+   CompletionStage<MarshalledEntry<K, V>> loadAsync(Object key);
+
+   /**
+    * Blocks until {@link #loadAsync(Object)} completes.
+    */
+   @Override
+   default MarshalledEntry<K, V> load(Object key) {
+      return PersistenceUtil.join(loadAsync(key));
+   }
+}
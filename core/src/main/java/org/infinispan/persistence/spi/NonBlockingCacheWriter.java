@@ -0,0 +1,49 @@
+package org.infinispan.persistence.spi;
+
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.PersistenceUtil;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * A {@link CacheWriter} that can persist and delete entries without blocking the invoking thread. When
+ * {@link org.infinispan.configuration.cache.PersistenceConfiguration#nonBlocking()} is enabled, the cache writer
+ * interceptor invokes {@link #writeAsync(MarshalledEntry)} and {@link #deleteAsync(Object)} directly and completes
+ * the invocation when the returned stage completes. Writers not implementing this interface are invoked on a thread
+ * pool of the cache, with as many threads as the persistence executor, instead.
+ *
+ * @since 9.2
+ */
+@ThreadSafe
+public interface NonBlockingCacheWriter<K, V> extends CacheWriter<K, V> {
+
+   /**
+    * Persists the entry to the storage without blocking. The returned stage completes exceptionally with a
+    * {@link PersistenceException} in case of an error.
+    */
+   CompletionStage<Void> writeAsync(MarshalledEntry<? extends K, ? extends V> entry);
+
+   /**
+    * Deletes the entry from the storage without blocking. The returned stage completes with {@code true} if the entry
+    * existed in the storage and it was deleted.
+    */
+   CompletionStage<Boolean> deleteAsync(Object key);
+
+   /**
+    * Blocks until {@link #writeAsync(MarshalledEntry)} completes.
+    */
+   @Override
+   default void write(MarshalledEntry<? extends K, ? extends V> entry) {
+      PersistenceUtil.join(writeAsync(entry));
+   }
+
+   /**
+    * Blocks until {@link #deleteAsync(Object)} completes.
+    */
+   @Override
+   default boolean delete(Object key) {
+      return PersistenceUtil.join(deleteAsync(key));
+   }
+}
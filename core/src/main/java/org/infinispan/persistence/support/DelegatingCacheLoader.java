@@ -1,5 +1,9 @@
 package org.infinispan.persistence.support;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.spi.CacheLoader;
 import org.infinispan.persistence.spi.InitializationContext;
@@ -8,9 +12,9 @@
  * @author Mircea Markus
  * @since 6.0
  */
-public abstract class DelegatingCacheLoader implements CacheLoader {
+public abstract class DelegatingCacheLoader<K, V> implements CacheLoader<K, V> {
 
-   protected CacheLoader actual;
+   protected CacheLoader<K, V> actual;
    protected InitializationContext ctx;
 
    @Override
@@ -34,7 +38,7 @@ public void stop() {
          actual.stop();
    }
 
-   protected DelegatingCacheLoader(CacheLoader actual) {
+   protected DelegatingCacheLoader(CacheLoader<K, V> actual) {
       this.actual = actual;
    }
 
@@ -44,10 +48,15 @@ public boolean contains(Object key) {
    }
 
    @Override
-   public MarshalledEntry load(Object key) {
+   public MarshalledEntry<K, V> load(Object key) {
       return actual != null ? actual.load(key) : null;
    }
 
+   @Override
+   public Map<Object, MarshalledEntry<K, V>> loadAll(Set<?> keys) {
+      return actual != null ? actual.loadAll(keys) : Collections.emptyMap();
+   }
+
    public CacheLoader undelegate() {
       CacheLoader cl = this;
       do {
@@ -945,6 +945,7 @@ private static org.jgroups.Address toJGroupsAddress(Address address) {
    private void marshallRequest(Message message, ReplicableCommand command, long requestId) {
       try {
          ByteBuffer bytes = marshaller.objectToBuffer(command);
+         // The message keeps the marshaller's buffer, and the receiver unmarshalls from the message's raw buffer
          message.setBuffer(bytes.getBuf(), bytes.getOffset(), bytes.getLength());
          addRequestHeader(message, requestId);
       } catch (RuntimeException e) {
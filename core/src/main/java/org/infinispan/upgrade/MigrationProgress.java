@@ -0,0 +1,107 @@
+package org.infinispan.upgrade;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.util.TimeService;
+
+/**
+ * Tracks the source segments already synchronized by a {@link TargetMigrator}, so that a synchronization interrupted by
+ * a failure can be resumed from the segments that were not completed.
+ * <p>
+ * The checkpoint is kept until all the segments have been synchronized: starting a new synchronization with the same
+ * number of source segments only returns the remaining segments, while a successful synchronization clears it.
+ *
+ * @since 9.2
+ */
+public class MigrationProgress {
+   private final TimeService timeService;
+   private final BitSet completedSegments = new BitSet();
+   private final LongAdder migratedEntries = new LongAdder();
+   private int numSegments;
+   private volatile long startTime;
+   private volatile long endTime;
+   private volatile long runEntries;
+
+   public MigrationProgress(TimeService timeService) {
+      this.timeService = timeService;
+   }
+
+   /**
+    * Starts or resumes a synchronization of a source with {@code numSegments} segments. If the previous
+    * synchronization had a different number of segments, its checkpoint is discarded.
+    *
+    * @return the segments that still have to be synchronized
+    */
+   public synchronized Set<Integer> start(int numSegments) {
+      if (numSegments != this.numSegments) {
+         this.numSegments = numSegments;
+         completedSegments.clear();
+         migratedEntries.reset();
+      }
+      startTime = timeService.time();
+      endTime = 0;
+      runEntries = migratedEntries.sum();
+      Set<Integer> remaining = new HashSet<>();
+      for (int i = completedSegments.nextClearBit(0); i < numSegments; i = completedSegments.nextClearBit(i + 1)) {
+         remaining.add(i);
+      }
+      return remaining;
+   }
+
+   /**
+    * Records that {@code segments} have been synchronized, migrating {@code entries} entries.
+    */
+   public synchronized void segmentsCompleted(Collection<Integer> segments, long entries) {
+      for (Integer segment : segments) {
+         completedSegments.set(segment);
+      }
+      migratedEntries.add(entries);
+   }
+
+   /**
+    * Ends the current synchronization. If it completed successfully the checkpoint is cleared, otherwise the completed
+    * segments are kept so that the next synchronization resumes from the remaining ones.
+    */
+   public synchronized void end(boolean successful) {
+      endTime = timeService.time();
+      if (successful) {
+         numSegments = 0;
+         completedSegments.clear();
+      }
+   }
+
+   public boolean isInProgress() {
+      return startTime != 0 && endTime == 0;
+   }
+
+   /**
+    * @return the number of entries migrated since the first synchronization of the current checkpoint
+    */
+   public long getMigratedEntries() {
+      return migratedEntries.sum();
+   }
+
+   /**
+    * @return the number of segments not synchronized yet, or 0 if there is no interrupted synchronization
+    */
+   public synchronized int getRemainingSegments() {
+      return numSegments - completedSegments.cardinality();
+   }
+
+   /**
+    * @return the number of entries migrated per second by the current, or the last, synchronization
+    */
+   public double getThroughput() {
+      long start = startTime;
+      if (start == 0)
+         return 0;
+      long end = endTime;
+      long elapsed = timeService.timeDuration(start, end != 0 ? end : timeService.time(), TimeUnit.MILLISECONDS);
+      return elapsed > 0 ? (migratedEntries.sum() - runEntries) * 1000d / elapsed : 0;
+   }
+}
@@ -8,10 +8,12 @@
 import org.infinispan.commons.util.ServiceFinder;
 import org.infinispan.commons.util.Util;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.SurvivesRestarts;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
 import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.jmx.annotations.Parameter;
 import org.infinispan.util.TimeService;
@@ -34,6 +36,15 @@ public class RollingUpgradeManager {
    private final Set<SourceMigrator> sourceMigrators = new HashSet<>(2);
    @Inject private Cache<Object, Object> cache;
    @Inject private TimeService timeService;
+   private MigrationProgress progress;
+
+   @Start
+   public void start() {
+      if (progress == null) {
+         // The component survives restarts, keep the checkpoint of an interrupted synchronization
+         progress = new MigrationProgress(timeService);
+      }
+   }
 
    @ManagedOperation(
          description = "Synchronizes data from the old cluster to this using the specified migrator",
@@ -42,7 +53,7 @@ public class RollingUpgradeManager {
    public long synchronizeData(@Parameter(name="migratorName", description="The name of the migrator to use") String migratorName) throws Exception {
       TargetMigrator migrator = getMigrator(migratorName);
       long start = timeService.time();
-      long count = migrator.synchronizeData(cache);
+      long count = migrator.synchronizeData(cache, progress);
       log.entriesMigrated(count, cache.getName(), Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
       return count;
 
@@ -57,11 +68,51 @@ public long synchronizeData(@Parameter(name = "migratorName", description = "The
                                @Parameter(name = "threads", description = "Number of threads per node used to write data to the new cluster") int threads) throws Exception {
       TargetMigrator migrator = getMigrator(migratorName);
       long start = timeService.time();
-      long count = migrator.synchronizeData(cache, readBatch, threads);
+      long count = migrator.synchronizeData(cache, readBatch, threads, progress);
       log.entriesMigrated(count, cache.getName(), Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
       return count;
    }
 
+   @ManagedAttribute(
+         description = "Whether data is being synchronized from the old cluster",
+         displayName = "Synchronization in progress"
+   )
+   public boolean isSynchronizing() {
+      return progress.isInProgress();
+   }
+
+   @ManagedAttribute(
+         description = "Number of entries migrated by the current synchronization, including the interrupted runs it resumed",
+         displayName = "Migrated entries"
+   )
+   public long getMigratedEntries() {
+      return progress.getMigratedEntries();
+   }
+
+   @ManagedAttribute(
+         description = "Number of source segments not synchronized yet by an interrupted or running synchronization",
+         displayName = "Remaining segments"
+   )
+   public int getRemainingSegments() {
+      return progress.getRemainingSegments();
+   }
+
+   @ManagedAttribute(
+         description = "Number of entries migrated per second by the current or last synchronization",
+         displayName = "Synchronization throughput"
+   )
+   public double getSynchronizationThroughput() {
+      return progress.getThroughput();
+   }
+
+   @ManagedOperation(
+         description = "Discards the checkpoint of an interrupted synchronization, so the next one synchronizes all the data",
+         displayName = "Discards the checkpoint of an interrupted synchronization"
+   )
+   public void resetSynchronization() {
+      progress.end(true);
+   }
+
    @ManagedOperation(
          description = "Disconnects the target cluster from the source cluster according to the specified migrator",
          displayName = "Disconnects the target cluster from the source cluster"
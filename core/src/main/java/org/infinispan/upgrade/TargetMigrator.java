@@ -24,6 +24,26 @@ public interface TargetMigrator {
     */
    long synchronizeData(Cache<Object, Object> cache, int readBatch, int threads) throws CacheException;
 
+   /**
+    * Performs the synchronization of data between source and target, skipping the source segments already completed
+    * according to {@code progress} and recording the segments completed by this synchronization. The default
+    * implementation does not support checkpoints and synchronizes all the data.
+    *
+    * @since 9.2
+    */
+   default long synchronizeData(Cache<Object, Object> cache, MigrationProgress progress) throws CacheException {
+      return synchronizeData(cache);
+   }
+
+   /**
+    * Same as {@link #synchronizeData(Cache, MigrationProgress)}, with the given read batch size and number of threads.
+    *
+    * @since 9.2
+    */
+   default long synchronizeData(Cache<Object, Object> cache, int readBatch, int threads, MigrationProgress progress) throws CacheException {
+      return synchronizeData(cache, readBatch, threads);
+   }
+
    /**
     * Disconnects the target from the source. This operation is the last step that must be performed after a rolling upgrade.
     */
@@ -1758,4 +1758,43 @@ CacheConfigurationException offHeapMemoryEvictionSizeNotLargeEnoughForAddresses(
 
    @Message(value = "The configuration is immutable", id = 515)
    UnsupportedOperationException immutableConfiguration();
+
+   @LogMessage(level = WARN)
+   @Message(value = "Ignoring invalid index file %s, the index will be rebuilt from the data file", id = 516)
+   void invalidSingleFileStoreIndex(String path, @Cause Throwable cause);
+
+   @LogMessage(level = ERROR)
+   @Message(value = "Error compacting the single file store %s", id = 517)
+   void errorCompactingFileStore(String path, @Cause Throwable cause);
+
+   @Message(value = "Invalid expiration reaper batch size %d, it must be 0 or greater", id = 518)
+   CacheConfigurationException invalidReaperBatchSize(int batchSize);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Failed to remove a batch of %d expired entries on node %s, removing them one by one", id = 519)
+   void failedToRemoveExpiredBatch(int size, Address primary, @Cause Throwable cause);
+
+   @Message(value = "Invalid write-behind %s %d, it must be 0 or greater", id = 520)
+   CacheConfigurationException invalidAsyncStoreFlushSetting(String attribute, long value);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Timed out after %d milliseconds waiting for room in the event buffer of listener %s, discarding the event", id = 521)
+   void listenerEventBufferTimeout(long timeout, Object listener);
+
+   @Message(value = "Invalid single file store compaction threshold %s, it must be between 0 and 1", id = 522)
+   CacheConfigurationException invalidCompactionThreshold(double threshold);
+
+   @Message(value = "Invalid single file store compaction rate %d, it must be 0 or greater", id = 523)
+   CacheConfigurationException invalidCompactionRate(long rate);
+
+   @Message(value = "Invalid soft index file store group commit window %d, it must be 0 or greater", id = 524)
+   CacheConfigurationException invalidGroupCommitWindow(long groupCommitWindow);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Unable to register the MBean of store %s", id = 525)
+   void unableToRegisterStoreMBean(String name, @Cause Throwable cause);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Failed to deliver a batch of %d events to listener %s", id = 526)
+   void failedToDeliverListenerEvents(int size, Object listener, @Cause Throwable cause);
 }
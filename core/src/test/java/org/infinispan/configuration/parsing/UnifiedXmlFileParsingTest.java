@@ -22,6 +22,7 @@
 import org.infinispan.commons.marshall.AdvancedExternalizer;
 import org.infinispan.commons.marshall.jboss.GenericJBossMarshaller;
 import org.infinispan.configuration.QueryableDataContainer;
+import org.infinispan.configuration.cache.AllocatorType;
 import org.infinispan.configuration.cache.BackupConfiguration;
 import org.infinispan.configuration.cache.BackupFailurePolicy;
 import org.infinispan.configuration.cache.CacheMode;
@@ -124,6 +125,11 @@ private static void configurationCheck92(EmbeddedCacheManager cm) {
 
       MemoryConfiguration memory = cm.getCacheConfiguration("dist-template").memory();
       assertEquals(EvictionStrategy.REMOVE, memory.evictionStrategy());
+
+      memory = cm.getCacheConfiguration("off-heap-memory").memory();
+      assertTrue(memory.segmentedEviction());
+      assertEquals(AllocatorType.POOLED, memory.allocator());
+      assertTrue(memory.resizableAddressCount());
    }
 
    private static void configurationCheck91(EmbeddedCacheManager cm) {
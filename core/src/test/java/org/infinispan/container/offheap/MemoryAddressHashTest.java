@@ -0,0 +1,32 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+/**
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "container.offheap.MemoryAddressHashTest")
+public class MemoryAddressHashTest {
+
+   public void testBucketIterationOrder() {
+      MemoryAddressHash hash = new MemoryAddressHash(8, 2, true, new UnpooledOffHeapMemoryAllocator());
+      try {
+         assertEquals(2, hash.getStripeCount());
+         assertEquals(4, hash.getStripeSize(0));
+         List<Integer> buckets = new ArrayList<>();
+         int bucket = 0;
+         do {
+            buckets.add(bucket);
+         } while ((bucket = hash.nextBucket(0, bucket)) != 0);
+         assertEquals(Arrays.asList(0, 2, 1, 3), buckets);
+      } finally {
+         hash.deallocate();
+      }
+   }
+}
@@ -91,6 +91,30 @@ public void testAllocatedAmountEqualWithVersion() {
       assertEquals(allocator.getAllocatedAmount(), container.currentSize);
    }
 
+   public void testAllocatedAmountEqualWithResize() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.memory()
+            .size(MemoryUnit.MEGABYTES.toBytes(20))
+            .evictionType(EvictionType.MEMORY)
+            .storageType(StorageType.OFF_HEAP)
+            .addressCount(1)
+            .resizableAddressCount(true);
+      EmbeddedCacheManager manager = TestCacheManagerFactory.createCacheManager(builder);
+      AdvancedCache<Object, Object> cache = manager.getCache().getAdvancedCache();
+
+      OffHeapMemoryAllocator allocator = cache.getComponentRegistry().getComponent(
+            OffHeapMemoryAllocator.class);
+      BoundedOffHeapDataContainer container = (BoundedOffHeapDataContainer) getContainer(cache);
+      for (int i = 0; i < 1000; ++i) {
+         cache.put(i, i);
+      }
+      assertEquals(allocator.getAllocatedAmount(), container.currentSize);
+
+      cache.clear();
+
+      assertEquals(allocator.getAllocatedAmount(), container.currentSize);
+   }
+
    @Test(expectedExceptions = CacheConfigurationException.class)
    public void testAddressCountTooLargeAfterRounding() {
       int addressCount = 3;
@@ -0,0 +1,40 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.configuration.cache.AllocatorType;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.testng.annotations.Test;
+
+/**
+ * Same as {@link OffHeapSingleNodeTest} but using the pooled allocator
+ */
+@Test(groups = "functional", testName = "container.offheap.OffHeapPooledSingleNodeTest")
+public class OffHeapPooledSingleNodeTest extends OffHeapSingleNodeTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder dcc = getDefaultClusteredCacheConfig(CacheMode.LOCAL, false);
+      dcc.memory().storageType(StorageType.OFF_HEAP).allocator(AllocatorType.POOLED);
+      // Only start up the 1 cache
+      addClusterEnabledCacheManager(dcc);
+
+      configureTimeService();
+   }
+
+   public void testAllocatorIsPooled() {
+      AdvancedCache<Object, Object> cache = advancedCache(0);
+      OffHeapMemoryAllocator allocator = cache.getComponentRegistry().getComponent(OffHeapMemoryAllocator.class);
+      assertTrue(allocator instanceof PooledOffHeapMemoryAllocator);
+
+      long before = allocator.getAllocatedAmount();
+      cache.put("key", "value");
+      assertTrue(allocator.getAllocatedAmount() > before);
+      cache.remove("key");
+      assertEquals(before, allocator.getAllocatedAmount());
+   }
+}
@@ -0,0 +1,75 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Same as {@link OffHeapSingleNodeTest} but starting with the minimum address count and letting it grow
+ */
+@Test(groups = "functional", testName = "container.offheap.OffHeapResizableSingleNodeTest")
+public class OffHeapResizableSingleNodeTest extends OffHeapSingleNodeTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder dcc = getDefaultClusteredCacheConfig(CacheMode.LOCAL, false);
+      dcc.memory().storageType(StorageType.OFF_HEAP).addressCount(1).resizableAddressCount(true);
+      // Only start up the 1 cache
+      addClusterEnabledCacheManager(dcc);
+
+      configureTimeService();
+   }
+
+   public void testAddressCountGrows() {
+      Cache<String, String> cache = cache(0);
+      OffHeapDataContainer container = (OffHeapDataContainer) TestingUtil.extractComponent(cache,
+            org.infinispan.container.DataContainer.class);
+      int initialPointers = totalPointers(container.memoryLookup);
+
+      int count = initialPointers * 16;
+      for (int i = 0; i < count; ++i) {
+         cache.put("key" + i, "value" + i);
+      }
+      assertTrue(totalPointers(container.memoryLookup) > initialPointers);
+
+      for (int i = 0; i < count; ++i) {
+         assertEquals("value" + i, cache.get("key" + i));
+      }
+      Set<String> keys = new HashSet<>();
+      cache.keySet().forEach(k -> assertTrue("Duplicate key " + k, keys.add(k)));
+      assertEquals(count, keys.size());
+
+      for (int i = 0; i < count; i += 2) {
+         cache.remove("key" + i);
+      }
+      assertEquals(count / 2, cache.size());
+
+      cache.clear();
+      assertEquals(0, cache.size());
+
+      // Clearing the container directly returns the stripes to their initial tables
+      cache.put("key", "value");
+      container.clear();
+      assertEquals(initialPointers, totalPointers(container.memoryLookup));
+      assertEquals(0, container.sizeIncludingExpired());
+      cache.put("key", "value");
+      assertEquals("value", cache.get("key"));
+   }
+
+   private static int totalPointers(MemoryAddressHash hash) {
+      int total = 0;
+      for (int i = 0; i < hash.getStripeCount(); ++i) {
+         total += hash.getStripeSize(i);
+      }
+      return total;
+   }
+}
@@ -0,0 +1,51 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.container.DataContainer;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.util.concurrent.IsolationLevel;
+import org.testng.annotations.Test;
+
+/**
+ * Same as {@link OffHeapBoundedSingleNodeTest} but using a LRU list per lock stripe
+ */
+@Test(groups = "functional", testName = "container.offheap.OffHeapSegmentedBoundedSingleNodeTest")
+public class OffHeapSegmentedBoundedSingleNodeTest extends OffHeapBoundedSingleNodeTest {
+
+   private static final int COUNT = 51;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder dcc = getDefaultClusteredCacheConfig(CacheMode.LOCAL, false);
+      dcc.memory().storageType(StorageType.OFF_HEAP).size(COUNT).evictionType(EvictionType.COUNT)
+            .segmentedEviction(true);
+      dcc.locking().isolationLevel(IsolationLevel.READ_COMMITTED);
+      // Only start up the 1 cache
+      addClusterEnabledCacheManager(dcc);
+
+      configureTimeService();
+   }
+
+   public void testContainerType() {
+      DataContainer container = advancedCache(0).getDataContainer();
+      assertTrue(container instanceof SegmentedBoundedOffHeapDataContainer);
+   }
+
+   public void testEvictionSizeAfterRemoves() {
+      AdvancedCache<String, String> cache = advancedCache(0);
+      for (int i = 0; i < COUNT * 2; ++i) {
+         cache.put("key" + i, "value" + i);
+      }
+      assertEquals(COUNT, cache.getDataContainer().evictionSize());
+      for (int i = 0; i < COUNT * 2; ++i) {
+         cache.remove("key" + i);
+      }
+      assertEquals(0, cache.getDataContainer().evictionSize());
+   }
+}
@@ -3,6 +3,7 @@
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertNotNull;
 import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
 import static org.testng.AssertJUnit.assertTrue;
 import static org.testng.AssertJUnit.fail;
 
@@ -23,6 +24,7 @@
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.util.ControlledTimeService;
@@ -131,4 +133,64 @@ public void testExpiredEntryCompute() throws IOException, InterruptedException {
       // Should be viewable as peek as well
       assertNotNull(container.peek(keyWB));
    }
+
+   public void testGetReadsMetadataInPlace() throws IOException, InterruptedException, ClassNotFoundException {
+      Cache<Object, Object> cache = cache(0);
+
+      cache.put("mortal", "value", 10, TimeUnit.SECONDS);
+      cache.put("transient", "value", -1, TimeUnit.SECONDS, 5, TimeUnit.SECONDS);
+
+      Marshaller marshaller = cache.getAdvancedCache().getComponentRegistry().getCacheMarshaller();
+      DataContainer container = cache.getAdvancedCache().getDataContainer();
+
+      WrappedBytes mortalKey = new WrappedByteArray(marshaller.objectToByteBuffer("mortal"));
+      InternalCacheEntry mortal = container.get(mortalKey);
+      // The key used for the lookup is returned instead of a copy
+      assertSame(mortalKey, mortal.getKey());
+      assertEquals(TimeUnit.SECONDS.toMillis(10), mortal.getLifespan());
+      // The default max idle of the configuration is applied when not provided
+      assertEquals(cache.getCacheConfiguration().expiration().maxIdle(), mortal.getMaxIdle());
+      assertEquals(timeService.wallClockTime(), mortal.getCreated());
+
+      InternalCacheEntry transientEntry = container.get(
+            new WrappedByteArray(marshaller.objectToByteBuffer("transient")));
+      assertEquals(-1, transientEntry.getLifespan());
+      assertEquals(TimeUnit.SECONDS.toMillis(5), transientEntry.getMaxIdle());
+      assertEquals("value", marshaller.objectFromByteBuffer(((WrappedBytes) transientEntry.getValue()).getBytes()));
+
+      timeService.advance(TimeUnit.SECONDS.toMillis(6));
+      assertNull(cache.get("transient"));
+      assertEquals("value", cache.get("mortal"));
+   }
+
+   public void testReadValueInPlace() throws IOException, InterruptedException {
+      Cache<Object, Object> cache = cache(0);
+
+      cache.put("key", "value");
+      cache.put("expiring", "value", 10, TimeUnit.SECONDS);
+
+      Marshaller marshaller = cache.getAdvancedCache().getComponentRegistry().getCacheMarshaller();
+      DataContainer dataContainer = cache.getAdvancedCache().getDataContainer();
+      OffHeapDataContainer container = (OffHeapDataContainer) dataContainer;
+
+      WrappedBytes value = new WrappedByteArray(marshaller.objectToByteBuffer("value"));
+      WrappedBytes key = new WrappedByteArray(marshaller.objectToByteBuffer("key"));
+      // The value is read from off heap and is not backed by an array
+      assertNull(container.readValue(key, WrappedBytes::getBytes));
+      assertEquals(Boolean.TRUE, container.readValue(key, value::equals));
+      assertEquals(value.hashCode(), container.readValue(key, Object::hashCode).intValue());
+
+      assertNull(container.readValue(new WrappedByteArray(marshaller.objectToByteBuffer("missing")), v -> {
+         fail();
+         return null;
+      }));
+
+      WrappedBytes expiringKey = new WrappedByteArray(marshaller.objectToByteBuffer("expiring"));
+      assertEquals(value.getLength(), container.readValue(expiringKey, WrappedBytes::getLength).intValue());
+      timeService.advance(TimeUnit.SECONDS.toMillis(11));
+      assertNull(container.readValue(expiringKey, v -> {
+         fail();
+         return null;
+      }));
+   }
 }
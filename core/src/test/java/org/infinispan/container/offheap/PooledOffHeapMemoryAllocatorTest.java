@@ -0,0 +1,80 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.util.DefaultTimeService;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "container.offheap.PooledOffHeapMemoryAllocatorTest")
+public class PooledOffHeapMemoryAllocatorTest {
+
+   @DataProvider(name = "sizeClasses")
+   Object[][] sizeClasses() {
+      return new Object[][] {
+            { 16, 0, 16 },
+            { 32, 1, 32 },
+            { 144, 8, 144 },
+            { 1024, 63, 1024 },
+            { 1040, 64, 2048 },
+            { 2048, 64, 2048 },
+            { 4000, 65, 4096 },
+            { 32768, 68, 32768 },
+            { 32784, -1, -1 },
+      };
+   }
+
+   @Test(dataProvider = "sizeClasses")
+   public void testSizeClasses(long estimatedSize, int expectedClass, long expectedBlockSize) {
+      int sizeClass = PooledOffHeapMemoryAllocator.sizeClass(estimatedSize);
+      assertEquals(expectedClass, sizeClass);
+      if (sizeClass >= 0) {
+         assertEquals(expectedBlockSize, PooledOffHeapMemoryAllocator.blockSize(sizeClass));
+      }
+   }
+
+   public void testFreedBlockIsReused() {
+      PooledOffHeapMemoryAllocator allocator = createAllocator();
+      long address = allocator.allocate(100);
+      long reserved = allocator.getReservedAmount();
+      assertEquals(PooledOffHeapMemoryAllocator.MIN_SLAB_SIZE, reserved);
+      assertEquals(UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(100), allocator.getAllocatedAmount());
+
+      allocator.deallocate(address, 100);
+      assertEquals(0, allocator.getAllocatedAmount());
+      // Same size class, so the block is taken from the free list
+      assertEquals(address, allocator.allocate(104));
+      assertEquals(reserved, allocator.getReservedAmount());
+      assertEquals(2, allocator.getAllocations());
+
+      allocator.deallocate(address, 104);
+      allocator.stop();
+      assertEquals(0, allocator.getReservedAmount());
+   }
+
+   public void testSlabsReleasedAfterLastFree() {
+      PooledOffHeapMemoryAllocator allocator = createAllocator();
+      long small = allocator.allocate(40);
+      long large = allocator.allocate(PooledOffHeapMemoryAllocator.POOLED_LIMIT * 2);
+      assertTrue(allocator.getWastedAmount() > 0);
+
+      allocator.stop();
+      // Still in use, so nothing is released
+      assertTrue(allocator.getReservedAmount() > 0);
+      allocator.deallocate(large, PooledOffHeapMemoryAllocator.POOLED_LIMIT * 2);
+      allocator.deallocate(small, 40);
+      assertEquals(0, allocator.getReservedAmount());
+      assertEquals(0, allocator.getAllocatedAmount());
+   }
+
+   private PooledOffHeapMemoryAllocator createAllocator() {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator(1);
+      allocator.inject(new OffHeapEntryFactoryImpl(), new DefaultTimeService());
+      allocator.start();
+      return allocator;
+   }
+}
@@ -0,0 +1,88 @@
+package org.infinispan.expiration.impl;
+
+import static org.infinispan.test.TestingUtil.extractComponent;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.ControlledTimeService;
+import org.infinispan.util.TimeService;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the reaper of a clustered cache sends the expired entries to their primary owners in batches.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "expiration.impl.ClusterExpirationBatchTest")
+public class ClusterExpirationBatchTest extends MultipleCacheManagersTest {
+   private static final int BATCH_SIZE = 4;
+
+   private ControlledTimeService timeService;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(CacheMode.DIST_SYNC).hash().numOwners(2);
+      builder.expiration().wakeUpInterval(-1).reaperBatchSize(BATCH_SIZE);
+      createCluster(builder, 3);
+      waitForClusterToForm();
+
+      // Only the clock of the first node moves, so only its reaper finds the expired entries
+      timeService = new ControlledTimeService();
+      TestingUtil.replaceComponent(manager(0), TimeService.class, timeService, true);
+   }
+
+   public void testRemoveExpiredInBatches() {
+      Cache<Object, Object> cache0 = cache(0);
+      Cache<Object, Object> cache1 = cache(1);
+      Cache<Object, Object> cache2 = cache(2);
+      ClusterExpirationManager<Object, Object> remoteManager = spy(
+            (ClusterExpirationManager<Object, Object>) extractComponent(cache1, ExpirationManager.class));
+      TestingUtil.replaceComponent(cache1, ExpirationManager.class, remoteManager, true);
+
+      List<MagicKey> keys = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+         keys.add(new MagicKey(cache1, cache0));
+      }
+      for (int i = 0; i < 3; i++) {
+         keys.add(new MagicKey(cache0, cache2));
+         keys.add(new MagicKey(cache2, cache0));
+      }
+      for (MagicKey key : keys) {
+         cache0.put(key, key.toString(), 1, TimeUnit.MINUTES);
+      }
+      cache0.put("immortal", "value");
+
+      timeService.advance(TimeUnit.MINUTES.toMillis(2));
+      ClusterExpirationManager<Object, Object> localManager =
+            (ClusterExpirationManager<Object, Object>) extractComponent(cache0, ExpirationManager.class);
+      localManager.processExpiration();
+
+      for (MagicKey key : keys) {
+         for (Cache<Object, Object> cache : caches()) {
+            assertFalse(cache.getAdvancedCache().getDataContainer().containsKey(key));
+         }
+      }
+      assertEquals("value", cache0.get("immortal"));
+      assertTrue(localManager.expiring.isEmpty());
+      assertEquals(keys.size(), localManager.getReapedEntries());
+      // 10 entries owned by the second node, sent in batches of 4
+      verify(remoteManager, times(3)).removeExpiredBatch(any(), any(), any());
+   }
+}
@@ -0,0 +1,155 @@
+package org.infinispan.expiration.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.ControlledTimeService;
+import org.infinispan.util.TimeService;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the reaper only visits the entries that are due when the data container keeps an expiration index.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "expiration.impl.ExpirationIndexFunctionalTest")
+public class ExpirationIndexFunctionalTest extends SingleCacheManagerTest {
+   private static final int SIZE = 10;
+
+   private final ControlledTimeService timeService = new ControlledTimeService();
+   private StorageType storage;
+
+   public Object[] factory() {
+      return new Object[]{
+            new ExpirationIndexFunctionalTest().withStorage(StorageType.OBJECT),
+            new ExpirationIndexFunctionalTest().withStorage(StorageType.OFF_HEAP)
+      };
+   }
+
+   @Override
+   protected String parameters() {
+      return "[" + storage + "]";
+   }
+
+   public ExpirationIndexFunctionalTest withStorage(StorageType storage) {
+      this.storage = storage;
+      return this;
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.expiration().wakeUpInterval(-1).reaperIndex(true)
+            .memory().storageType(storage);
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(builder);
+      TestingUtil.replaceComponent(cm, TimeService.class, timeService, true);
+      cache = cm.getCache();
+      return cm;
+   }
+
+   public void testOnlyDueEntriesVisited() {
+      for (int i = 0; i < SIZE; i++) {
+         cache.put("immortal-" + i, "value");
+         cache.put("short-" + i, "value", 1, TimeUnit.MINUTES);
+         cache.put("long-" + i, "value", 10, TimeUnit.MINUTES);
+      }
+      DataContainer<Object, Object> dataContainer = cache.getAdvancedCache().getDataContainer();
+      assertFalse(dataContainer.expirationCandidates(timeService.wallClockTime()).hasNext());
+
+      timeService.advance(TimeUnit.MINUTES.toMillis(1) + 1);
+      ExpirationManagerImpl<Object, Object> expirationManager = expirationManager();
+      expirationManager.processExpiration();
+      assertEquals(SIZE, expirationManager.getReapedEntries());
+      assertEquals(2 * SIZE, dataContainer.sizeIncludingExpired());
+
+      // The keys of the removed entries are polled once more, but they are not returned
+      assertFalse(dataContainer.expirationCandidates(timeService.wallClockTime() + 1000).hasNext());
+
+      timeService.advance(TimeUnit.MINUTES.toMillis(10));
+      expirationManager.processExpiration();
+      assertEquals(2 * SIZE, expirationManager.getReapedEntries());
+      assertEquals(SIZE, dataContainer.sizeIncludingExpired());
+   }
+
+   public void testAccessedTransientEntry() {
+      // Reads don't update the last used time of off-heap entries
+      if (storage == StorageType.OFF_HEAP)
+         return;
+
+      cache.put("key", "value", -1, TimeUnit.MILLISECONDS, 2, TimeUnit.MINUTES);
+      timeService.advance(TimeUnit.MINUTES.toMillis(1));
+      assertEquals("value", cache.get("key"));
+
+      // The entry was accessed, so it is added back to the index instead of being expired
+      timeService.advance(TimeUnit.MINUTES.toMillis(1) + 1);
+      ExpirationManagerImpl<Object, Object> expirationManager = expirationManager();
+      expirationManager.processExpiration();
+      assertEquals(0, expirationManager.getReapedEntries());
+      assertEquals(1, cache.getAdvancedCache().getDataContainer().sizeIncludingExpired());
+
+      timeService.advance(TimeUnit.MINUTES.toMillis(1));
+      expirationManager.processExpiration();
+      assertEquals(1, expirationManager.getReapedEntries());
+      assertEquals(0, cache.getAdvancedCache().getDataContainer().sizeIncludingExpired());
+   }
+
+   public void testUpdatedEntry() {
+      cache.put("key", "value", 1, TimeUnit.MINUTES);
+      cache.put("key", "value2");
+      cache.put("other", "value", 1, TimeUnit.MINUTES);
+      cache.remove("other");
+
+      timeService.advance(TimeUnit.MINUTES.toMillis(2));
+      ExpirationManagerImpl<Object, Object> expirationManager = expirationManager();
+      expirationManager.processExpiration();
+      assertEquals(0, expirationManager.getReapedEntries());
+      assertEquals("value2", cache.get("key"));
+      assertNull(cache.get("other"));
+   }
+
+   public void testInterruptedPoll() {
+      for (int i = 0; i < SIZE; i++) {
+         cache.put("short-" + i, "value", 1, TimeUnit.MINUTES);
+      }
+      timeService.advance(TimeUnit.MINUTES.toMillis(1) + 1);
+      DataContainer<Object, Object> dataContainer = cache.getAdvancedCache().getDataContainer();
+      Iterator<InternalCacheEntry<Object, Object>> candidates = dataContainer.expirationCandidates(timeService.wallClockTime());
+      assertTrue(candidates.hasNext());
+      candidates.next();
+
+      // The keys that were not visited are still due
+      int remaining = 0;
+      for (candidates = dataContainer.expirationCandidates(timeService.wallClockTime()); candidates.hasNext(); ) {
+         candidates.next();
+         remaining++;
+      }
+      assertEquals(SIZE - 1, remaining);
+
+      ExpirationManagerImpl<Object, Object> expirationManager = expirationManager();
+      timeService.advance(1000);
+      expirationManager.processExpiration();
+      assertEquals(SIZE, expirationManager.getReapedEntries());
+      assertEquals(0, dataContainer.sizeIncludingExpired());
+   }
+
+   private ExpirationManagerImpl<Object, Object> expirationManager() {
+      ExpirationManagerImpl<Object, Object> expirationManager =
+            (ExpirationManagerImpl<Object, Object>) TestingUtil.extractComponent(cache, ExpirationManager.class);
+      expirationManager.resetStatistics();
+      return expirationManager;
+   }
+}
@@ -0,0 +1,75 @@
+package org.infinispan.jmx;
+
+import static org.infinispan.test.TestingUtil.getCacheObjectName;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.event.CacheEntryCreatedEvent;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the listener event buffer statistics exposed by the cache notifier.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "jmx.CacheNotifierMBeanTest")
+public class CacheNotifierMBeanTest extends SingleCacheManagerTest {
+   private static final String JMX_DOMAIN = CacheNotifierMBeanTest.class.getSimpleName();
+
+   private ObjectName notifierObjName;
+   private MBeanServer threadMBeanServer;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      cacheManager = TestCacheManagerFactory.createCacheManagerEnforceJmxDomain(JMX_DOMAIN);
+      ConfigurationBuilder configuration = getDefaultStandaloneCacheConfig(false);
+      configuration.jmxStatistics().enable();
+      cacheManager.defineConfiguration("test", configuration.build());
+      cache = cacheManager.getCache("test");
+      notifierObjName = getCacheObjectName(JMX_DOMAIN, "test(local)", "CacheNotifier");
+      threadMBeanServer = PerThreadMBeanServerLookup.getThreadMBeanServer();
+      return cacheManager;
+   }
+
+   public void testListenerEventStatistics() throws Exception {
+      BlockingListener listener = new BlockingListener();
+      cache.addListener(listener);
+      cache.put("k0", "v");
+      assertTrue(listener.invoked.await(10, TimeUnit.SECONDS));
+      cache.put("k1", "v");
+      cache.put("k2", "v");
+
+      assertEquals(2L, threadMBeanServer.getAttribute(notifierObjName, "PendingListenerEvents"));
+      assertTrue((Long) threadMBeanServer.getAttribute(notifierObjName, "ListenerEventLag") >= 0);
+
+      listener.resume.countDown();
+      eventually(() -> (Long) threadMBeanServer.getAttribute(notifierObjName, "DeliveredListenerEvents") == 3);
+      assertEquals(0L, threadMBeanServer.getAttribute(notifierObjName, "PendingListenerEvents"));
+      assertEquals(0L, threadMBeanServer.getAttribute(notifierObjName, "DiscardedListenerEvents"));
+   }
+
+   @Listener(batchSize = 10, observation = Listener.Observation.POST)
+   public static class BlockingListener {
+      final CountDownLatch invoked = new CountDownLatch(1);
+      final CountDownLatch resume = new CountDownLatch(1);
+
+      @CacheEntryCreated
+      public void entryCreated(List<CacheEntryCreatedEvent<Object, Object>> events) throws InterruptedException {
+         invoked.countDown();
+         resume.await(10, TimeUnit.SECONDS);
+      }
+   }
+}
@@ -0,0 +1,80 @@
+package org.infinispan.jmx;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Set;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the compaction statistics exposed by the single file store.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "jmx.SingleFileStoreMBeanTest")
+public class SingleFileStoreMBeanTest extends SingleCacheManagerTest {
+   private static final String JMX_DOMAIN = SingleFileStoreMBeanTest.class.getSimpleName();
+
+   private final String tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+   private ObjectName storePattern;
+   private MBeanServer threadMBeanServer;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      cacheManager = TestCacheManagerFactory.createCacheManagerEnforceJmxDomain(JMX_DOMAIN);
+      ConfigurationBuilder configuration = getDefaultStandaloneCacheConfig(false);
+      configuration.jmxStatistics().enable()
+            .persistence().addSingleFileStore().location(tmpDirectory).compactionThreshold(0.5);
+      cacheManager.defineConfiguration("test", configuration.build());
+      cache = cacheManager.getCache("test");
+      storePattern = new ObjectName(JMX_DOMAIN + ":type=Store,cache=" + ObjectName.quote("test")
+            + ",component=SingleFileStore,*");
+      threadMBeanServer = PerThreadMBeanServerLookup.getThreadMBeanServer();
+      return cacheManager;
+   }
+
+   @AfterClass(alwaysRun = true)
+   protected void clearTempDir() {
+      org.infinispan.commons.util.Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   private ObjectName storeObjName() {
+      Set<ObjectName> names = threadMBeanServer.queryNames(storePattern, null);
+      assertEquals(names.toString(), 1, names.size());
+      return names.iterator().next();
+   }
+
+   public void testCompactionStatistics() throws Exception {
+      ObjectName storeObjName = storeObjName();
+      assertEquals(0d, threadMBeanServer.getAttribute(storeObjName, "FragmentationRatio"));
+      assertEquals(0L, threadMBeanServer.getAttribute(storeObjName, "Compactions"));
+      assertEquals(0L, threadMBeanServer.getAttribute(storeObjName, "RelocatedEntries"));
+      assertEquals(0L, threadMBeanServer.getAttribute(storeObjName, "ReclaimedBytes"));
+
+      cache.put("k1", "v1");
+      cache.put("k2", "v2");
+      cache.remove("k1");
+      assertTrue((Double) threadMBeanServer.getAttribute(storeObjName, "FragmentationRatio") > 0);
+   }
+
+   public void testUnregisteredWhenStopped() {
+      ObjectName storeObjName = storeObjName();
+      cache.stop();
+      try {
+         assertEquals(0, threadMBeanServer.queryNames(storePattern, null).size());
+      } finally {
+         cache.start();
+      }
+      assertEquals(storeObjName, storeObjName());
+   }
+}
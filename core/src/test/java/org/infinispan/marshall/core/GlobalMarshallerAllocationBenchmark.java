@@ -0,0 +1,87 @@
+package org.infinispan.marshall.core;
+
+import static org.infinispan.test.TestingUtil.extractGlobalMarshaller;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commands.CommandInvocationId;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.EnumUtil;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Measures the bytes allocated and the time spent marshalling a {@link PutKeyValueCommand} with the
+ * {@link GlobalMarshaller}, with and without pooled buffers. Results are logged at info level.
+ *
+ * @since 9.2
+ */
+@Test(groups = "profiling", testName = "marshall.core.GlobalMarshallerAllocationBenchmark")
+public class GlobalMarshallerAllocationBenchmark extends AbstractInfinispanTest {
+   private static final int VALUE_SIZE = 1024;
+   private static final int WARMUP_OPERATIONS = 500_000;
+   private static final int MEASURED_OPERATIONS = 2_000_000;
+
+   public void testByteArray() throws Exception {
+      benchmark(false, false);
+   }
+
+   public void testByteArrayPooled() throws Exception {
+      benchmark(true, false);
+   }
+
+   public void testByteBuffer() throws Exception {
+      benchmark(false, true);
+   }
+
+   public void testByteBufferPooled() throws Exception {
+      benchmark(true, true);
+   }
+
+   private void benchmark(boolean pooledBuffers, boolean byteBuffer) throws Exception {
+      GlobalConfigurationBuilder globalBuilder = GlobalConfigurationBuilder.defaultClusteredBuilder();
+      globalBuilder.serialization().pooledBuffers(pooledBuffers);
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createClusteredCacheManager(globalBuilder, new ConfigurationBuilder());
+      try {
+         StreamingMarshaller marshaller = extractGlobalMarshaller(cm);
+         char[] value = new char[VALUE_SIZE];
+         PutKeyValueCommand[] commands = new PutKeyValueCommand[16];
+         for (int i = 0; i < commands.length; i++) {
+            // Vary the value size, so that the size predictor cannot guess it exactly
+            commands[i] = new PutKeyValueCommand("key" + i, new String(value, 0, VALUE_SIZE - i * 37), false, null,
+                  new EmbeddedMetadata.Builder().build(), EnumUtil.EMPTY_BIT_SET, CommandInvocationId.generateId(null));
+         }
+
+         for (int i = 0; i < WARMUP_OPERATIONS; i++) {
+            marshall(marshaller, commands[i % commands.length], byteBuffer);
+         }
+
+         com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+         long threadId = Thread.currentThread().getId();
+         long startBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+         long start = System.nanoTime();
+         for (int i = 0; i < MEASURED_OPERATIONS; i++) {
+            marshall(marshaller, commands[i % commands.length], byteBuffer);
+         }
+         long elapsed = System.nanoTime() - start;
+         long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - startBytes;
+         log.infof("Marshalling with pooledBuffers=%s, byteBuffer=%s: %d bytes allocated per command, %d ns per command, %d MB/s allocation rate",
+               pooledBuffers, byteBuffer, allocated / MEASURED_OPERATIONS, elapsed / MEASURED_OPERATIONS,
+               allocated * TimeUnit.SECONDS.toNanos(1) / elapsed / (1024 * 1024));
+      } finally {
+         TestingUtil.killCacheManagers(cm);
+      }
+   }
+
+   private static Object marshall(StreamingMarshaller marshaller, Object command, boolean byteBuffer) throws Exception {
+      return byteBuffer ? marshaller.objectToBuffer(command) : marshaller.objectToByteBuffer(command);
+   }
+}
@@ -0,0 +1,101 @@
+package org.infinispan.marshall.core;
+
+import static org.infinispan.test.TestingUtil.extractGlobalMarshaller;
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.io.IOException;
+import java.util.Date;
+
+import org.infinispan.commands.CommandInvocationId;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.marshall.AbstractMarshaller;
+import org.infinispan.commons.marshall.JavaSerializationMarshaller;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.EnumUtil;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link GlobalMarshaller} delegating to an external marshaller that does not support streams, reading the
+ * objects from a slice of a larger buffer, as received by the transport.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "marshall.core.NonStreamingExternalMarshallerTest")
+public class NonStreamingExternalMarshallerTest extends AbstractInfinispanTest {
+
+   private EmbeddedCacheManager cm;
+   private EmbeddedCacheManager wholeBufferCm;
+
+   @BeforeClass
+   public void setUp() {
+      cm = createCacheManager(new JavaSerializationMarshaller());
+      wholeBufferCm = createCacheManager(new WholeBufferMarshaller());
+   }
+
+   private EmbeddedCacheManager createCacheManager(Marshaller external) {
+      GlobalConfigurationBuilder globalBuilder = GlobalConfigurationBuilder.defaultClusteredBuilder();
+      globalBuilder.serialization().marshaller(external);
+      return TestCacheManagerFactory.createClusteredCacheManager(globalBuilder, new ConfigurationBuilder());
+   }
+
+   @AfterClass
+   public void tearDown() {
+      TestingUtil.killCacheManagers(cm, wholeBufferCm);
+   }
+
+   public void testUnmarshallFromSlice() throws Exception {
+      testUnmarshallFromSlice(extractGlobalMarshaller(cm));
+   }
+
+   public void testMarshallerIgnoringOffsetAndLength() throws Exception {
+      testUnmarshallFromSlice(extractGlobalMarshaller(wholeBufferCm));
+   }
+
+   private void testUnmarshallFromSlice(StreamingMarshaller marshaller) throws Exception {
+      PutKeyValueCommand command = new PutKeyValueCommand(new Date(1), new Date(2), false, null,
+            new EmbeddedMetadata.Builder().build(), EnumUtil.EMPTY_BIT_SET, CommandInvocationId.generateId(null));
+      ByteBuffer bytes = marshaller.objectToBuffer(command);
+
+      int offset = 5;
+      byte[] received = new byte[offset + bytes.getLength() + 3];
+      System.arraycopy(bytes.getBuf(), bytes.getOffset(), received, offset, bytes.getLength());
+
+      PutKeyValueCommand copy = (PutKeyValueCommand) marshaller.objectFromByteBuffer(received, offset, bytes.getLength());
+      assertEquals(new Date(1), copy.getKey());
+      assertEquals(new Date(2), copy.getValue());
+      assertEquals(command, copy);
+   }
+
+   /**
+    * A third-party marshaller that always reads the whole array, as older implementations of the SPI did.
+    */
+   public static class WholeBufferMarshaller extends AbstractMarshaller {
+      private final JavaSerializationMarshaller marshaller = new JavaSerializationMarshaller();
+
+      @Override
+      protected ByteBuffer objectToBuffer(Object o, int estimatedSize) throws IOException, InterruptedException {
+         return marshaller.objectToBuffer(o);
+      }
+
+      @Override
+      public Object objectFromByteBuffer(byte[] buf, int offset, int length) throws IOException, ClassNotFoundException {
+         return marshaller.objectFromByteBuffer(buf, 0, buf.length);
+      }
+
+      @Override
+      public boolean isMarshallable(Object o) throws Exception {
+         return marshaller.isMarshallable(o);
+      }
+   }
+}
@@ -0,0 +1,98 @@
+package org.infinispan.marshall.core;
+
+import static org.infinispan.test.TestingUtil.extractGlobalMarshaller;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotSame;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+import java.util.Arrays;
+
+import org.infinispan.commands.CommandInvocationId;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.marshall.NotSerializableException;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.EnumUtil;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link GlobalMarshaller} writing into pooled buffers.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "marshall.core.PooledBuffersMarshallerTest")
+public class PooledBuffersMarshallerTest extends AbstractInfinispanTest {
+
+   private EmbeddedCacheManager cm;
+   private StreamingMarshaller marshaller;
+
+   @BeforeClass
+   public void setUp() {
+      GlobalConfigurationBuilder globalBuilder = GlobalConfigurationBuilder.defaultClusteredBuilder();
+      globalBuilder.serialization().pooledBuffers(true);
+      cm = TestCacheManagerFactory.createClusteredCacheManager(globalBuilder, new ConfigurationBuilder());
+      marshaller = extractGlobalMarshaller(cm);
+   }
+
+   @AfterClass
+   public void tearDown() {
+      TestingUtil.killCacheManagers(cm);
+   }
+
+   public void testBuffersDoNotEscape() throws Exception {
+      PutKeyValueCommand first = putCommand("k1", "v1");
+      byte[] firstBytes = marshaller.objectToByteBuffer(first);
+      ByteBuffer firstBuffer = marshaller.objectToBuffer(first);
+      byte[] secondBytes = marshaller.objectToByteBuffer(putCommand("k2", "v2"));
+      ByteBuffer secondBuffer = marshaller.objectToBuffer(putCommand("k2", "v2"));
+
+      assertNotSame(firstBuffer.getBuf(), secondBuffer.getBuf());
+      assertEquals(firstBytes.length, firstBuffer.getLength());
+      assertTrue(Arrays.equals(firstBytes, Arrays.copyOfRange(firstBuffer.getBuf(), firstBuffer.getOffset(),
+            firstBuffer.getOffset() + firstBuffer.getLength())));
+      assertEquals(first, marshaller.objectFromByteBuffer(firstBytes));
+      assertEquals(putCommand("k2", "v2"), marshaller.objectFromByteBuffer(secondBytes));
+   }
+
+   public void testNestedMarshalling() throws Exception {
+      // The externalizer marshalls the key and the value with the same marshaller, while the outer entry is written
+      MarshalledEntryImpl<String, String> entry = new MarshalledEntryImpl<>("k", "v", null, marshaller);
+      MarshalledEntryImpl<String, String> copy = (MarshalledEntryImpl<String, String>)
+            marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(entry));
+      assertEquals("k", copy.getKey());
+      assertEquals("v", copy.getValue());
+   }
+
+   public void testLargeObject() throws Exception {
+      byte[] value = new byte[GlobalMarshaller.POOLED_BUFFER_MAX_SIZE * 2];
+      Arrays.fill(value, (byte) 7);
+      assertTrue(Arrays.equals(value, (byte[]) marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(value))));
+      // The pooled buffer is trimmed back, the next object is marshalled correctly
+      assertEquals("v", marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer("v")));
+   }
+
+   public void testFailureReleasesBuffer() throws Exception {
+      try {
+         marshaller.objectToByteBuffer(putCommand("k", new Object()));
+         fail("Object should not be marshallable");
+      } catch (NotSerializableException e) {
+         // expected
+      }
+      assertEquals("v", marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer("v")));
+   }
+
+   private static PutKeyValueCommand putCommand(Object key, Object value) {
+      return new PutKeyValueCommand(key, value, false, null, new EmbeddedMetadata.Builder().build(),
+            EnumUtil.EMPTY_BIT_SET, CommandInvocationId.generateId(null));
+   }
+}
@@ -0,0 +1,285 @@
+package org.infinispan.notifications.cachelistener;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.IncorrectListenerException;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.event.CacheEntryCreatedEvent;
+import org.infinispan.notifications.cachemanagerlistener.CacheManagerNotifier;
+import org.infinispan.notifications.cachemanagerlistener.CacheManagerNotifierImpl;
+import org.infinispan.notifications.cachemanagerlistener.annotation.CacheStarted;
+import org.infinispan.notifications.cachemanagerlistener.event.CacheStartedEvent;
+import org.infinispan.notifications.impl.ListenerEventBuffer;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.ControlledTimeService;
+import org.infinispan.util.TimeService;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the delivery of events in batches to listeners with a {@link Listener#batchSize()}.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "notifications.cachelistener.BatchingListenerTest")
+@CleanupAfterMethod
+public class BatchingListenerTest extends SingleCacheManagerTest {
+   private static final int BATCH_SIZE = 5;
+
+   private final ControlledTimeService timeService = new ControlledTimeService();
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(false);
+      TestingUtil.replaceComponent(cm, TimeService.class, timeService, true);
+      return cm;
+   }
+
+   public void testBatchedDelivery() throws Exception {
+      BlockingListener listener = new BlockingListener();
+      cache.addListener(listener);
+      CacheNotifierImpl<?, ?> notifier = notifier();
+      ListenerEventBuffer buffer = notifier.getEventBuffer(listener);
+
+      cache.put("k0", "v");
+      assertTrue(listener.invoked.await(10, TimeUnit.SECONDS));
+      for (int i = 1; i <= 3 * BATCH_SIZE; i++) {
+         cache.put("k" + i, "v");
+      }
+      // The writes don't wait for the listener, the events are buffered instead
+      assertEquals(3 * BATCH_SIZE, buffer.getPendingEvents());
+      timeService.advance(1000);
+      assertEquals(1000, buffer.getLag(TimeUnit.MILLISECONDS));
+
+      listener.resume.countDown();
+      eventually(() -> buffer.getPendingEvents() == 0 && buffer.getDeliveredEvents() == 3 * BATCH_SIZE + 1);
+      assertEquals(0, buffer.getLag(TimeUnit.MILLISECONDS));
+      assertEquals(0, buffer.getDiscardedEvents());
+      assertEquals(keys(0, 3 * BATCH_SIZE), listener.keys());
+      for (List<Object> batch : listener.batches) {
+         assertTrue(batch.size() <= BATCH_SIZE);
+      }
+      assertEquals(4, listener.batches.size());
+
+      cache.removeListener(listener);
+      assertNull(notifier.getEventBuffer(listener));
+   }
+
+   public void testDiscardNewest() throws Exception {
+      BlockingListener listener = new DiscardNewestListener();
+      ListenerEventBuffer buffer = fillBuffer(listener);
+      assertEquals(keys(0, BATCH_SIZE), listener.keys());
+      assertEquals(2 * BATCH_SIZE, buffer.getDiscardedEvents());
+   }
+
+   public void testDiscardOldest() throws Exception {
+      BlockingListener listener = new DiscardOldestListener();
+      ListenerEventBuffer buffer = fillBuffer(listener);
+      List<Object> expected = keys(0, 0);
+      expected.addAll(keys(2 * BATCH_SIZE + 1, 3 * BATCH_SIZE));
+      assertEquals(expected, listener.keys());
+      assertEquals(2 * BATCH_SIZE, buffer.getDiscardedEvents());
+   }
+
+   public void testListenerWritingToCache() throws Exception {
+      WritingListener listener = new WritingListener();
+      cache.addListener(listener);
+      ListenerEventBuffer buffer = notifier().getEventBuffer(listener);
+      cache.put("k0", "v");
+      assertTrue(listener.invoked.await(10, TimeUnit.SECONDS));
+      cache.put("k1", "v");
+      assertEquals(1, buffer.getPendingEvents());
+
+      // The event of copy-k0 is fired by the delivering thread while the buffer is full
+      listener.resume.countDown();
+      eventually(() -> buffer.getPendingEvents() == 0 && buffer.getDeliveredEvents() == 3);
+      assertEquals(1, buffer.getDiscardedEvents());
+      assertEquals(Arrays.asList("k0", "k1", "copy-k1"), listener.keys());
+      assertEquals("v", cache.get("copy-k0"));
+      assertEquals("v", cache.get("copy-k1"));
+   }
+
+   public void testBlockTimeout() throws Exception {
+      BlockingListener listener = new TimeoutListener();
+      cache.addListener(listener);
+      ListenerEventBuffer buffer = notifier().getEventBuffer(listener);
+      cache.put("k0", "v");
+      assertTrue(listener.invoked.await(10, TimeUnit.SECONDS));
+      cache.put("k1", "v");
+
+      // The write is not failed, its event is discarded
+      cache.put("k2", "v");
+      assertEquals("v", cache.get("k2"));
+      assertEquals(1, buffer.getDiscardedEvents());
+      listener.resume.countDown();
+      eventually(() -> buffer.getDeliveredEvents() == 2);
+      assertEquals(keys(0, 1), listener.keys());
+   }
+
+   public void testFailingListener() throws Exception {
+      BlockingListener listener = new FailingListener();
+      cache.addListener(listener);
+      ListenerEventBuffer buffer = notifier().getEventBuffer(listener);
+      cache.put("k0", "v");
+      assertTrue(listener.invoked.await(10, TimeUnit.SECONDS));
+      for (int i = 1; i <= 2 * BATCH_SIZE; i++) {
+         cache.put("k" + i, "v");
+      }
+
+      // The first invocation fails, the buffered events are still delivered
+      listener.resume.countDown();
+      eventually(() -> buffer.getPendingEvents() == 0 && buffer.getDeliveredEvents() == 2 * BATCH_SIZE + 1);
+      assertEquals(keys(0, 2 * BATCH_SIZE), listener.keys());
+
+      cache.put("k" + (2 * BATCH_SIZE + 1), "v");
+      eventually(() -> buffer.getDeliveredEvents() == 2 * BATCH_SIZE + 2);
+   }
+
+   public void testCacheManagerListener() throws Exception {
+      CacheStartedListener listener = new CacheStartedListener();
+      cacheManager.addListener(listener);
+      CacheManagerNotifierImpl notifier =
+            (CacheManagerNotifierImpl) TestingUtil.extractGlobalComponent(cacheManager, CacheManagerNotifier.class);
+      ListenerEventBuffer buffer = notifier.getEventBuffer(listener);
+      cacheManager.defineConfiguration("other", new ConfigurationBuilder().build());
+      cacheManager.getCache("other");
+
+      assertTrue(listener.invoked.await(10, TimeUnit.SECONDS));
+      assertEquals(Collections.singletonList("other"), listener.cacheNames);
+      assertEquals(1, buffer.getDeliveredEvents());
+   }
+
+   @Test(expectedExceptions = IncorrectListenerException.class)
+   public void testSingleEventMethod() {
+      cache.addListener(new SingleEventListener());
+   }
+
+   private ListenerEventBuffer fillBuffer(BlockingListener listener) throws InterruptedException {
+      cache.addListener(listener);
+      ListenerEventBuffer buffer = notifier().getEventBuffer(listener);
+      cache.put("k0", "v");
+      assertTrue(listener.invoked.await(10, TimeUnit.SECONDS));
+      for (int i = 1; i <= 3 * BATCH_SIZE; i++) {
+         cache.put("k" + i, "v");
+      }
+      assertEquals(BATCH_SIZE, buffer.getPendingEvents());
+
+      listener.resume.countDown();
+      eventually(() -> buffer.getDeliveredEvents() == BATCH_SIZE + 1);
+      return buffer;
+   }
+
+   private CacheNotifierImpl<?, ?> notifier() {
+      return (CacheNotifierImpl<?, ?>) TestingUtil.extractComponent(cache, CacheNotifier.class);
+   }
+
+   private static List<Object> keys(int first, int last) {
+      List<Object> keys = new ArrayList<>();
+      for (int i = first; i <= last; i++) {
+         keys.add("k" + i);
+      }
+      return keys;
+   }
+
+   @Listener(batchSize = BATCH_SIZE, observation = Listener.Observation.POST)
+   public static class BlockingListener {
+      final CountDownLatch invoked = new CountDownLatch(1);
+      final CountDownLatch resume = new CountDownLatch(1);
+      final List<List<Object>> batches = Collections.synchronizedList(new ArrayList<>());
+
+      @CacheEntryCreated
+      public void entryCreated(List<CacheEntryCreatedEvent<Object, Object>> events) throws InterruptedException {
+         List<Object> keys = new ArrayList<>(events.size());
+         for (CacheEntryCreatedEvent<Object, Object> event : events) {
+            keys.add(event.getKey());
+         }
+         batches.add(keys);
+         invoked.countDown();
+         resume.await(10, TimeUnit.SECONDS);
+      }
+
+      List<Object> keys() {
+         List<Object> keys = new ArrayList<>();
+         synchronized (batches) {
+            batches.forEach(keys::addAll);
+         }
+         return keys;
+      }
+   }
+
+   @Listener(batchSize = BATCH_SIZE, bufferSize = BATCH_SIZE, observation = Listener.Observation.POST,
+         overflowPolicy = Listener.OverflowPolicy.DISCARD_NEWEST)
+   public static class DiscardNewestListener extends BlockingListener {
+   }
+
+   @Listener(batchSize = BATCH_SIZE, bufferSize = BATCH_SIZE, observation = Listener.Observation.POST,
+         overflowPolicy = Listener.OverflowPolicy.DISCARD_OLDEST)
+   public static class DiscardOldestListener extends BlockingListener {
+   }
+
+   @Listener(batchSize = BATCH_SIZE, bufferSize = 1, observation = Listener.Observation.POST)
+   public class WritingListener extends BlockingListener {
+      @CacheEntryCreated
+      @Override
+      public void entryCreated(List<CacheEntryCreatedEvent<Object, Object>> events) throws InterruptedException {
+         super.entryCreated(events);
+         for (CacheEntryCreatedEvent<Object, Object> event : events) {
+            String key = (String) event.getKey();
+            if (!key.startsWith("copy-")) {
+               cache.put("copy-" + key, event.getValue());
+            }
+         }
+      }
+   }
+
+   @Listener(batchSize = BATCH_SIZE, bufferSize = 1, blockTimeout = 10, observation = Listener.Observation.POST)
+   public static class TimeoutListener extends BlockingListener {
+   }
+
+   @Listener(batchSize = BATCH_SIZE, observation = Listener.Observation.POST)
+   public static class FailingListener extends BlockingListener {
+      @CacheEntryCreated
+      @Override
+      public void entryCreated(List<CacheEntryCreatedEvent<Object, Object>> events) throws InterruptedException {
+         super.entryCreated(events);
+         if (batches.size() == 1) {
+            throw new IllegalStateException("Failing the first batch");
+         }
+      }
+   }
+
+   @Listener(batchSize = BATCH_SIZE)
+   public static class CacheStartedListener {
+      final CountDownLatch invoked = new CountDownLatch(1);
+      final List<String> cacheNames = Collections.synchronizedList(new ArrayList<>());
+
+      @CacheStarted
+      public void cacheStarted(List<CacheStartedEvent> events) {
+         for (CacheStartedEvent event : events) {
+            cacheNames.add(event.getCacheName());
+         }
+         invoked.countDown();
+      }
+   }
+
+   @Listener(batchSize = BATCH_SIZE)
+   public static class SingleEventListener {
+      @CacheEntryCreated
+      public void entryCreated(CacheEntryCreatedEvent<Object, Object> event) {
+      }
+   }
+}
@@ -15,6 +15,7 @@
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
@@ -139,6 +140,42 @@ public void testLoadAndStoreImmortal() throws PersistenceException {
       assertFalse(cl.delete("k2"));
    }
 
+   public void testLoadAllKeys() throws Exception {
+      assertIsEmpty();
+      // More entries than the batch size of the stores loading the keys in chunks
+      int numEntries = 250;
+      Set<Object> keys = new HashSet<>();
+      for (int i = 0; i < numEntries; i++) {
+         String key = "k" + i;
+         if (i % 10 == 0) {
+            cl.write(marshalledEntry(internalCacheEntry(key, "v" + i, 1000)));
+         } else {
+            cl.write(marshalledEntry(key, "v" + i, null));
+         }
+         keys.add(key);
+      }
+      keys.add("missing");
+      timeService.advance(1001);
+
+      Map<Object, MarshalledEntry<Object, Object>> loaded = cl.loadAll(keys);
+      assertFalse(loaded.containsKey("missing"));
+      assertTrue(loaded.size() <= numEntries);
+      // The bulk load must return the same entries as the single key loads
+      for (Object key : keys) {
+         MarshalledEntry<Object, Object> entry = cl.load(key);
+         MarshalledEntry<Object, Object> bulkEntry = loaded.get(key);
+         if (entry == null) {
+            assertNull(bulkEntry);
+         } else {
+            assertNotNull("Entry for " + key + " not found", bulkEntry);
+            assertEquals(unwrap(entry.getValue()), unwrap(bulkEntry.getValue()));
+         }
+      }
+      for (int i = 1; i < 10; i++) {
+         assertEquals("v" + i, unwrap(loaded.get("k" + i).getValue()));
+      }
+   }
+
    public void testLoadAndStoreWithLifespan() throws Exception {
       assertIsEmpty();
 
@@ -0,0 +1,91 @@
+package org.infinispan.persistence;
+
+import static org.infinispan.test.TestingUtil.extractGlobalMarshaller;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that {@link org.infinispan.Cache#getAll(Set)} loads the missing entries from the store with a single
+ * {@link org.infinispan.persistence.spi.CacheLoader#loadAll(Set)} call.
+ *
+ * @since 9.2
+ */
+@Test(testName = "persistence.GetAllCacheLoaderTest", groups = "functional")
+@CleanupAfterMethod
+public class GetAllCacheLoaderTest extends SingleCacheManagerTest {
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder cfg = getDefaultStandaloneCacheConfig(false);
+      cfg.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class);
+      return TestCacheManagerFactory.createCacheManager(cfg);
+   }
+
+   private DummyInMemoryStore store() {
+      return TestingUtil.getFirstLoader(cache);
+   }
+
+   public void testGetAllUsesBulkLoad() {
+      DummyInMemoryStore store = store();
+      for (int i = 0; i < 5; i++) {
+         store.write(new MarshalledEntryImpl<>("k" + i, "v" + i, null, extractGlobalMarshaller(cacheManager)));
+      }
+      cache.getAdvancedCache().withFlags(Flag.SKIP_CACHE_STORE).put("k0", "v0-memory");
+      store.clearStats();
+
+      Set<Object> keys = new HashSet<>();
+      for (int i = 0; i < 6; i++) {
+         keys.add("k" + i);
+      }
+      Map<Object, Object> values = cache.getAdvancedCache().getAll(keys);
+
+      assertEquals(5, values.size());
+      assertEquals("v0-memory", values.get("k0"));
+      for (int i = 1; i < 5; i++) {
+         assertEquals("v" + i, values.get("k" + i));
+      }
+      assertFalse(values.containsKey("k5"));
+      assertEquals(1, (int) store.stats().get("loadAll"));
+      assertEquals(0, (int) store.stats().get("load"));
+
+      // The loaded entries are now in memory
+      store.clearStats();
+      keys.remove("k5");
+      assertEquals(values, cache.getAdvancedCache().getAll(keys));
+      assertEquals(0, (int) store.stats().get("loadAll"));
+      assertEquals(0, (int) store.stats().get("load"));
+   }
+
+   public void testGetAllSingleMissingKey() {
+      DummyInMemoryStore store = store();
+      store.write(new MarshalledEntryImpl<>("k1", "v1", null, extractGlobalMarshaller(cacheManager)));
+      cache.put("k0", "v0");
+      store.clearStats();
+
+      Set<Object> keys = new HashSet<>();
+      keys.add("k0");
+      keys.add("k1");
+      Map<Object, Object> values = cache.getAdvancedCache().getAll(keys);
+
+      assertEquals(2, values.size());
+      assertEquals("v1", values.get("k1"));
+      assertEquals(0, (int) store.stats().get("loadAll"));
+      assertEquals(1, (int) store.stats().get("load"));
+   }
+}
@@ -0,0 +1,187 @@
+package org.infinispan.persistence;
+
+import static org.infinispan.test.TestingUtil.extractGlobalMarshaller;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNotSame;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.CustomStoreConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryLoaded;
+import org.infinispan.notifications.cachelistener.event.CacheEntryLoadedEvent;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.persistence.spi.NonBlockingCacheLoader;
+import org.infinispan.persistence.spi.NonBlockingCacheWriter;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.concurrent.CompletableFutures;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the invocation is suspended, instead of blocking the invoking thread, while a non-blocking store
+ * loads or writes an entry.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "persistence.NonBlockingStoreTest")
+@CleanupAfterMethod
+public class NonBlockingStoreTest extends SingleCacheManagerTest {
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder cfg = getDefaultStandaloneCacheConfig(false);
+      cfg.persistence().nonBlocking(true)
+            .addStore(CustomStoreConfigurationBuilder.class).customStoreClass(GatedStore.class);
+      return TestCacheManagerFactory.createCacheManager(cfg);
+   }
+
+   private GatedStore store() {
+      return TestingUtil.getFirstLoader(cache);
+   }
+
+   public void testLoad() throws Exception {
+      GatedStore store = store();
+      store.entries.put("k", new MarshalledEntryImpl<>("k", "v", null, extractGlobalMarshaller(cacheManager)));
+      store.gate = new CompletableFuture<>();
+
+      CompletableFuture<Object> get = cache.getAsync("k");
+      assertFalse(get.isDone());
+
+      store.gate.complete(null);
+      assertEquals("v", get.get(10, TimeUnit.SECONDS));
+      // The entry was loaded in memory
+      assertTrue(cache.getAdvancedCache().getDataContainer().containsKey("k"));
+   }
+
+   public void testLoadCompletesInCallerExecutor() throws Exception {
+      GatedStore store = store();
+      store.entries.put("k", new MarshalledEntryImpl<>("k", "v", null, extractGlobalMarshaller(cacheManager)));
+      store.gate = new CompletableFuture<>();
+      LoadedListener listener = new LoadedListener();
+      cache.addListener(listener);
+
+      CompletableFuture<Object> get = cache.getAsync("k");
+      store.gate.complete(null);
+      assertEquals("v", get.get(10, TimeUnit.SECONDS));
+      // The rest of the chain didn't run in the thread completing the load
+      assertNotNull(listener.thread);
+      assertNotSame(Thread.currentThread(), listener.thread);
+   }
+
+   public void testStaleLoadDiscarded() throws Exception {
+      GatedStore store = store();
+      store.entries.put("k", new MarshalledEntryImpl<>("k", "v1", null, extractGlobalMarshaller(cacheManager)));
+      store.loadGate = new CompletableFuture<>();
+
+      // The load reads v1 from the store, but completes only after v2 is written and evicted
+      CompletableFuture<Object> get = cache.getAsync("k");
+      cache.getAdvancedCache().withFlags(Flag.SKIP_CACHE_LOAD, Flag.IGNORE_RETURN_VALUES).put("k", "v2");
+      cache.evict("k");
+      assertFalse(cache.getAdvancedCache().getDataContainer().containsKey("k"));
+
+      store.loadGate.complete(null);
+      assertEquals("v2", get.get(10, TimeUnit.SECONDS));
+      assertEquals("v2", cache.getAdvancedCache().getDataContainer().get("k").getValue());
+   }
+
+   public void testWriteAndDelete() throws Exception {
+      GatedStore store = store();
+      store.gate = new CompletableFuture<>();
+
+      CompletableFuture<Object> put = cache.putAsync("k", "v");
+      assertFalse(put.isDone());
+      store.gate.complete(null);
+      assertNull(put.get(10, TimeUnit.SECONDS));
+      assertEquals("v", store.entries.get("k").getValue());
+
+      store.gate = new CompletableFuture<>();
+      CompletableFuture<Object> remove = cache.removeAsync("k");
+      assertFalse(remove.isDone());
+      store.gate.complete(null);
+      assertEquals("v", remove.get(10, TimeUnit.SECONDS));
+      assertFalse(store.entries.containsKey("k"));
+   }
+
+   public void testModificationCountOnlyUpdatedWhenNonBlocking() {
+      PersistenceManager persistenceManager = TestingUtil.extractComponent(cache, PersistenceManager.class);
+      long count = persistenceManager.getModificationCount("k");
+      cache.put("k", "v");
+      assertTrue(persistenceManager.getModificationCount("k") > count);
+
+      ConfigurationBuilder blocking = getDefaultStandaloneCacheConfig(false);
+      blocking.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class);
+      cacheManager.defineConfiguration("blocking", blocking.build());
+      Cache<Object, Object> blockingCache = cacheManager.getCache("blocking");
+      blockingCache.put("k", "v");
+      blockingCache.clear();
+      assertEquals(0, TestingUtil.extractComponent(blockingCache, PersistenceManager.class).getModificationCount("k"));
+   }
+
+   public static class GatedStore implements NonBlockingCacheLoader<Object, Object>, NonBlockingCacheWriter<Object, Object> {
+      final ConcurrentMap<Object, MarshalledEntry<Object, Object>> entries = new ConcurrentHashMap<>();
+      volatile CompletableFuture<Void> gate = CompletableFutures.completedNull();
+      volatile CompletableFuture<Void> loadGate = CompletableFutures.completedNull();
+
+      @Override
+      public void init(InitializationContext ctx) {
+      }
+
+      @Override
+      public void start() {
+      }
+
+      @Override
+      public void stop() {
+      }
+
+      @Override
+      public CompletionStage<MarshalledEntry<Object, Object>> loadAsync(Object key) {
+         MarshalledEntry<Object, Object> entry = entries.get(key);
+         return gate.thenCombine(loadGate, (ignore1, ignore2) -> entry);
+      }
+
+      @Override
+      public boolean contains(Object key) {
+         return entries.containsKey(key);
+      }
+
+      @Override
+      public CompletionStage<Void> writeAsync(MarshalledEntry<?, ?> entry) {
+         return gate.thenRun(() -> entries.put(entry.getKey(), (MarshalledEntry<Object, Object>) entry));
+      }
+
+      @Override
+      public CompletionStage<Boolean> deleteAsync(Object key) {
+         return gate.thenApply(ignore -> entries.remove(key) != null);
+      }
+   }
+
+   @Listener
+   public static class LoadedListener {
+      volatile Thread thread;
+
+      @CacheEntryLoaded
+      public void entryLoaded(CacheEntryLoadedEvent<Object, Object> event) {
+         thread = Thread.currentThread();
+      }
+   }
+}
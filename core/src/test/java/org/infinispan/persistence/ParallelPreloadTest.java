@@ -0,0 +1,85 @@
+package org.infinispan.persistence;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.interceptors.impl.CacheLoaderInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the entries preloaded by several worker threads all end up in the data container, and that the preload
+ * progress is exposed by the cache loader interceptor.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "persistence.ParallelPreloadTest")
+@CleanupAfterMethod
+public class ParallelPreloadTest extends SingleCacheManagerTest {
+   private static final int NUM_ENTRIES = 5000;
+   private static final String BOUNDED_CACHE = "bounded";
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder cfg = getDefaultStandaloneCacheConfig(false);
+      cfg.jmxStatistics().enable();
+      cfg.persistence()
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+               .storeName(getClass().getName())
+               .preload(true);
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(cfg);
+
+      ConfigurationBuilder bounded = new ConfigurationBuilder().read(cfg.build());
+      bounded.memory().evictionType(EvictionType.COUNT).size(NUM_ENTRIES / 10);
+      bounded.persistence().clearStores()
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+               .storeName(getClass().getName() + "-" + BOUNDED_CACHE)
+               .preload(true);
+      cm.defineConfiguration(BOUNDED_CACHE, bounded.build());
+      return cm;
+   }
+
+   public void testPreloadAllEntries() {
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         cache.put("k" + i, "v" + i);
+      }
+      cache.stop();
+      cache.start();
+
+      DataContainer<Object, Object> dataContainer = cache.getAdvancedCache().getDataContainer();
+      assertEquals(NUM_ENTRIES, dataContainer.size());
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         assertEquals("v" + i, dataContainer.get("k" + i).getValue());
+      }
+
+      CacheLoaderInterceptor interceptor = TestingUtil.findInterceptor(cache, CacheLoaderInterceptor.class);
+      assertFalse(interceptor.isPreloading());
+      assertEquals(NUM_ENTRIES, interceptor.getPreloadedEntries());
+      assertTrue(interceptor.getPreloadTime() >= 0);
+      assertTrue(TestingUtil.extractComponent(cache, PersistenceManager.class).isPreloaded());
+   }
+
+   public void testPreloadStopsAtMaxEntries() {
+      cache = cacheManager.getCache(BOUNDED_CACHE);
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         cache.put("k" + i, "v" + i);
+      }
+      cache.stop();
+      cache.start();
+
+      CacheLoaderInterceptor interceptor = TestingUtil.findInterceptor(cache, CacheLoaderInterceptor.class);
+      assertEquals(NUM_ENTRIES / 10, interceptor.getPreloadedEntries());
+      assertTrue(cache.getAdvancedCache().getDataContainer().size() <= NUM_ENTRIES / 10);
+      assertFalse(TestingUtil.extractComponent(cache, PersistenceManager.class).isPreloaded());
+   }
+}
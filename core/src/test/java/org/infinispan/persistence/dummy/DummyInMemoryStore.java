@@ -178,6 +178,21 @@ public MarshalledEntry load(Object key) {
       return me;
    }
 
+   @Override
+   public Map<Object, MarshalledEntry> loadAll(Set keys) {
+      assertRunning();
+      record("loadAll");
+      Map<Object, MarshalledEntry> entries = new HashMap<>();
+      long now = timeService.wallClockTime();
+      for (Object key : keys) {
+         MarshalledEntry me = deserialize(key, store.get(key), true, true);
+         if (me != null && !isExpired(me, now)) {
+            entries.put(key, me);
+         }
+      }
+      return entries;
+   }
+
    private boolean isExpired(MarshalledEntry me, long now) {
       return me.getMetadata() != null && me.getMetadata().isExpired(now);
    }
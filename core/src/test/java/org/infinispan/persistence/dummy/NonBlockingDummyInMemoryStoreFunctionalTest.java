@@ -0,0 +1,19 @@
+package org.infinispan.persistence.dummy;
+
+import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the store functional tests with a non-blocking persistence, invoking the blocking store on the persistence
+ * executor.
+ *
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "persistence.dummy.NonBlockingDummyInMemoryStoreFunctionalTest")
+public class NonBlockingDummyInMemoryStoreFunctionalTest extends DummyInMemoryStoreFunctionalTest {
+
+   @Override
+   protected PersistenceConfigurationBuilder createCacheStoreConfig(PersistenceConfigurationBuilder persistence, boolean preload) {
+      return super.createCacheStoreConfig(persistence, preload).nonBlocking(true);
+   }
+}
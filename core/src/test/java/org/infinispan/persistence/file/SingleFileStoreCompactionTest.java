@@ -0,0 +1,189 @@
+package org.infinispan.persistence.file;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.persistence.BaseStoreTest;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the single-file cache store with background compaction enabled.
+ *
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "persistence.file.SingleFileStoreCompactionTest")
+public class SingleFileStoreCompactionTest extends BaseStoreTest {
+
+   private static final int NUM_ENTRIES = 100;
+
+   private String tmpDirectory;
+
+   @BeforeClass(alwaysRun = true)
+   protected void setUpTempDir() {
+      tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+   }
+
+   @AfterClass(alwaysRun = true)
+   protected void clearTempDir() {
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   @Override
+   protected AdvancedLoadWriteStore createStore() throws Exception {
+      clearTempDir();
+      // The fragmentation never gets that high, the tests compact the store explicitly
+      return newStore(0.99, -1);
+   }
+
+   private SingleFileStore newStore(double compactionThreshold, int maxEntries) {
+      SingleFileStore store = new SingleFileStore();
+      store.init(createContext(configuration(compactionThreshold, 0, maxEntries).build()));
+      return store;
+   }
+
+   private ConfigurationBuilder configuration(double compactionThreshold, long compactionRate, int maxEntries) {
+      ConfigurationBuilder configurationBuilder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      configurationBuilder
+            .persistence()
+               .addStore(SingleFileStoreConfigurationBuilder.class)
+                  .location(this.tmpDirectory)
+                  .maxEntries(maxEntries)
+                  .compactionThreshold(compactionThreshold)
+                  .compactionRate(compactionRate);
+      return configurationBuilder;
+   }
+
+   private SingleFileStore restart(double compactionThreshold, int maxEntries) {
+      cl.stop();
+      SingleFileStore store = newStore(compactionThreshold, maxEntries);
+      store.start();
+      cl = store;
+      return store;
+   }
+
+   private SingleFileStore store() {
+      return (SingleFileStore) cl;
+   }
+
+   private static String value(int i) {
+      StringBuilder sb = new StringBuilder("v" + i);
+      // Vary the size of the values, so that free entries can't always be reused
+      for (int j = 0; j < i % 10; j++) {
+         sb.append("0123456789012345678901234567890123456789");
+      }
+      return sb.toString();
+   }
+
+   /**
+    * Writes entries and removes all but every tenth one, so that the file can't be truncated without moving entries
+    */
+   private void fragment() {
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, value(i), -1)));
+      }
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         if (i % 10 != 9) {
+            cl.delete("k" + i);
+         }
+      }
+   }
+
+   private void assertEntries() {
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         if (i % 10 != 9) {
+            assertNull(cl.load("k" + i));
+         } else {
+            assertEquals(value(i), unwrap(cl.load("k" + i).getValue()));
+         }
+      }
+      assertEquals(NUM_ENTRIES / 10, cl.size());
+   }
+
+   public void testCompactionShrinksFile() throws Exception {
+      fragment();
+      SingleFileStore store = store();
+      long fileSize = store.getFileSize();
+      double fragmentationRatio = store.getFragmentationRatio();
+      assertTrue(fragmentationRatio > 0.5);
+
+      store.compact(() -> false);
+      assertTrue(store.getFileSize() < fileSize);
+      assertTrue(store.getFragmentationRatio() < fragmentationRatio);
+      assertEquals(1, store.getCompactions());
+      assertTrue(store.getRelocatedEntries() > 0);
+      assertEquals(fileSize - store.getFileSize(), store.getReclaimedBytes());
+      assertEntries();
+
+      // The moved entries must be found again when the index is rebuilt from the file
+      cl.stop();
+      cl.start();
+      assertEntries();
+   }
+
+   public void testCompactionScheduledWhenFreeing() {
+      SingleFileStore store = restart(0.2, -1);
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, value(i), -1)));
+      }
+      long fileSize = store.getFileSize();
+
+      // No purge, the store has no expiration
+      fragment();
+      eventually(() -> store.getCompactions() > 0 && store.getFileSize() < fileSize);
+      assertEntries();
+   }
+
+   public void testCompactionKeepsEvictionOrder() throws Exception {
+      SingleFileStore store = restart(0.99, 5);
+      cl.write(marshalledEntry(internalCacheEntry("k0", value(9), -1)));
+      for (int i = 1; i <= 4; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+      cl.delete("k0");
+      for (int i = 1; i <= 3; i++) {
+         assertNotNull(cl.load("k" + i));
+      }
+
+      // k4, the least recently used entry, is at the end of the file and is moved
+      store.compact(() -> false);
+      assertTrue(store.getRelocatedEntries() > 0);
+      cl.write(marshalledEntry(internalCacheEntry("k5", "v5", -1)));
+      cl.write(marshalledEntry(internalCacheEntry("k6", "v6", -1)));
+      assertNull(cl.load("k4"));
+      for (int i : new int[]{1, 2, 3, 5, 6}) {
+         assertEquals("v" + i, unwrap(cl.load("k" + i).getValue()));
+      }
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class, expectedExceptionsMessageRegExp = "ISPN000522:.*")
+   public void testInvalidCompactionThreshold() {
+      configuration(1.5, 1024, -1).build();
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class, expectedExceptionsMessageRegExp = "ISPN000523:.*")
+   public void testInvalidCompactionRate() {
+      configuration(0.5, -1, -1).build();
+   }
+
+   public void testCompactionStopsWhenRequested() throws Exception {
+      fragment();
+      SingleFileStore store = store();
+      long fileSize = store.getFileSize();
+
+      store.compact(() -> true);
+      assertEquals(0, store.getRelocatedEntries());
+      assertTrue(store.getFileSize() <= fileSize);
+      assertEntries();
+   }
+}
@@ -0,0 +1,161 @@
+package org.infinispan.persistence.file;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.persistence.BaseStoreTest;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the single-file cache store with the persistent index enabled, including restarts from the index file.
+ *
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "persistence.file.SingleFileStorePersistentIndexTest")
+public class SingleFileStorePersistentIndexTest extends BaseStoreTest {
+
+   private String tmpDirectory;
+
+   @BeforeClass(alwaysRun = true)
+   protected void setUpTempDir() {
+      tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+   }
+
+   @AfterClass(alwaysRun = true)
+   protected void clearTempDir() {
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   @Override
+   protected AdvancedLoadWriteStore createStore() throws Exception {
+      clearTempDir();
+      SingleFileStore store = new SingleFileStore();
+      ConfigurationBuilder configurationBuilder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      configurationBuilder
+            .persistence()
+               .addStore(SingleFileStoreConfigurationBuilder.class)
+                  .location(this.tmpDirectory)
+                  .persistentIndex(true);
+      store.init(createContext(configurationBuilder.build()));
+      return store;
+   }
+
+   private File indexFile() {
+      return new File(tmpDirectory, "mock-cache-" + getClass().getSimpleName() + ".idx");
+   }
+
+   private void writeEntries(int from, int to) {
+      for (int i = from; i < to; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+   }
+
+   private void assertEntries(int from, int to) {
+      for (int i = from; i < to; i++) {
+         assertEquals("v" + i, unwrap(cl.load("k" + i).getValue()));
+      }
+   }
+
+   public void testRestartFromIndex() {
+      writeEntries(0, 10);
+      cl.delete("k3");
+      cl.stop();
+      assertTrue(indexFile().exists());
+
+      cl.start();
+      assertNull(cl.load("k3"));
+      assertEntries(0, 3);
+      assertEntries(4, 10);
+
+      // The space of the deleted entry is free even though the index file doesn't list it
+      long fileSize = ((SingleFileStore) cl).getFileSize();
+      writeEntries(3, 4);
+      assertEquals(fileSize, ((SingleFileStore) cl).getFileSize());
+      assertEntries(0, 10);
+   }
+
+   public void testTailReplayedAfterCheckpoint() throws Exception {
+      writeEntries(0, 5);
+      cl.stop();
+      cl.start();
+      byte[] checkpoint = Files.readAllBytes(indexFile().toPath());
+
+      // Entries appended after the checkpoint don't invalidate it
+      writeEntries(5, 10);
+      assertTrue(indexFile().exists());
+
+      // Go back to the first checkpoint, as if the store was not stopped cleanly
+      cl.stop();
+      Files.write(indexFile().toPath(), checkpoint);
+      cl.start();
+      assertEntries(0, 10);
+   }
+
+   public void testUpdateReplayedAfterCheckpoint() throws Exception {
+      writeEntries(0, 5);
+      cl.stop();
+      cl.start();
+      byte[] checkpoint = Files.readAllBytes(indexFile().toPath());
+
+      // The new value is appended and found again by scanning the tail, so freeing the old one is not a change to replay
+      cl.write(marshalledEntry(internalCacheEntry("k0", "updated", -1)));
+      assertTrue(indexFile().exists());
+
+      cl.stop();
+      Files.write(indexFile().toPath(), checkpoint);
+      cl.start();
+      assertEquals("updated", unwrap(cl.load("k0").getValue()));
+      assertEntries(1, 5);
+      assertEquals(5, cl.size());
+   }
+
+   public void testRemoveAfterUpdateInvalidatesIndex() {
+      writeEntries(0, 5);
+      cl.stop();
+      cl.start();
+
+      cl.write(marshalledEntry(internalCacheEntry("k0", "updated", -1)));
+      cl.write(marshalledEntry(internalCacheEntry("k0", "updated again", -1)));
+      assertTrue(indexFile().exists());
+      // The index file still points to the first value
+      cl.delete("k0");
+      assertFalse(indexFile().exists());
+   }
+
+   public void testInPlaceChangeInvalidatesIndex() {
+      writeEntries(0, 5);
+      cl.stop();
+      cl.start();
+      assertTrue(indexFile().exists());
+
+      cl.delete("k0");
+      assertFalse(indexFile().exists());
+   }
+
+   public void testCorruptedIndexIgnored() throws Exception {
+      writeEntries(0, 5);
+      cl.stop();
+      byte[] bytes = Files.readAllBytes(indexFile().toPath());
+      bytes[bytes.length / 2] ^= 0xFF;
+      Files.write(indexFile().toPath(), bytes);
+
+      cl.start();
+      assertFalse(indexFile().exists());
+      assertEntries(0, 5);
+      assertEquals(5, cl.size());
+   }
+
+}
@@ -0,0 +1,127 @@
+package org.infinispan.persistence.support;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.interceptors.impl.CacheWriterInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.async.AsyncCacheWriter;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the write-behind store coalesces the writes to the same key until the flush interval elapses or the
+ * queue reaches the flush size.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "persistence.support.WriteBehindCoalescingTest")
+@CleanupAfterMethod
+public class WriteBehindCoalescingTest extends SingleCacheManagerTest {
+   private static final int FLUSH_SIZE = 64;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder cfg = getDefaultStandaloneCacheConfig(false);
+      cfg.jmxStatistics().enable();
+      cfg.persistence()
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+               .storeName(getClass().getName())
+               .async().enable()
+                  .modificationQueueSize(1024)
+                  .flushInterval(1, TimeUnit.DAYS)
+                  .flushSize(FLUSH_SIZE);
+      return TestCacheManagerFactory.createCacheManager(cfg);
+   }
+
+   private DummyInMemoryStore store() {
+      return TestingUtil.extractComponent(cache, PersistenceManager.class)
+            .getStores(DummyInMemoryStore.class).iterator().next();
+   }
+
+   private CacheWriterInterceptor writerInterceptor() {
+      return TestingUtil.findInterceptor(cache, CacheWriterInterceptor.class);
+   }
+
+   public void testHotKeyIsCoalesced() {
+      for (int i = 0; i < 1000; i++) {
+         cache.put("hot", "v" + i);
+      }
+      cache.put("cold", "v");
+
+      CacheWriterInterceptor interceptor = writerInterceptor();
+      assertEquals(999, interceptor.getWriteBehindCoalescedWrites());
+      assertEquals(2, interceptor.getWriteBehindQueueDepth());
+      assertEquals(0, interceptor.getWriteBehindFlushes());
+      assertFalse(store().contains("hot"));
+
+      // Stopping the cache flushes the queue
+      cache.stop();
+      cache.start();
+      assertEquals("v999", store().load("hot").getValue());
+      assertEquals("v", store().load("cold").getValue());
+   }
+
+   public void testFlushSize() {
+      for (int i = 0; i < 4 * FLUSH_SIZE; i++) {
+         cache.put("k" + i, "v" + i);
+      }
+
+      DummyInMemoryStore store = store();
+      CacheWriterInterceptor interceptor = writerInterceptor();
+      eventually(() -> interceptor.getWriteBehindFlushes() > 0 && store.contains("k0"));
+      assertTrue(interceptor.getWriteBehindAverageFlushTimeNanos() > 0);
+      assertEquals(0, interceptor.getWriteBehindBlockedWrites());
+   }
+
+   public void testWriteBatch() {
+      AsyncCacheWriter writer = TestingUtil.extractComponent(cache, PersistenceManager.class).getAsyncWriters().get(0);
+      List<MarshalledEntry> entries = new ArrayList<>();
+      for (int i = 0; i < FLUSH_SIZE; i++) {
+         entries.add(TestingUtil.marshalledEntry(new ImmortalCacheEntry("k" + i, "v" + i), marshaller()));
+      }
+      // The batch spans all the stripes and reaches the flush size of the whole buffer
+      writer.writeBatch(entries);
+
+      DummyInMemoryStore store = store();
+      eventually(() -> {
+         for (int i = 0; i < FLUSH_SIZE; i++) {
+            if (!store.contains("k" + i))
+               return false;
+         }
+         return true;
+      });
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testNegativeFlushInterval() {
+      new ConfigurationBuilder().persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class)
+            .async().enable().flushInterval(-1).build();
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testNegativeFlushSize() {
+      new ConfigurationBuilder().persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class)
+            .async().enable().flushSize(-1).build();
+   }
+
+   private StreamingMarshaller marshaller() {
+      return TestingUtil.extractComponent(cache, StreamingMarshaller.class);
+   }
+}
@@ -0,0 +1,63 @@
+package org.infinispan.upgrade;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.util.ControlledTimeService;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that {@link MigrationProgress} resumes an interrupted synchronization from the segments not completed.
+ *
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "upgrade.MigrationProgressTest")
+public class MigrationProgressTest extends AbstractInfinispanTest {
+
+   public void testResumeAfterFailure() {
+      ControlledTimeService timeService = new ControlledTimeService();
+      MigrationProgress progress = new MigrationProgress(timeService);
+
+      assertEquals(4, progress.start(4).size());
+      assertTrue(progress.isInProgress());
+      progress.segmentsCompleted(Arrays.asList(0, 2), 100);
+      timeService.advance(1000);
+      assertEquals(100d, progress.getThroughput(), 0.001);
+      progress.end(false);
+
+      assertFalse(progress.isInProgress());
+      assertEquals(2, progress.getRemainingSegments());
+      assertEquals(100, progress.getMigratedEntries());
+
+      Set<Integer> remaining = progress.start(4);
+      assertEquals(new HashSet<>(Arrays.asList(1, 3)), remaining);
+      progress.segmentsCompleted(remaining, 50);
+      timeService.advance(1000);
+      progress.end(true);
+
+      // The throughput only counts the entries migrated by the last run
+      assertEquals(50d, progress.getThroughput(), 0.001);
+      assertEquals(150, progress.getMigratedEntries());
+      assertEquals(0, progress.getRemainingSegments());
+      // The checkpoint is cleared after a successful synchronization
+      assertEquals(4, progress.start(4).size());
+      assertEquals(0, progress.getMigratedEntries());
+   }
+
+   public void testSegmentsChanged() {
+      MigrationProgress progress = new MigrationProgress(new ControlledTimeService());
+      progress.start(4);
+      progress.segmentsCompleted(Arrays.asList(0, 1), 10);
+      progress.end(false);
+
+      // The source has a different number of segments, the checkpoint cannot be used
+      assertEquals(8, progress.start(8).size());
+      assertEquals(0, progress.getMigratedEntries());
+   }
+}
@@ -0,0 +1,18 @@
+package org.infinispan.util;
+
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the marshaller's pooled buffers don't result in thread local leaks.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "util.PooledBuffersThreadLocalLeakTest")
+public class PooledBuffersThreadLocalLeakTest extends ThreadLocalLeakTest {
+
+   @Override
+   protected void amendGlobalConfiguration(GlobalConfigurationBuilder globalBuilder) {
+      globalBuilder.serialization().pooledBuffers(true);
+   }
+}
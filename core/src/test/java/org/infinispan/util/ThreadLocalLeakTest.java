@@ -98,6 +98,7 @@ public Map<String, Map<ThreadLocal<?>, Object>> call() throws Exception {
    private Thread doStuffWithCache(ConfigurationBuilder builder) {
       GlobalConfigurationBuilder globalBuilder =
             new GlobalConfigurationBuilder().nonClusteredDefault();
+      amendGlobalConfiguration(globalBuilder);
       final EmbeddedCacheManager[] cm = {new DefaultCacheManager(globalBuilder.build(), builder.build(),
             true)};
       Thread forkedThread = null;
@@ -120,6 +121,10 @@ private Thread doStuffWithCache(ConfigurationBuilder builder) {
       return forkedThread;
    }
 
+   protected void amendGlobalConfiguration(GlobalConfigurationBuilder globalBuilder) {
+      // Use the defaults
+   }
+
    private void beforeGC() {
       // do nothing
    }
@@ -61,6 +61,7 @@ protected void writeJDBCStoreTable(XMLExtendedStreamWriter writer, Element eleme
       attributes.write(writer, TableManipulationConfiguration.TABLE_NAME_PREFIX, Attribute.PREFIX);
       attributes.write(writer, TableManipulationConfiguration.BATCH_SIZE, Attribute.BATCH_SIZE);
       attributes.write(writer, TableManipulationConfiguration.FETCH_SIZE, Attribute.FETCH_SIZE);
+      attributes.write(writer, TableManipulationConfiguration.PAGE_SIZE, Attribute.PAGE_SIZE);
       attributes.write(writer, TableManipulationConfiguration.CREATE_ON_START, Attribute.CREATE_ON_START);
       attributes.write(writer, TableManipulationConfiguration.DROP_ON_EXIT, Attribute.DROP_ON_EXIT);
 
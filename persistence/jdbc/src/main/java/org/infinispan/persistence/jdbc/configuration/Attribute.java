@@ -14,6 +14,7 @@ public enum Attribute {
    UNKNOWN(null),
 
    BATCH_SIZE("batch-size"),
+   BINARY_KEYS("binary-keys"),
    CONNECTION_URL("connection-url"),
    CREATE_ON_START("create-on-start"),
    DIALECT("dialect"),
@@ -25,6 +26,7 @@ public enum Attribute {
    FETCH_SIZE("fetch-size"),
    KEY_TO_STRING_MAPPER("key-to-string-mapper"),
    NAME("name"),
+   PAGE_SIZE("page-size"),
    PASSIVATION("passivation"),
    PASSWORD("password"),
    PREFIX("prefix"),
@@ -16,12 +16,14 @@
 @SerializedWith(JdbcStringBasedStoreConfigurationSerializer.class)
 public class JdbcStringBasedStoreConfiguration extends AbstractJdbcStoreConfiguration {
    static final AttributeDefinition<String> KEY2STRING_MAPPER = AttributeDefinition.builder("key2StringMapper" , DefaultTwoWayKey2StringMapper.class.getName()).immutable().xmlName("key-to-string-mapper").build();
+   static final AttributeDefinition<Boolean> BINARY_KEYS = AttributeDefinition.builder("binaryKeys", false).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(JdbcStringBasedStoreConfiguration.class, AbstractJdbcStoreConfiguration.attributeDefinitionSet(), KEY2STRING_MAPPER);
+      return new AttributeSet(JdbcStringBasedStoreConfiguration.class, AbstractJdbcStoreConfiguration.attributeDefinitionSet(), KEY2STRING_MAPPER, BINARY_KEYS);
    }
 
    private final Attribute<String> key2StringMapper;
+   private final Attribute<Boolean> binaryKeys;
    private final TableManipulationConfiguration table;
 
    public JdbcStringBasedStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async, SingletonStoreConfiguration singletonStore,
@@ -29,12 +31,20 @@ public JdbcStringBasedStoreConfiguration(AttributeSet attributes, AsyncStoreConf
       super(attributes, async, singletonStore, connectionFactory);
       this.table = table;
       key2StringMapper = attributes.attribute(KEY2STRING_MAPPER);
+      binaryKeys = attributes.attribute(BINARY_KEYS);
    }
 
    public String key2StringMapper() {
       return key2StringMapper.get();
    }
 
+   /**
+    * Whether the keys are stored as raw bytes in a binary id column instead of being mapped to strings.
+    */
+   public boolean binaryKeys() {
+      return binaryKeys.get();
+   }
+
    public TableManipulationConfiguration table() {
       return table;
    }
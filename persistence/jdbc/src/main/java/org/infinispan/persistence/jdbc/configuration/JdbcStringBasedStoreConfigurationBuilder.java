@@ -1,5 +1,6 @@
 package org.infinispan.persistence.jdbc.configuration;
 
+import static org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfiguration.BINARY_KEYS;
 import static org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfiguration.KEY2STRING_MAPPER;
 import static org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfiguration.PROPERTIES;
 
@@ -51,6 +52,17 @@ public JdbcStringBasedStoreConfigurationBuilder key2StringMapper(Class<? extends
       return this;
    }
 
+   /**
+    * Stores the keys as raw bytes in the id column, instead of mapping them to strings with the {@link Key2StringMapper}.
+    * The keys must be {@link org.infinispan.commons.marshall.WrappedByteArray} instances, as is the case for caches
+    * accessed remotely, and the id column must use a binary type (e.g. {@code VARBINARY(255)} or {@code BYTEA}).
+    * Defaults to {@code false}.
+    */
+   public JdbcStringBasedStoreConfigurationBuilder binaryKeys(boolean binaryKeys) {
+      attributes.attribute(BINARY_KEYS).set(binaryKeys);
+      return this;
+   }
+
    /**
     * Allows configuration of table-specific parameters such as column names and types
     */
@@ -67,6 +79,12 @@ public JdbcStringBasedStoreConfigurationBuilder withProperties(Properties props)
       return this;
    }
 
+   @Override
+   public void validate() {
+      super.validate();
+      table.validatePageSize();
+   }
+
    @Override
    public JdbcStringBasedStoreConfiguration create() {
       return new JdbcStringBasedStoreConfiguration(attributes.protect(), async.create(), singletonStore.create(), connectionFactory != null ? connectionFactory.create() : null,
@@ -8,6 +8,7 @@
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.FETCH_SIZE;
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.ID_COLUMN_NAME;
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.ID_COLUMN_TYPE;
+import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.PAGE_SIZE;
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.TABLE_NAME_PREFIX;
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.TIMESTAMP_COLUMN_NAME;
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.TIMESTAMP_COLUMN_TYPE;
@@ -55,6 +56,16 @@ public S fetchSize(int fetchSize) {
       return self();
    }
 
+   /**
+    * The number of rows read by each query when iterating over or purging the table. The rows are read in pages
+    * ordered by the id column, so that the iteration never holds more than a page of rows in memory. This is optional
+    * parameter, if not specified will be defaulted to {@link TableManager#DEFAULT_PAGE_SIZE}.
+    */
+   public S pageSize(int pageSize) {
+      attributes.attribute(PAGE_SIZE).set(pageSize);
+      return self();
+   }
+
    /**
     * Sets the prefix for the name of the table where the data will be stored. "_<cache name>" will
     * be appended to this prefix in order to enforce unique table names for each cache.
@@ -135,6 +146,14 @@ public S timestampColumnType(String timestampColumnType) {
    @Override
    public void validate() {
       validateIfSet(ID_COLUMN_NAME, ID_COLUMN_TYPE, DATA_COLUMN_NAME, DATA_COLUMN_TYPE, TIMESTAMP_COLUMN_NAME, TIMESTAMP_COLUMN_TYPE, TABLE_NAME_PREFIX);
+      validatePageSize();
+   }
+
+   void validatePageSize() {
+      int pageSize = attributes.attribute(PAGE_SIZE).get();
+      if (pageSize <= 0) {
+         throw log.invalidPageSize(pageSize);
+      }
    }
 
    private void validateIfSet(AttributeDefinition<?>... definitions) {
@@ -116,7 +116,7 @@ public interface Log extends BasicLogger {
 
    @LogMessage(level = ERROR)
    @Message(value = "Error while storing string key to database; key: '%s'", id = 8024)
-   void sqlFailureStoringKey(String lockingKey, @Cause SQLException e);
+   void sqlFailureStoringKey(Object lockingKey, @Cause SQLException e);
 
    @LogMessage(level = ERROR)
    @Message(value = "Error while removing string keys from database", id = 8025)
@@ -131,7 +131,7 @@ public interface Log extends BasicLogger {
 
    @LogMessage(level = ERROR)
    @Message(value = "SQL error while fetching stored entry with key: %s, lockingKey: %s", id = 8027)
-   void sqlFailureReadingKey(Object key, String lockingKey, @Cause SQLException e);
+   void sqlFailureReadingKey(Object key, Object lockingKey, @Cause SQLException e);
 
    @Message(value = "Attribute '%s' has not been set", id = 8028)
    CacheConfigurationException tableManipulationAttributeNotSet(String name);
@@ -171,4 +171,10 @@ public interface Log extends BasicLogger {
 
    @Message(value = "Error whilst removing keys in batch from the database. Keys: %s", id = 8038)
    PersistenceException sqlFailureDeletingBatch(Iterable<Object> keys, @Cause Exception e);
+
+   @Message(value = "Error while fetching entries in batch from the database. Keys: %s", id = 8039)
+   PersistenceException sqlFailureReadingBatch(Iterable<Object> keys, @Cause Exception e);
+
+   @Message(value = "The page size must be greater than 0, but was %d", id = 8040)
+   CacheConfigurationException invalidPageSize(int pageSize);
 }
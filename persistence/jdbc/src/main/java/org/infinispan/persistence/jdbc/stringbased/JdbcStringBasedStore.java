@@ -2,6 +2,7 @@
 
 import static org.infinispan.persistence.PersistenceUtil.getExpiryTime;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
@@ -9,7 +10,11 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 
@@ -18,6 +23,7 @@
 import org.infinispan.commons.configuration.ConfiguredBy;
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.persistence.Store;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.global.GlobalConfiguration;
@@ -74,6 +80,10 @@
  * <b>Rehashing</b>. When a node leaves/joins, Infinispan moves around persistent state as part of rehashing process.
  * For this it needs access to the underlaying key objects, so if distribution is used, the mapper needs to be an
  * {@link org.infinispan.persistence.keymappers.TwoWayKey2StringMapper} otherwise the cache won't start (same constraint as with preloading).
+ * <p/>
+ * <b>Binary keys</b>. When {@link JdbcStringBasedStoreConfiguration#binaryKeys()} is enabled, the keys are expected to be
+ * {@link WrappedByteArray} instances (e.g. the keys of a cache accessed through Hot Rod) and their bytes are stored as is
+ * in a binary id column, without going through the {@link org.infinispan.persistence.keymappers.Key2StringMapper}.
  *
  * @author Mircea.Markus@jboss.com
  * @see org.infinispan.persistence.keymappers.Key2StringMapper
@@ -98,6 +108,7 @@
    private TableManager tableManager;
    private TimeService timeService;
    private boolean isDistributedCache;
+   private boolean binaryKeys;
 
    @Override
    public void init(InitializationContext ctx) {
@@ -108,6 +119,7 @@ public void init(InitializationContext ctx) {
       this.marshaller = ctx.getMarshaller();
       this.timeService = ctx.getTimeService();
       this.isDistributedCache = ctx.getCache().getCacheConfiguration() != null && ctx.getCache().getCacheConfiguration().clustering().cacheMode().isDistributed();
+      this.binaryKeys = configuration.binaryKeys();
    }
 
    @Override
@@ -130,10 +142,10 @@ public void start() {
       if (trace) {
          log.tracef("Using key2StringMapper: %s", key2StringMapper.getClass().getName());
       }
-      if (configuration.preload()) {
+      if (configuration.preload() && !binaryKeys) {
          enforceTwoWayMapper("preload");
       }
-      if (isDistributedCache) {
+      if (isDistributedCache && !binaryKeys) {
          enforceTwoWayMapper("distribution/rehashing");
       }
    }
@@ -182,13 +194,13 @@ public ConnectionFactory getConnectionFactory() {
    @Override
    public void write(MarshalledEntry entry) {
       Connection connection = null;
-      String keyStr = key2Str(entry.getKey());
+      Object id = keyToId(entry.getKey());
       try {
          connection = connectionFactory.getConnection();
-         write(entry, connection, keyStr);
+         write(entry, connection, id);
       } catch (SQLException ex) {
-         log.sqlFailureStoringKey(keyStr, ex);
-         throw new PersistenceException(String.format("Error while storing string key to database; key: '%s'", keyStr), ex);
+         log.sqlFailureStoringKey(id, ex);
+         throw new PersistenceException(String.format("Error while storing string key to database; key: '%s'", id), ex);
       } catch (InterruptedException e) {
          if (trace) {
             log.trace("Interrupted while marshalling to store");
@@ -200,42 +212,42 @@ public void write(MarshalledEntry entry) {
    }
 
    private void write(MarshalledEntry entry, Connection connection) throws SQLException, InterruptedException {
-      write(entry, connection, key2Str(entry.getKey()));
+      write(entry, connection, keyToId(entry.getKey()));
    }
 
-   private void write(MarshalledEntry entry, Connection connection, String keyStr) throws SQLException, InterruptedException {
+   private void write(MarshalledEntry entry, Connection connection, Object id) throws SQLException, InterruptedException {
       if (tableManager.isUpsertSupported()) {
-         executeUpsert(connection, entry, keyStr);
+         executeUpsert(connection, entry, id);
       } else {
-         executeLegacyUpdate(connection, entry, keyStr);
+         executeLegacyUpdate(connection, entry, id);
       }
    }
 
-   private void executeUpsert(Connection connection, MarshalledEntry entry, String keyStr)
+   private void executeUpsert(Connection connection, MarshalledEntry entry, Object id)
          throws InterruptedException, SQLException {
       PreparedStatement ps = null;
       String sql = tableManager.getUpsertRowSql();
       if (trace) {
-         log.tracef("Running sql '%s'. Key string is '%s'", sql, keyStr);
+         log.tracef("Running sql '%s'. Key string is '%s'", sql, id);
       } try {
          ps = connection.prepareStatement(sql);
-         prepareUpdateStatement(entry, keyStr, ps);
+         prepareUpdateStatement(entry, id, ps);
          ps.executeUpdate();
       } finally {
          JdbcUtil.safeClose(ps);
       }
    }
 
-   private void executeLegacyUpdate(Connection connection, MarshalledEntry entry, String keyStr)
+   private void executeLegacyUpdate(Connection connection, MarshalledEntry entry, Object id)
          throws InterruptedException, SQLException {
       String sql = tableManager.getSelectIdRowSql();
       if (trace) {
-         log.tracef("Running sql '%s'. Key string is '%s'", sql, keyStr);
+         log.tracef("Running sql '%s'. Key string is '%s'", sql, id);
       }
       PreparedStatement ps = null;
       try {
          ps = connection.prepareStatement(sql);
-         ps.setString(1, keyStr);
+         tableManager.setIdParameter(ps, 1, id);
          ResultSet rs = ps.executeQuery();
          if (rs.next()) {
             sql = tableManager.getUpdateRowSql();
@@ -245,10 +257,10 @@ private void executeLegacyUpdate(Connection connection, MarshalledEntry entry, S
          JdbcUtil.safeClose(rs);
          JdbcUtil.safeClose(ps);
          if (trace) {
-            log.tracef("Running sql '%s'. Key string is '%s'", sql, keyStr);
+            log.tracef("Running sql '%s'. Key string is '%s'", sql, id);
          }
          ps = connection.prepareStatement(sql);
-         prepareUpdateStatement(entry, keyStr, ps);
+         prepareUpdateStatement(entry, id, ps);
          ps.executeUpdate();
       } finally {
          JdbcUtil.safeClose(ps);
@@ -269,8 +281,7 @@ public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> marsh
          try (PreparedStatement upsertBatch = connection.prepareStatement(tableManager.getUpsertRowSql())) {
             int batchSize = 0;
             for (MarshalledEntry entry : marshalledEntries) {
-               String keyStr = key2Str(entry.getKey());
-               prepareUpdateStatement(entry, keyStr, upsertBatch);
+               prepareUpdateStatement(entry, keyToId(entry.getKey()), upsertBatch);
                upsertBatch.addBatch();
                batchSize++;
 
@@ -299,8 +310,7 @@ public void deleteBatch(Iterable<Object> keys) {
          try (PreparedStatement deleteBatch = connection.prepareStatement(tableManager.getDeleteRowSql())) {
             int batchSize = 0;
             for (Object key : keys) {
-               String keyStr = key2Str(key);
-               deleteBatch.setString(1, keyStr);
+               tableManager.setIdParameter(deleteBatch, 1, keyToId(key));
                deleteBatch.addBatch();
                batchSize++;
 
@@ -323,7 +333,7 @@ public void deleteBatch(Iterable<Object> keys) {
 
    @Override
    public MarshalledEntry load(Object key) {
-      String lockingKey = key2Str(key);
+      Object lockingKey = keyToId(key);
       Connection conn = null;
       PreparedStatement ps = null;
       ResultSet rs = null;
@@ -332,7 +342,7 @@ public MarshalledEntry load(Object key) {
          String sql = tableManager.getSelectRowSql();
          conn = connectionFactory.getConnection();
          ps = conn.prepareStatement(sql);
-         ps.setString(1, lockingKey);
+         tableManager.setIdParameter(ps, 1, lockingKey);
          rs = ps.executeQuery();
          if (rs.next()) {
             InputStream inputStream = rs.getBinaryStream(2);
@@ -356,6 +366,57 @@ public MarshalledEntry load(Object key) {
       return storedValue;
    }
 
+   @Override
+   public Map<Object, MarshalledEntry<K, V>> loadAll(Set<?> keys) {
+      Map<Object, MarshalledEntry<K, V>> entries = new HashMap<>();
+      Map<Object, Object> batch = new HashMap<>();
+      for (Object key : keys) {
+         batch.put(keyToId(key), key);
+         if (batch.size() == configuration.maxBatchSize()) {
+            loadBatch(batch, entries);
+            batch.clear();
+         }
+      }
+      if (!batch.isEmpty()) {
+         loadBatch(batch, entries);
+      }
+      return entries;
+   }
+
+   private void loadBatch(Map<Object, Object> batch, Map<Object, MarshalledEntry<K, V>> entries) {
+      Connection conn = null;
+      PreparedStatement ps = null;
+      ResultSet rs = null;
+      try {
+         String sql = tableManager.getSelectMultipleRowSql(batch.size());
+         conn = connectionFactory.getConnection();
+         ps = conn.prepareStatement(sql);
+         int paramIndex = 1;
+         for (Object lockingKey : batch.keySet()) {
+            tableManager.setIdParameter(ps, paramIndex++, lockingKey);
+         }
+         rs = ps.executeQuery();
+         long now = timeService.wallClockTime();
+         while (rs.next()) {
+            Object key = batch.get(readId(rs, 1));
+            if (key == null) continue;
+
+            InputStream inputStream = rs.getBinaryStream(2);
+            KeyValuePair<ByteBuffer, ByteBuffer> icv = unmarshall(inputStream);
+            MarshalledEntry<K, V> storedValue = marshalledEntryFactory.newMarshalledEntry(key, icv.getKey(), icv.getValue());
+            if (storedValue.getMetadata() == null || !storedValue.getMetadata().isExpired(now)) {
+               entries.put(key, storedValue);
+            }
+         }
+      } catch (SQLException e) {
+         throw log.sqlFailureReadingBatch(batch.values(), e);
+      } finally {
+         JdbcUtil.safeClose(rs);
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(conn);
+      }
+   }
+
    @Override
    public void clear() {
       Connection conn = null;
@@ -381,15 +442,15 @@ public void clear() {
    public boolean delete(Object key) {
       Connection connection = null;
       PreparedStatement ps = null;
-      String keyStr = key2Str(key);
+      Object id = keyToId(key);
       try {
          String sql = tableManager.getDeleteRowSql();
          if (trace) {
-            log.tracef("Running sql '%s' on %s", sql, keyStr);
+            log.tracef("Running sql '%s' on %s", sql, id);
          }
          connection = connectionFactory.getConnection();
          ps = connection.prepareStatement(sql);
-         ps.setString(1, keyStr);
+         tableManager.setIdParameter(ps, 1, id);
          return ps.executeUpdate() == 1;
       } catch (SQLException ex) {
          log.sqlFailureRemovingKeys(ex);
@@ -402,51 +463,89 @@ public boolean delete(Object key) {
 
    @Override
    public void purge(Executor executor, PurgeListener purgeListener) {
+      long now = timeService.wallClockTime();
+      boolean twoWayMapperExists = binaryKeys || key2StringMapper instanceof TwoWayKey2StringMapper;
+      if (!twoWayMapperExists)
+         log.twoWayKey2StringMapperIsMissing(TwoWayKey2StringMapper.class.getSimpleName());
+
       Connection conn = null;
-      PreparedStatement ps = null;
-      ResultSet rs = null;
       try {
-         String sql = tableManager.getSelectOnlyExpiredRowsSql();
          conn = connectionFactory.getConnection();
-         ps = conn.prepareStatement(sql);
-         ps.setLong(1, timeService.wallClockTime());
-         rs = ps.executeQuery();
-
-         try (PreparedStatement batchDelete = conn.prepareStatement(tableManager.getDeleteRowSql())) {
-            int affectedRows = 0;
-            boolean twoWayMapperExists = key2StringMapper instanceof TwoWayKey2StringMapper;
-            while (rs.next()) {
-               affectedRows++;
-               String keyStr = rs.getString(2);
-               batchDelete.setString(1, keyStr);
-               batchDelete.addBatch();
-
-               if (twoWayMapperExists && purgeListener != null) {
-                  Object key = ((TwoWayKey2StringMapper) key2StringMapper).getKeyMapping(keyStr);
-                  purgeListener.entryPurged(key);
+         if (!twoWayMapperExists || purgeListener == null) {
+            // The expired keys are not needed, delete all the expired rows with a single statement
+            try (PreparedStatement delete = conn.prepareStatement(tableManager.getDeleteExpiredRowsSql())) {
+               delete.setLong(1, now);
+               int purged = delete.executeUpdate();
+               if (trace) {
+                  log.tracef("Successfully purged %d rows.", purged);
                }
             }
+            return;
+         }
 
-            if (!twoWayMapperExists)
-               log.twoWayKey2StringMapperIsMissing(TwoWayKey2StringMapper.class.getSimpleName());
-
-            if (affectedRows > 0) {
-               int[] result = batchDelete.executeBatch();
+         // Read the expired ids one page at a time, and delete each page with a range delete
+         int pageSize = tableManager.getPageSize();
+         List<Object> keys = new ArrayList<>();
+         Object lastId = null;
+         do {
+            keys.clear();
+            try (PreparedStatement select = conn.prepareStatement(tableManager.getSelectExpiredIdsPageSql(lastId != null))) {
+               select.setLong(1, now);
+               if (lastId != null) {
+                  tableManager.setIdParameter(select, 2, lastId);
+               }
+               try (ResultSet rs = select.executeQuery()) {
+                  while (rs.next()) {
+                     keys.add(readId(rs, 1));
+                  }
+               }
+            }
+            if (keys.isEmpty())
+               break;
+
+            lastId = keys.get(keys.size() - 1);
+            int purged;
+            try (PreparedStatement delete = conn.prepareStatement(tableManager.getDeleteExpiredRowsInRangeSql())) {
+               delete.setLong(1, now);
+               tableManager.setIdParameter(delete, 2, keys.get(0));
+               tableManager.setIdParameter(delete, 3, lastId);
+               purged = delete.executeUpdate();
                if (trace) {
-                  log.tracef("Successfully purged %d rows.", result.length);
+                  log.tracef("Successfully purged %d rows.", purged);
                }
             }
-         }
+            // Rows written since they were selected are not expired anymore and were kept by the delete
+            List<Object> purgedKeys = purged < keys.size() ? removedIds(conn, keys) : keys;
+            for (Object id : purgedKeys) {
+               purgeListener.entryPurged(idToKey(id));
+            }
+         } while (keys.size() == pageSize);
       } catch (SQLException ex) {
          log.failedClearingJdbcCacheStore(ex);
          throw new PersistenceException("Failed clearing string based JDBC store", ex);
       } finally {
-         JdbcUtil.safeClose(rs);
-         JdbcUtil.safeClose(ps);
          connectionFactory.releaseConnection(conn);
       }
    }
 
+   /**
+    * @return the ids that are not in the table anymore
+    */
+   private List<Object> removedIds(Connection conn, List<Object> ids) throws SQLException {
+      List<Object> removed = new ArrayList<>(ids.size());
+      try (PreparedStatement select = conn.prepareStatement(tableManager.getSelectIdRowSql())) {
+         for (Object id : ids) {
+            tableManager.setIdParameter(select, 1, id);
+            try (ResultSet rs = select.executeQuery()) {
+               if (!rs.next()) {
+                  removed.add(id);
+               }
+            }
+         }
+      }
+      return removed;
+   }
+
    @Override
    public boolean contains(Object key) {
       //we can do better if needed...
@@ -455,56 +554,71 @@ public boolean contains(Object key) {
 
    @Override
    public void process(final KeyFilter filter, final CacheLoaderTask task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
-      Connection conn = null;
-      PreparedStatement ps = null;
-      ResultSet rs = null;
-      try {
-         String sql = tableManager.getLoadNonExpiredAllRowsSql();
-         if (trace) {
-            log.tracef("Running sql %s", sql);
-         }
-         conn = connectionFactory.getConnection();
-         ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-         ps.setLong(1, timeService.wallClockTime());
-         ps.setFetchSize(tableManager.getFetchSize());
-         rs = ps.executeQuery();
+      TaskContext taskContext = new TaskContextImpl();
+      ExecutorAllCompletionService ecs = new ExecutorAllCompletionService(executor);
+      long now = timeService.wallClockTime();
+      int pageSize = tableManager.getPageSize();
+      boolean fetchData = fetchValue || fetchMetadata;
+      // Read the rows one page at a time, ordered by id, so that the driver never buffers the whole table
+      Object lastId = null;
+      int rows;
+      do {
+         rows = 0;
+         Connection conn = null;
+         PreparedStatement ps = null;
+         ResultSet rs = null;
+         try {
+            String sql = tableManager.getLoadNonExpiredRowsPageSql(lastId != null);
+            if (trace) {
+               log.tracef("Running sql %s after id %s", sql, lastId);
+            }
+            conn = connectionFactory.getConnection();
+            ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setLong(1, now);
+            if (lastId != null) {
+               tableManager.setIdParameter(ps, 2, lastId);
+            }
+            ps.setFetchSize(tableManager.getFetchSize());
+            rs = ps.executeQuery();
 
-         TaskContext taskContext = new TaskContextImpl();
-         ExecutorAllCompletionService ecs = new ExecutorAllCompletionService(executor);
-         while (rs.next()) {
-            String keyStr = rs.getString(2);
-            Object key = ((TwoWayKey2StringMapper) key2StringMapper).getKeyMapping(keyStr);
-            if (taskContext.isStopped()) break;
-            if (filter != null && !filter.accept(key))
-               continue;
-
-            InputStream inputStream = rs.getBinaryStream(1);
-            ecs.submit(() -> {
-               if (!taskContext.isStopped()) {
-                  MarshalledEntry entry;
-                  if (fetchValue || fetchMetadata) {
-                     KeyValuePair<ByteBuffer, ByteBuffer> kvp = unmarshall(inputStream);
-                     entry = marshalledEntryFactory.newMarshalledEntry(
-                           key, fetchValue ? kvp.getKey() : null, fetchMetadata ? kvp.getValue() : null);
-                  } else {
-                     entry = marshalledEntryFactory.newMarshalledEntry(key, (Object) null, null);
+            while (rs.next()) {
+               rows++;
+               lastId = readId(rs, 2);
+               if (taskContext.isStopped()) break;
+               Object key = idToKey(lastId);
+               if (filter != null && !filter.accept(key))
+                  continue;
+
+               // Read the data before moving the cursor, the stream is not valid after the next row
+               byte[] data = fetchData ? rs.getBytes(1) : null;
+               ecs.submit(() -> {
+                  if (!taskContext.isStopped()) {
+                     MarshalledEntry entry;
+                     if (fetchData) {
+                        KeyValuePair<ByteBuffer, ByteBuffer> kvp = unmarshall(new ByteArrayInputStream(data));
+                        entry = marshalledEntryFactory.newMarshalledEntry(
+                              key, fetchValue ? kvp.getKey() : null, fetchMetadata ? kvp.getValue() : null);
+                     } else {
+                        entry = marshalledEntryFactory.newMarshalledEntry(key, (Object) null, null);
+                     }
+                     task.processEntry(entry, taskContext);
                   }
-                  task.processEntry(entry, taskContext);
-               }
-               return null;
-            });
-         }
-         ecs.waitUntilAllCompleted();
-         if (ecs.isExceptionThrown()) {
-            throw new PersistenceException("Execution exception!", ecs.getFirstException());
+                  return null;
+               });
+            }
+         } catch (SQLException e) {
+            log.sqlFailureFetchingAllStoredEntries(e);
+            throw new PersistenceException("SQL error while fetching all StoredEntries", e);
+         } finally {
+            JdbcUtil.safeClose(rs);
+            JdbcUtil.safeClose(ps);
+            connectionFactory.releaseConnection(conn);
          }
-      } catch (SQLException e) {
-         log.sqlFailureFetchingAllStoredEntries(e);
-         throw new PersistenceException("SQL error while fetching all StoredEntries", e);
-      } finally {
-         JdbcUtil.safeClose(rs);
-         JdbcUtil.safeClose(ps);
-         connectionFactory.releaseConnection(conn);
+      } while (rows == pageSize && !taskContext.isStopped());
+
+      ecs.waitUntilAllCompleted();
+      if (ecs.isExceptionThrown()) {
+         throw new PersistenceException("Execution exception!", ecs.getFirstException());
       }
    }
 
@@ -520,8 +634,7 @@ public void prepareWithModifications(Transaction transaction, BatchModification
 
             for (MarshalledEntry entry : batchModification.getMarshalledEntries()) {
                if (upsertSupported) {
-                  String keyStr = key2Str(entry.getKey());
-                  prepareUpdateStatement(entry, keyStr, upsertBatch);
+                  prepareUpdateStatement(entry, keyToId(entry.getKey()), upsertBatch);
                   upsertBatch.addBatch();
                } else {
                   write(entry, connection);
@@ -529,8 +642,7 @@ public void prepareWithModifications(Transaction transaction, BatchModification
             }
 
             for (Object key : batchModification.getKeysToRemove()) {
-               String keyStr = key2Str(key);
-               deleteBatch.setString(1, keyStr);
+               tableManager.setIdParameter(deleteBatch, 1, keyToId(key));
                deleteBatch.addBatch();
             }
 
@@ -612,13 +724,22 @@ public int size() {
       }
    }
 
-   private void prepareUpdateStatement(MarshalledEntry entry, String key, PreparedStatement ps) throws InterruptedException, SQLException {
+   private void prepareUpdateStatement(MarshalledEntry entry, Object key, PreparedStatement ps) throws InterruptedException, SQLException {
       ByteBuffer byteBuffer = marshall(new KeyValuePair(entry.getValueBytes(), entry.getMetadataBytes()));
       long expiryTime = getExpiryTime(entry.getMetadata());
       tableManager.prepareUpdateStatement(ps, key, expiryTime, byteBuffer);
    }
 
-   private String key2Str(Object key) throws PersistenceException {
+   /**
+    * Returns the value stored in the id column for a key: the key itself with binary keys, its string mapping otherwise.
+    */
+   private Object keyToId(Object key) throws PersistenceException {
+      if (binaryKeys) {
+         if (!(key instanceof WrappedByteArray)) {
+            throw new UnsupportedKeyTypeException(key);
+         }
+         return key;
+      }
       if (!key2StringMapper.isSupportedType(key.getClass())) {
          throw new UnsupportedKeyTypeException(key);
       }
@@ -626,6 +747,14 @@ private String key2Str(Object key) throws PersistenceException {
       return tableManager.isStringEncodingRequired() ? tableManager.encodeString(keyStr) : keyStr;
    }
 
+   private Object idToKey(Object id) {
+      return binaryKeys ? id : ((TwoWayKey2StringMapper) key2StringMapper).getKeyMapping((String) id);
+   }
+
+   private Object readId(ResultSet rs, int index) throws SQLException {
+      return binaryKeys ? new WrappedByteArray(rs.getBytes(index)) : rs.getString(index);
+   }
+
    public TableManager getTableManager() {
       if (tableManager == null)
          tableManager = TableManagerFactory.getManager(connectionFactory, configuration);
@@ -44,6 +44,12 @@ public abstract class AbstractTableManager implements TableManager {
    protected String deleteAllRows;
    protected String selectExpiredRowsSql;
    protected String deleteExpiredRowsSql;
+   protected String loadNonExpiredFirstPageSql;
+   protected String loadNonExpiredNextPageSql;
+   protected String selectExpiredIdsFirstPageSql;
+   protected String selectExpiredIdsNextPageSql;
+   protected String purgeExpiredRowsSql;
+   protected String purgeExpiredRowsInRangeSql;
 
    AbstractTableManager(ConnectionFactory connectionFactory, TableManipulationConfiguration config, DbMetaData metaData, Log log) {
       this.connectionFactory = connectionFactory;
@@ -200,6 +206,10 @@ public int getFetchSize() {
       return config.fetchSize();
    }
 
+   public int getPageSize() {
+      return config.pageSize();
+   }
+
    public int getBatchSize() {
       return config.batchSize();
    }
@@ -344,6 +354,79 @@ public String getSelectOnlyExpiredRowsSql() {
       return deleteExpiredRowsSql;
    }
 
+   @Override
+   public String getLoadNonExpiredRowsPageSql(boolean afterId) {
+      return getLoadNonExpiredRowsPageSql(afterId, config.idColumnName() + " > ?");
+   }
+
+   protected String getLoadNonExpiredRowsPageSql(boolean afterId, String afterIdCriteria) {
+      if (afterId) {
+         if (loadNonExpiredNextPageSql == null) {
+            loadNonExpiredNextPageSql = limitRows(String.format("SELECT %1$s, %2$s, %3$s FROM %4$s WHERE (%3$s > ? OR %3$s < 0) AND %5$s ORDER BY %2$s",
+                                                                config.dataColumnName(), config.idColumnName(),
+                                                                config.timestampColumnName(), getTableName(), afterIdCriteria));
+         }
+         return loadNonExpiredNextPageSql;
+      }
+      if (loadNonExpiredFirstPageSql == null) {
+         loadNonExpiredFirstPageSql = limitRows(String.format("SELECT %1$s, %2$s, %3$s FROM %4$s WHERE %3$s > ? OR %3$s < 0 ORDER BY %2$s",
+                                                              config.dataColumnName(), config.idColumnName(),
+                                                              config.timestampColumnName(), getTableName()));
+      }
+      return loadNonExpiredFirstPageSql;
+   }
+
+   @Override
+   public String getSelectExpiredIdsPageSql(boolean afterId) {
+      return getSelectExpiredIdsPageSql(afterId, config.idColumnName() + " > ?");
+   }
+
+   protected String getSelectExpiredIdsPageSql(boolean afterId, String afterIdCriteria) {
+      if (afterId) {
+         if (selectExpiredIdsNextPageSql == null) {
+            selectExpiredIdsNextPageSql = limitRows(String.format("SELECT %1$s FROM %2$s WHERE %3$s < ? AND %3$s > 0 AND %4$s ORDER BY %1$s",
+                                                                  config.idColumnName(), getTableName(),
+                                                                  config.timestampColumnName(), afterIdCriteria));
+         }
+         return selectExpiredIdsNextPageSql;
+      }
+      if (selectExpiredIdsFirstPageSql == null) {
+         selectExpiredIdsFirstPageSql = limitRows(String.format("SELECT %1$s FROM %2$s WHERE %3$s < ? AND %3$s > 0 ORDER BY %1$s",
+                                                                config.idColumnName(), getTableName(),
+                                                                config.timestampColumnName()));
+      }
+      return selectExpiredIdsFirstPageSql;
+   }
+
+   @Override
+   public String getDeleteExpiredRowsSql() {
+      if (purgeExpiredRowsSql == null) {
+         purgeExpiredRowsSql = String.format("DELETE FROM %1$s WHERE %2$s < ? AND %2$s > 0", getTableName(),
+                                             config.timestampColumnName());
+      }
+      return purgeExpiredRowsSql;
+   }
+
+   @Override
+   public String getDeleteExpiredRowsInRangeSql() {
+      return getDeleteExpiredRowsInRangeSql(config.idColumnName() + " >= ? AND " + config.idColumnName() + " <= ?");
+   }
+
+   protected String getDeleteExpiredRowsInRangeSql(String rangeCriteria) {
+      if (purgeExpiredRowsInRangeSql == null) {
+         purgeExpiredRowsInRangeSql = String.format("%s AND %s", getDeleteExpiredRowsSql(), rangeCriteria);
+      }
+      return purgeExpiredRowsInRangeSql;
+   }
+
+   /**
+    * Restricts an ordered select statement to return at most {@link #getPageSize()} rows. The default
+    * implementation uses the SQL:2008 <code>FETCH FIRST</code> clause.
+    */
+   protected String limitRows(String selectSql) {
+      return String.format("%s FETCH FIRST %d ROWS ONLY", selectSql, getPageSize());
+   }
+
    @Override
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
@@ -369,9 +452,9 @@ public String encodeString(String string) {
    }
 
    @Override
-   public void prepareUpdateStatement(PreparedStatement ps, String key, long timestamp, ByteBuffer byteBuffer) throws SQLException {
+   public void prepareUpdateStatement(PreparedStatement ps, Object key, long timestamp, ByteBuffer byteBuffer) throws SQLException {
       ps.setBinaryStream(1, new ByteArrayInputStream(byteBuffer.getBuf(), byteBuffer.getOffset(), byteBuffer.getLength()), byteBuffer.getLength());
       ps.setLong(2, timestamp);
-      ps.setString(3, key);
+      setIdParameter(ps, 3, key);
    }
 }
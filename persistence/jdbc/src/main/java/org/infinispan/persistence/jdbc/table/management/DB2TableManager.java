@@ -35,8 +35,8 @@ public String getUpsertRowSql() {
    }
 
    @Override
-   public void prepareUpdateStatement(PreparedStatement ps, String key, long timestamp, ByteBuffer byteBuffer) throws SQLException {
-      ps.setString(1, key);
+   public void prepareUpdateStatement(PreparedStatement ps, Object key, long timestamp, ByteBuffer byteBuffer) throws SQLException {
+      setIdParameter(ps, 1, key);
       ps.setLong(2, timestamp);
       ps.setBinaryStream(3, new ByteArrayInputStream(byteBuffer.getBuf(), byteBuffer.getOffset(), byteBuffer.getLength()), byteBuffer.getLength());
    }
@@ -21,6 +21,11 @@ public int getFetchSize() {
       return Integer.MIN_VALUE;
    }
 
+   @Override
+   protected String limitRows(String selectSql) {
+      return String.format("%s LIMIT %d", selectSql, getPageSize());
+   }
+
    @Override
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
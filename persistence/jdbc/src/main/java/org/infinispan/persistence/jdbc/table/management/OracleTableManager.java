@@ -92,6 +92,12 @@ public String getInsertRowSql() {
       return insertRowSql;
    }
 
+   @Override
+   protected String limitRows(String selectSql) {
+      // FETCH FIRST is only supported since 12c
+      return String.format("SELECT * FROM (%s) WHERE ROWNUM <= %d", selectSql, getPageSize());
+   }
+
    @Override
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
@@ -105,8 +111,8 @@ public String getUpsertRowSql() {
    }
 
    @Override
-   public void prepareUpdateStatement(PreparedStatement ps, String key, long timestamp, ByteBuffer byteBuffer) throws SQLException {
-      ps.setString(1, key);
+   public void prepareUpdateStatement(PreparedStatement ps, Object key, long timestamp, ByteBuffer byteBuffer) throws SQLException {
+      setIdParameter(ps, 1, key);
       ps.setLong(2, timestamp);
       // We must use BLOB here to avoid ORA-01461 caused by implicit casts on dual
       ps.setBlob(3, new ByteArrayInputStream(byteBuffer.getBuf(), byteBuffer.getOffset(), byteBuffer.getLength()), byteBuffer.getLength());
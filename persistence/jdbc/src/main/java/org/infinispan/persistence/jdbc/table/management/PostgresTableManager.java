@@ -61,6 +61,22 @@ public String getSelectIdRowSql() {
       return selectIdRowSql;
    }
 
+   @Override
+   public String getLoadNonExpiredRowsPageSql(boolean afterId) {
+      return getLoadNonExpiredRowsPageSql(afterId, config.idColumnName() + " > cast(? as " + config.idColumnType() + ")");
+   }
+
+   @Override
+   public String getSelectExpiredIdsPageSql(boolean afterId) {
+      return getSelectExpiredIdsPageSql(afterId, config.idColumnName() + " > cast(? as " + config.idColumnType() + ")");
+   }
+
+   @Override
+   public String getDeleteExpiredRowsInRangeSql() {
+      String idParam = "cast(? as " + config.idColumnType() + ")";
+      return getDeleteExpiredRowsInRangeSql(config.idColumnName() + " >= " + idParam + " AND " + config.idColumnName() + " <= " + idParam);
+   }
+
    @Override
    public String getDeleteRowSql() {
       if (deleteRowSql == null) {
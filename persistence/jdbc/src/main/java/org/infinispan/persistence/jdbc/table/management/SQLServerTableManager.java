@@ -17,6 +17,11 @@ class SQLServerTableManager extends AbstractTableManager {
       super(connectionFactory, config, metaData, LOG);
    }
 
+   @Override
+   protected String limitRows(String selectSql) {
+      return String.format("SELECT TOP %d %s", getPageSize(), selectSql.substring("SELECT ".length()));
+   }
+
    @Override
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
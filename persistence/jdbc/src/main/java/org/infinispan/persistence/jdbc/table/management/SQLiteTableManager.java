@@ -23,6 +23,11 @@ public boolean isUpsertSupported() {
                                                  (metaData.getMajorVersion() >= 3 && metaData.getMinorVersion() >= 9));
    }
 
+   @Override
+   protected String limitRows(String selectSql) {
+      return String.format("%s LIMIT %d", selectSql, getPageSize());
+   }
+
    @Override
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
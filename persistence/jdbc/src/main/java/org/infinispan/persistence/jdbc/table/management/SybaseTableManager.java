@@ -64,6 +64,27 @@ public String getDeleteRowSql() {
       return deleteRowSql;
    }
 
+   @Override
+   public String getLoadNonExpiredRowsPageSql(boolean afterId) {
+      return getLoadNonExpiredRowsPageSql(afterId, config.idColumnName() + " > convert(" + config.idColumnType() + ",?)");
+   }
+
+   @Override
+   public String getSelectExpiredIdsPageSql(boolean afterId) {
+      return getSelectExpiredIdsPageSql(afterId, config.idColumnName() + " > convert(" + config.idColumnType() + ",?)");
+   }
+
+   @Override
+   public String getDeleteExpiredRowsInRangeSql() {
+      String idParam = "convert(" + config.idColumnType() + ",?)";
+      return getDeleteExpiredRowsInRangeSql(config.idColumnName() + " >= " + idParam + " AND " + config.idColumnName() + " <= " + idParam);
+   }
+
+   @Override
+   protected String limitRows(String selectSql) {
+      return String.format("SELECT TOP %d %s", getPageSize(), selectSql.substring("SELECT ".length()));
+   }
+
    @Override
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
@@ -5,6 +5,7 @@
 import java.sql.SQLException;
 
 import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.configuration.cache.AbstractStoreConfiguration;
 import org.infinispan.persistence.spi.PersistenceException;
 
@@ -14,6 +15,7 @@
 public interface TableManager {
    int DEFAULT_FETCH_SIZE = 100;
    int DEFAULT_BATCH_SIZE = 128;
+   int DEFAULT_PAGE_SIZE = 1000;
 
    void start() throws PersistenceException;
 
@@ -31,6 +33,13 @@ public interface TableManager {
 
    int getFetchSize();
 
+   /**
+    * @return the maximum number of rows returned by the page queries
+    */
+   default int getPageSize() {
+      return DEFAULT_PAGE_SIZE;
+   }
+
    /**
     * @deprecated Please use {@link AbstractStoreConfiguration#maxBatchSize()} instead.
     */
@@ -59,6 +68,11 @@ public interface TableManager {
 
    String getDeleteRowSql();
 
+   /**
+    * @deprecated The store reads the non-expired rows one page at a time, see
+    * {@link #getLoadNonExpiredRowsPageSql(boolean)}.
+    */
+   @Deprecated
    String getLoadNonExpiredAllRowsSql();
 
    String getLoadAllRowsSql();
@@ -67,11 +81,79 @@ public interface TableManager {
 
    String getSelectExpiredBucketsSql();
 
+   /**
+    * @deprecated The store purges the expired rows one page at a time, see
+    * {@link #getSelectExpiredIdsPageSql(boolean)} and {@link #getDeleteExpiredRowsInRangeSql()}.
+    */
+   @Deprecated
    String getSelectOnlyExpiredRowsSql();
 
+   /**
+    * Returns the query selecting a page of the non-expired rows, ordered by id. The first parameter is the current
+    * time and, if {@code afterId} is {@code true}, the second parameter is the last id of the previous page.
+    * <p>
+    * The default implementation throws {@link UnsupportedOperationException}, the table managers created by
+    * {@link TableManagerFactory} override it.
+    */
+   default String getLoadNonExpiredRowsPageSql(boolean afterId) {
+      throw new UnsupportedOperationException();
+   }
+
+   /**
+    * Returns the query selecting a page of the ids of the expired rows, in order. The first parameter is the current
+    * time and, if {@code afterId} is {@code true}, the second parameter is the last id of the previous page.
+    * <p>
+    * The default implementation throws {@link UnsupportedOperationException}, the table managers created by
+    * {@link TableManagerFactory} override it.
+    */
+   default String getSelectExpiredIdsPageSql(boolean afterId) {
+      throw new UnsupportedOperationException();
+   }
+
+   /**
+    * Returns the statement deleting all the rows expired before the time passed as the first parameter.
+    * <p>
+    * The default implementation throws {@link UnsupportedOperationException}, the table managers created by
+    * {@link TableManagerFactory} override it.
+    */
+   default String getDeleteExpiredRowsSql() {
+      throw new UnsupportedOperationException();
+   }
+
+   /**
+    * Returns the statement deleting the rows expired before the time passed as the first parameter, with an id
+    * between the second and the third parameter (inclusive).
+    * <p>
+    * The default implementation throws {@link UnsupportedOperationException}, the table managers created by
+    * {@link TableManagerFactory} override it.
+    */
+   default String getDeleteExpiredRowsInRangeSql() {
+      throw new UnsupportedOperationException();
+   }
+
    boolean isStringEncodingRequired();
 
    String encodeString(String stringToEncode);
 
-   void prepareUpdateStatement(PreparedStatement ps, String key, long timestamp, ByteBuffer byteBuffer) throws SQLException;
+   /**
+    * Sets the id parameter of a statement. The id is either a {@link String} or, for a store using binary keys, a
+    * {@link org.infinispan.commons.marshall.WrappedByteArray}.
+    */
+   default void setIdParameter(PreparedStatement ps, int index, Object id) throws SQLException {
+      if (id instanceof WrappedByteArray) {
+         ps.setBytes(index, ((WrappedByteArray) id).getBytes());
+      } else {
+         ps.setString(index, (String) id);
+      }
+   }
+
+   void prepareUpdateStatement(PreparedStatement ps, Object key, long timestamp, ByteBuffer byteBuffer) throws SQLException;
+
+   /**
+    * @deprecated since 9.2, use {@link #prepareUpdateStatement(PreparedStatement, Object, long, ByteBuffer)}
+    */
+   @Deprecated
+   default void prepareUpdateStatement(PreparedStatement ps, String key, long timestamp, ByteBuffer byteBuffer) throws SQLException {
+      prepareUpdateStatement(ps, (Object) key, timestamp, byteBuffer);
+   }
 }
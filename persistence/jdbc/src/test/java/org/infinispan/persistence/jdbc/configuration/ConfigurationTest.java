@@ -5,6 +5,7 @@
 
 import java.util.Properties;
 
+import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.testng.annotations.Test;
@@ -90,4 +91,18 @@ public void testTableProperties() {
       assertFalse(stringStoreConfiguration.table().createOnStart());
       assertTrue(stringStoreConfiguration.table().dropOnExit());
    }
+
+   @Test(expectedExceptions = CacheConfigurationException.class, expectedExceptionsMessageRegExp = "ISPN008040:.*")
+   public void testInvalidPageSize() {
+      ConfigurationBuilder b = new ConfigurationBuilder();
+      b.persistence().addStore(JdbcStringBasedStoreConfigurationBuilder.class)
+         .table()
+            .tableNamePrefix("STRINGS_")
+            .idColumnName("id").idColumnType("VARCHAR")
+            .dataColumnName("datum").dataColumnType("BINARY")
+            .timestampColumnName("version").timestampColumnType("BIGINT")
+            .pageSize(0)
+         .connectionPool().connectionUrl(JDBC_URL);
+      b.build();
+   }
 }
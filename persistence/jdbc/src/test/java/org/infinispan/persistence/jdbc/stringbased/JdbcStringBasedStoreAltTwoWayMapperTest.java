@@ -1,13 +1,18 @@
 package org.infinispan.persistence.jdbc.stringbased;
 
 import static org.infinispan.test.TestingUtil.marshalledEntry;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
+import org.infinispan.persistence.jdbc.table.management.TableManager;
 import org.infinispan.persistence.spi.AdvancedCacheWriter;
+import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestInternalCacheEntryFactory;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 
@@ -35,4 +40,27 @@ public void testPurgeListenerIsNotified() throws Exception {
       verify(purgeListener).entryPurged(MIRCEA);
       assertRowCount(0);
    }
+
+   public void testPurgeListenerNotNotifiedForRewrittenEntries() throws Exception {
+      cacheStore.write(marshalledEntry(TestInternalCacheEntryFactory.create(MIRCEA, "val", 1000), marshaller));
+      cacheStore.write(marshalledEntry(TestInternalCacheEntryFactory.create(MANIK, "val", 1000), marshaller));
+      Thread.sleep(1100);
+
+      // Rewrite an expired entry after the expired ids are selected, but before they are deleted
+      TableManager spyTableManager = spy(tableManager);
+      doAnswer(invocation -> {
+         cacheStore.write(marshalledEntry(TestInternalCacheEntryFactory.create(MANIK, "val2"), marshaller));
+         return invocation.callRealMethod();
+      }).when(spyTableManager).getDeleteExpiredRowsInRangeSql();
+      TestingUtil.replaceField(spyTableManager, "tableManager", cacheStore, JdbcStringBasedStore.class);
+      try {
+         AdvancedCacheWriter.PurgeListener purgeListener = mock(AdvancedCacheWriter.PurgeListener.class);
+         cacheStore.purge(new WithinThreadExecutor(), purgeListener);
+         verify(purgeListener).entryPurged(MIRCEA);
+         verify(purgeListener, never()).entryPurged(MANIK);
+         assertRowCount(1);
+      } finally {
+         TestingUtil.replaceField(tableManager, "tableManager", cacheStore, JdbcStringBasedStore.class);
+      }
+   }
 }
@@ -0,0 +1,149 @@
+package org.infinispan.persistence.jdbc.stringbased;
+
+import static org.infinispan.test.TestingUtil.marshalledEntry;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.util.ReflectionUtil;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.marshall.TestObjectStreamMarshaller;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
+import org.infinispan.persistence.jdbc.table.management.TableManager;
+import org.infinispan.persistence.keymappers.UnsupportedKeyTypeException;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.test.fwk.TestInternalCacheEntryFactory;
+import org.infinispan.test.fwk.UnitTestDatabaseManager;
+import org.infinispan.util.PersistenceMockUtil;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link JdbcStringBasedStore} storing the keys in a binary id column.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "persistence.jdbc.stringbased.JdbcStringBasedStoreBinaryKeysTest")
+public class JdbcStringBasedStoreBinaryKeysTest extends AbstractInfinispanTest {
+
+   private static final WrappedByteArray K1 = new WrappedByteArray(new byte[]{1, 2, 3});
+   private static final WrappedByteArray K2 = new WrappedByteArray(new byte[]{1, 2, 4});
+   private static final WrappedByteArray K3 = new WrappedByteArray(new byte[]{(byte) 0xFF, 0});
+
+   private AdvancedLoadWriteStore<Object, Object> cacheStore;
+   private TableManager tableManager;
+   private StreamingMarshaller marshaller;
+
+   @BeforeClass
+   public void createCacheStore() {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      JdbcStringBasedStoreConfigurationBuilder storeBuilder = builder
+            .persistence()
+               .addStore(JdbcStringBasedStoreConfigurationBuilder.class)
+                  .binaryKeys(true);
+      UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table());
+      storeBuilder.table().idColumnType("VARBINARY(255)").pageSize(2);
+      UnitTestDatabaseManager.configureUniqueConnectionFactory(storeBuilder);
+      cacheStore = new JdbcStringBasedStore<>();
+      marshaller = new TestObjectStreamMarshaller();
+      cacheStore.init(PersistenceMockUtil.createContext(getClass().getSimpleName(), builder.build(), marshaller));
+      cacheStore.start();
+      tableManager = (TableManager) ReflectionUtil.getValue(cacheStore, "tableManager");
+   }
+
+   @AfterMethod
+   public void clearStore() {
+      cacheStore.clear();
+      assertEquals(0, rowCount());
+   }
+
+   @AfterClass
+   public void destroyStore() {
+      cacheStore.stop();
+      marshaller.stop();
+   }
+
+   public void testStoreLoadRemove() {
+      assertNull(cacheStore.load(K1));
+      cacheStore.write(new MarshalledEntryImpl<>(K1, "v1", null, marshaller));
+      cacheStore.write(new MarshalledEntryImpl<>(K2, "v2", null, marshaller));
+      assertEquals(2, rowCount());
+      assertEquals("v1", cacheStore.load(new WrappedByteArray(new byte[]{1, 2, 3})).getValue());
+      assertEquals("v2", cacheStore.load(K2).getValue());
+
+      cacheStore.write(new MarshalledEntryImpl<>(K1, "v1'", null, marshaller));
+      assertEquals(2, rowCount());
+      assertEquals("v1'", cacheStore.load(K1).getValue());
+
+      assertFalse(cacheStore.delete(K3));
+      assertTrue(cacheStore.delete(K1));
+      assertNull(cacheStore.load(K1));
+      assertEquals(1, rowCount());
+   }
+
+   public void testLoadAllAndProcess() {
+      cacheStore.write(new MarshalledEntryImpl<>(K1, "v1", null, marshaller));
+      cacheStore.write(new MarshalledEntryImpl<>(K2, "v2", null, marshaller));
+      cacheStore.write(new MarshalledEntryImpl<>(K3, "v3", null, marshaller));
+
+      Map<Object, MarshalledEntry<Object, Object>> loaded = cacheStore.loadAll(new HashSet<>(Arrays.asList(K1, K3)));
+      assertEquals(2, loaded.size());
+      assertEquals("v1", loaded.get(K1).getValue());
+      assertEquals("v3", loaded.get(K3).getValue());
+
+      // The page size is smaller than the number of rows, so the iteration reads several pages
+      Map<Object, Object> processed = new ConcurrentHashMap<>();
+      cacheStore.process(null, (me, taskContext) -> processed.put(me.getKey(), me.getValue()),
+            new WithinThreadExecutor(), true, false);
+      assertEquals(3, processed.size());
+      assertEquals("v2", processed.get(K2));
+   }
+
+   public void testPurgeExpired() throws Exception {
+      InternalCacheEntry first = TestInternalCacheEntryFactory.create(K1, "v1", 1000);
+      InternalCacheEntry second = TestInternalCacheEntryFactory.create(K2, "v2");
+      InternalCacheEntry third = TestInternalCacheEntryFactory.create(K3, "v3", 1000);
+      cacheStore.write(marshalledEntry(first, marshaller));
+      cacheStore.write(marshalledEntry(second, marshaller));
+      cacheStore.write(marshalledEntry(third, marshaller));
+      Thread.sleep(1100);
+
+      Set<Object> purged = ConcurrentHashMap.newKeySet();
+      cacheStore.purge(new WithinThreadExecutor(), purged::add);
+      assertEquals(new HashSet<>(Arrays.asList(K1, K3)), purged);
+      assertEquals(1, rowCount());
+      assertEquals("v2", cacheStore.load(K2).getValue());
+   }
+
+   public void testUnsupportedKey() {
+      try {
+         cacheStore.write(new MarshalledEntryImpl<>("key", "value", null, marshaller));
+         fail("Only byte array keys can be stored in the binary id column");
+      } catch (UnsupportedKeyTypeException e) {
+         // expected
+      }
+   }
+
+   private int rowCount() {
+      JdbcStringBasedStore store = (JdbcStringBasedStore) cacheStore;
+      return UnitTestDatabaseManager.rowCount(store.getConnectionFactory(), tableManager.getTableName());
+   }
+}
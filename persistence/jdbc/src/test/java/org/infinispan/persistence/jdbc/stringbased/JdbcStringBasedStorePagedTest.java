@@ -0,0 +1,19 @@
+package org.infinispan.persistence.jdbc.stringbased;
+
+import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the {@link JdbcStringBasedStore} tests with a small page size, so that iterating over and purging the table
+ * reads several pages.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "persistence.jdbc.stringbased.JdbcStringBasedStorePagedTest")
+public class JdbcStringBasedStorePagedTest extends JdbcStringBasedStoreTest {
+
+   @Override
+   protected void configureStore(JdbcStringBasedStoreConfigurationBuilder storeBuilder) {
+      storeBuilder.table().pageSize(2);
+   }
+}
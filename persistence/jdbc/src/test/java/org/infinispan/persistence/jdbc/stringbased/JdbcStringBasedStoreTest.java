@@ -31,11 +31,15 @@ protected AdvancedLoadWriteStore createStore() throws Exception {
                .addStore(JdbcStringBasedStoreConfigurationBuilder.class);
       UnitTestDatabaseManager.configureUniqueConnectionFactory(storeBuilder);
       UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table());
+      configureStore(storeBuilder);
       JdbcStringBasedStore stringBasedCacheStore = new JdbcStringBasedStore();
       stringBasedCacheStore.init(createContext(builder.build()));
       return stringBasedCacheStore;
    }
 
+   protected void configureStore(JdbcStringBasedStoreConfigurationBuilder storeBuilder) {
+   }
+
    public void testNotCreateConnectionFactory() throws Exception {
       ConfigurationBuilder builder = TestCacheManagerFactory
             .getDefaultCacheConfiguration(false);
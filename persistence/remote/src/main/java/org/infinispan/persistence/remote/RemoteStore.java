@@ -1,10 +1,19 @@
 package org.infinispan.persistence.remote;
 
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
+import org.infinispan.client.hotrod.CacheTopologyInfo;
 import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.MetadataValue;
 import org.infinispan.client.hotrod.ProtocolVersion;
@@ -18,11 +27,13 @@
 import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.marshall.jboss.GenericJBossMarshaller;
 import org.infinispan.commons.persistence.Store;
+import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.commons.util.EnumUtil;
 import org.infinispan.commons.util.Util;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.versioning.NumericVersion;
 import org.infinispan.context.impl.FlagBitSets;
+import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.metadata.EmbeddedMetadata;
@@ -36,6 +47,7 @@
 import org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration;
 import org.infinispan.persistence.remote.configuration.SslConfiguration;
 import org.infinispan.persistence.remote.logging.Log;
+import org.infinispan.persistence.remote.upgrade.HotRodMigratorHelper;
 import org.infinispan.persistence.remote.wrapper.HotRodEntryMarshaller;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.FlagAffectedStore;
@@ -54,6 +66,12 @@
  * Purging elements is not possible, as HotRod does not support the fetching of all remote keys (this would be a
  * very costly operation as well). Purging takes place at the remote end (infinispan cluster).
  * <p/>
+ * Bulk operations are mapped to bulk Hot Rod operations: batches are written with {@code putAll} and read with
+ * {@code getAll}, deletes are pipelined, and {@link #process} iterates over the remote entries in batches of {@link
+ * RemoteStoreConfiguration#maxBatchSize()} entries. For a distributed remote cache the segments are split into
+ * disjoint sets, one per remote server, and the sets are iterated in parallel. The Hot Rod client may run each
+ * iteration on any server, the split only provides the parallelism.
+ * <p/>
  *
  * @author Mircea.Markus@jboss.com
  * @see org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration
@@ -123,22 +141,7 @@ public MarshalledEntry load(Object key) throws PersistenceException {
             unwrappedKey = key;
          }
          MetadataValue<?> value = remoteCache.getWithMetadata(unwrappedKey);
-         if (value != null) {
-            Metadata metadata = new EmbeddedMetadata.Builder()
-                  .version(new NumericVersion(value.getVersion()))
-                  .lifespan(value.getLifespan(), TimeUnit.SECONDS)
-                  .maxIdle(value.getMaxIdle(), TimeUnit.SECONDS).build();
-            long created = value.getCreated();
-            long lastUsed = value.getLastUsed();
-            Object realValue = value.getValue();
-            if (realValue instanceof byte[]) {
-               realValue = new WrappedByteArray((byte[]) realValue);
-            }
-            return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, realValue,
-                                    new InternalMetadataImpl(metadata, created, lastUsed));
-         } else {
-            return null;
-         }
+         return value != null ? toMarshalledEntry(key, value) : null;
       } else {
          if (key instanceof WrappedByteArray) {
             key = ((WrappedByteArray) key).getBytes();
@@ -147,6 +150,50 @@ public MarshalledEntry load(Object key) throws PersistenceException {
       }
    }
 
+   private MarshalledEntry toMarshalledEntry(Object key, MetadataValue<?> value) {
+      Metadata metadata = new EmbeddedMetadata.Builder()
+            .version(new NumericVersion(value.getVersion()))
+            .lifespan(value.getLifespan(), TimeUnit.SECONDS)
+            .maxIdle(value.getMaxIdle(), TimeUnit.SECONDS).build();
+      long created = value.getCreated();
+      long lastUsed = value.getLastUsed();
+      Object realValue = value.getValue();
+      if (realValue instanceof byte[]) {
+         realValue = new WrappedByteArray((byte[]) realValue);
+      }
+      return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, realValue,
+                                                               new InternalMetadataImpl(metadata, created, lastUsed));
+   }
+
+   @Override
+   public Map<Object, MarshalledEntry<K, V>> loadAll(Set<?> keys) {
+      if (configuration.rawValues()) {
+         // getAll does not return the metadata of the entries
+         return AdvancedLoadWriteStore.super.loadAll(keys);
+      }
+      Map<Object, MarshalledEntry<K, V>> entries = new HashMap<>();
+      Set<Object> batch = new HashSet<>();
+      for (Object key : keys) {
+         batch.add(key instanceof WrappedByteArray ? ((WrappedByteArray) key).getBytes() : key);
+         if (batch.size() == configuration.maxBatchSize()) {
+            loadBatch(batch, entries);
+            batch.clear();
+         }
+      }
+      if (!batch.isEmpty()) {
+         loadBatch(batch, entries);
+      }
+      return entries;
+   }
+
+   private void loadBatch(Set<Object> batch, Map<Object, MarshalledEntry<K, V>> entries) {
+      for (Map.Entry<Object, Object> entry : remoteCache.getAll(batch).entrySet()) {
+         // The returned byte[] keys are new instances, wrap them to match the requested keys
+         Object key = entry.getKey();
+         entries.put(key instanceof byte[] ? new WrappedByteArray((byte[]) key) : key, (MarshalledEntry<K, V>) entry.getValue());
+      }
+   }
+
    @Override
    public boolean contains(Object key) throws PersistenceException {
       if (key instanceof WrappedByteArray) {
@@ -157,6 +204,85 @@ public boolean contains(Object key) throws PersistenceException {
 
    @Override
    public void process(KeyFilter filter, CacheLoaderTask task, Executor executor, boolean fetchValue, boolean fetchMetadata) {
+      if (!HotRodMigratorHelper.supportsIteration(configuration.protocolVersion())) {
+         processKeys(filter, task);
+         return;
+      }
+      TaskContextImpl taskContext = new TaskContextImpl();
+      ExecutorAllCompletionService ecs = new ExecutorAllCompletionService(executor);
+      for (Set<Integer> segments : segmentsPerServer()) {
+         ecs.submit(() -> {
+            processSegments(segments, filter, task, taskContext);
+            return null;
+         });
+      }
+      ecs.waitUntilAllCompleted();
+      if (ecs.isExceptionThrown()) {
+         throw new PersistenceException("Execution exception!", ecs.getFirstException());
+      }
+   }
+
+   /**
+    * Splits the remote segments into disjoint sets, one per remote server, to iterate over them in parallel. Returns a
+    * single {@code null} set, i.e. all the segments, if the remote cache is not distributed.
+    */
+   private List<Set<Integer>> segmentsPerServer() {
+      CacheTopologyInfo topology = remoteCache.getCacheTopologyInfo();
+      Map<SocketAddress, Set<Integer>> segmentsPerServer = topology.getSegmentsPerServer();
+      if (topology.getNumSegments() <= 0 || segmentsPerServer.size() <= 1) {
+         return Collections.singletonList(null);
+      }
+      Set<Integer> assigned = new HashSet<>();
+      List<Set<Integer>> partitions = new ArrayList<>(segmentsPerServer.size());
+      for (Set<Integer> owned : segmentsPerServer.values()) {
+         Set<Integer> partition = new HashSet<>();
+         for (Integer segment : owned) {
+            if (assigned.add(segment)) {
+               partition.add(segment);
+            }
+         }
+         if (!partition.isEmpty()) {
+            partitions.add(partition);
+         }
+      }
+      return partitions;
+   }
+
+   private void processSegments(Set<Integer> segments, KeyFilter filter, CacheLoaderTask task, TaskContextImpl taskContext)
+         throws InterruptedException {
+      int batchSize = configuration.maxBatchSize();
+      if (configuration.rawValues()) {
+         try (CloseableIterator<Map.Entry<Object, MetadataValue<Object>>> iterator =
+                    remoteCache.retrieveEntriesWithMetadata(segments, batchSize)) {
+            while (iterator.hasNext() && !taskContext.isStopped()) {
+               Map.Entry<Object, MetadataValue<Object>> entry = iterator.next();
+               Object key = wrapKey(entry.getKey());
+               if (filter == null || filter.accept(key)) {
+                  task.processEntry(toMarshalledEntry(key, entry.getValue()), taskContext);
+               }
+            }
+         }
+      } else {
+         // The values are the marshalled entries, including the metadata
+         try (CloseableIterator<Map.Entry<Object, Object>> iterator = remoteCache.retrieveEntries(null, segments, batchSize)) {
+            while (iterator.hasNext() && !taskContext.isStopped()) {
+               Map.Entry<Object, Object> entry = iterator.next();
+               if (filter == null || filter.accept(wrapKey(entry.getKey()))) {
+                  task.processEntry((MarshalledEntry) entry.getValue(), taskContext);
+               }
+            }
+         }
+      }
+   }
+
+   private static Object wrapKey(Object key) {
+      return key instanceof byte[] ? new WrappedByteArray((byte[]) key) : key;
+   }
+
+   /**
+    * Iterates over the remote keys and loads each entry, for servers that do not support iteration.
+    */
+   private void processKeys(KeyFilter filter, CacheLoaderTask task) {
       TaskContextImpl taskContext = new TaskContextImpl();
       for (Object key : remoteCache.keySet()) {
          if (key instanceof byte[]) {
@@ -220,17 +346,56 @@ private Object getValue(MarshalledEntry entry) {
 
    @Override
    public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> marshalledEntries) {
+      // Send up to maxBatchSize requests before waiting for the responses
+      List<CompletableFuture<?>> futures = new ArrayList<>();
       Map<Object, Object> batch = new HashMap<>();
       for (MarshalledEntry entry : marshalledEntries) {
-         batch.put(getKey(entry), getValue(entry));
-         if (batch.size() == configuration.maxBatchSize()) {
-            remoteCache.putAll(batch);
-            batch.clear();
+         InternalMetadata metadata = entry.getMetadata();
+         if (metadata != null && (metadata.lifespan() > 0 || metadata.maxIdle() > 0)) {
+            // putAll applies the same expiration to all the entries
+            futures.add(remoteCache.putAsync(getKey(entry), getValue(entry),
+                  toSeconds(metadata.lifespan(), entry.getKey(), LIFESPAN), TimeUnit.SECONDS,
+                  toSeconds(metadata.maxIdle(), entry.getKey(), MAXIDLE), TimeUnit.SECONDS));
+         } else {
+            batch.put(getKey(entry), getValue(entry));
+            if (batch.size() == configuration.maxBatchSize()) {
+               futures.add(remoteCache.putAllAsync(batch));
+               batch = new HashMap<>();
+            }
+         }
+         if (futures.size() == configuration.maxBatchSize()) {
+            join(futures);
+            futures.clear();
          }
       }
 
       if (!batch.isEmpty())
-         remoteCache.putAll(batch);
+         futures.add(remoteCache.putAllAsync(batch));
+      join(futures);
+   }
+
+   @Override
+   public void deleteBatch(Iterable<Object> keys) {
+      List<CompletableFuture<?>> futures = new ArrayList<>();
+      for (Object key : keys) {
+         if (key instanceof WrappedByteArray) {
+            key = ((WrappedByteArray) key).getBytes();
+         }
+         futures.add(remoteCache.removeAsync(key));
+         if (futures.size() == configuration.maxBatchSize()) {
+            join(futures);
+            futures.clear();
+         }
+      }
+      join(futures);
+   }
+
+   private static void join(List<CompletableFuture<?>> futures) {
+      try {
+         CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+      } catch (CompletionException e) {
+         throw new PersistenceException(e.getCause());
+      }
    }
 
    @Override
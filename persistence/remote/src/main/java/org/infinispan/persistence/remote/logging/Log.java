@@ -40,4 +40,8 @@ public interface Log extends BasicLogger {
    @Message(value = "The RemoteCacheStore for cache %s should be configured with hotRodWrapping enabled", id = 10007)
    CacheException remoteStoreNoHotRodWrapping(String cacheName);
 
+   @LogMessage(level = INFO)
+   @Message(value = "Resuming the synchronization of cache %s, %d of %d source segments remaining", id = 10008)
+   void resumingSynchronization(String cacheName, int remaining, int numSegments);
+
 }
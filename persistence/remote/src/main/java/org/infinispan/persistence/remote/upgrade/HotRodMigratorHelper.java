@@ -21,18 +21,10 @@ public class HotRodMigratorHelper {
 
    private static final Log log = LogFactory.getLog(HotRodMigratorHelper.class, Log.class);
 
-   static boolean supportsIteration(String protocolVersion) {
+   public static boolean supportsIteration(String protocolVersion) {
       return protocolVersion == null || VersionUtils.isVersionGreaterOrEquals(protocolVersion, ITERATOR_MINIMUM_VERSION);
    }
 
-   static List<Integer> range(int end) {
-      List<Integer> integers = new ArrayList<>();
-      for (int i = 0; i < end; i++) {
-         integers.add(i);
-      }
-      return integers;
-   }
-
    static <T> List<List<T>> split(List<T> list, final int parts) {
       List<List<T>> subLists = new ArrayList<>(parts);
       for (int i = 0; i < parts; i++) {
@@ -3,21 +3,22 @@
 import static org.infinispan.persistence.remote.upgrade.HotRodMigratorHelper.DEFAULT_READ_BATCH_SIZE;
 import static org.infinispan.persistence.remote.upgrade.HotRodMigratorHelper.MIGRATION_MANAGER_HOT_ROD_KNOWN_KEYS;
 import static org.infinispan.persistence.remote.upgrade.HotRodMigratorHelper.awaitTermination;
-import static org.infinispan.persistence.remote.upgrade.HotRodMigratorHelper.range;
 import static org.infinispan.persistence.remote.upgrade.HotRodMigratorHelper.split;
 import static org.infinispan.persistence.remote.upgrade.HotRodMigratorHelper.supportsIteration;
 
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.infinispan.Cache;
 import org.infinispan.client.hotrod.CacheTopologyInfo;
@@ -34,7 +35,10 @@
 import org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration;
 import org.infinispan.persistence.remote.logging.Log;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.upgrade.MigrationProgress;
 import org.infinispan.upgrade.TargetMigrator;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.LogFactory;
 import org.kohsuke.MetaInfServices;
 
@@ -42,6 +46,11 @@
 public class HotRodTargetMigrator implements TargetMigrator {
 
    private static final Log log = LogFactory.getLog(HotRodTargetMigrator.class, Log.class);
+   /**
+    * Number of segment ranges migrated by each target node, so that the progress is checkpointed several times
+    * during a synchronization.
+    */
+   private static final int RANGES_PER_NODE = 4;
 
    public HotRodTargetMigrator() {
    }
@@ -56,8 +65,19 @@ public long synchronizeData(final Cache<Object, Object> cache) throws CacheExcep
       return synchronizeData(cache, DEFAULT_READ_BATCH_SIZE, Runtime.getRuntime().availableProcessors());
    }
 
+   @Override
+   public long synchronizeData(Cache<Object, Object> cache, MigrationProgress progress) throws CacheException {
+      return synchronizeData(cache, DEFAULT_READ_BATCH_SIZE, Runtime.getRuntime().availableProcessors(), progress);
+   }
+
    @Override
    public long synchronizeData(Cache<Object, Object> cache, int readBatch, int threads) throws CacheException {
+      TimeService timeService = cache.getAdvancedCache().getComponentRegistry().getComponent(TimeService.class);
+      return synchronizeData(cache, readBatch, threads, new MigrationProgress(timeService));
+   }
+
+   @Override
+   public long synchronizeData(Cache<Object, Object> cache, int readBatch, int threads, MigrationProgress progress) throws CacheException {
       ComponentRegistry cr = cache.getAdvancedCache().getComponentRegistry();
       PersistenceManager loaderManager = cr.getComponent(PersistenceManager.class);
       Set<RemoteStore> stores = loaderManager.getStores(RemoteStore.class);
@@ -108,40 +128,25 @@ public long synchronizeData(Cache<Object, Object> cache, int readBatch, int thre
          }
          throw log.missingMigrationData(cache.getName());
       } else {
-         DistributedExecutorService executor = new DefaultExecutorService(cache);
+         CacheTopologyInfo sourceCacheTopologyInfo = remoteSourceCache.getCacheTopologyInfo();
+         int sourceSegments = sourceCacheTopologyInfo.getNumSegments();
+         Set<Integer> remainingSegments = progress.start(sourceSegments);
+         if (remainingSegments.size() < sourceSegments) {
+            log.resumingSynchronization(cache.getName(), remainingSegments.size(), sourceSegments);
+         }
+         boolean successful = false;
          try {
-            CacheTopologyInfo sourceCacheTopologyInfo = remoteSourceCache.getCacheTopologyInfo();
+            long count;
             if (sourceCacheTopologyInfo.getSegmentsPerServer().size() == 1) {
-               return migrateFromSingleServer(cache, readBatch, threads);
-            }
-            int sourceSegments = sourceCacheTopologyInfo.getNumSegments();
-            List<Address> targetServers = cache.getAdvancedCache().getDistributionManager().getWriteConsistentHash().getMembers();
-
-            List<List<Integer>> partitions = split(range(sourceSegments), targetServers.size());
-            Iterator<Address> iterator = targetServers.iterator();
-            List<CompletableFuture<Integer>> futures = new ArrayList<>(targetServers.size());
-            for (List<Integer> partition : partitions) {
-               Set<Integer> segmentSet = new HashSet<>();
-               segmentSet.addAll(partition);
-               DistributedTask<Integer> task = executor
-                     .createDistributedTaskBuilder(new MigrationTask(segmentSet, readBatch, threads))
-                     .timeout(Long.MAX_VALUE, TimeUnit.NANOSECONDS)
-                     .build();
-               futures.add(executor.submit(iterator.next(), task));
+               count = migrateFromSingleServer(cache, readBatch, threads);
+               progress.segmentsCompleted(remainingSegments, count);
+            } else {
+               count = migrateSegments(cache, remainingSegments, readBatch, threads, progress);
             }
-            return futures.stream().mapToInt(f -> {
-               try {
-                  return f.get();
-               } catch (InterruptedException e) {
-                  Thread.currentThread().interrupt();
-                  throw log.couldNotMigrateData(cache.getName());
-               } catch (ExecutionException e) {
-                  throw new CacheException(e);
-               }
-            }).sum();
-
+            successful = true;
+            return count;
          } finally {
-            executor.shutdownNow();
+            progress.end(successful);
          }
       }
    }
@@ -150,12 +155,71 @@ private long migrateFromSingleServer(Cache<Object, Object> cache, int readBatch,
       MigrationTask migrationTask = new MigrationTask(null, readBatch, threads);
       migrationTask.setEnvironment(cache, null);
       try {
-         return migrationTask.call();
+         Integer count = migrationTask.call();
+         return count != null ? count : 0;
       } catch (Exception e) {
          throw new CacheException(e);
       }
    }
 
+   /**
+    * Splits the segments in ranges and migrates one range at a time on each target node. The progress is updated when
+    * each range completes, so that a failed synchronization can be resumed from the ranges not completed.
+    */
+   private long migrateSegments(Cache<Object, Object> cache, Set<Integer> segments, int readBatch, int threads,
+                                MigrationProgress progress) {
+      List<Address> targetServers = cache.getAdvancedCache().getDistributionManager().getWriteConsistentHash().getMembers();
+      int numRanges = Math.min(segments.size(), targetServers.size() * RANGES_PER_NODE);
+      Queue<Set<Integer>> ranges = new ConcurrentLinkedQueue<>();
+      for (List<Integer> range : split(new ArrayList<>(segments), Math.max(numRanges, 1))) {
+         if (!range.isEmpty()) {
+            ranges.add(new HashSet<>(range));
+         }
+      }
+
+      DistributedExecutorService executor = new DefaultExecutorService(cache);
+      try {
+         LongAdder count = new LongAdder();
+         List<CompletableFuture<Void>> futures = new ArrayList<>(targetServers.size());
+         for (Address target : targetServers) {
+            futures.add(migrateRanges(executor, target, ranges, readBatch, threads, progress, count));
+         }
+         try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+         } catch (CompletionException e) {
+            throw new CacheException(e.getCause());
+         }
+         return count.sum();
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
+   private CompletableFuture<Void> migrateRanges(DistributedExecutorService executor, Address target,
+                                                 Queue<Set<Integer>> ranges, int readBatch, int threads,
+                                                 MigrationProgress progress, LongAdder count) {
+      Set<Integer> range = ranges.poll();
+      if (range == null)
+         return CompletableFutures.completedNull();
+
+      DistributedTask<Integer> task = executor
+            .createDistributedTaskBuilder(new MigrationTask(range, readBatch, threads))
+            .timeout(Long.MAX_VALUE, TimeUnit.NANOSECONDS)
+            .build();
+      CompletableFuture<Integer> future = executor.submit(target, task);
+      return future.whenComplete((migrated, t) -> {
+         if (t != null) {
+            // Stop the other nodes, the remaining ranges will be migrated when the synchronization is resumed
+            ranges.clear();
+         }
+      }).thenCompose(migrated -> {
+         long entries = migrated != null ? migrated : 0;
+         progress.segmentsCompleted(range, entries);
+         count.add(entries);
+         return migrateRanges(executor, target, ranges, readBatch, threads, progress, count);
+      });
+   }
+
    @Override
    public void disconnectSource(Cache<Object, Object> cache) throws CacheException {
       ComponentRegistry cr = cache.getAdvancedCache().getComponentRegistry();
@@ -1,9 +1,14 @@
 package org.infinispan.persistence.remote;
 
 import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertNull;
 import static org.testng.AssertJUnit.assertTrue;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
 import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
@@ -11,6 +16,7 @@
 import org.infinispan.eviction.EvictionType;
 import org.infinispan.factories.GlobalComponentRegistry;
 import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.BaseStoreTest;
 import org.infinispan.persistence.remote.configuration.RemoteStoreConfigurationBuilder;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
@@ -95,4 +101,24 @@ public void testReplaceExpiredEntry() throws Exception {
       cl.write(marshalledEntry(internalCacheEntry("k1", "v2", 100l)));
       assertTrue(cl.load("k1").getValue().equals("v2") || TestingUtil.moreThanDurationElapsed(start, 100));
    }
+
+   public void testLoadAllKeys() throws Exception {
+      cl.writeBatch(Arrays.asList(marshalledEntry("k1", "v1", null), marshalledEntry("k2", "v2", null),
+            marshalledEntry("k3", "v3", null)));
+
+      Map<Object, MarshalledEntry<Object, Object>> entries = cl.loadAll(new HashSet<>(Arrays.asList("k1", "k3", "k4")));
+      assertEquals(2, entries.size());
+      assertEquals("v1", unwrap(entries.get("k1").getValue()));
+      assertEquals("v3", unwrap(entries.get("k3").getValue()));
+   }
+
+   public void testWriteBatchWithLifespan() throws Exception {
+      cl.writeBatch(Arrays.asList(marshalledEntry(internalCacheEntry("k1", "v1", 5000)),
+            marshalledEntry("k2", "v2", null)));
+
+      // The entries with a lifespan are not written with putAll, which would make them immortal on the remote cache
+      RemoteStore store = (RemoteStore) cl;
+      assertEquals(5, store.getRemoteCache().getWithMetadata("k1").getLifespan());
+      assertEquals(-1, store.getRemoteCache().getWithMetadata("k2").getLifespan());
+   }
 }
@@ -72,6 +72,9 @@ public void testSynchronization() throws Exception {
 
       assertEquals(26, count);
       assertEquals(sourceCluster.getEmbeddedCache(TEST_CACHE).size(), targetCluster.getEmbeddedCache(TEST_CACHE).size());
+      assertFalse(upgradeManager.isSynchronizing());
+      assertEquals(26, upgradeManager.getMigratedEntries());
+      assertEquals(0, upgradeManager.getRemainingSegments());
 
       upgradeManager.disconnectSource("hotrod");
 
@@ -2,19 +2,28 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.BlockingQueue;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.Executor;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
 
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.configuration.ConfiguredBy;
 import org.infinispan.commons.persistence.Store;
+import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.HashConfiguration;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.distribution.ch.impl.HashFunctionPartitioner;
 import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
@@ -27,7 +36,11 @@
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.util.logging.LogFactory;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.CompressionType;
+import org.rocksdb.DBOptions;
 import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
@@ -40,14 +53,27 @@
 @ConfiguredBy(RocksDBStoreConfiguration.class)
 public class RocksDBStore<K,V> implements AdvancedLoadWriteStore<K,V> {
     private static final Log log = LogFactory.getLog(RocksDBStore.class, Log.class);
+    private static final byte[] EXPIRATION_COLUMN_FAMILY = "expiration".getBytes(StandardCharsets.UTF_8);
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final byte[] EMPTY = new byte[0];
 
     private RocksDBStoreConfiguration configuration;
-    private BlockingQueue<ExpiryEntry> expiryEntryQueue;
     private RocksDB db;
-    private RocksDB expiredDb;
+    private ColumnFamilyHandle defaultHandle;
+    // handles of the column families holding each cache segment; null when the store is not segmented.
+    // The handles must be used only while holding the semaphore, as they are released when the store is stopped.
+    private ColumnFamilyHandle[] segmentHandles;
+    // entries with expiration, ordered by the expiration time
+    private ColumnFamilyHandle expirationHandle;
+    private KeyPartitioner keyPartitioner;
+    private int numSegments;
     private InitializationContext ctx;
     private Semaphore semaphore;
     private WriteOptions dataWriteOptions;
+    // the options must outlive the database and are released when it is closed
+    private DBOptions dbOptions;
+    private ColumnFamilyOptions columnFamilyOptions;
+    private ColumnFamilyOptions expirationColumnFamilyOptions;
     private volatile boolean stopped = true;
 
     @Override
@@ -55,15 +81,21 @@ public void init(InitializationContext ctx) {
         this.configuration = ctx.getConfiguration();
         this.ctx = ctx;
         this.semaphore = new Semaphore(Integer.MAX_VALUE, true);
+        HashConfiguration hashConfiguration = ctx.getCache().getCacheConfiguration().clustering().hash();
+        this.numSegments = hashConfiguration.numSegments();
+        this.keyPartitioner = ctx.getCache().getAdvancedCache().getComponentRegistry().getComponent(KeyPartitioner.class);
+        if (keyPartitioner == null) {
+            HashFunctionPartitioner partitioner = new HashFunctionPartitioner();
+            partitioner.init(hashConfiguration);
+            keyPartitioner = partitioner;
+        }
     }
 
     @Override
     public void start() {
-        expiryEntryQueue = new LinkedBlockingQueue<>(configuration.expiryQueueSize());
-
         try {
-            db = openDatabase(getQualifiedLocation(), dataDbOptions());
-            expiredDb = openDatabase(getQualifiedExpiredLocation(), expiredDbOptions());
+            db = openDataDatabase();
+            removeExpiredDatabase();
             stopped = false;
         } catch (Exception e) {
             throw new CacheConfigurationException("Unable to open database", e);
@@ -88,24 +120,242 @@ private WriteOptions dataWriteOptions() {
         return dataWriteOptions;
     }
 
-    private Options dataDbOptions() {
-        Options options = new Options().setCreateIfMissing(true);
+    private DBOptions dataDbOptions() {
+        return new DBOptions().setCreateIfMissing(true).setCreateMissingColumnFamilies(true);
+    }
+
+    private ColumnFamilyOptions dataColumnFamilyOptions() {
+        ColumnFamilyOptions options = new ColumnFamilyOptions();
         options.setCompressionType(CompressionType.getCompressionType(configuration.compressionType().toString()));
 
         return options;
     }
 
-    private Options expiredDbOptions() {
-        return new Options().setCreateIfMissing(true);
+    private static byte[] segmentColumnFamilyName(int segment) {
+        return (SEGMENT_PREFIX + segment).getBytes(StandardCharsets.UTF_8);
     }
 
     /**
-     * Creates database if it doesn't exist.
+     * Creates database with given column families if it doesn't exist.
      */
-    protected RocksDB openDatabase(String location, Options options) throws IOException, RocksDBException {
+    protected RocksDB openDatabase(String location, DBOptions options, List<ColumnFamilyDescriptor> descriptors,
+                                   List<ColumnFamilyHandle> handles) throws IOException, RocksDBException {
         File dir = new File(location);
         dir.mkdirs();
-        return RocksDB.open(options, location);
+        return RocksDB.open(options, location, descriptors, handles);
+    }
+
+    /**
+     * @return Names of the column families of the database at the location, or an empty set if it doesn't exist yet
+     */
+    private static Set<String> existingColumnFamilies(String location) throws RocksDBException {
+        Set<String> names = new HashSet<>();
+        if (new File(location, "CURRENT").exists()) {
+            try (Options options = new Options()) {
+                for (byte[] name : RocksDB.listColumnFamilies(options, location)) {
+                    names.add(new String(name, StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Opens the data database; when the store is segmented, each segment is kept in a separate column family.
+     * A database written with a different layout (not segmented, or with a different number of segments) is
+     * migrated to the configured one, and the expiration of its entries is indexed if it was written before the
+     * expiration column family existed.
+     */
+    private RocksDB openDataDatabase() throws IOException, RocksDBException {
+        String location = getQualifiedLocation();
+        Set<String> existing = existingColumnFamilies(location);
+        dbOptions = dataDbOptions();
+        columnFamilyOptions = dataColumnFamilyOptions();
+        expirationColumnFamilyOptions = new ColumnFamilyOptions();
+        List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+        descriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, columnFamilyOptions));
+        descriptors.add(new ColumnFamilyDescriptor(EXPIRATION_COLUMN_FAMILY, expirationColumnFamilyOptions));
+        Set<String> configured = new HashSet<>();
+        if (configuration.segmented()) {
+            for (int i = 0; i < numSegments; ++i) {
+                byte[] name = segmentColumnFamilyName(i);
+                descriptors.add(new ColumnFamilyDescriptor(name, columnFamilyOptions));
+                configured.add(new String(name, StandardCharsets.UTF_8));
+            }
+        }
+        int configuredCount = descriptors.size();
+        // RocksDB refuses to open a database without all its column families, so the segments of a previous
+        // layout are opened too, and dropped once their entries are moved
+        int existingSegments = 0;
+        for (String name : existing) {
+            if (name.startsWith(SEGMENT_PREFIX)) {
+                existingSegments++;
+                if (!configured.contains(name)) {
+                    descriptors.add(new ColumnFamilyDescriptor(name.getBytes(StandardCharsets.UTF_8), columnFamilyOptions));
+                }
+            }
+        }
+        List<ColumnFamilyHandle> handles = new ArrayList<>(descriptors.size());
+        RocksDB rocksDB = openDatabase(location, dbOptions, descriptors, handles);
+        defaultHandle = handles.get(0);
+        expirationHandle = handles.get(1);
+        if (configuration.segmented()) {
+            segmentHandles = handles.subList(2, configuredCount).toArray(new ColumnFamilyHandle[numSegments]);
+        } else {
+            segmentHandles = null;
+        }
+        List<ColumnFamilyHandle> staleHandles = new ArrayList<>(handles.subList(configuredCount, handles.size()));
+        try {
+            migrateLayout(rocksDB, existing, existingSegments, staleHandles);
+            if (!existing.isEmpty() && !existing.contains(new String(EXPIRATION_COLUMN_FAMILY, StandardCharsets.UTF_8))) {
+                indexExpiration(rocksDB);
+            }
+        } catch (IOException | RocksDBException e) {
+            staleHandles.forEach(ColumnFamilyHandle::close);
+            closeDataDatabase(rocksDB);
+            throw e;
+        }
+        return rocksDB;
+    }
+
+    private void migrateLayout(RocksDB rocksDB, Set<String> existing, int existingSegments,
+                               List<ColumnFamilyHandle> staleHandles) throws IOException, RocksDBException {
+        if (existing.isEmpty()) {
+            return;
+        }
+        List<ColumnFamilyHandle> sources = new ArrayList<>(staleHandles);
+        if (segmentHandles != null) {
+            // entries written before the store was segmented
+            sources.add(defaultHandle);
+            if (existingSegments != 0 && existingSegments != numSegments) {
+                // the number of segments changed, so the keys may belong to a different segment now
+                Collections.addAll(sources, segmentHandles);
+            }
+        }
+        for (ColumnFamilyHandle source : sources) {
+            moveEntries(rocksDB, source);
+        }
+        for (ColumnFamilyHandle handle : staleHandles) {
+            rocksDB.dropColumnFamily(handle);
+            handle.close();
+        }
+        if (!staleHandles.isEmpty()) {
+            log.debugf("Migrated RocksDB store at %s, dropped %d column families", getQualifiedLocation(),
+                  staleHandles.size());
+        }
+    }
+
+    /**
+     * Moves the entries of the column family that don't belong to it to the column family of their segment.
+     */
+    private void moveEntries(RocksDB rocksDB, ColumnFamilyHandle source) throws IOException, RocksDBException {
+        try (RocksIterator it = wrapIterator(rocksDB, source)) {
+            WriteBatch batch = new WriteBatch();
+            try {
+                for (it.seekToFirst(); it.isValid(); it.next()) {
+                    byte[] keyBytes = it.key();
+                    ColumnFamilyHandle target = handle(unmarshall(keyBytes));
+                    if (target != source) {
+                        batch.put(target, keyBytes, it.value());
+                        batch.delete(source, keyBytes);
+                        if (batch.count() >= 2 * configuration.maxBatchSize()) {
+                            rocksDB.write(dataWriteOptions(), batch);
+                            batch.close();
+                            batch = new WriteBatch();
+                        }
+                    }
+                }
+                if (batch.count() > 0) {
+                    rocksDB.write(dataWriteOptions(), batch);
+                }
+            } finally {
+                batch.close();
+            }
+        } catch (ClassNotFoundException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    /**
+     * Adds the mortal entries of a database written by a previous version, which kept their expiration in a separate
+     * database, to the expiration column family.
+     */
+    private void indexExpiration(RocksDB rocksDB) throws IOException, RocksDBException {
+        int count = 0;
+        for (ColumnFamilyHandle handle : dataHandles()) {
+            try (RocksIterator it = wrapIterator(rocksDB, handle)) {
+                WriteBatch batch = new WriteBatch();
+                try {
+                    for (it.seekToFirst(); it.isValid(); it.next()) {
+                        long expiry = expiry((MarshalledEntry) unmarshall(it.value()));
+                        if (expiry >= 0) {
+                            batch.put(expirationHandle, expirationKey(expiry, it.key()), EMPTY);
+                            count++;
+                            if (batch.count() >= configuration.maxBatchSize()) {
+                                rocksDB.write(dataWriteOptions(), batch);
+                                batch.close();
+                                batch = new WriteBatch();
+                            }
+                        }
+                    }
+                    if (batch.count() > 0) {
+                        rocksDB.write(dataWriteOptions(), batch);
+                    }
+                } finally {
+                    batch.close();
+                }
+            } catch (ClassNotFoundException e) {
+                throw new PersistenceException(e);
+            }
+        }
+        log.debugf("Indexed the expiration of %d entries of RocksDB store at %s", count, getQualifiedLocation());
+    }
+
+    /**
+     * Deletes the database in which previous versions kept the expiration times, as they are now indexed in the data
+     * database.
+     */
+    private void removeExpiredDatabase() throws IOException {
+        String expiredLocation = getQualifiedExpiredLocation();
+        File expiredDir = new File(expiredLocation);
+        // only a RocksDB database is deleted, never the data database or an unrelated directory
+        if (!expiredDir.getAbsoluteFile().equals(new File(getQualifiedLocation()).getAbsoluteFile())
+              && new File(expiredDir, "CURRENT").exists()) {
+            log.debugf("Removing the expired database of RocksDB store at %s", expiredLocation);
+            destroyDatabase(expiredLocation);
+        }
+    }
+
+    private void closeDataDatabase() {
+        closeDataDatabase(db);
+    }
+
+    private void closeDataDatabase(RocksDB rocksDB) {
+        if (segmentHandles != null) {
+            for (ColumnFamilyHandle handle : segmentHandles) {
+                handle.close();
+            }
+        }
+        expirationHandle.close();
+        defaultHandle.close();
+        rocksDB.close();
+        dbOptions.close();
+        columnFamilyOptions.close();
+        expirationColumnFamilyOptions.close();
+    }
+
+    /**
+     * @return Handle of the column family holding the key
+     */
+    private ColumnFamilyHandle handle(Object key) {
+        return segmentHandles == null ? defaultHandle : segmentHandles[keyPartitioner.getSegment(key)];
+    }
+
+    /**
+     * @return Handles of all column families holding entries
+     */
+    private ColumnFamilyHandle[] dataHandles() {
+        return segmentHandles == null ? new ColumnFamilyHandle[] { defaultHandle } : segmentHandles;
     }
 
     protected void destroyDatabase(String location) throws IOException {
@@ -114,11 +364,6 @@ protected void destroyDatabase(String location) throws IOException {
         Util.recursiveFileRemove(new File(location));
     }
 
-    protected RocksDB reinitDatabase(String location, Options options) throws IOException, RocksDBException {
-        destroyDatabase(location);
-        return openDatabase(location, options);
-    }
-
     protected void reinitAllDatabases() throws IOException, RocksDBException {
         try {
             semaphore.acquire(Integer.MAX_VALUE);
@@ -129,10 +374,9 @@ protected void reinitAllDatabases() throws IOException, RocksDBException {
             if (stopped) {
                 throw new PersistenceException("RocksDB is stopped");
             }
-            db.close();
-            expiredDb.close();
-            db = reinitDatabase(getQualifiedLocation(), dataDbOptions());
-            expiredDb = reinitDatabase(getQualifiedExpiredLocation(), expiredDbOptions());
+            closeDataDatabase();
+            destroyDatabase(getQualifiedLocation());
+            db = openDataDatabase();
         } finally {
             semaphore.release(Integer.MAX_VALUE);
         }
@@ -146,8 +390,11 @@ public void stop() {
             throw new PersistenceException("Cannot acquire semaphore", e);
         }
         try {
-            db.close();
-            expiredDb.close();
+            closeDataDatabase();
+            if (dataWriteOptions != null) {
+                dataWriteOptions.close();
+                dataWriteOptions = null;
+            }
         } finally {
             stopped = true;
             semaphore.release(Integer.MAX_VALUE);
@@ -167,20 +414,26 @@ public void clear() {
             if (stopped) {
                 throw new PersistenceException("RocksDB is stopped");
             }
-            Optional<RocksIterator> optionalIterator = wrapIterator(this.db);
-            if (optionalIterator.isPresent() && configuration.clearThreshold() <= 0) {
-                try (RocksIterator it = optionalIterator.get()) {
-                    for(it.seekToFirst(); it.isValid(); it.next()) {
-                        db.delete(it.key());
-                        count++;
+            if (configuration.clearThreshold() <= 0) {
+                List<ColumnFamilyHandle> handles = new ArrayList<>();
+                Collections.addAll(handles, dataHandles());
+                handles.add(expirationHandle);
+                iteration:
+                for (ColumnFamilyHandle handle : handles) {
+                    try (RocksIterator it = wrapIterator(this.db, handle)) {
+                        for (it.seekToFirst(); it.isValid(); it.next()) {
+                            db.delete(handle, it.key());
+                            count++;
 
-                        if (count > configuration.clearThreshold()) {
-                            destroyDatabase = true;
-                            break;
+                            if (count > configuration.clearThreshold()) {
+                                destroyDatabase = true;
+                                break iteration;
+                            }
                         }
+                    } catch (RocksDBException e) {
+                        destroyDatabase = true;
+                        break;
                     }
-                } catch (RocksDBException e) {
-                    destroyDatabase = true;
                 }
             } else {
                 destroyDatabase = true;
@@ -198,11 +451,49 @@ public void clear() {
         }
     }
 
-    private static Optional<RocksIterator> wrapIterator(RocksDB db) {
-        // Some Cache Store tests use clear and in case of the Rocks DB implementation
-        // this clears out internal references and results in throwing exceptions
-        // when getting an iterator. Unfortunately there is no nice way to check that...
-        return Optional.of(db.newIterator(new ReadOptions().setFillCache(false)));
+    private static RocksIterator wrapIterator(RocksDB db, ColumnFamilyHandle handle) {
+        return db.newIterator(handle, new ReadOptions().setFillCache(false));
+    }
+
+    /**
+     * Removes all entries from given cache segments. When the store is segmented, the column families of these
+     * segments are dropped and recreated empty, without reading them; otherwise all the keys have to be unmarshalled
+     * to find out their segment. The stale expiration entries of removed keys are skipped and deleted by the purge.
+     */
+    public void clear(IntSet segments) {
+        // dropping a column family invalidates its handle, so no other operation may run meanwhile
+        int permits = configuration.segmented() ? Integer.MAX_VALUE : 1;
+        try {
+            semaphore.acquire(permits);
+        } catch (InterruptedException e) {
+            throw new PersistenceException("Cannot acquire semaphore", e);
+        }
+        try {
+            if (stopped) {
+                throw new PersistenceException("RocksDB is stopped");
+            }
+            if (configuration.segmented()) {
+                for (int segment : segments) {
+                    ColumnFamilyHandle handle = segmentHandles[segment];
+                    db.dropColumnFamily(handle);
+                    handle.close();
+                    segmentHandles[segment] = db.createColumnFamily(
+                          new ColumnFamilyDescriptor(segmentColumnFamilyName(segment), columnFamilyOptions));
+                }
+            } else {
+                try (RocksIterator it = wrapIterator(db, defaultHandle)) {
+                    for (it.seekToFirst(); it.isValid(); it.next()) {
+                        if (segments.contains(keyPartitioner.getSegment(unmarshall(it.key())))) {
+                            db.delete(defaultHandle, it.key());
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new PersistenceException(e);
+        } finally {
+            semaphore.release(permits);
+        }
     }
 
     @Override
@@ -210,6 +501,41 @@ public int size() {
         return PersistenceUtil.count(this, null);
     }
 
+    /**
+     * Counts the entries in given cache segments. When the store is segmented, only the column families of these
+     * segments are read.
+     */
+    public int size(IntSet segments) {
+        if (!configuration.segmented()) {
+            return PersistenceUtil.count(this, segmentFilter(segments));
+        }
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            throw new PersistenceException("Cannot acquire semaphore", e);
+        }
+        try {
+            if (stopped) {
+                throw new PersistenceException("RocksDB is stopped");
+            }
+            long count = 0;
+            for (int segment : segments) {
+                try (RocksIterator it = wrapIterator(db, segmentHandles[segment])) {
+                    for (it.seekToFirst(); it.isValid(); it.next()) {
+                        count++;
+                    }
+                }
+            }
+            return count > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) count;
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    private KeyFilter<Object> segmentFilter(IntSet segments) {
+        return key -> segments.contains(keyPartitioner.getSegment(key));
+    }
+
     @Override
     public boolean contains(Object key) {
         try {
@@ -219,9 +545,19 @@ public boolean contains(Object key) {
         }
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public void process(KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask, Executor executor, boolean loadValues, boolean loadMetadata) {
+        process(null, keyFilter, cacheLoaderTask, executor, loadValues, loadMetadata);
+    }
+
+    /**
+     * Iterates over the entries in given cache segments. When the store is segmented, only the column families of
+     * these segments are read.
+     *
+     * @param segments Cache segments to iterate over, or null for all segments
+     */
+    @SuppressWarnings("unchecked")
+    public void process(IntSet segments, KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask, Executor executor, boolean loadValues, boolean loadMetadata) {
         int batchSize = 100;
         ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
         final TaskContext taskContext = new TaskContextImpl();
@@ -236,29 +572,43 @@ public void process(KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask, Execut
             if (stopped) {
                 throw new PersistenceException("RocksDB is stopped");
             }
-            Optional<RocksIterator> optionalIterator = wrapIterator(this.db);
-            if (optionalIterator.isPresent()) {
-                try (RocksIterator it = optionalIterator.get()) {
-                    for (it.seekToFirst(); it.isValid(); it.next()) {
-                        Entry entry = new Entry(it.key(), it.value());
-                        entries.add(entry);
-                        if (entries.size() == batchSize) {
-                            final List<Entry> batch = entries;
-                            entries = new ArrayList<>(batchSize);
-                            submitProcessTask(cacheLoaderTask, keyFilter, eacs, taskContext, batch, loadValues, loadMetadata);
+            List<ColumnFamilyHandle> handles = new ArrayList<>();
+            if (segments == null) {
+                Collections.addAll(handles, dataHandles());
+            } else if (!configuration.segmented()) {
+                handles.add(defaultHandle);
+                KeyFilter<Object> segmentFilter = segmentFilter(segments);
+                KeyFilter userFilter = keyFilter;
+                keyFilter = key -> segmentFilter.accept(key) && (userFilter == null || userFilter.accept(key));
+            } else {
+                for (int segment : segments) {
+                    handles.add(segmentHandles[segment]);
+                }
+            }
+            try {
+                for (ColumnFamilyHandle handle : handles) {
+                    try (RocksIterator it = wrapIterator(this.db, handle)) {
+                        for (it.seekToFirst(); it.isValid(); it.next()) {
+                            Entry entry = new Entry(it.key(), it.value());
+                            entries.add(entry);
+                            if (entries.size() == batchSize) {
+                                final List<Entry> batch = entries;
+                                entries = new ArrayList<>(batchSize);
+                                submitProcessTask(cacheLoaderTask, keyFilter, eacs, taskContext, batch, loadValues, loadMetadata);
+                            }
                         }
                     }
-                    if (!entries.isEmpty()) {
-                        submitProcessTask(cacheLoaderTask, keyFilter, eacs, taskContext, entries, loadValues, loadMetadata);
-                    }
+                }
+                if (!entries.isEmpty()) {
+                    submitProcessTask(cacheLoaderTask, keyFilter, eacs, taskContext, entries, loadValues, loadMetadata);
+                }
 
-                    eacs.waitUntilAllCompleted();
-                    if (eacs.isExceptionThrown()) {
-                        throw new PersistenceException("Execution exception!", eacs.getFirstException());
-                    }
-                } catch (Exception e) {
-                    throw new PersistenceException(e);
+                eacs.waitUntilAllCompleted();
+                if (eacs.isExceptionThrown()) {
+                    throw new PersistenceException("Execution exception!", eacs.getFirstException());
                 }
+            } catch (Exception e) {
+                throw new PersistenceException(e);
             }
         } finally {
             semaphore.release();
@@ -306,10 +656,11 @@ public boolean delete(Object key) {
                 if (stopped) {
                     throw new PersistenceException("RocksDB is stopped");
                 }
-                if (db.get(keyBytes) == null) {
+                ColumnFamilyHandle handle = handle(key);
+                if (db.get(handle, keyBytes) == null) {
                     return false;
                 }
-                db.delete(keyBytes);
+                db.delete(handle, keyBytes);
             } finally {
                 semaphore.release();
             }
@@ -329,14 +680,20 @@ public void write(MarshalledEntry me) {
                 if (stopped) {
                     throw new PersistenceException("RocksDB is stopped");
                 }
-                db.put(marshelledKey, marshalledEntry);
+                long expiry = expiry(me);
+                if (expiry < 0) {
+                    db.put(handle(me.getKey()), marshelledKey, marshalledEntry);
+                } else {
+                    // the entry and its expiration are written atomically
+                    try (WriteBatch batch = new WriteBatch()) {
+                        batch.put(handle(me.getKey()), marshelledKey, marshalledEntry);
+                        batch.put(expirationHandle, expirationKey(expiry, marshelledKey), EMPTY);
+                        db.write(dataWriteOptions(), batch);
+                    }
+                }
             } finally {
                 semaphore.release();
             }
-            InternalMetadata meta = me.getMetadata();
-            if (meta != null && meta.expiryTime() > -1) {
-                addNewExpiry(me);
-            }
         } catch (Exception e) {
             throw new PersistenceException(e);
         }
@@ -351,7 +708,7 @@ public MarshalledEntry load(Object key) {
                 if (stopped) {
                     throw new PersistenceException("RocksDB is stopped");
                 }
-                marshalledEntry = db.get(marshall(key));
+                marshalledEntry = db.get(handle(key), marshall(key));
             } finally {
                 semaphore.release();
             }
@@ -368,51 +725,120 @@ public MarshalledEntry load(Object key) {
         }
     }
 
+    @Override
+    public Map<Object, MarshalledEntry<K, V>> loadAll(Set<?> keys) {
+        try {
+            List<Object> keyList = new ArrayList<>(keys);
+            List<byte[]> keyBytes = new ArrayList<>(keyList.size());
+            for (Object key : keyList) {
+                keyBytes.add(marshall(key));
+            }
+            Map<byte[], byte[]> values;
+            semaphore.acquire();
+            try {
+                if (stopped) {
+                    throw new PersistenceException("RocksDB is stopped");
+                }
+                List<ColumnFamilyHandle> handles = new ArrayList<>(keyList.size());
+                for (Object key : keyList) {
+                    handles.add(handle(key));
+                }
+                values = db.multiGet(handles, keyBytes);
+            } finally {
+                semaphore.release();
+            }
+            // The returned map is keyed by the array instances that were passed in
+            Map<Object, MarshalledEntry<K, V>> entries = new HashMap<>(values.size());
+            long now = ctx.getTimeService().wallClockTime();
+            for (int i = 0; i < keyList.size(); i++) {
+                byte[] marshalledEntry = values.get(keyBytes.get(i));
+                if (marshalledEntry == null) continue;
+
+                MarshalledEntry<K, V> me = (MarshalledEntry<K, V>) unmarshall(marshalledEntry);
+                InternalMetadata meta = me.getMetadata();
+                if (meta == null || !meta.isExpired(now)) {
+                    entries.put(keyList.get(i), me);
+                }
+            }
+            return entries;
+        } catch (Exception e) {
+            throw new PersistenceException(e);
+        }
+    }
+
     @Override
     public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> marshalledEntries) {
         try {
-            int batchSize = 0;
-            WriteBatch batch = new WriteBatch();
+            List<MarshalledEntry> batch = new ArrayList<>();
             for (MarshalledEntry entry : marshalledEntries) {
-                batch.put(marshall(entry.getKey()), marshall(entry));
-                batchSize++;
+                batch.add(entry);
 
-                if (batchSize == configuration.maxBatchSize()) {
-                    batchSize = 0;
+                if (batch.size() == configuration.maxBatchSize()) {
                     writeBatch(batch);
-                    batch = new WriteBatch();
+                    batch.clear();
                 }
             }
 
-            if (batchSize != 0)
+            if (!batch.isEmpty())
                 writeBatch(batch);
-
-            // Add metadata only after batch has been written
-            for (MarshalledEntry entry : marshalledEntries) {
-                InternalMetadata meta = entry.getMetadata();
-                if (meta != null && meta.expiryTime() > -1)
-                    addNewExpiry(entry);
-            }
         } catch (Exception e) {
             throw new PersistenceException(e);
         }
     }
 
-    private void writeBatch(WriteBatch batch) throws InterruptedException, RocksDBException {
+    private void writeBatch(List<MarshalledEntry> entries) throws IOException, InterruptedException, RocksDBException {
         semaphore.acquire();
         try {
             if (stopped)
                 throw new PersistenceException("RocksDB is stopped");
 
-            db.write(dataWriteOptions(), batch);
+            // the column family handles are valid only while the store is started
+            try (WriteBatch batch = new WriteBatch()) {
+                for (MarshalledEntry entry : entries) {
+                    byte[] keyBytes = marshall(entry.getKey());
+                    batch.put(handle(entry.getKey()), keyBytes, marshall(entry));
+                    long expiry = expiry(entry);
+                    if (expiry >= 0) {
+                        batch.put(expirationHandle, expirationKey(expiry, keyBytes), EMPTY);
+                    }
+                }
+                db.write(dataWriteOptions(), batch);
+            }
         } finally {
             semaphore.release();
         }
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Purges the expired entries in batches. Each batch is read while writes proceed, then the entries are removed
+     * with exclusive access to the database, and only if they were not written meanwhile.
+     */
     @Override
     public void purge(Executor executor, PurgeListener purgeListener) {
+        try {
+            long now = ctx.getTimeService().wallClockTime();
+            int count = 0;
+            byte[] from = null;
+            List<PurgeCandidate> candidates;
+            do {
+                candidates = readPurgeCandidates(from, now);
+                if (!candidates.isEmpty()) {
+                    // the smallest key following the last record read
+                    byte[] last = candidates.get(candidates.size() - 1).expirationKey;
+                    from = Arrays.copyOf(last, last.length + 1);
+                    count += removePurgeCandidates(candidates, purgeListener);
+                }
+            } while (candidates.size() == configuration.maxBatchSize());
+            if (count != 0)
+                log.debugf("purged %d entries", count);
+        } catch (PersistenceException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    private List<PurgeCandidate> readPurgeCandidates(byte[] from, long now) throws IOException, ClassNotFoundException, RocksDBException {
         try {
             semaphore.acquire();
         } catch (InterruptedException e) {
@@ -422,86 +848,70 @@ public void purge(Executor executor, PurgeListener purgeListener) {
             if (stopped) {
                 throw new PersistenceException("RocksDB is stopped");
             }
-            // Drain queue and update expiry tree
-            List<ExpiryEntry> entries = new ArrayList<>();
-            expiryEntryQueue.drainTo(entries);
-            for (ExpiryEntry entry : entries) {
-                final byte[] expiryBytes = marshall(entry.expiry);
-                final byte[] keyBytes = marshall(entry.key);
-                final byte[] existingBytes = expiredDb.get(expiryBytes);
-
-                if (existingBytes != null) {
-                    // in the case of collision make the key a List ...
-                    final Object existing = unmarshall(existingBytes);
-                    if (existing instanceof List) {
-                        ((List<Object>) existing).add(entry.key);
-                        expiredDb.put(expiryBytes, marshall(existing));
-                    } else {
-                        List<Object> al = new ArrayList<>(2);
-                        al.add(existing);
-                        al.add(entry.key);
-                        expiredDb.put(expiryBytes, marshall(al));
-                    }
+            List<PurgeCandidate> candidates = new ArrayList<>();
+            // The expiration keys are ordered by the expiration time, so only the expired ones are read
+            try (RocksIterator it = wrapIterator(db, expirationHandle)) {
+                if (from == null) {
+                    it.seekToFirst();
                 } else {
-                    expiredDb.put(expiryBytes, keyBytes);
+                    it.seek(from);
                 }
-            }
-
-            List<Long> times = new ArrayList<>();
-            List<Object> keys = new ArrayList<>();
-
-            long now = ctx.getTimeService().wallClockTime();
-            Optional<RocksIterator> optionalIterator = wrapIterator(expiredDb);
-            if (optionalIterator.isPresent()) {
-                try (RocksIterator it = optionalIterator.get()) {
-                    for (it.seekToFirst(); it.isValid(); it.next()) {
-                        Long time = (Long) unmarshall(it.key());
-                        if (time > now)
-                            break;
-                        times.add(time);
-                        Object key = unmarshall(it.value());
-                        if (key instanceof List)
-                            keys.addAll((List<?>) key);
-                        else
-                            keys.add(key);
+                for (; it.isValid() && candidates.size() < configuration.maxBatchSize(); it.next()) {
+                    byte[] expirationKey = it.key();
+                    if (expiryFromExpirationKey(expirationKey) > now)
+                        break;
+                    byte[] keyBytes = Arrays.copyOfRange(expirationKey, 8, expirationKey.length);
+                    Object key = unmarshall(keyBytes);
+                    byte[] value = db.get(handle(key), keyBytes);
+                    // the entry could have been removed or overwritten with a different expiration
+                    boolean expired = false;
+                    if (value != null) {
+                        InternalMetadata meta = ((MarshalledEntry) unmarshall(value)).getMetadata();
+                        expired = meta != null && meta.isExpired(now);
                     }
+                    candidates.add(new PurgeCandidate(expirationKey, keyBytes, key, value, expired));
+                }
+            }
+            return candidates;
+        } finally {
+            semaphore.release();
+        }
+    }
 
-                    for (Long time : times) {
-                        expiredDb.delete(marshall(time));
+    private int removePurgeCandidates(List<PurgeCandidate> candidates, PurgeListener purgeListener) throws RocksDBException {
+        List<Object> purged = new ArrayList<>();
+        // no write can change the entries between the check and the delete
+        try {
+            semaphore.acquire(Integer.MAX_VALUE);
+        } catch (InterruptedException e) {
+            throw new PersistenceException("Cannot acquire semaphore: CacheStore is likely stopped.", e);
+        }
+        try {
+            if (stopped) {
+                throw new PersistenceException("RocksDB is stopped");
+            }
+            try (WriteBatch batch = new WriteBatch()) {
+                for (PurgeCandidate candidate : candidates) {
+                    ColumnFamilyHandle handle = handle(candidate.key);
+                    if (!Arrays.equals(db.get(handle, candidate.keyBytes), candidate.value)) {
+                        // written since it was read, its expiration is checked again by the next purge
+                        continue;
                     }
-
-                    if (!keys.isEmpty())
-                        log.debugf("purge (up to) %d entries", keys.size());
-                    int count = 0;
-                    for (Object key : keys) {
-                        byte[] keyBytes = marshall(key);
-
-                        byte[] b = db.get(keyBytes);
-                        if (b == null)
-                            continue;
-                        MarshalledEntry me = (MarshalledEntry) ctx.getMarshaller().objectFromByteBuffer(b);
-                        // TODO race condition: the entry could be updated between the get and delete!
-                        if (me.getMetadata() != null && me.getMetadata().isExpired(now)) {
-                            // somewhat inefficient to FIND then REMOVE...
-                            db.delete(keyBytes);
-                            purgeListener.entryPurged(key);
-                            count++;
-                        }
-
+                    if (candidate.expired) {
+                        batch.delete(handle, candidate.keyBytes);
+                        purged.add(candidate.key);
                     }
-                    if (count != 0)
-                        log.debugf("purged %d entries", count);
-                } catch (Exception e) {
-                    throw new PersistenceException(e);
+                    batch.delete(expirationHandle, candidate.expirationKey);
                 }
+                db.write(dataWriteOptions(), batch);
             }
-        } catch (PersistenceException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new PersistenceException(e);
         } finally {
-            semaphore.release();
+            semaphore.release(Integer.MAX_VALUE);
         }
+        for (Object key : purged) {
+            purgeListener.entryPurged(key);
+        }
+        return purged.size();
     }
 
     private byte[] marshall(Object entry) throws IOException, InterruptedException {
@@ -515,58 +925,51 @@ private Object unmarshall(byte[] bytes) throws IOException, ClassNotFoundExcepti
         return ctx.getMarshaller().objectFromByteBuffer(bytes);
     }
 
-    private void addNewExpiry(MarshalledEntry entry) throws IOException {
-        long expiry = entry.getMetadata().expiryTime();
-        long maxIdle = entry.getMetadata().maxIdle();
+    /**
+     * @return Time when the entry expires, or -1 if it is immortal
+     */
+    private long expiry(MarshalledEntry entry) {
+        InternalMetadata meta = entry.getMetadata();
+        if (meta == null || meta.expiryTime() < 0) {
+            return -1;
+        }
+        long expiry = meta.expiryTime();
+        long maxIdle = meta.maxIdle();
         if (maxIdle > 0) {
             // Coding getExpiryTime() for transient entries has the risk of being a moving target
             // which could lead to unexpected results, hence, InternalCacheEntry calls are required
             expiry = maxIdle + ctx.getTimeService().wallClockTime();
         }
-        Long at = expiry;
-        Object key = entry.getKey();
+        return expiry;
+    }
 
-        try {
-            expiryEntryQueue.put(new ExpiryEntry(at, key));
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt(); // Restore interruption status
-        }
+    /**
+     * The expiration keys are the expiration time in big-endian followed by the marshalled key, so that the bytewise
+     * ordering of the column family sorts them by the expiration time.
+     */
+    private static byte[] expirationKey(long expiry, byte[] keyBytes) {
+        return ByteBuffer.allocate(8 + keyBytes.length).putLong(expiry).put(keyBytes).array();
     }
 
-    private static final class ExpiryEntry {
-        private final Long expiry;
-        private final Object key;
+    private static long expiryFromExpirationKey(byte[] expirationKey) {
+        return ByteBuffer.wrap(expirationKey, 0, 8).getLong();
+    }
 
-        private ExpiryEntry(long expiry, Object key) {
-            this.expiry = expiry;
-            this.key = key;
-        }
+    private static final class PurgeCandidate {
+        final byte[] expirationKey;
+        final byte[] keyBytes;
+        final Object key;
+        // the entry when it was read, or null if it was not present
+        final byte[] value;
+        final boolean expired;
 
-        @Override
-        public int hashCode() {
-            final int prime = 31;
-            int result = 1;
-            result = prime * result + ((key == null) ? 0 : key.hashCode());
-            return result;
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj)
-                return true;
-            if (obj == null)
-                return false;
-            if (getClass() != obj.getClass())
-                return false;
-            ExpiryEntry other = (ExpiryEntry) obj;
-            if (key == null) {
-                if (other.key != null)
-                    return false;
-            } else if (!key.equals(other.key))
-                return false;
-            return true;
+        PurgeCandidate(byte[] expirationKey, byte[] keyBytes, Object key, byte[] value, boolean expired) {
+            this.expirationKey = expirationKey;
+            this.keyBytes = keyBytes;
+            this.key = key;
+            this.value = value;
+            this.expired = expired;
         }
-
     }
 
     private static final class Entry {
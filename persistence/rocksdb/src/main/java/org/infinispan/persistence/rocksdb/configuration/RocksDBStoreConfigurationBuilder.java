@@ -11,6 +11,7 @@
 import static org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration.EXPIRED_LOCATION;
 import static org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration.EXPIRY_QUEUE_SIZE;
 import static org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration.COMPRESSION_TYPE;
+import static org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration.SEGMENTED;
 
 /**
  *
@@ -28,6 +29,11 @@ public RocksDBStoreConfigurationBuilder location(String location) {
       return self();
    }
 
+   /**
+    * @deprecated The expiration times are kept in the data database. The database left at this location by a previous
+    * version is deleted when the store starts, after the expiration of the existing entries is indexed.
+    */
+   @Deprecated
    public RocksDBStoreConfigurationBuilder expiredLocation(String expiredLocation) {
       attributes.attribute(EXPIRED_LOCATION).set(expiredLocation);
       return self();
@@ -43,6 +49,10 @@ public RocksDBStoreConfigurationBuilder cacheSize(long cacheSize) {
       return self();
    }
 
+   /**
+    * @deprecated The expiration times are written together with the entries, there is no queue anymore
+    */
+   @Deprecated
    public RocksDBStoreConfigurationBuilder expiryQueueSize(int expiryQueueSize) {
       attributes.attribute(EXPIRY_QUEUE_SIZE).set(expiryQueueSize);
       return self();
@@ -58,6 +68,15 @@ public RocksDBStoreConfigurationBuilder compressionType(CompressionType compress
       return self();
    }
 
+   /**
+    * If true, the entries of each cache segment are stored in a separate column family, so that operations on whole
+    * segments don't have to scan the entries of other segments.
+    */
+   public RocksDBStoreConfigurationBuilder segmented(boolean segmented) {
+      attributes.attribute(SEGMENTED).set(segmented);
+      return self();
+   }
+
    @Override
    public void validate() {
       // how do you validate required attributes?
@@ -0,0 +1,122 @@
+package org.infinispan.persistence.rocksdb;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.SmallIntSet;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.infinispan.distribution.ch.impl.HashFunctionPartitioner;
+import org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfigurationBuilder;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the RocksDB store tests with each cache segment stored in its own column family, and tests the operations on
+ * segments.
+ *
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "persistence.rocksdb.RocksDBSegmentedStoreTest")
+public class RocksDBSegmentedStoreTest extends RocksDBStoreTest {
+
+   private static final int NUM_ENTRIES = 100;
+
+   @Override
+   protected RocksDBStoreConfigurationBuilder createCacheStoreConfig(PersistenceConfigurationBuilder lcb) {
+      return super.createCacheStoreConfig(lcb).segmented(true);
+   }
+
+   private IntSet evenSegments(int numSegments) {
+      IntSet segments = new SmallIntSet(numSegments);
+      for (int i = 0; i < numSegments; i += 2) {
+         segments.set(i);
+      }
+      return segments;
+   }
+
+   public void testSegmentOperations() {
+      Configuration configuration = TestCacheManagerFactory.getDefaultCacheConfiguration(false).build();
+      HashFunctionPartitioner partitioner = new HashFunctionPartitioner();
+      partitioner.init(configuration.clustering().hash());
+      IntSet segments = evenSegments(configuration.clustering().hash().numSegments());
+      RocksDBStore store = (RocksDBStore) cl;
+
+      int inSegments = 0;
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+         if (segments.contains(partitioner.getSegment("k" + i))) {
+            inSegments++;
+         }
+      }
+      assertEquals(inSegments, store.size(segments));
+
+      Set<Object> keys = ConcurrentHashMap.newKeySet();
+      store.process(segments, null, (entry, taskContext) -> keys.add(entry.getKey()), new WithinThreadExecutor(), false, false);
+      assertEquals(inSegments, keys.size());
+      for (Object key : keys) {
+         assertTrue(segments.contains(partitioner.getSegment(key)));
+      }
+
+      store.clear(segments);
+      assertEquals(0, store.size(segments));
+      assertEquals(NUM_ENTRIES - inSegments, cl.size());
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         if (segments.contains(partitioner.getSegment("k" + i))) {
+            assertNull(cl.load("k" + i));
+         } else {
+            assertEquals("v" + i, unwrap(cl.load("k" + i).getValue()));
+         }
+      }
+   }
+
+   public void testLayoutMigration() {
+      ConfigurationBuilder cb = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      super.createCacheStoreConfig(cb.persistence()).segmented(false);
+      RocksDBStore unsegmented = new RocksDBStore();
+      unsegmented.init(createContext(cb.build()));
+      Configuration configuration = cb.build();
+      HashFunctionPartitioner partitioner = new HashFunctionPartitioner();
+      partitioner.init(configuration.clustering().hash());
+      IntSet segments = evenSegments(configuration.clustering().hash().numSegments());
+
+      // entries written before the store was segmented are moved to the column families of their segments
+      cl.stop();
+      unsegmented.start();
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         unsegmented.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+      unsegmented.stop();
+      cl.start();
+      assertEquals(NUM_ENTRIES, cl.size());
+      ((RocksDBStore) cl).clear(segments);
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         if (segments.contains(partitioner.getSegment("k" + i))) {
+            assertNull(cl.load("k" + i));
+         } else {
+            assertEquals("v" + i, unwrap(cl.load("k" + i).getValue()));
+         }
+      }
+      int remaining = cl.size();
+
+      // and back to the default column family, dropping the segments
+      cl.stop();
+      unsegmented.start();
+      try {
+         assertEquals(remaining, unsegmented.size());
+         for (int i = 0; i < NUM_ENTRIES; i++) {
+            assertEquals(!segments.contains(partitioner.getSegment("k" + i)), unsegmented.contains("k" + i));
+         }
+      } finally {
+         unsegmented.stop();
+         cl.start();
+      }
+   }
+}
@@ -1,8 +1,15 @@
 package org.infinispan.persistence.rocksdb;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -20,6 +27,12 @@
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.infinispan.test.fwk.TestInternalCacheEntryFactory;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.DBOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
 
@@ -52,6 +65,61 @@ protected AdvancedLoadWriteStore createStore() throws Exception {
       return fcs;
    }
 
+   public void testPurgeKeepsOverwrittenEntries() {
+      long lifespan = 1000;
+      cl.write(marshalledEntry(internalCacheEntry("k1", "v1", lifespan)));
+      cl.write(marshalledEntry(internalCacheEntry("k1", "v2", -1)));
+      cl.write(marshalledEntry(internalCacheEntry("k2", "v1", lifespan)));
+      cl.write(marshalledEntry(internalCacheEntry("k2", "v2", lifespan * 10)));
+      cl.write(marshalledEntry(internalCacheEntry("k3", "v1", lifespan)));
+      timeService.advance(lifespan + 1);
+
+      List<Object> purged = new ArrayList<>();
+      cl.purge(new WithinThreadExecutor(), purged::add);
+      assertEquals(purged.size(), 1);
+      assertEquals(purged.get(0), "k3");
+      assertEquals(unwrap(cl.load("k1").getValue()), "v2");
+      assertEquals(unwrap(cl.load("k2").getValue()), "v2");
+
+      // the stale expiration of k2 was removed by the first purge
+      timeService.advance(lifespan * 10);
+      cl.purge(new WithinThreadExecutor(), purged::add);
+      assertEquals(purged.size(), 2);
+      assertEquals(purged.get(1), "k2");
+      assertTrue(cl.contains("k1"));
+   }
+
+   public void testExpirationIndexedOnUpgrade() throws Exception {
+      long lifespan = 1000;
+      cl.write(marshalledEntry(internalCacheEntry("k1", "v1", lifespan)));
+      cl.write(marshalledEntry(internalCacheEntry("k2", "v2", -1)));
+      cl.stop();
+
+      // a previous version had no expiration column family and kept the expiration times in another database
+      String location = tmpDirectory + "/data" + getClass().getSimpleName();
+      List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+      descriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY));
+      descriptors.add(new ColumnFamilyDescriptor("expiration".getBytes(StandardCharsets.UTF_8)));
+      List<ColumnFamilyHandle> handles = new ArrayList<>();
+      try (DBOptions options = new DBOptions(); RocksDB db = RocksDB.open(options, location, descriptors, handles)) {
+         db.dropColumnFamily(handles.get(1));
+         handles.forEach(ColumnFamilyHandle::close);
+      }
+      File expiredLocation = new File(tmpDirectory + "/expiry" + getClass().getSimpleName());
+      try (Options options = new Options().setCreateIfMissing(true);
+           RocksDB db = RocksDB.open(options, expiredLocation.getPath())) {
+         db.put(new byte[]{1}, new byte[]{1});
+      }
+
+      cl.start();
+      assertFalse(expiredLocation.exists());
+      timeService.advance(lifespan + 1);
+      List<Object> purged = new ArrayList<>();
+      cl.purge(new WithinThreadExecutor(), purged::add);
+      assertEquals(purged, Collections.singletonList("k1"));
+      assertEquals(unwrap(cl.load("k2").getValue()), "v2");
+   }
+
    @Test(groups = "stress", timeOut = 15*60*1000)
    public void testConcurrentWriteAndRestart() {
       concurrentWriteAndRestart(true);
@@ -143,28 +143,28 @@ public static void writeEntry(FileChannel fileChannel, byte[] serializedKey, byt
       }
    }
 
-   public static void writeEntry(FileChannel fileChannel, org.infinispan.commons.io.ByteBuffer serializedKey, org.infinispan.commons.io.ByteBuffer serializedMetadata, org.infinispan.commons.io.ByteBuffer serializedValue, long seqId, long expiration) throws IOException {
-      ByteBuffer header = ByteBuffer.allocate(EntryHeader.HEADER_SIZE);
+   /**
+    * Writes the entry into the buffer, which must have at least {@link LogRequest#length()} bytes remaining.
+    */
+   public static void writeEntry(ByteBuffer buffer, org.infinispan.commons.io.ByteBuffer serializedKey, org.infinispan.commons.io.ByteBuffer serializedMetadata, org.infinispan.commons.io.ByteBuffer serializedValue, long seqId, long expiration) {
       if (EntryHeader.useMagic) {
-         header.putInt(EntryHeader.MAGIC);
+         buffer.putInt(EntryHeader.MAGIC);
       }
-      header.putShort((short) serializedKey.getLength());
-      header.putShort(serializedMetadata == null ? (short) 0 : (short) serializedMetadata.getLength());
-      header.putInt(serializedValue == null ? 0 : serializedValue.getLength());
-      header.putLong(seqId);
-      header.putLong(expiration);
-      header.flip();
-      write(fileChannel, header);
-      write(fileChannel, ByteBuffer.wrap(serializedKey.getBuf(), serializedKey.getOffset(), serializedKey.getLength()));
+      buffer.putShort((short) serializedKey.getLength());
+      buffer.putShort(serializedMetadata == null ? (short) 0 : (short) serializedMetadata.getLength());
+      buffer.putInt(serializedValue == null ? 0 : serializedValue.getLength());
+      buffer.putLong(seqId);
+      buffer.putLong(expiration);
+      buffer.put(serializedKey.getBuf(), serializedKey.getOffset(), serializedKey.getLength());
       if (serializedMetadata != null) {
-         write(fileChannel, ByteBuffer.wrap(serializedMetadata.getBuf(), serializedMetadata.getOffset(), serializedMetadata.getLength()));
+         buffer.put(serializedMetadata.getBuf(), serializedMetadata.getOffset(), serializedMetadata.getLength());
       }
       if (serializedValue != null) {
-         write(fileChannel, ByteBuffer.wrap(serializedValue.getBuf(), serializedValue.getOffset(), serializedValue.getLength()));
+         buffer.put(serializedValue.getBuf(), serializedValue.getOffset(), serializedValue.getLength());
       }
    }
 
-   private static void write(FileChannel fileChannel, ByteBuffer buffer) throws IOException {
+   static void write(FileChannel fileChannel, ByteBuffer buffer) throws IOException {
       while (buffer.hasRemaining()) fileChannel.write(buffer);
    }
 }
@@ -7,6 +7,7 @@
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -27,6 +28,11 @@
 /**
  * Provides resource management for files - only limited amount of files may be opened in one moment, and opened file
  * should not be deleted. Also allows to generate file indexes.
+ * <p>
+ * When memory mapped reads are enabled, files that are not log files anymore (and therefore won't be appended to) are
+ * mapped into memory when they are opened, so that reads are served from the page cache without a system call.
+ * The current log files are always read through the file channel. The mapping is released as soon as the file is
+ * closed, which only happens when no handle is reading it.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
@@ -35,6 +41,7 @@ class FileProvider {
 
    private final File dataDir;
    private final int openFileLimit;
+   private final boolean memoryMapped;
    private final ArrayBlockingQueue<Record> recordQueue;
    private final ConcurrentMap<Integer, Record> openFiles = new ConcurrentHashMap<Integer, Record>();
    private final AtomicInteger currentOpenFiles = new AtomicInteger(0);
@@ -45,7 +52,12 @@ class FileProvider {
    private int nextFileId = 0;
 
    public FileProvider(String dataDir, int openFileLimit) {
+      this(dataDir, openFileLimit, false);
+   }
+
+   public FileProvider(String dataDir, int openFileLimit, boolean memoryMapped) {
       this.openFileLimit = openFileLimit;
+      this.memoryMapped = memoryMapped;
       this.recordQueue = new ArrayBlockingQueue<Record>(openFileLimit);
       this.dataDir = new File(dataDir);
       this.dataDir.mkdirs();
@@ -86,6 +98,7 @@ public Handle getFile(int fileId) throws IOException {
                         if (other.isOpen()) {
                            // we have allocated opening a new file but then we use an old one
                            currentOpenFiles.decrementAndGet();
+                           mapIfImmutable(other);
                            return new Handle(other);
                         }
                      }
@@ -96,6 +109,7 @@ public Handle getFile(int fileId) throws IOException {
                         if (!newRecord.isOpen()) {
                            throw new IllegalStateException();
                         }
+                        mapIfImmutable(newRecord);
                         handle = new Handle(newRecord);
                      }
                      try {
@@ -109,6 +123,7 @@ public Handle getFile(int fileId) throws IOException {
             }
             synchronized (record) {
                if (record.isOpen()) {
+                  mapIfImmutable(record);
                   return new Handle(record);
                }
             }
@@ -118,6 +133,20 @@ public Handle getFile(int fileId) throws IOException {
       }
    }
 
+   /**
+    * Maps the file into memory if memory mapped reads are enabled and the file is not a log file anymore. Must be
+    * called with the read lock held (so that the log files don't change) and the record monitor.
+    */
+   private void mapIfImmutable(Record record) throws IOException {
+      if (memoryMapped && record.mappedBuffer == null && !logFiles.contains(record.fileId)) {
+         long size = record.fileChannel.size();
+         // a mapped buffer is limited to 2GB, such large files are read through the channel
+         if (size <= Integer.MAX_VALUE) {
+            record.mappedBuffer = record.fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+         }
+      }
+   }
+
    public long getFileSize(int file) {
       lock.readLock().lock();
       try {
@@ -302,6 +331,19 @@ private Handle(Record record) {
 
       public int read(ByteBuffer buffer, long offset) throws IOException {
          if (!usable) throw new IllegalStateException();
+         MappedByteBuffer mappedBuffer = record.mappedBuffer;
+         if (mappedBuffer != null) {
+            if (offset >= mappedBuffer.capacity()) {
+               return -1;
+            }
+            // duplicate the buffer, as the position and limit are not thread safe
+            ByteBuffer source = mappedBuffer.duplicate();
+            source.position((int) offset);
+            int length = Math.min(buffer.remaining(), source.remaining());
+            source.limit(source.position() + length);
+            buffer.put(source);
+            return length;
+         }
          return record.getFileChannel().read(buffer, offset);
       }
 
@@ -325,6 +367,8 @@ public int getFileId() {
    private class Record {
       private final int fileId;
       private FileChannel fileChannel;
+      // Read-only mapping of the whole file, only set once the file is not a log file anymore
+      private volatile MappedByteBuffer mappedBuffer;
       private int handleCount;
       private boolean deleteOnClose = false;
 
@@ -348,6 +392,7 @@ void decreaseHandleCount() throws IOException {
             // but physically close and delete the file
             fileChannel.close();
             fileChannel = null;
+            unmap();
             openFiles.remove(fileId, this);
             delete();
          }
@@ -368,11 +413,23 @@ public int getFileId() {
       public void close() throws IOException {
          fileChannel.close();
          fileChannel = null;
+         unmap();
          if (deleteOnClose) {
             delete();
          }
       }
 
+      /**
+       * Releases the memory mapping, must be called only when there are no handles reading the file.
+       */
+      private void unmap() {
+         MappedByteBuffer buffer = mappedBuffer;
+         if (buffer != null) {
+            mappedBuffer = null;
+            MappedBuffers.unmap(buffer);
+         }
+      }
+
       public void delete() {
          log.debug("Deleting file " + fileId);
          new File(dataDir, String.valueOf(fileId)).delete();
@@ -383,6 +440,7 @@ public void deleteOnClose() throws IOException {
             if (fileChannel != null) {
                fileChannel.close();
                fileChannel = null;
+               unmap();
             }
             openFiles.remove(fileId, this);
             delete();
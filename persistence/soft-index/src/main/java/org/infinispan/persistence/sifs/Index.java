@@ -6,6 +6,7 @@
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -16,34 +17,39 @@
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.infinispan.commons.util.IntSet;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
 /**
  * Keeps the entry positions persisted in a file. It consists of couple of segments, each for one modulo-range
- * of key's hashcodes (according to DataContainer's key equivalence configuration) - writes to each index segment
- * are performed by single thread, having multiple segments spreads the load between them.
+ * of cache segments (according to the cache's key partitioner) - writes to each index segment
+ * are performed by single thread, having multiple segments spreads the load between them. As all keys from one cache
+ * segment belong to the same index segment, operations limited to some cache segments need to touch only the index
+ * segments that own them.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
 class Index {
    private static final Log log = LogFactory.getLog(Index.class);
    private static final boolean trace = log.isTraceEnabled();
-   private static final int GRACEFULLY = 0x512ACEF0;
+   private static final int GRACEFULLY = 0x512ACEF1;
    private static final int DIRTY = 0xD112770C;
-   protected static final int INDEX_FILE_HEADER_SIZE = 30;
+   protected static final int INDEX_FILE_HEADER_SIZE = 38;
 
    private final String indexDir;
    private final FileProvider fileProvider;
    private final Compactor compactor;
    private final int minNodeSize;
    private final int maxNodeSize;
+   private final int cacheSegments;
+   private final IndexQueue indexQueue;
    private final ReadWriteLock lock = new ReentrantReadWriteLock();
    private final Segment[] segments;
    private final TimeService timeService;
 
-   public Index(FileProvider fileProvider, String indexDir, int segments, int minNodeSize, int maxNodeSize,
+   public Index(FileProvider fileProvider, String indexDir, int segments, int cacheSegments, int minNodeSize, int maxNodeSize,
                 IndexQueue indexQueue, TemporaryTable temporaryTable, Compactor compactor,
                 TimeService timeService) throws IOException {
       this.fileProvider = fileProvider;
@@ -52,6 +58,8 @@ public Index(FileProvider fileProvider, String indexDir, int segments, int minNo
       this.indexDir = indexDir;
       this.minNodeSize = minNodeSize;
       this.maxNodeSize = maxNodeSize;
+      this.cacheSegments = cacheSegments;
+      this.indexQueue = indexQueue;
       new File(indexDir).mkdirs();
 
       this.segments = new Segment[segments];
@@ -85,7 +93,7 @@ public void start() {
     * @throws IOException
     */
    public EntryRecord getRecord(Object key, byte[] serializedKey) throws IOException {
-      int segment = (key.hashCode() & Integer.MAX_VALUE) % segments.length;
+      int segment = indexQueue.indexSegment(key);
       lock.readLock().lock();
       try {
          return IndexNode.applyOnLeaf(segments[segment], serializedKey, segments[segment].rootReadLock(), IndexNode.ReadOperation.GET_RECORD);
@@ -103,7 +111,7 @@ public EntryRecord getRecord(Object key, byte[] serializedKey) throws IOExceptio
     * @throws IOException
     */
    public EntryPosition getPosition(Object key, byte[] serializedKey) throws IOException {
-      int segment = (key.hashCode() & Integer.MAX_VALUE) % segments.length;
+      int segment = indexQueue.indexSegment(key);
       lock.readLock().lock();
       try {
          return IndexNode.applyOnLeaf(segments[segment], serializedKey, segments[segment].rootReadLock(), IndexNode.ReadOperation.GET_POSITION);
@@ -121,7 +129,7 @@ public EntryPosition getPosition(Object key, byte[] serializedKey) throws IOExce
     * @throws IOException
     */
    public EntryInfo getInfo(Object key, byte[] serializedKey) throws IOException {
-      int segment = (key.hashCode() & Integer.MAX_VALUE) % segments.length;
+      int segment = indexQueue.indexSegment(key);
       lock.readLock().lock();
       try {
          return IndexNode.applyOnLeaf(segments[segment], serializedKey, segments[segment].rootReadLock(), IndexNode.ReadOperation.GET_INFO);
@@ -161,6 +169,23 @@ public long size() throws InterruptedException {
       return size;
    }
 
+   /**
+    * @return Number of entries in given cache segments; only the index segments owning them are queried.
+    */
+   public long size(IntSet cacheSegments) throws InterruptedException {
+      boolean[] owners = new boolean[segments.length];
+      for (int cacheSegment : cacheSegments) {
+         owners[indexQueue.indexSegment(cacheSegment)] = true;
+      }
+      long size = 0;
+      for (int i = 0; i < segments.length; ++i) {
+         if (owners[i]) {
+            size += segments[i].size(cacheSegments);
+         }
+      }
+      return size;
+   }
+
    class Segment extends Thread {
       private final BlockingQueue<IndexRequest> indexQueue;
       private final TemporaryTable temporaryTable;
@@ -171,6 +196,9 @@ class Segment extends Thread {
       private FileChannel indexFile;
       private long indexFileSize = 0;
       private AtomicLong size = new AtomicLong();
+      // number of entries per cache segment, accessed only from the updater thread
+      private final long[] segmentSizes = new long[cacheSegments];
+      private final int id;
 
       private volatile IndexNode root;
 
@@ -178,6 +206,7 @@ class Segment extends Thread {
       private Segment(int id, BlockingQueue<IndexRequest> indexQueue, TemporaryTable temporaryTable) throws IOException {
          super("BCS-IndexUpdater-" + id);
          this.setDaemon(true);
+         this.id = id;
          this.indexQueue = indexQueue;
          this.temporaryTable = temporaryTable;
 
@@ -185,13 +214,15 @@ private Segment(int id, BlockingQueue<IndexRequest> indexQueue, TemporaryTable t
          this.indexFile = new RandomAccessFile(indexFileFile, "rw").getChannel();
          indexFile.position(0);
          ByteBuffer buffer = ByteBuffer.allocate(INDEX_FILE_HEADER_SIZE);
-         if (indexFile.size() >= INDEX_FILE_HEADER_SIZE && read(indexFile, buffer) && buffer.getInt(0) == GRACEFULLY) {
+         if (indexFile.size() >= INDEX_FILE_HEADER_SIZE && read(indexFile, buffer) && buffer.getInt(0) == GRACEFULLY
+               && buffer.getInt(30) == segments.length && buffer.getInt(34) == cacheSegments) {
             long rootOffset = buffer.getLong(4);
             short rootOccupied = buffer.getShort(12);
             long freeBlocksOffset = buffer.getLong(14);
             size.set(buffer.getLong(22));
             root = new IndexNode(this, rootOffset, rootOccupied);
             loadFreeBlocks(freeBlocksOffset);
+            loadSegmentSizes();
             indexFileSize = freeBlocksOffset;
             loaded = true;
          } else {
@@ -237,6 +268,7 @@ public void run() {
                }
                final IndexRequest request = indexQueue.take();
                if (trace) log.trace("Indexing " + request);
+               final int cacheSegment = request.getKey() == null ? -1 : Index.this.indexQueue.cacheSegment(request.getKey());
                IndexNode.OverwriteHook overwriteHook;
                IndexNode.RecordChange recordChange;
                switch (request.getType()) {
@@ -262,7 +294,7 @@ public void run() {
                      shutdown();
                      return;
                   case GET_SIZE :
-                     request.setResult(size.get());
+                     request.setResult(request.getSegments() == null ? size.get() : segmentsSize(request.getSegments()));
                      continue;
                   case MOVED:
                      recordChange = IndexNode.RecordChange.MOVE;
@@ -275,7 +307,7 @@ public boolean check(int oldFile, int oldOffset) {
                         @Override
                         public void setOverwritten(boolean overwritten, int prevFile, int prevOffset) {
                            if (overwritten && request.getOffset() < 0 && request.getPrevOffset() >= 0) {
-                              size.decrementAndGet();
+                              decrementSize(cacheSegment);
                            }
                         }
                      };
@@ -287,9 +319,9 @@ public void setOverwritten(boolean overwritten, int prevFile, int prevOffset) {
                         public void setOverwritten(boolean overwritten, int prevFile, int prevOffset) {
                            request.setResult(overwritten);
                            if (request.getOffset() >= 0 && prevOffset < 0) {
-                              size.incrementAndGet();
+                              incrementSize(cacheSegment);
                            } else if (request.getOffset() < 0 && prevOffset >= 0) {
-                              size.decrementAndGet();
+                              decrementSize(cacheSegment);
                            }
                         }
                      };
@@ -300,7 +332,7 @@ public void setOverwritten(boolean overwritten, int prevFile, int prevOffset) {
                         @Override
                         public void setOverwritten(boolean overwritten, int prevFile, int prevOffset) {
                            if (request.getPrevFile() == prevFile && request.getPrevOffset() == prevOffset) {
-                              size.decrementAndGet();
+                              decrementSize(cacheSegment);
                            }
                         }
                      };
@@ -335,6 +367,26 @@ public void setOverwritten(boolean overwritten, int prevFile, int prevOffset) {
          }
       }
 
+      private void incrementSize(int cacheSegment) {
+         size.incrementAndGet();
+         segmentSizes[cacheSegment]++;
+      }
+
+      private void decrementSize(int cacheSegment) {
+         size.decrementAndGet();
+         segmentSizes[cacheSegment]--;
+      }
+
+      private long segmentsSize(IntSet cacheSegments) {
+         long size = 0;
+         for (int cacheSegment : cacheSegments) {
+            if (Index.this.indexQueue.indexSegment(cacheSegment) == id) {
+               size += segmentSizes[cacheSegment];
+            }
+         }
+         return size;
+      }
+
       private void shutdown() throws IOException {
          IndexSpace rootSpace = allocateIndexSpace(root.length());
          root.store(rootSpace);
@@ -357,6 +409,17 @@ private void shutdown() throws IOException {
             buffer.flip();
             write(indexFile, buffer);
          }
+         // sizes of the cache segments owned by this index segment, in order
+         int ownedSegments = (cacheSegments - id + segments.length - 1) / segments.length;
+         int requiredSize = 8 * ownedSegments;
+         buffer = buffer.capacity() < requiredSize ? ByteBuffer.allocate(requiredSize) : buffer;
+         buffer.position(0);
+         buffer.limit(requiredSize);
+         for (int cacheSegment = id; cacheSegment < cacheSegments; cacheSegment += segments.length) {
+            buffer.putLong(segmentSizes[cacheSegment]);
+         }
+         buffer.flip();
+         write(indexFile, buffer);
          int headerWithoutMagic = INDEX_FILE_HEADER_SIZE - 4;
          buffer = buffer.capacity() < headerWithoutMagic ? ByteBuffer.allocate(headerWithoutMagic) : buffer;
          buffer.position(0);
@@ -366,6 +429,8 @@ private void shutdown() throws IOException {
          buffer.putShort(8, (short) rootSpace.length);
          buffer.putLong(10, indexFileSize);
          buffer.putLong(18, size.get());
+         buffer.putInt(26, segments.length);
+         buffer.putInt(30, cacheSegments);
          indexFile.position(4);
          write(indexFile, buffer);
          buffer.position(0);
@@ -407,6 +472,19 @@ private void loadFreeBlocks(long freeBlocksOffset) throws IOException {
          }
       }
 
+      // this must be called right after loadFreeBlocks, as the sizes are stored after the free blocks lists
+      private void loadSegmentSizes() throws IOException {
+         int ownedSegments = (cacheSegments - id + segments.length - 1) / segments.length;
+         ByteBuffer buffer = ByteBuffer.allocate(8 * ownedSegments);
+         if (!read(indexFile, buffer)) {
+            throw new IOException("Cannot read segment sizes!");
+         }
+         buffer.flip();
+         for (int cacheSegment = id; cacheSegment < cacheSegments; cacheSegment += segments.length) {
+            segmentSizes[cacheSegment] = buffer.getLong();
+         }
+      }
+
       public CountDownLatch pauseAndClear() throws InterruptedException, IOException {
          IndexRequest clear = IndexRequest.clearRequest();
          indexQueue.put(clear);
@@ -416,6 +494,7 @@ public CountDownLatch pauseAndClear() throws InterruptedException, IOException {
          indexFileSize = INDEX_FILE_HEADER_SIZE;
          freeBlocks.clear();
          size.set(0);
+         Arrays.fill(segmentSizes, 0);
          return pause;
       }
 
@@ -425,6 +504,12 @@ public long size() throws InterruptedException {
          return (Long) sizeRequest.getResult();
       }
 
+      public long size(IntSet cacheSegments) throws InterruptedException {
+         IndexRequest sizeRequest = IndexRequest.sizeRequest(cacheSegments);
+         indexQueue.put(sizeRequest);
+         return (Long) sizeRequest.getResult();
+      }
+
       public FileChannel getIndexFile() {
          return indexFile;
       }
@@ -7,8 +7,11 @@
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 
+import org.infinispan.distribution.ch.KeyPartitioner;
+
 /**
- * Splits the requests into several subqueues according to request.key.hashCode(). If the request has no key,
+ * Splits the requests into several subqueues according to the cache segment of request.key, so that all keys from one
+ * cache segment are handled by the same subqueue (and index segment). If the request has no key,
  * inserts countdown into the request and puts it into all subqueues - the thread that retrieves such element
  * should call countDown() and upon true handle the request (this preserves the FIFO ordering).
  *
@@ -17,8 +20,10 @@
 public class IndexQueue extends AbstractQueue<IndexRequest> implements BlockingQueue<IndexRequest> {
 
    private final ArrayBlockingQueue[] queues;
+   private final KeyPartitioner keyPartitioner;
 
-   public IndexQueue(int segments, int capacity) {
+   public IndexQueue(int segments, int capacity, KeyPartitioner keyPartitioner) {
+      this.keyPartitioner = keyPartitioner;
       queues = new ArrayBlockingQueue[segments];
       for (int i = 0; i < segments; ++i) {
          queues[i] = new ArrayBlockingQueue(capacity);
@@ -38,7 +43,7 @@ public int size() {
    @Override
    public void put(IndexRequest indexRequest) throws InterruptedException {
       if (indexRequest.getKey() != null) {
-         queues[(indexRequest.getKey().hashCode() & Integer.MAX_VALUE) % queues.length].put(indexRequest);
+         queues[indexSegment(indexRequest.getKey())].put(indexRequest);
       } else {
          indexRequest.setCountDown(queues.length);
          for (int i = 0; i < queues.length; ++i) {
@@ -50,7 +55,7 @@ public void put(IndexRequest indexRequest) throws InterruptedException {
    @Override
    public boolean offer(IndexRequest indexRequest, long timeout, TimeUnit unit) throws InterruptedException {
       if (indexRequest.getKey() != null) {
-         return queues[(indexRequest.getKey().hashCode() & Integer.MAX_VALUE) % queues.length].offer(indexRequest, timeout, unit);
+         return queues[indexSegment(indexRequest.getKey())].offer(indexRequest, timeout, unit);
       } else {
          throw new UnsupportedOperationException();
       }
@@ -83,7 +88,7 @@ public int drainTo(Collection<? super IndexRequest> c, int maxElements) {
 
    @Override
    public boolean offer(IndexRequest indexRequest) {
-      return queues[(indexRequest.getKey().hashCode() & Integer.MAX_VALUE) % queues.length].offer(indexRequest);
+      return queues[indexSegment(indexRequest.getKey())].offer(indexRequest);
    }
 
    @Override
@@ -96,6 +101,27 @@ public IndexRequest peek() {
       throw new UnsupportedOperationException();
    }
 
+   /**
+    * @return The cache segment of the key
+    */
+   public int cacheSegment(Object key) {
+      return keyPartitioner.getSegment(key);
+   }
+
+   /**
+    * @return The index segment that owns given cache segment
+    */
+   public int indexSegment(int cacheSegment) {
+      return cacheSegment % queues.length;
+   }
+
+   /**
+    * @return The index segment that owns the key
+    */
+   public int indexSegment(Object key) {
+      return indexSegment(cacheSegment(key));
+   }
+
    public BlockingQueue<IndexRequest> subQueue(int id) {
       return queues[id];
    }
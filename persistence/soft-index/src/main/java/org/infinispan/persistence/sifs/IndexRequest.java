@@ -2,6 +2,7 @@
 
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.Util;
 
 /**
@@ -32,6 +33,8 @@ public enum Type {
    private final int size;
    private volatile Object result;
    private AtomicInteger countDown;
+   // cache segments for GET_SIZE; null means all
+   private IntSet segments;
 
    private IndexRequest(Type type, Object key, byte[] serializedKey, int file, int offset, int size, int prevFile, int prevOffset) {
       this.type = type;
@@ -76,6 +79,12 @@ public static IndexRequest sizeRequest() {
       return new IndexRequest(Type.GET_SIZE, null, null, -1, -1, -1, -1, -1);
    }
 
+   public static IndexRequest sizeRequest(IntSet segments) {
+      IndexRequest request = new IndexRequest(Type.GET_SIZE, null, null, -1, -1, -1, -1, -1);
+      request.segments = segments;
+      return request;
+   }
+
    public Type getType() {
       return type;
    }
@@ -92,6 +101,10 @@ public int getPrevOffset() {
       return prevOffset;
    }
 
+   public IntSet getSegments() {
+      return segments;
+   }
+
    public byte[] getSerializedKey() {
       return serializedKey;
    }
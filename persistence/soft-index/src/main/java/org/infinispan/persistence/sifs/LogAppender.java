@@ -1,6 +1,10 @@
 package org.infinispan.persistence.sifs;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.util.logging.Log;
@@ -10,11 +14,17 @@
  * This component has the only thread that polls the queue with requests to write some entry into the cache store.
  * It writes the records to append-only log files, inserts the entry position into TemporaryTable and queues the position
  * to be persisted in Index.
+ * <p>
+ * All the requests popped from the queue before the producers are notified are written with a single write of a
+ * buffer, and with sync writes they are also forced to the disk together. When a group commit window is configured,
+ * the thread waits up to that long after the first request of the group for more requests to arrive before flushing,
+ * trading a bit of latency for fewer fsyncs.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
 public class LogAppender extends Thread {
    private static final Log log = LogFactory.getLog(LogAppender.class);
+   private static final int MIN_BUFFER_SIZE = 64 * 1024;
 
    private final SyncProcessingQueue<LogRequest> queue;
    private final BlockingQueue<IndexRequest> indexQueue;
@@ -23,6 +33,11 @@ public class LogAppender extends Thread {
    private final int maxFileSize;
    private final Compactor compactor;
    private final FileProvider fileProvider;
+   private final long groupCommitWindowNanos;
+   // records written into the buffer but not yet to the log file, and their offsets in the file
+   private final List<LogRequest> bufferedRequests = new ArrayList<>();
+   private final List<Integer> bufferedOffsets = new ArrayList<>();
+   private java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(MIN_BUFFER_SIZE);
    private LogRequest pausedRequest;
    private long seqId = 0;
 
@@ -30,7 +45,7 @@ public class LogAppender extends Thread {
                BlockingQueue<IndexRequest> indexQueue,
                TemporaryTable temporaryTable,
                Compactor compactor,
-               FileProvider fileProvider, boolean syncWrites, int maxFileSize) {
+               FileProvider fileProvider, boolean syncWrites, int maxFileSize, long groupCommitWindow) {
       super("BCS-LogAppender");
       this.setDaemon(true);
       this.queue = inboundQueue;
@@ -40,6 +55,7 @@ public class LogAppender extends Thread {
       this.fileProvider = fileProvider;
       this.syncWrites = syncWrites;
       this.maxFileSize = maxFileSize;
+      this.groupCommitWindowNanos = syncWrites ? TimeUnit.MILLISECONDS.toNanos(groupCommitWindow) : 0;
       start();
    }
 
@@ -69,46 +85,67 @@ public void run() {
       try {
          FileProvider.Log logFile = fileProvider.getFileForLog();
          int currentOffset = 0;
+         // time when the first request not yet notified to the producers was popped
+         long groupStart = 0;
          while (true) {
             LogRequest request = queue.pop();
             if (request != null) {
                if (request.isClear()) {
+                  flush(logFile);
                   logFile.close();
                   queue.notifyNoWait();
+                  groupStart = 0;
                   request.pause();
                   currentOffset = 0;
                   logFile = fileProvider.getFileForLog();
                   log.debug("Appending records to " + logFile.fileId);
                   continue;
                } else if (request.isStop()) {
+                  sync(logFile);
                   queue.notifyNoWait();
                   break;
                } else if (request.isPause()) {
+                  flush(logFile);
                   queue.notifyNoWait();
+                  groupStart = 0;
                   request.pause();
                   continue;
                }
+               if (groupStart == 0) {
+                  groupStart = System.nanoTime();
+               }
                if (currentOffset + request.length() > maxFileSize) {
-                  // switch to next file
+                  // switch to next file, the records in the old file must be durable before it is closed
+                  sync(logFile);
                   logFile.close();
                   compactor.completeFile(logFile.fileId);
                   currentOffset = 0;
                   logFile = fileProvider.getFileForLog();
                   log.debug("Appending records to " + logFile.fileId);
                }
+               if (buffer.remaining() < request.length()) {
+                  flush(logFile);
+                  if (buffer.capacity() < request.length()) {
+                     buffer = java.nio.ByteBuffer.allocate(request.length());
+                  }
+               }
                long seqId = nextSeqId();
-               EntryRecord.writeEntry(logFile.fileChannel, request.getSerializedKey(), request.getSerializedMetadata(), request.getSerializedValue(), seqId, request.getExpiration());
-               int offset = request.getSerializedValue() == null ? ~currentOffset : currentOffset;
-               temporaryTable.set(request.getKey(), logFile.fileId, offset);
-               IndexRequest indexRequest = IndexRequest.update(request.getKey(), raw(request.getSerializedKey()),
-                     logFile.fileId, offset, request.length());
-               request.setIndexRequest(indexRequest);
-               indexQueue.put(indexRequest);
+               EntryRecord.writeEntry(buffer, request.getSerializedKey(), request.getSerializedMetadata(), request.getSerializedValue(), seqId, request.getExpiration());
+               bufferedRequests.add(request);
+               bufferedOffsets.add(currentOffset);
                currentOffset += request.length();
             } else {
-               if (syncWrites) {
-                  logFile.fileChannel.force(false);
+               // an interrupted appender does not wait for the group, it would only spin until the window elapses
+               if (groupStart != 0 && groupCommitWindowNanos > 0 && !Thread.currentThread().isInterrupted()) {
+                  long remaining = groupStart + groupCommitWindowNanos - System.nanoTime();
+                  if (remaining > 0) {
+                     // wait for more requests to join the group
+                     queue.waitForElement(remaining);
+                     continue;
+                  }
                }
+               sync(logFile);
+               groupStart = 0;
                queue.notifyAndWait();
             }
          }
@@ -118,6 +155,41 @@ public void run() {
       }
    }
 
+   /**
+    * Writes the buffered records into the log file and makes them visible to readers through the temporary table and
+    * the index.
+    */
+   private void flush(FileProvider.Log logFile) throws IOException, InterruptedException {
+      if (bufferedRequests.isEmpty()) {
+         return;
+      }
+      buffer.flip();
+      EntryRecord.write(logFile.fileChannel, buffer);
+      buffer.clear();
+      for (int i = 0; i < bufferedRequests.size(); ++i) {
+         LogRequest request = bufferedRequests.get(i);
+         int currentOffset = bufferedOffsets.get(i);
+         int offset = request.getSerializedValue() == null ? ~currentOffset : currentOffset;
+         temporaryTable.set(request.getKey(), logFile.fileId, offset);
+         IndexRequest indexRequest = IndexRequest.update(request.getKey(), raw(request.getSerializedKey()),
+               logFile.fileId, offset, request.length());
+         request.setIndexRequest(indexRequest);
+         indexQueue.put(indexRequest);
+      }
+      bufferedRequests.clear();
+      bufferedOffsets.clear();
+   }
+
+   /**
+    * Flushes the buffered records and with sync writes forces them to the disk.
+    */
+   private void sync(FileProvider.Log logFile) throws IOException, InterruptedException {
+      flush(logFile);
+      if (syncWrites) {
+         logFile.fileChannel.force(false);
+      }
+   }
+
    private byte[] raw(ByteBuffer buffer) {
       if (buffer.getBuf().length == buffer.getLength()) {
          return buffer.getBuf();
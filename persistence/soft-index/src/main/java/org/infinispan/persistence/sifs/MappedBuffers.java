@@ -0,0 +1,77 @@
+package org.infinispan.persistence.sifs;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Releases memory mappings without waiting for the garbage collector to collect the buffer, which could otherwise keep
+ * the address space and the file of a deleted data file around indefinitely. JDK 9+ exposes
+ * {@code sun.misc.Unsafe.invokeCleaner}, JDK 8 requires calling the buffer's cleaner directly; when neither is
+ * accessible the mapping is left to the garbage collector.
+ */
+final class MappedBuffers {
+   private static final org.infinispan.util.logging.Log log = LogFactory.getLog(MappedBuffers.class);
+
+   private static final Object UNSAFE;
+   private static final Method INVOKE_CLEANER;
+   private static final Method CLEANER;
+   private static final Method CLEAN;
+
+   static {
+      Object unsafe = null;
+      Method invokeCleaner = null;
+      Method cleaner = null;
+      Method clean = null;
+      try {
+         Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+         invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+         Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+         theUnsafe.setAccessible(true);
+         unsafe = theUnsafe.get(null);
+      } catch (Exception e) {
+         invokeCleaner = null;
+         try {
+            cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+         } catch (Exception e2) {
+            log.debug("Memory mappings cannot be released explicitly, they are released by the garbage collector", e2);
+            cleaner = null;
+            clean = null;
+         }
+      }
+      UNSAFE = unsafe;
+      INVOKE_CLEANER = invokeCleaner;
+      CLEANER = cleaner;
+      CLEAN = clean;
+   }
+
+   private MappedBuffers() {
+   }
+
+   /**
+    * Unmaps the buffer. It must not be accessed afterwards, including through its duplicates.
+    *
+    * @return {@code true} if the mapping was released, {@code false} if it is left to the garbage collector
+    */
+   static boolean unmap(MappedByteBuffer buffer) {
+      try {
+         if (INVOKE_CLEANER != null) {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            return true;
+         } else if (CLEANER != null) {
+            Object cleaner = CLEANER.invoke(buffer);
+            if (cleaner != null) {
+               CLEAN.invoke(cleaner);
+               return true;
+            }
+         }
+      } catch (Exception e) {
+         log.debug("Cannot release the memory mapping", e);
+      }
+      return false;
+   }
+}
@@ -10,6 +10,10 @@
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.persistence.Store;
 import org.infinispan.commons.util.CloseableIterator;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.configuration.cache.HashConfiguration;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.distribution.ch.impl.HashFunctionPartitioner;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryFactory;
@@ -66,7 +70,9 @@
  *
  * As IndexUpdater may easily become a bottleneck under heavy load, the IndexUpdater thread,
  * UpdateQueue and tree of IndexNodes may be multiplied several times - the Index is divided
- * into Segments. Each segment owns keys according to the hashCode() of the key.
+ * into Segments. Each segment owns keys according to the cache segment of the key (cache segment
+ * modulo number of index segments), so that all entries of a cache segment are kept in one
+ * index segment.
  *
  * Amount of entries in IndexNode is limited by the size it occupies on disk. This size is
  * limited by configurable nodeSize (4096 bytes by default?), only in case that the node
@@ -118,6 +124,8 @@ public class SoftIndexFileStore implements AdvancedLoadWriteStore {
    private MarshalledEntryFactory marshalledEntryFactory;
    private TimeService timeService;
    private int maxKeyLength;
+   private KeyPartitioner keyPartitioner;
+   private int cacheSegments;
 
    @Override
    public void init(InitializationContext ctx) {
@@ -127,6 +135,14 @@ public void init(InitializationContext ctx) {
       byteBufferFactory = ctx.getByteBufferFactory();
       timeService = ctx.getTimeService();
       maxKeyLength = configuration.maxNodeSize() - IndexNode.RESERVED_SPACE;
+      HashConfiguration hashConfiguration = ctx.getCache().getCacheConfiguration().clustering().hash();
+      cacheSegments = hashConfiguration.numSegments();
+      keyPartitioner = ctx.getCache().getAdvancedCache().getComponentRegistry().getComponent(KeyPartitioner.class);
+      if (keyPartitioner == null) {
+         HashFunctionPartitioner partitioner = new HashFunctionPartitioner();
+         partitioner.init(hashConfiguration);
+         keyPartitioner = partitioner;
+      }
    }
 
    @Override
@@ -135,14 +151,16 @@ public void start() {
          throw new IllegalStateException("This store is already started!");
       }
       started = true;
-      temporaryTable = new TemporaryTable(configuration.indexQueueLength() * configuration.indexSegments());
+      // more index segments than cache segments would stay empty
+      int indexSegments = Math.min(configuration.indexSegments(), cacheSegments);
+      temporaryTable = new TemporaryTable(configuration.indexQueueLength() * indexSegments);
       storeQueue = new SyncProcessingQueue<>();
-      indexQueue = new IndexQueue(configuration.indexSegments(), configuration.indexQueueLength());
-      fileProvider = new FileProvider(configuration.dataLocation(), configuration.openFilesLimit());
+      indexQueue = new IndexQueue(indexSegments, configuration.indexQueueLength(), keyPartitioner);
+      fileProvider = new FileProvider(configuration.dataLocation(), configuration.openFilesLimit(), configuration.memoryMappedReads());
       compactor = new Compactor(fileProvider, temporaryTable, indexQueue, marshaller, timeService, configuration.maxFileSize(), configuration.compactionThreshold());
-      logAppender = new LogAppender(storeQueue, indexQueue, temporaryTable, compactor, fileProvider, configuration.syncWrites(), configuration.maxFileSize());
+      logAppender = new LogAppender(storeQueue, indexQueue, temporaryTable, compactor, fileProvider, configuration.syncWrites(), configuration.maxFileSize(), configuration.groupCommitWindow());
       try {
-         index = new Index(fileProvider, configuration.indexLocation(), configuration.indexSegments(),
+         index = new Index(fileProvider, configuration.indexLocation(), indexSegments, cacheSegments,
                configuration.minNodeSize(), configuration.maxNodeSize(),
                indexQueue, temporaryTable, compactor, timeService);
       } catch (IOException e) {
@@ -285,6 +303,26 @@ public synchronized int size() {
       }
    }
 
+   /**
+    * Counts the entries in given cache segments. Only the index segments owning these cache segments are queried.
+    *
+    * @param segments Cache segments, according to the cache's key partitioner
+    * @return Number of entries in the segments
+    */
+   public synchronized int size(IntSet segments) {
+      try {
+         logAppender.pause();
+         long size = index.size(segments);
+         return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+      } catch (InterruptedException e) {
+         log.error("Interrupted", e);
+         Thread.currentThread().interrupt();
+         return -1;
+      } finally {
+         logAppender.resumeAfterPause();
+      }
+   }
+
    @Override
    public void purge(Executor threadPool, PurgeListener listener) {
       log.trace("Purge method not supported, ignoring.");
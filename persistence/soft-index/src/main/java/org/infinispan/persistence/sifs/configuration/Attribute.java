@@ -12,11 +12,13 @@ public enum Attribute {
    // must be first
    UNKNOWN(null),
    COMPACTION_THRESHOLD("compaction-threshold"),
+   GROUP_COMMIT_WINDOW("group-commit-window"),
    PATH("path"),
    INDEX_QUEUE_LENGTH("max-queue-length"),
    SEGMENTS("segments"),
    MAX_FILE_SIZE("max-file-size"),
    MAX_NODE_SIZE("max-node-size"),
+   MEMORY_MAPPED_READS("memory-mapped-reads"),
    MIN_NODE_SIZE("min-node-size"),
    OPEN_FILES_LIMIT("open-files-limit"),
    SYNC_WRITES("sync-writes")
@@ -2,11 +2,13 @@
 
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.COMPACTION_THRESHOLD;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.DATA_LOCATION;
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.GROUP_COMMIT_WINDOW;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.INDEX_LOCATION;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.INDEX_QUEUE_LENGTH;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.INDEX_SEGMENTS;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MAX_FILE_SIZE;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MAX_NODE_SIZE;
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MEMORY_MAPPED_READS;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MIN_NODE_SIZE;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.OPEN_FILES_LIMIT;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.SYNC_WRITES;
@@ -14,11 +16,14 @@
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.configuration.cache.AbstractStoreConfigurationBuilder;
 import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
 
 /**
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
 public class SoftIndexFileStoreConfigurationBuilder extends AbstractStoreConfigurationBuilder<SoftIndexFileStoreConfiguration, SoftIndexFileStoreConfigurationBuilder> {
+   private static final Log log = LogFactory.getLog(SoftIndexFileStoreConfigurationBuilder.class, Log.class);
 
    public SoftIndexFileStoreConfigurationBuilder(PersistenceConfigurationBuilder builder) {
       super(builder, SoftIndexFileStoreConfiguration.attributeDefinitionSet());
@@ -63,6 +68,25 @@ public SoftIndexFileStoreConfigurationBuilder syncWrites(boolean syncWrites) {
       return this;
    }
 
+   /**
+    * With sync writes, the maximum time in milliseconds a write waits for other writes to be appended and fsynced
+    * together with it. Larger windows mean fewer fsyncs under concurrent load at the cost of latency. When 0, the
+    * writes are fsynced as soon as there are no more writes queued.
+    */
+   public SoftIndexFileStoreConfigurationBuilder groupCommitWindow(long groupCommitWindow) {
+      attributes.attribute(GROUP_COMMIT_WINDOW).set(groupCommitWindow);
+      return this;
+   }
+
+   /**
+    * If true, data files that are not written to anymore are mapped into memory and entries are read from the page
+    * cache without a system call. The mapped files count against the virtual address space of the process.
+    */
+   public SoftIndexFileStoreConfigurationBuilder memoryMappedReads(boolean memoryMappedReads) {
+      attributes.attribute(MEMORY_MAPPED_READS).set(memoryMappedReads);
+      return this;
+   }
+
    public SoftIndexFileStoreConfigurationBuilder openFilesLimit(int openFilesLimit) {
       attributes.attribute(OPEN_FILES_LIMIT).set(openFilesLimit);
       return this;
@@ -73,6 +97,14 @@ public SoftIndexFileStoreConfigurationBuilder compactionThreshold(double compact
       return this;
    }
 
+   @Override
+   protected void validate(boolean skipClassChecks) {
+      super.validate(skipClassChecks);
+      long groupCommitWindow = attributes.attribute(GROUP_COMMIT_WINDOW).get();
+      if (groupCommitWindow < 0)
+         throw log.invalidGroupCommitWindow(groupCommitWindow);
+   }
+
    @Override
    public SoftIndexFileStoreConfiguration create() {
       return new SoftIndexFileStoreConfiguration(attributes.protect(),
@@ -0,0 +1,107 @@
+package org.infinispan.persistence.sifs;
+
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the low level soft-index file store tests with synchronous writes committed in groups.
+ *
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "persistence.SoftIndexFileStoreGroupCommitTest")
+public class SoftIndexFileStoreGroupCommitTest extends SoftIndexFileStoreTest {
+
+   {
+      syncWrites = true;
+      groupCommitWindow = 2;
+   }
+
+   public void testWaitForElementKeepsInterrupt() {
+      SyncProcessingQueue<Object> queue = new SyncProcessingQueue<>();
+      Thread.currentThread().interrupt();
+      try {
+         queue.waitForElement(TimeUnit.SECONDS.toNanos(10));
+         assertTrue(Thread.currentThread().isInterrupted());
+      } finally {
+         Thread.interrupted();
+      }
+   }
+
+   public void testConcurrentWritesShareForce() throws Exception {
+      int writers = 8;
+      List<FileChannel> channels = new CopyOnWriteArrayList<>();
+      FileProvider fileProvider = new FileProvider(tmpDirectory + File.separator + "group-commit", 10) {
+         @Override
+         public Log getFileForLog() throws IOException {
+            Log log = super.getFileForLog();
+            FileChannel channel = spy(log.fileChannel);
+            channels.add(channel);
+            return new Log(log.fileId, channel);
+         }
+      };
+      SyncProcessingQueue<LogRequest> queue = new SyncProcessingQueue<>();
+      // The window is long enough for all the writers to join the group of the first one
+      LogAppender appender = new LogAppender(queue, new LinkedBlockingQueue<>(), new TemporaryTable(writers), null,
+            fileProvider, true, Integer.MAX_VALUE, 2000);
+      try {
+         // Wait for the appender to open the log file, so that the writers don't all queue up in the meantime
+         queue.pushAndWait(LogRequest.storeRequest(new MarshalledEntryImpl<>("first", "v", null, getMarshaller())));
+         assertEquals(1, channels.size());
+         clearInvocations(channels.get(0));
+
+         CyclicBarrier barrier = new CyclicBarrier(writers);
+         List<Future<Void>> futures = new ArrayList<>(writers);
+         for (int i = 0; i < writers; i++) {
+            String key = "k" + i;
+            long delay = i * 25;
+            futures.add(fork(() -> {
+               LogRequest request = LogRequest.storeRequest(new MarshalledEntryImpl<>(key, "v", null, getMarshaller()));
+               barrier.await(10, TimeUnit.SECONDS);
+               // Without the window, the writes arriving one after the other would each be forced on their own
+               Thread.sleep(delay);
+               queue.pushAndWait(request);
+               return null;
+            }));
+         }
+         for (Future<Void> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+         }
+
+         assertEquals(1, channels.size());
+         verify(channels.get(0), times(1)).force(false);
+      } finally {
+         appender.stopOperations();
+         for (FileChannel channel : channels) {
+            channel.close();
+         }
+         fileProvider.stop();
+      }
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testInvalidGroupCommitWindow() {
+      new ConfigurationBuilder().persistence().addStore(SoftIndexFileStoreConfigurationBuilder.class)
+            .groupCommitWindow(-1).validate();
+   }
+}
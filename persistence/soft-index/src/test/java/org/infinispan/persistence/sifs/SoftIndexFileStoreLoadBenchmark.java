@@ -0,0 +1,102 @@
+package org.infinispan.persistence.sifs;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.marshall.TestObjectStreamMarshaller;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.DefaultTimeService;
+import org.infinispan.util.PersistenceMockUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Measures the latency of loads from closed data files, reading them through the file channel and through memory
+ * mappings. Results are logged at info level.
+ *
+ * @since 9.2
+ */
+@Test(groups = "profiling", testName = "persistence.SoftIndexFileStoreLoadBenchmark")
+public class SoftIndexFileStoreLoadBenchmark extends AbstractInfinispanTest {
+   private static final int NUM_KEYS = 100_000;
+   private static final int VALUE_SIZE = 256;
+   private static final int WARMUP_LOADS = 200_000;
+   private static final int MEASURED_LOADS = 1_000_000;
+
+   private String tmpDirectory;
+   private TestObjectStreamMarshaller marshaller;
+
+   @BeforeMethod(alwaysRun = true)
+   public void setUp() {
+      tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+      Util.recursiveFileRemove(tmpDirectory);
+      marshaller = new TestObjectStreamMarshaller();
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      marshaller.stop();
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   public void testChannelReads() {
+      benchmark(false);
+   }
+
+   public void testMemoryMappedReads() {
+      benchmark(true);
+   }
+
+   private void benchmark(boolean memoryMappedReads) {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.persistence()
+            .addStore(SoftIndexFileStoreConfigurationBuilder.class)
+               .indexLocation(tmpDirectory).dataLocation(tmpDirectory + "/data")
+               .memoryMappedReads(memoryMappedReads);
+      SoftIndexFileStore store = new SoftIndexFileStore();
+      store.init(PersistenceMockUtil.createContext(getClass().getSimpleName(), builder.build(), marshaller, new DefaultTimeService()));
+      store.start();
+      try {
+         char[] value = new char[VALUE_SIZE];
+         Arrays.fill(value, 'v');
+         for (int i = 0; i < NUM_KEYS; ++i) {
+            store.write(new MarshalledEntryImpl<>("key" + i, new String(value), null, marshaller));
+         }
+         // Force a new log file, so that all the entries are in closed files
+         store.stop();
+         store.start();
+
+         ThreadLocalRandom random = ThreadLocalRandom.current();
+         for (int i = 0; i < WARMUP_LOADS; ++i) {
+            store.load("key" + random.nextInt(NUM_KEYS));
+         }
+         long[] latencies = new long[MEASURED_LOADS];
+         for (int i = 0; i < MEASURED_LOADS; ++i) {
+            Object key = "key" + random.nextInt(NUM_KEYS);
+            long start = System.nanoTime();
+            store.load(key);
+            latencies[i] = System.nanoTime() - start;
+         }
+         Arrays.sort(latencies);
+         long total = 0;
+         for (long latency : latencies) {
+            total += latency;
+         }
+         log.infof("Loads with memoryMappedReads=%s: average %d ns, median %d ns, 99th percentile %d ns, 99.9th percentile %d ns, throughput %d loads/s",
+               memoryMappedReads, total / MEASURED_LOADS, latencies[MEASURED_LOADS / 2],
+               latencies[MEASURED_LOADS * 99 / 100], latencies[MEASURED_LOADS * 999 / 1000],
+               MEASURED_LOADS * TimeUnit.SECONDS.toNanos(1) / total);
+      } finally {
+         store.clear();
+         store.stop();
+      }
+   }
+}
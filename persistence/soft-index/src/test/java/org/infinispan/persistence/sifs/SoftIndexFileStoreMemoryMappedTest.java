@@ -0,0 +1,35 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.testng.annotations.Test;
+
+/**
+ * Runs the low level soft-index file store tests reading the data files through memory mappings.
+ *
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "persistence.SoftIndexFileStoreMemoryMappedTest")
+public class SoftIndexFileStoreMemoryMappedTest extends SoftIndexFileStoreTest {
+
+   {
+      memoryMappedReads = true;
+   }
+
+   public void testUnmap() throws Exception {
+      File file = new File(tmpDirectory, "mapped");
+      file.getParentFile().mkdirs();
+      try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+         raf.setLength(4096);
+         MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, 4096);
+         // the mapping is released explicitly on the JDKs the store runs on
+         assertTrue(MappedBuffers.unmap(buffer));
+      }
+      assertTrue(file.delete());
+   }
+}
@@ -8,9 +8,13 @@
 
 import java.io.File;
 
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.SmallIntSet;
 import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.impl.HashFunctionPartitioner;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.persistence.BaseStoreTest;
@@ -37,6 +41,9 @@ public class SoftIndexFileStoreTest extends BaseStoreTest {
    String tmpDirectory;
    boolean startIndex = true;
    boolean keepIndex = false;
+   boolean memoryMappedReads = false;
+   boolean syncWrites = false;
+   long groupCommitWindow = 0;
 
    @BeforeClass
    protected void setUpTempDir() {
@@ -87,7 +94,10 @@ public void stop() {
       builder.persistence()
                .addStore(SoftIndexFileStoreConfigurationBuilder.class)
                   .indexLocation(tmpDirectory).dataLocation(tmpDirectory + "/data")
-                  .maxFileSize(1000);
+                  .maxFileSize(1000)
+                  .memoryMappedReads(memoryMappedReads)
+                  .syncWrites(syncWrites)
+                  .groupCommitWindow(groupCommitWindow);
 
       store.init(createContext(builder.build()));
       return store;
@@ -119,6 +129,43 @@ public void testLoadUnload() {
       }
    }
 
+   public void testSizeOfSegments() {
+      Configuration configuration = TestCacheManagerFactory.getDefaultCacheConfiguration(false).build();
+      HashFunctionPartitioner partitioner = new HashFunctionPartitioner();
+      partitioner.init(configuration.clustering().hash());
+      int numSegments = configuration.clustering().hash().numSegments();
+      IntSet evenSegments = new SmallIntSet(numSegments);
+      for (int i = 0; i < numSegments; i += 2) {
+         evenSegments.set(i);
+      }
+      int numEntries = 1000;
+      int inEvenSegments = 0;
+      for (int i = 0; i < numEntries; ++i) {
+         store.write(marshalledEntry(internalCacheEntry(key(i), "value" + i, -1)));
+         if (evenSegments.contains(partitioner.getSegment(key(i)))) {
+            inEvenSegments++;
+         }
+      }
+      for (int i = 0; i < numEntries; i += 10) {
+         store.delete(key(i));
+         if (evenSegments.contains(partitioner.getSegment(key(i)))) {
+            inEvenSegments--;
+         }
+      }
+      assertEquals(inEvenSegments, store.size(evenSegments));
+      assertEquals(numEntries - numEntries / 10, store.size());
+
+      // the sizes are persisted with the index
+      keepIndex = true;
+      try {
+         store.stop();
+         store.start();
+         assertEquals(inEvenSegments, store.size(evenSegments));
+      } finally {
+         keepIndex = false;
+      }
+   }
+
    // test for ISPN-5658
    public void testStopStartAndMultipleWrites() {
       MarshalledEntry<Object, Object> entry1 = marshalledEntry(internalCacheEntry("k1", "v1", -1));
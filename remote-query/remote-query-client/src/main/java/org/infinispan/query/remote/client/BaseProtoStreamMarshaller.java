@@ -56,4 +56,9 @@ protected ByteBuffer objectToBuffer(Object o, int estimatedSize) throws IOExcept
       byte[] bytes = ProtobufUtil.toWrappedByteArray(getSerializationContext(), o);
       return new ByteBufferImpl(bytes, 0, bytes.length);
    }
+
+   @Override
+   public boolean readsSlices() {
+      return true;
+   }
 }
@@ -96,4 +96,9 @@ public void finishObjectOutput(ObjectOutput oo) {
    public void objectToObjectStream(Object obj, ObjectOutput out) throws IOException {
       throw new UnsupportedOperationException();
    }
+
+   @Override
+   public boolean readsSlices() {
+      return true;
+   }
 }